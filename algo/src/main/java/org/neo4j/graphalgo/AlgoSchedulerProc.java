@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Procedure;
+
+import java.util.stream.Stream;
+
+/**
+ * Exposes the state of the {@link AlgoScheduler} that admits the algorithm procedures.
+ */
+public final class AlgoSchedulerProc {
+
+    @Procedure("algo.scheduler.status")
+    @Description("CALL algo.scheduler.status() YIELD runningJobs, queuedJobs, usedConcurrency, maxConcurrency, " +
+            "usedBytes, maxBytes, admittedJobs, degradedJobs, totalWaitMillis, maxWaitMillis, oldestQueuedMillis - " +
+            "returns the jobs and resources of the algorithm scheduler")
+    public Stream<AlgoScheduler.Status> status() {
+        return Stream.of(AlgoScheduler.DEFAULT.status());
+    }
+
+    /**
+     * Waits for the {@link AlgoScheduler#DEFAULT default scheduler} to admit the algorithm and
+     * applies the granted concurrency to the configuration and the loader.
+     *
+     * @param algorithm the name of the algorithm in the {@link MemoryEstimationProc}, algorithms
+     *                  without an estimation are admitted with the estimation of their graph
+     */
+    public static AlgoScheduler.Job admit(
+            String procedure,
+            String algorithm,
+            GraphLoader loader,
+            Class<? extends GraphFactory> graphImpl,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker,
+            TerminationFlag terminationFlag,
+            Log log) {
+        final int concurrency = configuration.getConcurrency();
+        final long estimatedBytes = MemoryEstimationProc.estimateMaxBytes(algorithm, loader, graphImpl, concurrency);
+        final AlgoScheduler.Job job = AlgoScheduler.DEFAULT.admit(
+                procedure,
+                concurrency,
+                estimatedBytes,
+                tracker,
+                terminationFlag);
+        if (job.concurrency() < concurrency || job.waitMillis() > 0L) {
+            log.info("%s: admitted after %d ms with a concurrency of %d (requested %d)",
+                    procedure, job.waitMillis(), job.concurrency(), concurrency);
+        }
+        configuration.overrideConcurrency(job.concurrency());
+        loader.withConcurrency(job.concurrency());
+        return job;
+    }
+}
@@ -22,6 +22,7 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
@@ -67,7 +68,7 @@ public class AllShortestPathsProc {
 
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
         AllocationTracker tracker = AllocationTracker.create();
-        Graph graph = new GraphLoader(api, Pools.DEFAULT)
+        GraphLoader graphLoader = new GraphLoader(api, Pools.DEFAULT)
                 .withOptionalLabel(configuration.getNodeLabelOrQuery())
                 .withOptionalRelationshipType(configuration.getRelationshipOrQuery())
                 .withOptionalRelationshipWeightsFromProperty(
@@ -75,8 +76,31 @@ public class AllShortestPathsProc {
                         configuration.getWeightPropertyDefaultValue(1.0))
                 .withDirection(Direction.OUTGOING)
                 .withConcurrency(configuration.getConcurrency())
-                .withAllocationTracker(tracker)
-                .load(configuration.getGraphImpl());
+                .withAllocationTracker(tracker);
+        // the paths are computed while they are streamed, the job is done when the stream is closed
+        AlgoScheduler.Job job = AlgoSchedulerProc.admit(
+                "algo.allShortestPaths.stream",
+                "allshortestpaths",
+                graphLoader,
+                configuration.getGraphImpl(),
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
+        try {
+            return allShortestPaths(propertyName, configuration, tracker, graphLoader).onClose(job::close);
+        } catch (RuntimeException | Error e) {
+            job.close();
+            throw e;
+        }
+    }
+
+    private Stream<AllShortestPaths.Result> allShortestPaths(
+            String propertyName,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker,
+            GraphLoader graphLoader) {
+        Graph graph = graphLoader.load(configuration.getGraphImpl());
 
         final MSBFSASPAlgorithm<?> algo;
 
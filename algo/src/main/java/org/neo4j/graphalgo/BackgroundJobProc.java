@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.FileGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
+import org.neo4j.graphalgo.core.utils.AtomicDoubleArray;
+import org.neo4j.graphalgo.core.utils.BackgroundJob;
+import org.neo4j.graphalgo.core.utils.BackgroundJobs;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.dss.DisjointSetStruct;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.write.Exporter;
+import org.neo4j.graphalgo.impl.GraphUnionFind;
+import org.neo4j.graphalgo.impl.PageRankAlgorithm;
+import org.neo4j.graphalgo.impl.PageRankResult;
+import org.neo4j.graphalgo.impl.betweenness.ParallelBetweennessCentrality;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Runs algorithms as background jobs. A job is submitted, runs outside of the
+ * submitting transaction, and its results are kept until the job is removed,
+ * so they can be streamed or written long after the algorithm finished.
+ */
+public final class BackgroundJobProc {
+
+    private static final List<String> ALGORITHMS = Collections.unmodifiableList(Arrays.asList(
+            "pagerank",
+            "betweenness",
+            "unionfind"));
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public Log log;
+
+    @Context
+    public KernelTransaction transaction;
+
+    @Procedure("algo.job.submit")
+    @Description("CALL algo.job.submit(algorithm:String, label:String, relationship:String, " +
+            "{iterations:20, dampingFactor:0.85, direction:'out', concurrency:4, graph:'heavy'}) " +
+            "YIELD jobId, algorithm, state - runs pagerank, betweenness or unionfind in the background")
+    public Stream<JobStatus> submit(
+            @Name(value = "algorithm") String algorithm,
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final String name = algorithm.toLowerCase(Locale.ENGLISH);
+        if (!ALGORITHMS.contains(name)) {
+            throw new IllegalArgumentException(String.format(
+                    "Algorithm '%s' can not run as a background job, available algorithms are %s",
+                    algorithm,
+                    ALGORITHMS));
+        }
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
+        if (configuration.isFileGraph()) {
+            // job results are written by node id, which would hit unrelated nodes of the database
+            throw new IllegalArgumentException(
+                    "The " + FileGraphFactory.TYPE + " graph can not run as a background job");
+        }
+        final GraphDatabaseAPI api = this.api;
+        final Log log = this.log;
+
+        BackgroundJob job = BackgroundJobs.DEFAULT.submit(
+                name,
+                log,
+                j -> run(api, log, name, label, relationship, configuration, j));
+        return Stream.of(new JobStatus(job));
+    }
+
+    @Procedure("algo.job.status")
+    @Description("CALL algo.job.status(jobId:long) YIELD jobId, algorithm, state, progress, runtimeMillis, nodes, error " +
+            "- reports the state of a background job, or of all jobs if no job id is given")
+    public Stream<JobStatus> status(@Name(value = "jobId", defaultValue = "-1") long jobId) {
+        if (jobId < 0L) {
+            return BackgroundJobs.DEFAULT.jobs().stream().map(JobStatus::new);
+        }
+        return Stream.of(new JobStatus(BackgroundJobs.DEFAULT.get(jobId)));
+    }
+
+    @Procedure("algo.job.stream")
+    @Description("CALL algo.job.stream(jobId:long) YIELD nodeId, value - streams the result of a finished background job")
+    public Stream<JobResult> stream(@Name(value = "jobId") long jobId) {
+        final BackgroundJob.Result result = BackgroundJobs.DEFAULT.get(jobId).openResult();
+        return LongStream.range(0L, result.nodeCount())
+                .mapToObj(i -> new JobResult(result.nodeId(i), result.value(i)))
+                .onClose(result::close);
+    }
+
+    @Procedure(value = "algo.job.write", mode = Mode.WRITE)
+    @Description("CALL algo.job.write(jobId:long, writeProperty:String, {concurrency:4}) YIELD nodes, writeProperty, writeMillis " +
+            "- writes the result of a finished background job")
+    public Stream<WriteResult> write(
+            @Name(value = "jobId") long jobId,
+            @Name(value = "writeProperty") String writeProperty,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
+        final ProgressTimer timer = ProgressTimer.start();
+        final long nodeCount;
+        try (BackgroundJob.Result result = BackgroundJobs.DEFAULT.get(jobId).openResult();
+             ProgressTimer ignored = timer) {
+            Exporter.of(result.idMapping(), api)
+                    .withLog(log)
+                    .parallel(Pools.DEFAULT, configuration.getConcurrency(), TerminationFlag.wrap(transaction))
+                    .build()
+                    .write(writeProperty, result.values(), DoubleArray.Translator.INSTANCE);
+            nodeCount = result.nodeCount();
+        }
+        return Stream.of(new WriteResult(nodeCount, writeProperty, timer.getDuration()));
+    }
+
+    @Procedure("algo.job.remove")
+    @Description("CALL algo.job.remove(jobId:long) YIELD jobId, algorithm, state " +
+            "- cancels a background job and frees its result")
+    public Stream<JobStatus> remove(@Name(value = "jobId") long jobId) {
+        return Stream.of(new JobStatus(BackgroundJobs.DEFAULT.remove(jobId)));
+    }
+
+    private static BackgroundJob.Result run(
+            GraphDatabaseAPI api,
+            Log log,
+            String algorithm,
+            String label,
+            String relationship,
+            ProcedureConfiguration configuration,
+            BackgroundJob job) {
+
+        final AllocationTracker tracker = AllocationTracker.create();
+        final Direction direction = "betweenness".equals(algorithm)
+                ? configuration.getDirection(Direction.OUTGOING)
+                : Direction.OUTGOING;
+        final Class<? extends GraphFactory> graphImpl = configuration.getGraphImpl();
+        final GraphLoader graphLoader = new GraphLoader(api, Pools.DEFAULT)
+                .init(log, label, relationship, configuration)
+                .withAllocationTracker(tracker)
+                .withoutNodeProperties()
+                .withoutRelationshipWeights()
+                .withDirection(direction);
+
+        try (AlgoScheduler.Job ignored = AlgoSchedulerProc.admit(
+                "algo.job.submit",
+                algorithm,
+                graphLoader,
+                graphImpl,
+                configuration,
+                tracker,
+                job,
+                log)) {
+            final Graph graph = graphLoader.load(graphImpl);
+            job.assertRunning();
+            final int concurrency = configuration.getConcurrency();
+            try {
+                if (!"pagerank".equals(algorithm) && graph.nodeCount() > Integer.MAX_VALUE) {
+                    // betweenness and unionFind index their results by int node ids
+                    throw new IllegalArgumentException(String.format(
+                            "Algorithm '%s' supports at most %d nodes, but the graph has %d nodes",
+                            algorithm,
+                            Integer.MAX_VALUE,
+                            graph.nodeCount()));
+                }
+                switch (algorithm) {
+                    case "pagerank":
+                        return pageRank(graph, configuration, concurrency, tracker, job);
+                    case "betweenness":
+                        return betweenness(graph, direction, concurrency, tracker, job);
+                    case "unionfind":
+                        return unionFind(graph, tracker, job);
+                    default:
+                        throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+                }
+            } finally {
+                graph.release();
+            }
+        }
+    }
+
+    private static BackgroundJob.Result pageRank(
+            Graph graph,
+            ProcedureConfiguration configuration,
+            int concurrency,
+            AllocationTracker tracker,
+            BackgroundJob job) {
+        final PageRankAlgorithm algo = PageRankAlgorithm.of(
+                tracker,
+                graph,
+                configuration.get(PageRankProc.CONFIG_DAMPING, PageRankProc.DEFAULT_DAMPING),
+                Pools.DEFAULT,
+                concurrency,
+                configuration.getBatchSize());
+        algo.algorithm()
+                .withProgressLogger(job)
+                .withTerminationFlag(job);
+        algo.compute(configuration.getIterations(PageRankProc.DEFAULT_ITERATIONS));
+        final PageRankResult scores = algo.result();
+        final BackgroundJob.Result result = BackgroundJob.Result.of(graph, scores::score, tracker);
+        algo.algorithm().release();
+        return result;
+    }
+
+    private static BackgroundJob.Result betweenness(
+            Graph graph,
+            Direction direction,
+            int concurrency,
+            AllocationTracker tracker,
+            BackgroundJob job) {
+        final ParallelBetweennessCentrality algo =
+                new ParallelBetweennessCentrality(graph, Pools.DEFAULT, concurrency)
+                        .withProgressLogger(job)
+                        .withTerminationFlag(job)
+                        .withDirection(direction)
+                        .compute();
+        job.assertRunning();
+        final AtomicDoubleArray centrality = algo.getCentrality();
+        final BackgroundJob.Result result = BackgroundJob.Result.of(graph, i -> centrality.get((int) i), tracker);
+        algo.release();
+        return result;
+    }
+
+    private static BackgroundJob.Result unionFind(
+            Graph graph,
+            AllocationTracker tracker,
+            BackgroundJob job) {
+        final GraphUnionFind algo = new GraphUnionFind(graph)
+                .withProgressLogger(job)
+                .withTerminationFlag(job);
+        final DisjointSetStruct dss = algo.compute();
+        final BackgroundJob.Result result = BackgroundJob.Result.of(graph, i -> dss.find((int) i), tracker);
+        algo.release();
+        return result;
+    }
+
+    public static final class JobStatus {
+        public final long jobId;
+        public final String algorithm;
+        public final String state;
+        public final double progress;
+        public final long runtimeMillis;
+        public final long nodes;
+        public final String error;
+
+        private JobStatus(BackgroundJob job) {
+            this.jobId = job.id();
+            this.algorithm = job.algorithm();
+            this.state = job.state().name();
+            this.progress = job.progress();
+            this.runtimeMillis = job.runtimeMillis();
+            this.nodes = job.nodeCount();
+            this.error = job.error();
+        }
+    }
+
+    public static final class JobResult {
+        public final long nodeId;
+        public final double value;
+
+        private JobResult(long nodeId, double value) {
+            this.nodeId = nodeId;
+            this.value = value;
+        }
+    }
+
+    public static final class WriteResult {
+        public final long nodes;
+        public final String writeProperty;
+        public final long writeMillis;
+
+        private WriteResult(long nodes, String writeProperty, long writeMillis) {
+            this.nodes = nodes;
+            this.writeProperty = writeProperty;
+            this.writeMillis = writeMillis;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.utils.*;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.Translators;
 import org.neo4j.graphalgo.impl.betweenness.*;
@@ -33,6 +34,7 @@ import org.neo4j.logging.Log;
 import org.neo4j.procedure.*;
 
 import java.util.Map;
+import java.util.function.LongToDoubleFunction;
 import java.util.stream.Stream;
 
 /**
@@ -66,7 +68,7 @@ public class BetweennessCentralityProc {
      *                      or use log10(nodeCount) / e^2 as default
      */
     @Procedure(value = "algo.betweenness.sampled.stream")
-    @Description("CALL algo.betweenness.sampled.stream(label:String, relationship:String, {strategy:{'random', 'degree'}, probability:double, maxDepth:int, direction:String, concurrency:int}) YIELD nodeId, centrality - yields centrality for each node")
+    @Description("CALL algo.betweenness.sampled.stream(label:String, relationship:String, {strategy:{'random', 'degree'}, probability:double, maxDepth:int, direction:String, concurrency:int, limit:int}) YIELD nodeId, centrality - yields centrality for each node, or for the top nodes if a limit is given")
     public Stream<BetweennessCentrality.Result> betweennessRABrandes(
             @Name(value = "label", defaultValue = "") String label,
             @Name(value = "relationship", defaultValue = "") String relationship,
@@ -74,23 +76,31 @@ public class BetweennessCentralityProc {
 
         final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
+        final GraphLoader graphLoader = new GraphLoader(api, Pools.DEFAULT)
                 .init(log, label, relationship, configuration)
                 .withoutNodeProperties()
-                .withDirection(configuration.getDirection(Direction.OUTGOING))
-                .load(configuration.getGraphImpl());
+                .withDirection(configuration.getDirection(Direction.OUTGOING));
 
-        final RABrandesBetweennessCentrality algo =
-                new RABrandesBetweennessCentrality(graph, Pools.DEFAULT, configuration.getConcurrency(), strategy(configuration, graph))
-                        .withTerminationFlag(TerminationFlag.wrap(transaction))
-                        .withProgressLogger(ProgressLogger.wrap(log, "Randomized Approximate Brandes: BetweennessCentrality(parallel)"))
-                        .withDirection(configuration.getDirection(Direction.OUTGOING))
-                        .withMaxDepth(configuration.getNumber("maxDepth", Integer.MAX_VALUE).intValue())
-                        .compute();
+        try (AlgoScheduler.Job job = admit("algo.betweenness.sampled.stream", graphLoader, configuration)) {
+            final Graph graph = graphLoader.load(configuration.getGraphImpl());
 
-        graph.release();
+            final RABrandesBetweennessCentrality algo =
+                    new RABrandesBetweennessCentrality(graph, Pools.DEFAULT, configuration.getConcurrency(), strategy(configuration, graph))
+                            .withTerminationFlag(TerminationFlag.wrap(transaction))
+                            .withProgressLogger(ProgressLogger.wrap(log, "Randomized Approximate Brandes: BetweennessCentrality(parallel)"))
+                            .withDirection(configuration.getDirection(Direction.OUTGOING))
+                            .withMaxDepth(configuration.getNumber("maxDepth", Integer.MAX_VALUE).intValue())
+                            .compute();
 
-        return algo.resultStream();
+            graph.release();
+
+            final int limit = configuration.getLimit();
+            if (limit >= 0) {
+                final AtomicDoubleArray centrality = algo.getCentrality();
+                return topK(graph, limit, nodeId -> centrality.get((int) nodeId), configuration);
+            }
+            return algo.resultStream();
+        }
     }
 
     /**
@@ -98,8 +108,8 @@ public class BetweennessCentralityProc {
      *
      */
     @Procedure(value = "algo.betweenness.stream")
-    @Description("CALL algo.betweenness.stream(label:String, relationship:String, {direction:'out', concurrency :4})" +
-                 "YIELD nodeId, centrality - yields centrality for each node")
+    @Description("CALL algo.betweenness.stream(label:String, relationship:String, {direction:'out', concurrency:4, limit:100})" +
+                 "YIELD nodeId, centrality - yields centrality for each node, or for the top nodes if a limit is given")
     public Stream<BetweennessCentrality.Result> betweennessStream(
             @Name(value = "label", defaultValue = "") String label,
             @Name(value = "relationship", defaultValue = "") String relationship,
@@ -107,29 +117,41 @@ public class BetweennessCentralityProc {
 
         final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
+        final GraphLoader graphLoader = new GraphLoader(api, Pools.DEFAULT)
                 .init(log, label, relationship, configuration)
                 .withoutNodeProperties()
-                .withDirection(configuration.getDirection(DEFAULT_DIRECTION))
-                .load(configuration.getGraphImpl());
-
-        final int concurrency = configuration.getConcurrency();
-        if (concurrency > 1) {
-            final ParallelBetweennessCentrality algo =
-                    new ParallelBetweennessCentrality(graph, Pools.DEFAULT, concurrency)
-                            .withProgressLogger(ProgressLogger.wrap(log, "BetweennessCentrality"))
-                            .withTerminationFlag(TerminationFlag.wrap(transaction))
-                            .withDirection(configuration.getDirection(DEFAULT_DIRECTION))
-                            .compute();
+                .withDirection(configuration.getDirection(DEFAULT_DIRECTION));
+
+        try (AlgoScheduler.Job job = admit("algo.betweenness.stream", graphLoader, configuration)) {
+            final Graph graph = graphLoader.load(configuration.getGraphImpl());
+
+            final int concurrency = configuration.getConcurrency();
+            final int limit = configuration.getLimit();
+            if (concurrency > 1) {
+                final ParallelBetweennessCentrality algo =
+                        new ParallelBetweennessCentrality(graph, Pools.DEFAULT, concurrency)
+                                .withProgressLogger(ProgressLogger.wrap(log, "BetweennessCentrality"))
+                                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                                .withDirection(configuration.getDirection(DEFAULT_DIRECTION))
+                                .compute();
+                graph.release();
+                if (limit >= 0) {
+                    final AtomicDoubleArray centrality = algo.getCentrality();
+                    return topK(graph, limit, nodeId -> centrality.get((int) nodeId), configuration);
+                }
+                return algo.resultStream();
+            }
+
+            final BetweennessCentrality compute = new BetweennessCentrality(graph)
+                    .withDirection(configuration.getDirection(DEFAULT_DIRECTION))
+                    .compute();
             graph.release();
-            return algo.resultStream();
+            if (limit >= 0) {
+                final double[] centrality = compute.getCentrality();
+                return topK(graph, limit, nodeId -> centrality[(int) nodeId], configuration);
+            }
+            return compute.resultStream();
         }
-
-        final BetweennessCentrality compute = new BetweennessCentrality(graph)
-                .withDirection(configuration.getDirection(DEFAULT_DIRECTION))
-                .compute();
-        graph.release();
-        return compute.resultStream();
     }
 
     @Procedure(value = "algo.betweenness", mode = Mode.WRITE)
@@ -142,13 +164,49 @@ public class BetweennessCentralityProc {
 
         final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
-        if (configuration.getConcurrency() > 1) {
-            return computeBetweennessParallel(label, relationship, configuration);
-        } else {
-            return computeBetweenness(label, relationship, configuration);
+        final GraphLoader estimationLoader = new GraphLoader(api, Pools.DEFAULT)
+                .init(log, label, relationship, configuration)
+                .withoutNodeProperties()
+                .withDirection(configuration.getDirection(Direction.OUTGOING));
+
+        try (AlgoScheduler.Job job = admit("algo.betweenness", estimationLoader, configuration)) {
+            if (configuration.getConcurrency() > 1) {
+                return computeBetweennessParallel(label, relationship, configuration);
+            } else {
+                return computeBetweenness(label, relationship, configuration);
+            }
         }
     }
 
+    private Stream<BetweennessCentrality.Result> topK(
+            Graph graph,
+            int limit,
+            LongToDoubleFunction centrality,
+            ProcedureConfiguration configuration) {
+        return TopK.stream(
+                graph,
+                limit,
+                centrality,
+                configuration.getConcurrency(),
+                Pools.DEFAULT,
+                BetweennessCentrality.Result::new);
+    }
+
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader graphLoader,
+            ProcedureConfiguration configuration) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "betweenness",
+                graphLoader,
+                configuration.getGraphImpl(),
+                configuration,
+                AllocationTracker.EMPTY,
+                TerminationFlag.wrap(transaction),
+                log);
+    }
+
 
     /**
      * Randomized Approximate Brandes Algorithm
@@ -172,47 +230,48 @@ public class BetweennessCentralityProc {
         final BetweennessCentralityProcResult.Builder builder =
                 BetweennessCentralityProcResult.builder();
 
-        Graph graph;
-        try (ProgressTimer timer = builder.timeLoad()) {
-            graph = new GraphLoader(api, Pools.DEFAULT)
-                    .init(log, label, relationship, configuration)
-                    .withOptionalLabel(label)
-                    .withOptionalRelationshipType(relationship)
-                    .withoutNodeProperties()
-                    .withDirection(configuration.getDirection(Direction.OUTGOING))
-                    .load(configuration.getGraphImpl());
-        }
-
-        final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-        final RABrandesBetweennessCentrality.SelectionStrategy strategy = strategy(configuration, graph);
-        final RABrandesBetweennessCentrality bc =
-                new RABrandesBetweennessCentrality(graph, Pools.DEFAULT, configuration.getConcurrency(), strategy)
-                        .withProgressLogger(ProgressLogger.wrap(log, "Randomized Approximate Brandes: BetweennessCentrality(parallel)"))
-                        .withTerminationFlag(terminationFlag)
-                        .withDirection(configuration.getDirection(Direction.OUTGOING))
-                        .withMaxDepth(configuration.getNumber("maxDepth", Integer.MAX_VALUE).intValue());
+        final GraphLoader graphLoader = new GraphLoader(api, Pools.DEFAULT)
+                .init(log, label, relationship, configuration)
+                .withoutNodeProperties()
+                .withDirection(configuration.getDirection(Direction.OUTGOING));
 
-        builder.timeEval(() -> {
-            bc.compute();
-            if (configuration.isStatsFlag()) {
-                computeStats(builder, bc.getCentrality());
-                builder.withNodeCount(strategy.size());
+        try (AlgoScheduler.Job job = admit("algo.betweenness.sampled", graphLoader, configuration)) {
+            Graph graph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = graphLoader.load(configuration.getGraphImpl());
             }
-        });
 
-        graph.release();
-        if (configuration.isWriteFlag()) {
-            builder.timeWrite(() -> {
-                final AtomicDoubleArray centrality = bc.getCentrality();
-                final String writeProperty = configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY);
-                Exporter.of(api, graph)
-                        .withLog(log)
-                        .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
-                        .build()
-                        .write(writeProperty, centrality, Translators.ATOMIC_DOUBLE_ARRAY_TRANSLATOR);
+            final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
+            final RABrandesBetweennessCentrality.SelectionStrategy strategy = strategy(configuration, graph);
+            final RABrandesBetweennessCentrality bc =
+                    new RABrandesBetweennessCentrality(graph, Pools.DEFAULT, configuration.getConcurrency(), strategy)
+                            .withProgressLogger(ProgressLogger.wrap(log, "Randomized Approximate Brandes: BetweennessCentrality(parallel)"))
+                            .withTerminationFlag(terminationFlag)
+                            .withDirection(configuration.getDirection(Direction.OUTGOING))
+                            .withMaxDepth(configuration.getNumber("maxDepth", Integer.MAX_VALUE).intValue());
+
+            builder.timeEval(() -> {
+                bc.compute();
+                if (configuration.isStatsFlag()) {
+                    computeStats(builder, bc.getCentrality());
+                    builder.withNodeCount(strategy.size());
+                }
             });
+
+            graph.release();
+            if (configuration.isWriteFlag()) {
+                builder.timeWrite(() -> {
+                    final AtomicDoubleArray centrality = bc.getCentrality();
+                    final String writeProperty = configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY);
+                    Exporter.of(api, graph)
+                            .withLog(log)
+                            .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
+                            .build()
+                            .write(writeProperty, centrality, Translators.ATOMIC_DOUBLE_ARRAY_TRANSLATOR);
+                });
+            }
+            bc.release();
         }
-        bc.release();
 
         return Stream.of(builder.build());
     }
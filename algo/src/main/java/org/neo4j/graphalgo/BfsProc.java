@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.traverse.HugeDirectionOptimizingBFS;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Breadth first search from a single start node using the
+ * direction-optimizing {@link HugeDirectionOptimizingBFS}.
+ */
+public final class BfsProc {
+
+    public static final String CONFIG_ALPHA = "alpha";
+    public static final String CONFIG_BETA = "beta";
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public Log log;
+
+    @Context
+    public KernelTransaction transaction;
+
+    @Procedure("algo.bfs.stream")
+    @Description("CALL algo.bfs.stream(label:String, relationship:String, startNodeId:long, " +
+            "{direction:'OUTGOING', concurrency:4, alpha:14, beta:24}) " +
+            "YIELD nodeId, distance, parentId - yields the hop distance and the discovering parent of every reached node")
+    public Stream<BfsResult> bfsStream(
+            @Name(value = "label") String label,
+            @Name(value = "relationship") String relationship,
+            @Name(value = "startNodeId") long startNodeId,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+
+        final Direction direction = configuration.getDirection(Direction.OUTGOING);
+        final AllocationTracker tracker = AllocationTracker.create();
+
+        // both directions are loaded so that bottom-up steps can follow the reverse relationships
+        final GraphLoader graphLoader = new GraphLoader(api, Pools.DEFAULT)
+                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
+                .withoutNodeProperties()
+                .withConcurrency(configuration.getConcurrency())
+                .withDirection(Direction.BOTH)
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .withAllocationTracker(tracker);
+
+        final HugeGraph graph;
+        final HugeDirectionOptimizingBFS bfs;
+        try (AlgoScheduler.Job job = AlgoSchedulerProc.admit(
+                "algo.bfs.stream",
+                "bfs",
+                graphLoader,
+                HugeGraphFactory.class,
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log)) {
+            graph = (HugeGraph) graphLoader.load(HugeGraphFactory.class);
+
+            final long startNode = graph.toHugeMappedNodeId(startNodeId);
+            if (startNode == -1L) {
+                graph.release();
+                return Stream.empty();
+            }
+
+            bfs = new HugeDirectionOptimizingBFS(
+                    graph,
+                    direction,
+                    true,
+                    job.concurrency(),
+                    Pools.DEFAULT,
+                    tracker)
+                    .withAlpha(configuration.getInt(CONFIG_ALPHA, HugeDirectionOptimizingBFS.DEFAULT_ALPHA))
+                    .withBeta(configuration.getInt(CONFIG_BETA, HugeDirectionOptimizingBFS.DEFAULT_BETA))
+                    .withProgressLogger(ProgressLogger.wrap(log, "BFS"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .compute(startNode);
+        }
+
+        log.info("BFS: visited %d nodes in %d levels (%d top-down, %d bottom-up), inspected %d relationships",
+                bfs.visitedNodes(),
+                bfs.levels(),
+                bfs.topDownSteps(),
+                bfs.bottomUpSteps(),
+                bfs.edgeInspections());
+
+        graph.release();
+
+        return LongStream.range(0L, graph.nodeCount())
+                .filter(bfs::visited)
+                .mapToObj(nodeId -> new BfsResult(
+                        graph.toOriginalNodeId(nodeId),
+                        bfs.distance(nodeId),
+                        graph.toOriginalNodeId(bfs.parent(nodeId))));
+    }
+
+    public static final class BfsResult {
+
+        public final long nodeId;
+        public final long distance;
+        public final long parentId;
+
+        public BfsResult(long nodeId, long distance, long parentId) {
+            this.nodeId = nodeId;
+            this.distance = distance;
+            this.parentId = parentId;
+        }
+    }
+}
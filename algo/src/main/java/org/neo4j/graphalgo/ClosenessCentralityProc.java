@@ -19,16 +19,22 @@
 package org.neo4j.graphalgo;
 
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.TopK;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.impl.*;
+import org.neo4j.graphalgo.impl.hyperball.HyperBall;
+import org.neo4j.graphalgo.impl.hyperball.HyperBallCloseness;
 import org.neo4j.graphalgo.results.CentralityProcResult;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.KernelTransaction;
@@ -58,7 +64,7 @@ public class ClosenessCentralityProc {
     public KernelTransaction transaction;
 
     @Procedure(value = "algo.closeness.stream")
-    @Description("CALL algo.closeness.stream(label:String, relationship:String{concurrency:4}) YIELD nodeId, centrality - yields centrality for each node")
+    @Description("CALL algo.closeness.stream(label:String, relationship:String{concurrency:4, approximate:false, precision:6}) YIELD nodeId, centrality - yields centrality for each node, or for the top nodes if a limit is given")
     public Stream<MSClosenessCentrality.Result> closenessStream(
             @Name(value = "label", defaultValue = "") String label,
             @Name(value = "relationship", defaultValue = "") String relationship,
@@ -66,29 +72,84 @@ public class ClosenessCentralityProc {
 
         final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
         AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker);
 
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
+        try (AlgoScheduler.Job job = admit("algo.closeness.stream", loader, configuration, tracker)) {
+            final Graph graph = loader.load(graphImpl(configuration));
+
+            final MSBFSCCAlgorithm<?> algo = newAlgo(tracker, graph, configuration);
+            algo
+                    .withProgressLogger(ProgressLogger.wrap(log, "ClosenessCentrality(MultiSource)"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction));
+            algo.compute();
+            graph.release();
+            final int limit = configuration.getLimit();
+            if (limit >= 0) {
+                return TopK.stream(
+                        graph,
+                        limit,
+                        algo.centrality(),
+                        configuration.getConcurrency(),
+                        Pools.DEFAULT,
+                        MSClosenessCentrality.Result::new);
+            }
+            return algo.resultStream();
+        }
+    }
+
+    private GraphLoader graphLoader(
+            final String label,
+            final String relationship,
+            final ProcedureConfiguration configuration,
+            final AllocationTracker tracker) {
+        return new GraphLoader(api, Pools.DEFAULT)
                 .init(log, label, relationship, configuration)
                 .withoutNodeProperties()
-                .withDirection(Direction.OUTGOING)
                 .withAllocationTracker(tracker)
-                .load(configuration.getGraphImpl());
-
-        final MSBFSCCAlgorithm<?> algo = newAlgo(tracker, graph, configuration.getConcurrency());
-        algo
-                .withProgressLogger(ProgressLogger.wrap(log, "ClosenessCentrality(MultiSource)"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction));
-        algo.compute();
-        graph.release();
-        return algo.resultStream();
+                // HyperBall pulls the counters of the nodes that can reach a node
+                .withDirection(configuration.isApproximate() ? Direction.INCOMING : Direction.OUTGOING);
+    }
+
+    private static Class<? extends GraphFactory> graphImpl(final ProcedureConfiguration configuration) {
+        if (configuration.isApproximate()) {
+            return HugeGraphFactory.class;
+        }
+        return configuration.getGraphImpl();
+    }
+
+    private AlgoScheduler.Job admit(
+            final String procedure,
+            final GraphLoader loader,
+            final ProcedureConfiguration configuration,
+            final AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "closeness",
+                loader,
+                graphImpl(configuration),
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
     }
 
     private MSBFSCCAlgorithm<?> newAlgo(
             final AllocationTracker tracker,
             final Graph graph,
-            final int concurrency) {
+            final ProcedureConfiguration configuration) {
+        final int concurrency = configuration.getConcurrency();
         final MSBFSCCAlgorithm<?> algo;
-        if (graph instanceof HugeGraph) {
+        if (configuration.isApproximate()) {
+            HugeGraph hugeGraph = (HugeGraph) graph;
+            algo = new HyperBallCloseness(hugeGraph, new HyperBall(
+                    hugeGraph,
+                    Direction.INCOMING,
+                    configuration.getPrecision(HyperBall.DEFAULT_LOG2M),
+                    configuration.getIterations(Integer.MAX_VALUE),
+                    concurrency,
+                    Pools.DEFAULT,
+                    tracker));
+        } else if (graph instanceof HugeGraph) {
             HugeGraph hugeGraph = (HugeGraph) graph;
             algo = new HugeMSClosenessCentrality(
                     hugeGraph,
@@ -105,7 +166,7 @@ public class ClosenessCentralityProc {
     }
 
     @Procedure(value = "algo.closeness", mode = Mode.WRITE)
-    @Description("CALL algo.closeness(label:String, relationship:String, {write:true, writeProperty:'centrality, concurrency:4'}) YIELD " +
+    @Description("CALL algo.closeness(label:String, relationship:String, {write:true, writeProperty:'centrality, concurrency:4, approximate:false, precision:6'}) YIELD " +
             "loadMillis, computeMillis, writeMillis, nodes] - yields evaluation details")
     public Stream<CentralityProcResult> closeness(
             @Name(value = "label", defaultValue = "") String label,
@@ -117,39 +178,37 @@ public class ClosenessCentralityProc {
         final CentralityProcResult.Builder builder = CentralityProcResult.builder();
 
         AllocationTracker tracker = AllocationTracker.create();
-        int concurrency = configuration.getConcurrency();
         TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-
-        Graph graph;
-        try (ProgressTimer timer = builder.timeLoad()) {
-            graph = new GraphLoader(api, Pools.DEFAULT)
-                    .init(log, label, relationship, configuration)
-                    .withoutNodeProperties()
-                    .withDirection(Direction.OUTGOING)
-                    .withAllocationTracker(tracker)
-                    .load(configuration.getGraphImpl());
-        }
-
-        builder.withNodeCount(graph.nodeCount());
-
-        final MSBFSCCAlgorithm<?> algo = newAlgo(tracker, graph, concurrency);
-        algo
-                .withProgressLogger(ProgressLogger.wrap(log, "ClosenessCentrality(MultiSource)"))
-                .withTerminationFlag(terminationFlag);
-
-        builder.timeEval(algo::compute);
-
-        if (configuration.isWriteFlag()) {
-            graph.release();
-            final String writeProperty = configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY);
-            builder.timeWrite(() -> {
-                Exporter exporter = Exporter.of(api, graph)
-                        .withLog(log)
-                        .parallel(Pools.DEFAULT, concurrency, terminationFlag)
-                        .build();
-                algo.export(writeProperty, exporter);
-            });
-            algo.release();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.closeness", loader, configuration, tracker)) {
+            final int concurrency = job.concurrency();
+            Graph graph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = loader.load(graphImpl(configuration));
+            }
+
+            builder.withNodeCount(graph.nodeCount());
+
+            final MSBFSCCAlgorithm<?> algo = newAlgo(tracker, graph, configuration);
+            algo
+                    .withProgressLogger(ProgressLogger.wrap(log, "ClosenessCentrality(MultiSource)"))
+                    .withTerminationFlag(terminationFlag);
+
+            builder.timeEval(algo::compute);
+
+            if (configuration.isWriteFlag()) {
+                graph.release();
+                final String writeProperty = configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY);
+                builder.timeWrite(() -> {
+                    Exporter exporter = Exporter.of(api, graph)
+                            .withLog(log)
+                            .parallel(Pools.DEFAULT, concurrency, terminationFlag)
+                            .build();
+                    algo.export(writeProperty, exporter);
+                });
+                algo.release();
+            }
         }
 
         return Stream.of(builder.build());
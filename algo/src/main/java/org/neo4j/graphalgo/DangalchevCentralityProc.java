@@ -21,6 +21,7 @@ package org.neo4j.graphalgo;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
@@ -67,23 +68,20 @@ public class DangalchevCentralityProc {
                 .overrideRelationshipTypeOrQuery(relationship);
 
         final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(configuration, tracker);
 
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
-                .withoutNodeProperties()
-                .withConcurrency(configuration.getConcurrency())
-                .withAllocationTracker(tracker)
-                .asUndirected(true)
-                .load(configuration.getGraphImpl("huge"));
+        try (AlgoScheduler.Job job = admit("algo.closeness.dangalchev.stream", loader, configuration, tracker)) {
+            final Graph graph = loader.load(configuration.getGraphImpl("huge"));
 
-        final DangalchevClosenessCentrality algo = new DangalchevClosenessCentrality(graph, configuration.getConcurrency(), Pools.DEFAULT)
-                .withProgressLogger(ProgressLogger.wrap(log, "DangalchevCentrality"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction))
-                .compute();
+            final DangalchevClosenessCentrality algo = new DangalchevClosenessCentrality(graph, job.concurrency(), Pools.DEFAULT)
+                    .withProgressLogger(ProgressLogger.wrap(log, "DangalchevCentrality"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .compute();
 
-        graph.release();
+            graph.release();
 
-        return algo.resultStream();
+            return algo.resultStream();
+        }
     }
 
     @Procedure(value = "algo.closeness.dangalchev", mode = Mode.WRITE)
@@ -101,41 +99,64 @@ public class DangalchevCentralityProc {
         final CentralityProcResult.Builder builder = CentralityProcResult.builder();
 
         final AllocationTracker tracker = AllocationTracker.create();
-        final int concurrency = configuration.getConcurrency();
         final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-
-        final Graph graph;
-        try (ProgressTimer timer = builder.timeLoad()) {
-            graph = new GraphLoader(api, Pools.DEFAULT)
-                    .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
-                    .withoutNodeProperties()
-                    .withConcurrency(concurrency)
-                    .withAllocationTracker(tracker)
-                    .asUndirected(true)
-                    .load(configuration.getGraphImpl("huge"));
+        final GraphLoader loader = graphLoader(configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.closeness.dangalchev", loader, configuration, tracker)) {
+            final int concurrency = job.concurrency();
+            final Graph graph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = loader.load(configuration.getGraphImpl("huge"));
+            }
+
+            builder.withNodeCount(graph.nodeCount());
+
+            final DangalchevClosenessCentrality algo = new DangalchevClosenessCentrality(graph, concurrency, Pools.DEFAULT)
+                    .withProgressLogger(ProgressLogger.wrap(log, "DangalchevCentrality"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction));
+
+            builder.timeEval(algo::compute);
+
+            if (configuration.isWriteFlag()) {
+                graph.release();
+                final String writeProperty = configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY);
+                builder.timeWrite(() -> {
+                    Exporter exporter = Exporter.of(api, graph)
+                            .withLog(log)
+                            .parallel(Pools.DEFAULT, concurrency, terminationFlag)
+                            .build();
+                    algo.export(writeProperty, exporter);
+                });
+                algo.release();
+            }
         }
 
-        builder.withNodeCount(graph.nodeCount());
+        return Stream.of(builder.build());
+    }
 
-        final DangalchevClosenessCentrality algo = new DangalchevClosenessCentrality(graph, concurrency, Pools.DEFAULT)
-                .withProgressLogger(ProgressLogger.wrap(log, "DangalchevCentrality"))
+    private GraphLoader graphLoader(ProcedureConfiguration configuration, AllocationTracker tracker) {
+        return new GraphLoader(api, Pools.DEFAULT)
+                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
+                .withoutNodeProperties()
+                .withConcurrency(configuration.getConcurrency())
+                .withAllocationTracker(tracker)
+                .asUndirected(true)
                 .withTerminationFlag(TerminationFlag.wrap(transaction));
+    }
 
-        builder.timeEval(algo::compute);
-
-        if (configuration.isWriteFlag()) {
-            graph.release();
-            final String writeProperty = configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY);
-            builder.timeWrite(() -> {
-                Exporter exporter = Exporter.of(api, graph)
-                        .withLog(log)
-                        .parallel(Pools.DEFAULT, concurrency, terminationFlag)
-                        .build();
-                algo.export(writeProperty, exporter);
-            });
-            algo.release();
-        }
-
-        return Stream.of(builder.build());
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader loader,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "dangalchev",
+                loader,
+                configuration.getGraphImpl("huge"),
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
     }
 }
@@ -19,16 +19,23 @@
 package org.neo4j.graphalgo;
 
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.TopK;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.impl.harmonic.HarmonicCentrality;
 import org.neo4j.graphalgo.impl.harmonic.HarmonicCentralityAlgorithm;
+import org.neo4j.graphalgo.impl.hyperball.HyperBall;
+import org.neo4j.graphalgo.impl.hyperball.HyperBallHarmonic;
 import org.neo4j.graphalgo.results.CentralityProcResult;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.KernelTransaction;
@@ -56,7 +63,7 @@ public class HarmonicCentralityProc {
     public KernelTransaction transaction;
 
     @Procedure(value = "algo.closeness.harmonic.stream")
-    @Description("CALL algo.closeness.harmonic.stream(label:String, relationship:String{concurrency:4}) YIELD nodeId, centrality - yields centrality for each node")
+    @Description("CALL algo.closeness.harmonic.stream(label:String, relationship:String{concurrency:4, approximate:false, precision:6}) YIELD nodeId, centrality - yields centrality for each node, or for the top nodes if a limit is given")
     public Stream<HarmonicCentrality.Result> harmonicStream(
             @Name(value = "label", defaultValue = "") String label,
             @Name(value = "relationship", defaultValue = "") String relationship,
@@ -67,27 +74,34 @@ public class HarmonicCentralityProc {
                 .overrideRelationshipTypeOrQuery(relationship);
 
         final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(configuration, tracker);
 
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
-                .withoutNodeProperties()
-                .withConcurrency(configuration.getConcurrency())
-                .withDirection(Direction.BOTH)
-                .withAllocationTracker(tracker)
-                .load(configuration.getGraphImpl());
+        try (AlgoScheduler.Job job = admit("algo.closeness.harmonic.stream", loader, configuration, tracker)) {
+            final Graph graph = loader.load(graphImpl(configuration));
 
-        final HarmonicCentralityAlgorithm algo = HarmonicCentralityAlgorithm.instance(graph, tracker, Pools.DEFAULT, configuration.getConcurrency())
-                .withProgressLogger(ProgressLogger.wrap(log, "HarmonicCentrality"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction))
-                .compute();
+            final HarmonicCentralityAlgorithm algo = newAlgo(graph, tracker, configuration)
+                    .withProgressLogger(ProgressLogger.wrap(log, "HarmonicCentrality"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .compute();
 
-        graph.release();
+            graph.release();
 
-        return algo.resultStream();
+            final int limit = configuration.getLimit();
+            if (limit >= 0) {
+                return TopK.stream(
+                        graph,
+                        limit,
+                        algo.centrality(),
+                        configuration.getConcurrency(),
+                        Pools.DEFAULT,
+                        HarmonicCentrality.Result::new);
+            }
+            return algo.resultStream();
+        }
     }
 
     @Procedure(value = "algo.closeness.harmonic", mode = Mode.WRITE)
-    @Description("CALL algo.closeness.harmonic(label:String, relationship:String, {write:true, writeProperty:'centrality, concurrency:4'}) YIELD " +
+    @Description("CALL algo.closeness.harmonic(label:String, relationship:String, {write:true, writeProperty:'centrality, concurrency:4, approximate:false, precision:6'}) YIELD " +
             "loadMillis, computeMillis, writeMillis, nodes] - yields evaluation details")
     public Stream<CentralityProcResult> harmonic(
             @Name(value = "label", defaultValue = "") String label,
@@ -101,41 +115,88 @@ public class HarmonicCentralityProc {
         final CentralityProcResult.Builder builder = CentralityProcResult.builder();
 
         final AllocationTracker tracker = AllocationTracker.create();
-        final int concurrency = configuration.getConcurrency();
         final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-
-        final Graph graph;
-        try (ProgressTimer timer = builder.timeLoad()) {
-            graph = new GraphLoader(api, Pools.DEFAULT)
-                    .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
-                    .withoutNodeProperties()
-                    .withConcurrency(concurrency)
-                    .withDirection(Direction.BOTH)
-                    .withAllocationTracker(tracker)
-                    .load(configuration.getGraphImpl());
+        final GraphLoader loader = graphLoader(configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.closeness.harmonic", loader, configuration, tracker)) {
+            final int concurrency = job.concurrency();
+            final Graph graph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = loader.load(graphImpl(configuration));
+            }
+
+            builder.withNodeCount(graph.nodeCount());
+
+            final HarmonicCentralityAlgorithm algo = newAlgo(graph, tracker, configuration)
+                    .withProgressLogger(ProgressLogger.wrap(log, "HarmonicCentrality"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction));
+
+            builder.timeEval(algo::compute);
+
+            if (configuration.isWriteFlag()) {
+                graph.release();
+                final String writeProperty = configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY);
+                builder.timeWrite(() -> {
+                    Exporter exporter = Exporter.of(api, graph)
+                            .withLog(log)
+                            .parallel(Pools.DEFAULT, concurrency, terminationFlag)
+                            .build();
+                    algo.export(writeProperty, exporter);
+                });
+                algo.release();
+            }
         }
 
-        builder.withNodeCount(graph.nodeCount());
+        return Stream.of(builder.build());
+    }
+
+    private GraphLoader graphLoader(ProcedureConfiguration configuration, AllocationTracker tracker) {
+        return new GraphLoader(api, Pools.DEFAULT)
+                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
+                .withoutNodeProperties()
+                .withConcurrency(configuration.getConcurrency())
+                .withDirection(Direction.BOTH)
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .withAllocationTracker(tracker);
+    }
 
-        final HarmonicCentralityAlgorithm algo = HarmonicCentralityAlgorithm.instance(graph, tracker, Pools.DEFAULT, concurrency)
-                .withProgressLogger(ProgressLogger.wrap(log, "HarmonicCentrality"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction));
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader loader,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "harmonic",
+                loader,
+                graphImpl(configuration),
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
+    }
 
-        builder.timeEval(algo::compute);
+    private static Class<? extends GraphFactory> graphImpl(ProcedureConfiguration configuration) {
+        // HyperBall iterates the compressed adjacency of the HugeGraph
+        return configuration.isApproximate() ? HugeGraphFactory.class : configuration.getGraphImpl();
+    }
 
-        if (configuration.isWriteFlag()) {
-            graph.release();
-            final String writeProperty = configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY);
-            builder.timeWrite(() -> {
-                Exporter exporter = Exporter.of(api, graph)
-                        .withLog(log)
-                        .parallel(Pools.DEFAULT, concurrency, terminationFlag)
-                        .build();
-                algo.export(writeProperty, exporter);
-            });
-            algo.release();
+    private static HarmonicCentralityAlgorithm newAlgo(
+            Graph graph,
+            AllocationTracker tracker,
+            ProcedureConfiguration configuration) {
+        final int concurrency = configuration.getConcurrency();
+        if (configuration.isApproximate()) {
+            HugeGraph hugeGraph = (HugeGraph) graph;
+            return new HyperBallHarmonic(hugeGraph, new HyperBall(
+                    hugeGraph,
+                    Direction.BOTH,
+                    configuration.getPrecision(HyperBall.DEFAULT_LOG2M),
+                    configuration.getIterations(Integer.MAX_VALUE),
+                    concurrency,
+                    Pools.DEFAULT,
+                    tracker));
         }
-
-        return Stream.of(builder.build());
+        return HarmonicCentralityAlgorithm.instance(graph, tracker, Pools.DEFAULT, concurrency);
     }
 }
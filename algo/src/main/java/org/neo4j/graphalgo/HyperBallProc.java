@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.impl.hyperball.HyperBall;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Approximate distance statistics of a graph, computed by {@link HyperBall}.
+ * Approximate closeness and harmonic centrality are available through
+ * {@code algo.closeness} and {@code algo.closeness.harmonic} with {@code approximate:true}.
+ */
+public final class HyperBallProc {
+
+    public static final String CONFIG_FRACTION = "fraction";
+    public static final double DEFAULT_FRACTION = 0.9;
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public Log log;
+
+    @Context
+    public KernelTransaction transaction;
+
+    @Procedure("algo.hyperBall.stats")
+    @Description("CALL algo.hyperBall.stats(label:String, relationship:String, " +
+            "{direction:'BOTH', precision:6, fraction:0.9, concurrency:4}) " +
+            "YIELD nodes, iterations, effectiveDiameter, neighbourhoodFunction, loadMillis, computeMillis " +
+            "- approximates the neighbourhood function and the effective diameter of the graph")
+    public Stream<HyperBallStats> hyperBallStats(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+
+        final Direction direction = configuration.getDirection(Direction.BOTH);
+        final AllocationTracker tracker = AllocationTracker.create();
+        final HyperBallStats stats = new HyperBallStats();
+
+        final GraphLoader loader = new GraphLoader(api, Pools.DEFAULT)
+                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
+                .withoutNodeProperties()
+                .withConcurrency(configuration.getConcurrency())
+                .withDirection(direction)
+                .withAllocationTracker(tracker);
+
+        try (AlgoScheduler.Job job = AlgoSchedulerProc.admit(
+                "algo.hyperBall.stats",
+                "hyperball",
+                loader,
+                HugeGraphFactory.class,
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log)) {
+            final HugeGraph graph;
+            try (ProgressTimer timer = ProgressTimer.start(millis -> stats.loadMillis = millis)) {
+                graph = (HugeGraph) loader.load(HugeGraphFactory.class);
+            }
+
+            final HyperBall hyperBall = new HyperBall(
+                    graph,
+                    direction,
+                    configuration.getPrecision(HyperBall.DEFAULT_LOG2M),
+                    configuration.getIterations(Integer.MAX_VALUE),
+                    job.concurrency(),
+                    Pools.DEFAULT,
+                    tracker)
+                    .withProgressLogger(ProgressLogger.wrap(log, "HyperBall"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction));
+
+            try (ProgressTimer timer = ProgressTimer.start(millis -> stats.computeMillis = millis)) {
+                hyperBall.compute();
+            }
+
+            stats.nodes = graph.nodeCount();
+            stats.iterations = hyperBall.iterations();
+            stats.effectiveDiameter = hyperBall.effectiveDiameter(
+                    configuration.getNumber(CONFIG_FRACTION, DEFAULT_FRACTION).doubleValue());
+            stats.neighbourhoodFunction = Arrays.stream(hyperBall.neighbourhoodFunction())
+                    .boxed()
+                    .collect(Collectors.toList());
+
+            hyperBall.release();
+            graph.release();
+        }
+        return Stream.of(stats);
+    }
+
+    public static final class HyperBallStats {
+        public long nodes;
+        public long iterations;
+        public double effectiveDiameter;
+        public List<Double> neighbourhoodFunction;
+        public long loadMillis;
+        public long computeMillis;
+    }
+}
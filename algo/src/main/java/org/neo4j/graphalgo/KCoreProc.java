@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.loadgraph.LoadGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicIntegerArray;
+import org.neo4j.graphalgo.core.write.Exporter;
+import org.neo4j.graphalgo.impl.kcore.ParallelKCore;
+import org.neo4j.graphalgo.results.AbstractResultBuilder;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Core numbers of all nodes, computed by {@link ParallelKCore} on the undirected graph.
+ * <p>
+ * With {@code coreGraph:'name'} the k-core is kept as a named graph, so that other
+ * algorithms can run on it with {@code graph:'name'} without loading the graph again.
+ * The named graph is removed with {@code algo.graph.remove}.
+ */
+public final class KCoreProc {
+
+    public static final String CONFIG_K = "k";
+    public static final String CONFIG_CORE_GRAPH = "coreGraph";
+    public static final String DEFAULT_WRITE_PROPERTY = "coreNumber";
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public Log log;
+
+    @Context
+    public KernelTransaction transaction;
+
+    @Procedure(value = "algo.kCore", mode = Mode.WRITE)
+    @Description("CALL algo.kCore(label:String, relationship:String, " +
+            "{write:true, writeProperty:'coreNumber', k:0, coreGraph:null, concurrency:4}) " +
+            "YIELD loadMillis, computeMillis, writeMillis, nodes, degeneracy, levels, k, coreNodes, coreGraph " +
+            "- computes the core number of every node and optionally keeps the k-core as named graph")
+    public Stream<KCoreResult> kCore(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+        final KCoreResult.Builder builder = new KCoreResult.Builder();
+        final AllocationTracker tracker = AllocationTracker.create();
+        final int k = configuration.getInt(CONFIG_K, 0);
+        final String coreGraph = coreGraphName(configuration);
+
+        final GraphLoader loader = graphLoader(configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.kCore", loader, configuration, tracker)) {
+            final HugeGraph graph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = (HugeGraph) loader.load(HugeGraphFactory.class);
+            }
+
+            final ParallelKCore kCore;
+            try (ProgressTimer timer = builder.timeEval()) {
+                kCore = compute(graph, configuration, tracker);
+            }
+            builder.withNodes(graph.nodeCount())
+                    .withDegeneracy(kCore.degeneracy())
+                    .withLevels(kCore.levels())
+                    .withK(k)
+                    .withCoreNodes(kCore.coreSize(k))
+                    .withCoreGraph(coreGraph);
+
+            if (configuration.isWriteFlag()) {
+                final String writeProperty = configuration.getWriteProperty(DEFAULT_WRITE_PROPERTY);
+                builder.timeWrite(() -> Exporter.of(api, graph)
+                        .withLog(log)
+                        .parallel(Pools.DEFAULT, job.concurrency(), TerminationFlag.wrap(transaction))
+                        .build()
+                        .write(writeProperty, kCore.coreNumbers(), PagedAtomicIntegerArray.Translator.INSTANCE));
+            }
+
+            finish(graph, kCore, coreGraph, k);
+        }
+        return Stream.of(builder.build());
+    }
+
+    @Procedure(value = "algo.kCore.stream")
+    @Description("CALL algo.kCore.stream(label:String, relationship:String, {k:0, coreGraph:null, concurrency:4}) " +
+            "YIELD nodeId, coreNumber - yields the core number of every node in the k-core")
+    public Stream<ParallelKCore.Result> kCoreStream(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+        final AllocationTracker tracker = AllocationTracker.create();
+        final int k = configuration.getInt(CONFIG_K, 0);
+        final String coreGraph = coreGraphName(configuration);
+
+        final GraphLoader loader = graphLoader(configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.kCore.stream", loader, configuration, tracker)) {
+            final HugeGraph graph = (HugeGraph) loader.load(HugeGraphFactory.class);
+            final ParallelKCore kCore = compute(graph, configuration, tracker);
+            final Stream<ParallelKCore.Result> results = kCore.resultStream(k);
+            // the id mapping survives the release of the graph, so the results can still be streamed
+            if (coreGraph != null) {
+                LoadGraphFactory.set(coreGraph, kCore.coreGraph(k));
+            } else {
+                graph.release();
+            }
+            return results;
+        }
+    }
+
+    private static String coreGraphName(ProcedureConfiguration configuration) {
+        final String name = configuration.getString(CONFIG_CORE_GRAPH, null);
+        if (name == null) {
+            return null;
+        }
+        if (!ProcedureConfiguration.validCustomName(name) || LoadGraphFactory.check(name)) {
+            throw new IllegalArgumentException("Invalid or already loaded core graph name: " + name);
+        }
+        return name;
+    }
+
+    private GraphLoader graphLoader(ProcedureConfiguration configuration, AllocationTracker tracker) {
+        return new GraphLoader(api, Pools.DEFAULT)
+                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
+                .withoutNodeProperties()
+                .withoutRelationshipWeights()
+                .asUndirected(true)
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .withConcurrency(configuration.getConcurrency())
+                .withAllocationTracker(tracker);
+    }
+
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader loader,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "kcore",
+                loader,
+                HugeGraphFactory.class,
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
+    }
+
+    private ParallelKCore compute(
+            HugeGraph graph,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return new ParallelKCore(
+                graph,
+                Direction.OUTGOING,
+                configuration.getConcurrency(),
+                Pools.DEFAULT,
+                tracker)
+                .withProgressLogger(ProgressLogger.wrap(log, "KCore"))
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .compute();
+    }
+
+    private static void finish(HugeGraph graph, ParallelKCore kCore, String coreGraph, int k) {
+        if (coreGraph != null) {
+            // the view takes over the graph, which is released with algo.graph.remove
+            LoadGraphFactory.set(coreGraph, kCore.coreGraph(k));
+        } else {
+            graph.release();
+        }
+        kCore.release();
+    }
+
+    public static final class KCoreResult {
+
+        public final long loadMillis;
+        public final long computeMillis;
+        public final long writeMillis;
+        public final long nodes;
+        public final long degeneracy;
+        public final long levels;
+        public final long k;
+        public final long coreNodes;
+        public final String coreGraph;
+
+        private KCoreResult(
+                long loadMillis,
+                long computeMillis,
+                long writeMillis,
+                long nodes,
+                long degeneracy,
+                long levels,
+                long k,
+                long coreNodes,
+                String coreGraph) {
+            this.loadMillis = loadMillis;
+            this.computeMillis = computeMillis;
+            this.writeMillis = writeMillis;
+            this.nodes = nodes;
+            this.degeneracy = degeneracy;
+            this.levels = levels;
+            this.k = k;
+            this.coreNodes = coreNodes;
+            this.coreGraph = coreGraph;
+        }
+
+        public static final class Builder extends AbstractResultBuilder<KCoreResult> {
+
+            private long nodes;
+            private long degeneracy;
+            private long levels;
+            private long k;
+            private long coreNodes;
+            private String coreGraph;
+
+            public Builder withNodes(long nodes) {
+                this.nodes = nodes;
+                return this;
+            }
+
+            public Builder withDegeneracy(long degeneracy) {
+                this.degeneracy = degeneracy;
+                return this;
+            }
+
+            public Builder withLevels(long levels) {
+                this.levels = levels;
+                return this;
+            }
+
+            public Builder withK(long k) {
+                this.k = k;
+                return this;
+            }
+
+            public Builder withCoreNodes(long coreNodes) {
+                this.coreNodes = coreNodes;
+                return this;
+            }
+
+            public Builder withCoreGraph(String coreGraph) {
+                this.coreGraph = coreGraph;
+                return this;
+            }
+
+            @Override
+            public KCoreResult build() {
+                return new KCoreResult(
+                        loadDuration,
+                        evalDuration,
+                        writeDuration,
+                        nodes,
+                        degeneracy,
+                        levels,
+                        k,
+                        coreNodes,
+                        coreGraph);
+            }
+        }
+    }
+}
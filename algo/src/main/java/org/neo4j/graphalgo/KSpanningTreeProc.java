@@ -19,14 +19,17 @@
 package org.neo4j.graphalgo;
 
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.impl.spanningTrees.SpanningTree;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.impl.spanningTrees.KSpanningTree;
@@ -97,46 +100,61 @@ public class KSpanningTreeProc {
 
         final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
         final Prim.Builder builder = new Prim.Builder();
-        final Graph graph;
-        try (ProgressTimer timer = builder.timeLoad()) {
-            graph = new GraphLoader(api, Pools.DEFAULT)
-                    .withOptionalLabel(label)
-                    .withOptionalRelationshipType(relationship)
-                    .withRelationshipWeightsFromProperty(weightProperty, configuration.getWeightPropertyDefaultValue(1.0))
-                    .withoutNodeWeights()
-                    .asUndirected(true)
-                    .withLog(log)
-                    .load(configuration.getGraphImpl(HugeGraph.TYPE));
-        }
-        final int root = graph.toMappedNodeId(startNode);
-
-        final KSpanningTree kSpanningTree = new KSpanningTree(graph, graph, graph)
-                .withProgressLogger(ProgressLogger.wrap(log, "KSpanningTrees"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction));
-
-        builder.timeEval(() -> {
-            kSpanningTree.compute(root, (int)k, max);
-            builder.withEffectiveNodeCount(kSpanningTree.getSpanningTree().effectiveNodeCount);
-        });
-
-        if (configuration.isWriteFlag()) {
-            try (ProgressTimer timer = builder.timeWrite()) {
-
-                final SpanningTree spanningTree = kSpanningTree.getSpanningTree();
-                final Exporter exporter = Exporter.of(api, graph)
-                        .withLog(log)
-                        .parallel(
-                                Pools.DEFAULT,
-                                configuration.getConcurrency(),
-                                TerminationFlag.wrap(transaction))
-                        .build();
-
-                exporter.write(
-                        configuration.get(
-                                CONFIG_CLUSTER_PROPERTY,
-                                DEFAULT_CLUSTER_PROPERTY),
-                        spanningTree,
-                        SpanningTree.TRANSLATOR);
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = new GraphLoader(api, Pools.DEFAULT)
+                .withOptionalLabel(label)
+                .withOptionalRelationshipType(relationship)
+                .withRelationshipWeightsFromProperty(weightProperty, configuration.getWeightPropertyDefaultValue(1.0))
+                .withoutNodeWeights()
+                .asUndirected(true)
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .withAllocationTracker(tracker)
+                .withLog(log);
+        final Class<? extends GraphFactory> graphImpl = configuration.getGraphImpl(HugeGraph.TYPE);
+
+        try (AlgoScheduler.Job job = AlgoSchedulerProc.admit(
+                max ? "algo.spanningTree.kmax" : "algo.spanningTree.kmin",
+                "kspanningtree",
+                loader,
+                graphImpl,
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log)) {
+            final Graph graph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = loader.load(graphImpl);
+            }
+            final int root = graph.toMappedNodeId(startNode);
+
+            final KSpanningTree kSpanningTree = new KSpanningTree(graph, graph, graph)
+                    .withProgressLogger(ProgressLogger.wrap(log, "KSpanningTrees"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction));
+
+            builder.timeEval(() -> {
+                kSpanningTree.compute(root, (int)k, max);
+                builder.withEffectiveNodeCount(kSpanningTree.getSpanningTree().effectiveNodeCount);
+            });
+
+            if (configuration.isWriteFlag()) {
+                try (ProgressTimer timer = builder.timeWrite()) {
+
+                    final SpanningTree spanningTree = kSpanningTree.getSpanningTree();
+                    final Exporter exporter = Exporter.of(api, graph)
+                            .withLog(log)
+                            .parallel(
+                                    Pools.DEFAULT,
+                                    job.concurrency(),
+                                    TerminationFlag.wrap(transaction))
+                            .build();
+
+                    exporter.write(
+                            configuration.get(
+                                    CONFIG_CLUSTER_PROPERTY,
+                                    DEFAULT_CLUSTER_PROPERTY),
+                            spanningTree,
+                            SpanningTree.TRANSLATOR);
+                }
             }
         }
 
@@ -24,10 +24,12 @@ import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.heavyweight.HeavyCypherGraphFactory;
 import org.neo4j.graphalgo.core.heavyweight.HeavyGraph;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.Translators;
 import org.neo4j.graphalgo.impl.LabelPropagation;
@@ -69,7 +71,7 @@ public final class LabelPropagationProc {
     @Procedure(name = "algo.labelPropagation", mode = Mode.WRITE)
     @Description("CALL algo.labelPropagation(" +
             "label:String, relationship:String, direction:String, " +
-            "{iterations:1, weightProperty:'weight', partitionProperty:'partition', write:true, concurrency:4}) " +
+            "{iterations:1, weightProperty:'weight', partitionProperty:'partition', write:true, concurrency:4, executor:'default/forkJoin'}) " +
             "YIELD nodes, iterations, didConverge, loadMillis, computeMillis, writeMillis, write, weightProperty, partitionProperty - " +
             "simple label propagation kernel")
     public Stream<LabelPropagationStats> labelPropagation(
@@ -86,7 +88,6 @@ public final class LabelPropagationProc {
         final Direction direction = configuration.getDirection(Direction.OUTGOING);
         final int iterations = configuration.getIterations(DEFAULT_ITERATIONS);
         final int batchSize = configuration.getBatchSize();
-        final int concurrency = configuration.getConcurrency();
         final String partitionProperty = configuration.getString(CONFIG_PARTITION_KEY, DEFAULT_PARTITION_KEY);
         final String weightProperty = configuration.getString(CONFIG_WEIGHT_KEY, DEFAULT_WEIGHT_KEY);
 
@@ -95,44 +96,51 @@ public final class LabelPropagationProc {
                 .partitionProperty(partitionProperty)
                 .weightProperty(weightProperty);
 
-        HeavyGraph graph = load(
+        final Class<? extends GraphFactory> graphImpl = configuration.getGraphImpl(HeavyGraph.TYPE,
+                HeavyGraph.TYPE, HeavyCypherGraphFactory.TYPE);
+        final GraphLoader graphLoader = graphLoader(configuration, direction, partitionProperty);
+        try (AlgoScheduler.Job job = AlgoSchedulerProc.admit(
+                "algo.labelPropagation",
+                "labelpropagation",
+                graphLoader,
+                graphImpl,
                 configuration,
-                direction,
-                partitionProperty,
-                batchSize,
-                concurrency,
-                stats);
-
-        int[] labels = compute(direction, iterations, batchSize, concurrency, graph, stats);
-        if (configuration.isWriteFlag(DEFAULT_WRITE) && partitionProperty != null) {
-            write(concurrency, partitionProperty, graph, labels, stats);
+                AllocationTracker.EMPTY,
+                TerminationFlag.wrap(transaction),
+                log)) {
+            final int concurrency = configuration.getConcurrency();
+            HeavyGraph graph = load(graphLoader, graphImpl, stats);
+
+            int[] labels = compute(direction, iterations, batchSize, concurrency, configuration.getExecutor(), graph, stats);
+            if (configuration.isWriteFlag(DEFAULT_WRITE) && partitionProperty != null) {
+                write(concurrency, partitionProperty, graph, labels, stats);
+            }
         }
 
         return Stream.of(stats.build());
     }
 
-    private HeavyGraph load(
+    private GraphLoader graphLoader(
             ProcedureConfiguration config,
             Direction direction,
-            String partitionKey,
-            int batchSize,
-            int concurrency,
+            String partitionKey) {
+        final String weightKey = config.getString(CONFIG_WEIGHT_KEY, DEFAULT_WEIGHT_KEY);
+
+        return new GraphLoader(dbAPI, Pools.DEFAULT)
+                .init(log, config.getNodeLabelOrQuery(), config.getRelationshipOrQuery(), config)
+                .withOptionalRelationshipWeightsFromProperty(weightKey, 1.0d)
+                .withOptionalNodeWeightsFromProperty(weightKey, 1.0d)
+                .withOptionalNodeProperty(partitionKey, 0.0d)
+                .withDirection(direction);
+    }
+
+    private HeavyGraph load(
+            GraphLoader graphLoader,
+            Class<? extends GraphFactory> graphImpl,
             LabelPropagationStats.Builder stats) {
 
         try (ProgressTimer timer = stats.timeLoad()) {
-
-            Class<? extends GraphFactory> graphImpl = config.getGraphImpl(HeavyGraph.TYPE,
-                    HeavyGraph.TYPE, HeavyCypherGraphFactory.TYPE);
-
-            final String weightKey = config.getString(CONFIG_WEIGHT_KEY, DEFAULT_WEIGHT_KEY);
-
-            return (HeavyGraph) new GraphLoader(dbAPI, Pools.DEFAULT)
-                    .init(log, config.getNodeLabelOrQuery(), config.getRelationshipOrQuery(), config)
-                    .withOptionalRelationshipWeightsFromProperty(weightKey, 1.0d)
-                    .withOptionalNodeWeightsFromProperty(weightKey, 1.0d)
-                    .withOptionalNodeProperty(partitionKey, 0.0d)
-                    .withDirection(direction)
-                    .load(graphImpl);
+            return (HeavyGraph) graphLoader.load(graphImpl);
         }
     }
 
@@ -141,10 +149,11 @@ public final class LabelPropagationProc {
             int iterations,
             int batchSize,
             int concurrency,
+            ExecutorService executor,
             HeavyGraph graph,
             LabelPropagationStats.Builder stats) {
         try (ProgressTimer timer = stats.timeEval()) {
-            ExecutorService pool = batchSize > 0 ? Pools.DEFAULT : null;
+            ExecutorService pool = batchSize > 0 ? executor : null;
             batchSize = Math.max(1, batchSize);
             final LabelPropagation labelPropagation = new LabelPropagation(graph, batchSize, concurrency, pool);
             labelPropagation
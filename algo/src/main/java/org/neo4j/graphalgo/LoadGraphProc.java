@@ -23,9 +23,12 @@ import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.huge.FileGraphFactory;
 import org.neo4j.graphalgo.core.loadgraph.LoadGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.KernelTransaction;
@@ -50,7 +53,8 @@ public final class LoadGraphProc {
     @Procedure(name = "algo.graph.load")
     @Description("CALL algo.graph.load(" +
             "name:String, label:String, relationship:String" +
-            "{direction:'OUT/IN/BOTH', undirected:true/false, sorted:true/false, nodeProperty:'value', nodeWeight:'weight', relationshipWeight: 'weight', graph:'heavy/huge/cypher'}) " +
+            "{direction:'OUT/IN/BOTH', undirected:true/false, sorted:true/false, nodeProperty:'value', nodeWeight:'weight', relationshipWeight: 'weight', graph:'heavy/huge/cypher', " +
+            "nodeProperties: {name: {property:'key', type:'long/double', defaultValue:0}}}) " +
             "YIELD nodes, relationships, loadMillis, computeMillis, writeMillis, write, nodeProperty, nodeWeight, relationshipWeight - " +
             "load named graph")
     public Stream<LoadGraphStats> load(
@@ -80,27 +84,44 @@ public final class LoadGraphProc {
         stats.nodeProperty = nodeProperty;
         stats.relationshipWeight = relationshipWeight;
 
+        if (configuration.isFileGraph()) {
+            // named graphs do not remember their source, so their results could be written into the database
+            throw new IllegalArgumentException(
+                    "The " + FileGraphFactory.TYPE + " graph can not be loaded as a named graph");
+        }
+
         if (LoadGraphFactory.check(name)) {
             // return already loaded
             stats.alreadyLoaded = true;
             return Stream.of(stats);
         }
 
-        try (ProgressTimer timer = ProgressTimer.start()) {
-            Class<? extends GraphFactory> graphImpl = configuration.getGraphImpl();
-
-            Graph graph = new GraphLoader(dbAPI, Pools.DEFAULT)
-                    .init(log, configuration.getNodeLabelOrQuery(),
-                            configuration.getRelationshipOrQuery(), configuration)
-                    .withName(name)
-                    .withAllocationTracker(new AllocationTracker())
-                    .withOptionalNodeProperty(nodeProperty, 0.0d)
-                    .withOptionalNodeWeightsFromProperty(nodeWeight, 1.0d)
-                    .withOptionalRelationshipWeightsFromProperty(relationshipWeight, 1.0d)
-                    .withDirection(direction)
-                    .withSort(stats.sorted)
-                    .asUndirected(stats.undirected)
-                    .load(graphImpl);
+        final Class<? extends GraphFactory> graphImpl = configuration.getGraphImpl();
+        final AllocationTracker tracker = new AllocationTracker();
+        final GraphLoader loader = new GraphLoader(dbAPI, Pools.DEFAULT)
+                .init(log, configuration.getNodeLabelOrQuery(),
+                        configuration.getRelationshipOrQuery(), configuration)
+                .withName(name)
+                .withAllocationTracker(tracker)
+                .withOptionalNodeProperty(nodeProperty, 0.0d)
+                .withOptionalNodeWeightsFromProperty(nodeWeight, 1.0d)
+                .withOptionalRelationshipWeightsFromProperty(relationshipWeight, 1.0d)
+                .withDirection(direction)
+                .withSort(stats.sorted)
+                .asUndirected(stats.undirected);
+
+        // only the load is admitted, the named graph stays in memory until algo.graph.remove
+        try (AlgoScheduler.Job job = AlgoSchedulerProc.admit(
+                "algo.graph.load",
+                "graph",
+                loader,
+                graphImpl,
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
+             ProgressTimer timer = ProgressTimer.start()) {
+            Graph graph = loader.load(graphImpl);
             stats.nodes=graph.nodeCount();
             stats.loadMillis = timer.stop().getDuration();
             LoadGraphFactory.set(name, graph);
@@ -23,10 +23,12 @@ import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.heavyweight.HeavyCypherGraphFactory;
 import org.neo4j.graphalgo.core.heavyweight.HeavyGraph;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.LongArray;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.Translators;
@@ -73,29 +75,34 @@ public class LouvainProc {
                 .overrideRelationshipTypeOrQuery(relationship);
 
         LouvainResult.Builder builder = LouvainResult.builder();
-
-        final Graph graph;
-        try (ProgressTimer timer = builder.timeLoad()) {
-            graph = graph(configuration);
-        }
-
-        builder.withNodeCount(graph.nodeCount());
-
-        final LouvainAlgorithm louvain = LouvainAlgorithm.instance(graph, configuration)
-                .withProgressLogger(ProgressLogger.wrap(log, "Louvain"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction));
-
-        // evaluation
-        try (ProgressTimer timer = builder.timeEval()) {
-            louvain.compute();
-            builder.withIterations(louvain.getIterations())
-                    .withCommunityCount(louvain.getCommunityCount());
-        }
-
-        if (configuration.isWriteFlag()) {
-            // write back
-            builder.timeWrite(() ->
-                    write(graph, louvain.getCommunityIds(), configuration));
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.louvain", loader, configuration, tracker)) {
+            final Graph graph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = loader.load(graphImpl(configuration));
+            }
+
+            builder.withNodeCount(graph.nodeCount());
+
+            final LouvainAlgorithm louvain = LouvainAlgorithm.instance(graph, configuration)
+                    .withProgressLogger(ProgressLogger.wrap(log, "Louvain"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction));
+
+            // evaluation
+            try (ProgressTimer timer = builder.timeEval()) {
+                louvain.compute();
+                builder.withIterations(louvain.getIterations())
+                        .withCommunityCount(louvain.getCommunityCount());
+            }
+
+            if (configuration.isWriteFlagOrFile(true)) {
+                // write back
+                builder.timeWrite(() ->
+                        write(graph, louvain.getCommunityIds(), configuration));
+            }
+            louvain.release();
         }
 
         return Stream.of(builder.build());
@@ -114,38 +121,59 @@ public class LouvainProc {
                 .overrideNodeLabelOrQuery(label)
                 .overrideRelationshipTypeOrQuery(relationship);
 
-        // evaluation
-        return LouvainAlgorithm.instance(graph(configuration), configuration)
-                .withProgressLogger(ProgressLogger.wrap(log, "Louvain"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction))
-                .compute()
-                .resultStream();
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(configuration, tracker);
 
+        try (AlgoScheduler.Job job = admit("algo.louvain.stream", loader, configuration, tracker)) {
+            // evaluation
+            return LouvainAlgorithm.instance(loader.load(graphImpl(configuration)), configuration)
+                    .withProgressLogger(ProgressLogger.wrap(log, "Louvain"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .compute()
+                    .resultStream();
+        }
     }
 
-    public Graph graph(ProcedureConfiguration config) {
+    private static Class<? extends GraphFactory> graphImpl(ProcedureConfiguration config) {
+        return config.getGraphImpl(HugeGraph.TYPE,
+                HeavyGraph.TYPE, HeavyCypherGraphFactory.TYPE, HugeGraph.TYPE);
+    }
 
-        final Class<? extends GraphFactory> graphImpl =
-                config.getGraphImpl(HugeGraph.TYPE,
-                        HeavyGraph.TYPE, HeavyCypherGraphFactory.TYPE, HugeGraph.TYPE);
+    private GraphLoader graphLoader(ProcedureConfiguration config, AllocationTracker tracker) {
 
         final GraphLoader loader = new GraphLoader(api, Pools.DEFAULT)
                 .init(log, config.getNodeLabelOrQuery(), config.getRelationshipOrQuery(), config)
-                .asUndirected(true);
+                .asUndirected(true)
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .withAllocationTracker(tracker);
 
         if (config.hasWeightProperty()) {
             return loader
                     .withOptionalRelationshipWeightsFromProperty(
                             config.getWeightProperty(),
-                            config.getWeightPropertyDefaultValue(1.0))
-                    .load(graphImpl);
+                            config.getWeightPropertyDefaultValue(1.0));
         }
 
         return loader
                 .withoutRelationshipWeights()
                 .withoutNodeWeights()
-                .withoutNodeProperties()
-                .load(graphImpl);
+                .withoutNodeProperties();
+    }
+
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader loader,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "louvain",
+                loader,
+                graphImpl(configuration),
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
     }
 
     private void write(Graph graph, Object communities, ProcedureConfiguration configuration) {
@@ -153,6 +181,7 @@ public class LouvainProc {
         final Exporter exporter = Exporter.of(api, graph)
                 .withLog(log)
                 .parallel(Pools.DEFAULT, configuration.getConcurrency(), TerminationFlag.wrap(transaction))
+                .withFile(configuration.getWriteFile())
                 .build();
 
         if (communities instanceof int[]) {
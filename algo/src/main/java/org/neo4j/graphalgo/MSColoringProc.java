@@ -21,13 +21,17 @@ package org.neo4j.graphalgo;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.Translators;
 import org.neo4j.graphalgo.impl.MSColoring;
 import org.neo4j.graphalgo.results.UnionFindResult;
 import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.*;
@@ -50,6 +54,9 @@ public class MSColoringProc {
     @Context
     public Log log;
 
+    @Context
+    public KernelTransaction transaction;
+
     @Procedure(value = "algo.unionFind.mscoloring", mode = Mode.WRITE)
     @Description("CALL algo.unionFind.mscoloring(label:String, relationship:String, " +
             "{property:'weight', threshold:0.42, defaultValue:1.0, write: true, partitionProperty:'partition', concurrency:4}) " +
@@ -64,23 +71,27 @@ public class MSColoringProc {
                 .overrideRelationshipTypeOrQuery(relationship);
 
         UnionFindResult.Builder builder = UnionFindResult.builder();
-
-        // loading
-        final Graph graph;
-        try (ProgressTimer timer = builder.timeLoad()) {
-            graph = load(configuration);
-        }
-
-        // evaluation
-        final AtomicIntegerArray struct;
-        try (ProgressTimer timer = builder.timeEval()) {
-            struct = evaluate(graph, configuration);
-        }
-
-        if (configuration.isWriteFlag()) {
-            // write back
-            builder.timeWrite(() ->
-                    write(graph, struct, configuration));
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.unionFind.mscoloring", loader, configuration, tracker)) {
+            // loading
+            final Graph graph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = loader.load(configuration.getGraphImpl());
+            }
+
+            // evaluation
+            final AtomicIntegerArray struct;
+            try (ProgressTimer timer = builder.timeEval()) {
+                struct = evaluate(graph, configuration);
+            }
+
+            if (configuration.isWriteFlag()) {
+                // write back
+                builder.timeWrite(() ->
+                        write(graph, struct, configuration));
+            }
         }
 
         return Stream.of(builder.build());
@@ -99,23 +110,44 @@ public class MSColoringProc {
                 .overrideNodeLabelOrQuery(label)
                 .overrideRelationshipTypeOrQuery(relationship);
 
-        // loading
-        final Graph graph = load(configuration);
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(configuration, tracker);
 
-        // evaluation
-        return new MSColoring(graph, Pools.DEFAULT, configuration.getConcurrency())
-                .compute()
-                .resultStream();
+        try (AlgoScheduler.Job job = admit("algo.unionFind.mscoloring.stream", loader, configuration, tracker)) {
+            // loading
+            final Graph graph = loader.load(configuration.getGraphImpl());
+
+            // evaluation
+            return new MSColoring(graph, Pools.DEFAULT, job.concurrency())
+                    .compute()
+                    .resultStream();
+        }
     }
 
-    private Graph load(ProcedureConfiguration config) {
+    private GraphLoader graphLoader(ProcedureConfiguration config, AllocationTracker tracker) {
         return new GraphLoader(api, Pools.DEFAULT)
                 .init(log, config.getNodeLabelOrQuery(),config.getRelationshipOrQuery(),config)
                 .withOptionalRelationshipWeightsFromProperty(
                         config.getWeightProperty(),
                         config.getWeightPropertyDefaultValue(1.0))
                 .withDirection(Direction.OUTGOING)
-                .load(config.getGraphImpl());
+                .withAllocationTracker(tracker);
+    }
+
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader loader,
+            ProcedureConfiguration config,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "mscoloring",
+                loader,
+                config.getGraphImpl(),
+                config,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
     }
 
     private AtomicIntegerArray evaluate(Graph graph, ProcedureConfiguration config) {
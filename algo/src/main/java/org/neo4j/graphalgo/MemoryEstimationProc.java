@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
+import org.neo4j.graphalgo.impl.Algorithm;
+import org.neo4j.graphalgo.impl.HugeMSClosenessCentrality;
+import org.neo4j.graphalgo.impl.HugePageRank;
+import org.neo4j.graphalgo.impl.HugeParallelUnionFindQueue;
+import org.neo4j.graphalgo.impl.LabelPropagation;
+import org.neo4j.graphalgo.impl.betweenness.ParallelBetweennessCentrality;
+import org.neo4j.graphalgo.impl.harmonic.HugeHarmonicCentrality;
+import org.neo4j.graphalgo.impl.louvain.HugeParallelLouvain;
+import org.neo4j.graphalgo.impl.triangle.HugeTriangleCount;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.availableMemory;
+
+/**
+ * Estimates the memory required to load a graph and run an algorithm on it
+ * without actually loading the graph. Only the dimensions (node and
+ * relationship counts) are read from the database.
+ */
+public final class MemoryEstimationProc {
+
+    private static final Map<String, Algorithm.MemoryEstimation> ESTIMATIONS;
+
+    static {
+        Map<String, Algorithm.MemoryEstimation> estimations = new LinkedHashMap<>();
+        estimations.put("pagerank", HugePageRank::memoryEstimation);
+        estimations.put("unionfind", HugeParallelUnionFindQueue::memoryEstimation);
+        estimations.put("louvain", HugeParallelLouvain::memoryEstimation);
+        estimations.put("labelpropagation", LabelPropagation::memoryEstimation);
+        estimations.put("trianglecount", HugeTriangleCount::memoryEstimation);
+        estimations.put("betweenness", ParallelBetweennessCentrality::memoryEstimation);
+        estimations.put("closeness", HugeMSClosenessCentrality::memoryEstimation);
+        estimations.put("harmonic", HugeHarmonicCentrality::memoryEstimation);
+        ESTIMATIONS = Collections.unmodifiableMap(estimations);
+    }
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public Log log;
+
+    @Context
+    public KernelTransaction transaction;
+
+    @Procedure(name = "algo.memory.estimate")
+    @Description("CALL algo.memory.estimate(algorithm:String, label:String, relationship:String, " +
+            "{graph:'heavy/huge', direction:'OUTGOING', weightProperty:'weight', concurrency:4}) " +
+            "YIELD algorithm, graph, nodes, relationships, concurrency, recommendedConcurrency, " +
+            "minBytes, maxBytes, availableBytes, requiredMemory - " +
+            "estimates the memory needed to load the graph and run the algorithm")
+    public Stream<MemoryEstimation> estimate(
+            @Name(value = "algorithm") String algorithm,
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final Algorithm.MemoryEstimation estimation = ESTIMATIONS.get(algorithm.toLowerCase(Locale.ENGLISH));
+        if (estimation == null) {
+            throw new IllegalArgumentException(String.format(
+                    "No memory estimation available for algorithm '%s', supported algorithms are %s",
+                    algorithm,
+                    ESTIMATIONS.keySet()));
+        }
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+
+        final GraphFactory factory = new GraphLoader(api, Pools.DEFAULT)
+                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
+                .withOptionalRelationshipWeightsFromProperty(configuration.getWeightProperty(), 1.0)
+                .withDirection(configuration.getDirection(Direction.OUTGOING))
+                .build(configuration.getGraphImpl());
+
+        final GraphDimensions dimensions = factory.dimensions();
+        final long nodeCount = dimensions.hugeNodeCount();
+        final long relationshipCount = dimensions.maxRelCount();
+        final int concurrency = configuration.getConcurrency();
+
+        final MemoryRange graphMemory = factory.memoryEstimation();
+        final MemoryRange algorithmMemory = estimation.estimate(nodeCount, relationshipCount, concurrency);
+        final MemoryRange total = graphMemory.add(algorithmMemory);
+        final long available = availableMemory();
+
+        MemoryEstimation result = new MemoryEstimation();
+        result.algorithm = algorithm;
+        result.graph = configuration.getString(ProcedureConstants.GRAPH_IMPL_PARAM, "heavy");
+        result.nodes = nodeCount;
+        result.relationships = relationshipCount;
+        result.concurrency = concurrency;
+        result.recommendedConcurrency = Math.max(1, estimation.maxConcurrency(
+                nodeCount,
+                relationshipCount,
+                concurrency,
+                available - graphMemory.max()));
+        result.minBytes = total.min();
+        result.maxBytes = total.max();
+        result.graphMinBytes = graphMemory.min();
+        result.graphMaxBytes = graphMemory.max();
+        result.algorithmMinBytes = algorithmMemory.min();
+        result.algorithmMaxBytes = algorithmMemory.max();
+        result.availableBytes = available;
+        result.requiredMemory = total.toString();
+        return Stream.of(result);
+    }
+
+    /**
+     * Estimates the maximum memory that loading the graph of {@code loader}
+     * and running {@code algorithm} on it is going to take. Only the graph is
+     * estimated for algorithms without an estimation.
+     *
+     * @return the estimated bytes, or 0 if the graph cannot be estimated
+     */
+    static long estimateMaxBytes(
+            String algorithm,
+            GraphLoader loader,
+            Class<? extends GraphFactory> graphImpl,
+            int concurrency) {
+        final Algorithm.MemoryEstimation estimation = ESTIMATIONS.get(algorithm);
+        final GraphFactory factory = loader.build(graphImpl);
+        final GraphDimensions dimensions = factory.dimensions();
+        try {
+            final MemoryRange graphMemory = factory.memoryEstimation();
+            if (estimation == null) {
+                return graphMemory.max();
+            }
+            return graphMemory
+                    .add(estimation.estimate(dimensions.hugeNodeCount(), dimensions.maxRelCount(), concurrency))
+                    .max();
+        } catch (UnsupportedOperationException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Estimates the maximum memory that running {@code algorithm} on an already loaded graph is going to take.
+     *
+     * @return the estimated bytes, or 0 if the algorithm cannot be estimated
+     */
+    static long estimateAlgorithmMaxBytes(
+            String algorithm,
+            long nodeCount,
+            long relationshipCount,
+            int concurrency) {
+        final Algorithm.MemoryEstimation estimation = ESTIMATIONS.get(algorithm);
+        if (estimation == null) {
+            return 0L;
+        }
+        return estimation.estimate(nodeCount, relationshipCount, concurrency).max();
+    }
+
+    public static class MemoryEstimation {
+        public String algorithm, graph;
+        public long nodes, relationships;
+        public long concurrency, recommendedConcurrency;
+        public long minBytes, maxBytes;
+        public long graphMinBytes, graphMaxBytes;
+        public long algorithmMinBytes, algorithmMaxBytes;
+        public long availableBytes;
+        public String requiredMemory;
+    }
+}
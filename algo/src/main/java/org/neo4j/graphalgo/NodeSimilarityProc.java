@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.write.Exporter;
+import org.neo4j.graphalgo.impl.similarity.NodeSimilarity;
+import org.neo4j.graphalgo.results.AbstractResultBuilder;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.helpers.Exceptions;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.api.properties.DefinedProperty;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Jaccard and overlap similarity of nodes by their neighbours, computed by {@link NodeSimilarity}.
+ */
+public final class NodeSimilarityProc {
+
+    public static final String CONFIG_METRIC = "metric";
+    public static final String CONFIG_TOP_K = "topK";
+    public static final String CONFIG_SIMILARITY_CUTOFF = "similarityCutoff";
+    public static final String CONFIG_DEGREE_CUTOFF = "degreeCutoff";
+    public static final String CONFIG_HUB_DEGREE_CUTOFF = "hubDegreeCutoff";
+    public static final String CONFIG_WRITE_RELATIONSHIP = "writeRelationshipType";
+    public static final String DEFAULT_WRITE_RELATIONSHIP = "SIMILAR";
+    public static final String DEFAULT_WRITE_PROPERTY = "score";
+    public static final int DEFAULT_TOP_K = 10;
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public Log log;
+
+    @Context
+    public KernelTransaction transaction;
+
+    @Procedure(value = "algo.similarity.nodes", mode = Mode.WRITE)
+    @Description("CALL algo.similarity.nodes(label:String, relationship:String, " +
+            "{metric:'jaccard', topK:10, similarityCutoff:0.0, degreeCutoff:1, hubDegreeCutoff:-1, direction:'OUTGOING', " +
+            "write:true, writeRelationshipType:'SIMILAR', writeProperty:'score', concurrency:4}) " +
+            "YIELD loadMillis, computeMillis, writeMillis, nodes, similarityPairs " +
+            "- computes the most similar nodes of every node and writes them as relationships")
+    public Stream<SimilarityResult> similarity(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+        final SimilarityResult.Builder builder = new SimilarityResult.Builder();
+        final AllocationTracker tracker = AllocationTracker.create();
+        final Direction direction = configuration.getDirection(Direction.OUTGOING);
+
+        final GraphLoader loader = graphLoader(configuration, direction, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.similarity.nodes", loader, configuration, tracker)) {
+            final HugeGraph graph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = (HugeGraph) loader.load(HugeGraphFactory.class);
+            }
+
+            final NodeSimilarity similarity;
+            try (ProgressTimer timer = builder.timeEval()) {
+                similarity = compute(graph, configuration, direction, tracker);
+            }
+            builder.withNodes(graph.nodeCount()).withSimilarityPairs(similarity.similarityPairs());
+
+            if (configuration.isWriteFlag() && similarity.similarityPairs() > 0L) {
+                builder.timeWrite(() -> Exporter.of(api, graph)
+                        .withLog(log)
+                        .parallel(Pools.DEFAULT, job.concurrency(), TerminationFlag.wrap(transaction))
+                        .build()
+                        .writeRelationships(
+                                configuration.getString(CONFIG_WRITE_RELATIONSHIP, DEFAULT_WRITE_RELATIONSHIP),
+                                configuration.getWriteProperty(DEFAULT_WRITE_PROPERTY),
+                                (ops, nodeId, relType, propertyType) -> similarity.forEachSimilar(nodeId, (source, target, score) -> {
+                                    try {
+                                        final long relId = ops.relationshipCreate(
+                                                relType,
+                                                graph.toOriginalNodeId(source),
+                                                graph.toOriginalNodeId(target));
+                                        ops.relationshipSetProperty(relId, DefinedProperty.doubleProperty(propertyType, score));
+                                    } catch (KernelException e) {
+                                        throw Exceptions.launderedException(e);
+                                    }
+                                    return true;
+                                })));
+            }
+
+            similarity.release();
+            graph.release();
+        }
+        return Stream.of(builder.build());
+    }
+
+    @Procedure(value = "algo.similarity.nodes.stream")
+    @Description("CALL algo.similarity.nodes.stream(label:String, relationship:String, " +
+            "{metric:'jaccard', topK:10, similarityCutoff:0.0, degreeCutoff:1, hubDegreeCutoff:-1, direction:'OUTGOING', concurrency:4}) " +
+            "YIELD node1, node2, similarity - yields the most similar nodes of every node")
+    public Stream<SimilarityPair> similarityStream(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+        final AllocationTracker tracker = AllocationTracker.create();
+        final Direction direction = configuration.getDirection(Direction.OUTGOING);
+
+        final GraphLoader loader = graphLoader(configuration, direction, tracker);
+
+        // the similarities are held until the stream is consumed, so the job stays admitted until then
+        final AlgoScheduler.Job job = admit("algo.similarity.nodes.stream", loader, configuration, tracker);
+        try {
+            final HugeGraph graph = (HugeGraph) loader.load(HugeGraphFactory.class);
+            final NodeSimilarity similarity = compute(graph, configuration, direction, tracker);
+            graph.release();
+            return similarity.resultStream((source, target, score) -> new SimilarityPair(
+                    graph.toOriginalNodeId(source),
+                    graph.toOriginalNodeId(target),
+                    score))
+                    .onClose(job::close);
+        } catch (RuntimeException | Error e) {
+            job.close();
+            throw e;
+        }
+    }
+
+    private GraphLoader graphLoader(ProcedureConfiguration configuration, Direction direction, AllocationTracker tracker) {
+        return new GraphLoader(api, Pools.DEFAULT)
+                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
+                .withoutNodeProperties()
+                .withoutRelationshipWeights()
+                .withDirection(direction == Direction.BOTH ? Direction.OUTGOING : Direction.BOTH)
+                .asUndirected(direction == Direction.BOTH)
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .withConcurrency(configuration.getConcurrency())
+                .withAllocationTracker(tracker);
+    }
+
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader loader,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "similarity",
+                loader,
+                HugeGraphFactory.class,
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
+    }
+
+    private NodeSimilarity compute(
+            HugeGraph graph,
+            ProcedureConfiguration configuration,
+            Direction direction,
+            AllocationTracker tracker) {
+        final int hubDegreeCutoff = configuration.getInt(CONFIG_HUB_DEGREE_CUTOFF, -1);
+        return new NodeSimilarity(
+                graph,
+                direction,
+                NodeSimilarity.Metric.parse(configuration.getString(CONFIG_METRIC, "jaccard")),
+                configuration.getInt(CONFIG_TOP_K, DEFAULT_TOP_K),
+                configuration.getNumber(CONFIG_SIMILARITY_CUTOFF, 0.0).doubleValue(),
+                configuration.getInt(CONFIG_DEGREE_CUTOFF, 1),
+                hubDegreeCutoff < 0 ? Integer.MAX_VALUE : hubDegreeCutoff,
+                configuration.getConcurrency(),
+                Pools.DEFAULT,
+                tracker)
+                .withProgressLogger(ProgressLogger.wrap(log, "NodeSimilarity"))
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .compute();
+    }
+
+    public static final class SimilarityPair {
+
+        public final long node1;
+        public final long node2;
+        public final double similarity;
+
+        public SimilarityPair(long node1, long node2, double similarity) {
+            this.node1 = node1;
+            this.node2 = node2;
+            this.similarity = similarity;
+        }
+    }
+
+    public static final class SimilarityResult {
+
+        public final long loadMillis;
+        public final long computeMillis;
+        public final long writeMillis;
+        public final long nodes;
+        public final long similarityPairs;
+
+        private SimilarityResult(
+                long loadMillis,
+                long computeMillis,
+                long writeMillis,
+                long nodes,
+                long similarityPairs) {
+            this.loadMillis = loadMillis;
+            this.computeMillis = computeMillis;
+            this.writeMillis = writeMillis;
+            this.nodes = nodes;
+            this.similarityPairs = similarityPairs;
+        }
+
+        public static final class Builder extends AbstractResultBuilder<SimilarityResult> {
+
+            private long nodes;
+            private long similarityPairs;
+
+            public Builder withNodes(long nodes) {
+                this.nodes = nodes;
+                return this;
+            }
+
+            public Builder withSimilarityPairs(long similarityPairs) {
+                this.similarityPairs = similarityPairs;
+                return this;
+            }
+
+            @Override
+            public SimilarityResult build() {
+                return new SimilarityResult(
+                        loadDuration,
+                        evalDuration,
+                        writeDuration,
+                        nodes,
+                        similarityPairs);
+            }
+        }
+    }
+}
@@ -23,16 +23,21 @@ import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.FileGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.TopK;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.PagePool;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.impl.PageRankResult;
 import org.neo4j.graphalgo.impl.Algorithm;
 import org.neo4j.graphalgo.impl.PageRankAlgorithm;
 import org.neo4j.graphalgo.results.PageRankScore;
 import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
@@ -43,6 +48,7 @@ import org.neo4j.procedure.Name;
 import org.neo4j.procedure.Procedure;
 
 import java.util.Map;
+import java.util.function.LongFunction;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
@@ -77,22 +83,27 @@ public final class PageRankProc {
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
         PageRankScore.Stats.Builder statsBuilder = new PageRankScore.Stats.Builder();
-        AllocationTracker tracker = AllocationTracker.create();
-        final Graph graph = load(label, relationship, tracker, configuration.getGraphImpl(), statsBuilder, configuration);
+        AllocationTracker tracker = AllocationTracker.create(PagePool.DEFAULT);
         TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-        PageRankResult scores = evaluate(graph, tracker, terminationFlag, configuration, statsBuilder);
+        GraphLoader graphLoader = graphLoader(label, relationship, tracker, configuration);
+        try (AlgoScheduler.Job job = AlgoSchedulerProc.admit(
+                "algo.pageRank", "pagerank", graphLoader, configuration.getGraphImpl(), configuration, tracker, terminationFlag, log)) {
+            final Graph graph = load(graphLoader, configuration.getGraphImpl(), statsBuilder);
+            PageRankResult scores = evaluate(graph, tracker, terminationFlag, configuration, statsBuilder);
 
-        log.info("PageRank: overall memory usage: %s", tracker.getUsageString());
+            log.info("PageRank: overall memory usage: %s", tracker.getUsageString());
+            log.info("PageRank: page pool: %s", tracker.getPagePoolUsageString());
 
-        write(graph, terminationFlag, scores, configuration, statsBuilder);
+            write(graph, terminationFlag, scores, configuration, statsBuilder);
+        }
 
         return Stream.of(statsBuilder.build());
     }
 
     @Procedure(value = "algo.pageRank.stream", mode = Mode.READ)
     @Description("CALL algo.pageRank.stream(label:String, relationship:String, " +
-            "{iterations:20, dampingFactor:0.85, concurrency:4}) " +
-            "YIELD node, score - calculates page rank and streams results")
+            "{iterations:20, dampingFactor:0.85, concurrency:4, limit:100}) " +
+            "YIELD node, score - calculates page rank and streams results, or only the top results if a limit is given")
     public Stream<PageRankScore> pageRankStream(
             @Name(value = "label", defaultValue = "") String label,
             @Name(value = "relationship", defaultValue = "") String relationship,
@@ -101,13 +112,35 @@ public final class PageRankProc {
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
         PageRankScore.Stats.Builder statsBuilder = new PageRankScore.Stats.Builder();
-        AllocationTracker tracker = AllocationTracker.create();
-        final Graph graph = load(label, relationship, tracker, configuration.getGraphImpl(), statsBuilder, configuration);
-
+        AllocationTracker tracker = AllocationTracker.create(PagePool.DEFAULT);
         TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-        PageRankResult scores = evaluate(graph, tracker, terminationFlag, configuration, statsBuilder);
+        GraphLoader graphLoader = graphLoader(label, relationship, tracker, configuration);
+        final Graph graph;
+        final PageRankResult scores;
+        try (AlgoScheduler.Job job = AlgoSchedulerProc.admit(
+                "algo.pageRank.stream", "pagerank", graphLoader, configuration.getGraphImpl(), configuration, tracker, terminationFlag, log)) {
+            graph = load(graphLoader, configuration.getGraphImpl(), statsBuilder);
+            scores = evaluate(graph, tracker, terminationFlag, configuration, statsBuilder);
+        }
 
         log.info("PageRank: overall memory usage: %s", tracker.getUsageString());
+        log.info("PageRank: page pool: %s", tracker.getPagePoolUsageString());
+
+        // graphs that are loaded from a file have no nodes in the database
+        final LongFunction<Node> nodes = configuration.getGraphImpl() == FileGraphFactory.class
+                ? nodeId -> null
+                : api::getNodeById;
+
+        final int limit = configuration.getLimit();
+        if (limit >= 0) {
+            return TopK.stream(
+                    graph,
+                    limit,
+                    scores::score,
+                    configuration.getConcurrency(),
+                    Pools.DEFAULT,
+                    (nodeId, score) -> new PageRankScore(nodeId, nodes.apply(nodeId), score));
+        }
 
         if (graph instanceof HugeGraph) {
             HugeGraph hugeGraph = (HugeGraph) graph;
@@ -116,7 +149,7 @@ public final class PageRankProc {
                         final long nodeId = hugeGraph.toOriginalNodeId(i);
                         return new PageRankScore(
                                 nodeId,
-                                api.getNodeById(nodeId),
+                                nodes.apply(nodeId),
                                 scores.score(i)
                         );
                     });
@@ -127,24 +160,28 @@ public final class PageRankProc {
                     final long nodeId = graph.toOriginalNodeId(i);
                     return new PageRankScore(
                             nodeId,
-                            api.getNodeById(nodeId),
+                            nodes.apply(nodeId),
                             scores.score(i)
                     );
                 });
     }
 
-    private Graph load(
+    private GraphLoader graphLoader(
             String label,
             String relationship,
             AllocationTracker tracker,
-            Class<? extends GraphFactory> graphFactory,
-            PageRankScore.Stats.Builder statsBuilder, ProcedureConfiguration configuration) {
-
-        GraphLoader graphLoader = new GraphLoader(api, Pools.DEFAULT)
+            ProcedureConfiguration configuration) {
+        return new GraphLoader(api, Pools.DEFAULT)
                 .init(log, label, relationship, configuration)
                 .withAllocationTracker(tracker)
                 .withDirection(Direction.OUTGOING)
                 .withoutRelationshipWeights();
+    }
+
+    private Graph load(
+            GraphLoader graphLoader,
+            Class<? extends GraphFactory> graphFactory,
+            PageRankScore.Stats.Builder statsBuilder) {
 
         try (ProgressTimer timer = statsBuilder.timeLoad()) {
             Graph graph = graphLoader.load(graphFactory);
@@ -170,7 +207,7 @@ public final class PageRankProc {
                 tracker,
                 graph,
                 dampingFactor,
-                Pools.DEFAULT,
+                configuration.getExecutor(),
                 concurrency,
                 batchSize);
         Algorithm<?> algo = prAlgo
@@ -196,7 +233,7 @@ public final class PageRankProc {
             PageRankResult result,
             ProcedureConfiguration configuration,
             final PageRankScore.Stats.Builder statsBuilder) {
-        if (configuration.isWriteFlag(true)) {
+        if (configuration.isWriteFlagOrFile(true)) {
             log.debug("Writing results");
             String propertyName = configuration.getWriteProperty(DEFAULT_SCORE_PROPERTY);
             try (ProgressTimer timer = statsBuilder.timeWrite()) {
@@ -204,6 +241,7 @@ public final class PageRankProc {
                         .of(api, graph)
                         .withLog(log)
                         .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
+                        .withFile(configuration.getWriteFile())
                         .build();
                 result.export(propertyName, exporter);
             }
@@ -0,0 +1,532 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraph;
+import org.neo4j.graphalgo.core.huge.FileGraphFactory;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicIntegerArray;
+import org.neo4j.graphalgo.core.write.Exporter;
+import org.neo4j.graphalgo.impl.DSSResult;
+import org.neo4j.graphalgo.impl.LabelPropagation;
+import org.neo4j.graphalgo.impl.PageRankAlgorithm;
+import org.neo4j.graphalgo.impl.PageRankResult;
+import org.neo4j.graphalgo.impl.UnionFindAlgo;
+import org.neo4j.graphalgo.impl.triangle.HugeTriangleCount;
+import org.neo4j.graphalgo.impl.triangle.TriangleCountAlgorithm;
+import org.neo4j.graphalgo.impl.triangle.TriangleCountBase;
+import org.neo4j.graphalgo.impl.triangle.TriangleCountQueue;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.helpers.NamedThreadFactory;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs several algorithms on a single graph load and writes all of their
+ * results in a single pass.
+ * <p>
+ * All algorithms share one load. If triangle count is part of the pipeline, the
+ * graph is loaded with both directions and the other algorithms use its
+ * outgoing relationships. The only exception are graphs that merge both directions
+ * into a single undirected adjacency for triangle count, like the huge graph: page rank
+ * can not run on the merged adjacency and gets a second, directed load. Results of
+ * the second load are mapped to the node ids of the first one, so they are written
+ * together. The algorithms of a load run in parallel, each one admitted by the
+ * {@link AlgoScheduler} with its own memory estimation, so they only run side by side
+ * when there is enough memory.
+ */
+public final class PipelineProc {
+
+    public static final String CONFIG_ALGORITHMS = "algorithms";
+
+    private static final ExecutorService STEPS = Executors.newCachedThreadPool(
+            NamedThreadFactory.daemon("algo-pipeline"));
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public Log log;
+
+    @Context
+    public KernelTransaction transaction;
+
+    @Procedure(value = "algo.pipeline", mode = Mode.WRITE)
+    @Description("CALL algo.pipeline(label:String, relationship:String, " +
+            "{algorithms:['pageRank', 'unionFind', 'labelPropagation', 'triangleCount'], write:true, concurrency:4, graph:'heavy', " +
+            "pageRank:{iterations:20, dampingFactor:0.85, writeProperty:'pagerank'}, unionFind:{writeProperty:'partition'}, " +
+            "labelPropagation:{iterations:1, direction:'OUTGOING', writeProperty:'label'}, triangleCount:{writeProperty:'triangles'}}) " +
+            "YIELD nodes, algorithms, graphLoads, loadMillis, computeMillis, writeMillis, writeProperties " +
+            "- runs several algorithms on one graph load and writes all results at once")
+    public Stream<PipelineResult> pipeline(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
+        final List<Step> steps = steps(configuration);
+        final Map<Step, ProcedureConfiguration> stepConfigurations = new HashMap<>();
+        for (Step step : steps) {
+            stepConfigurations.put(step, step.configuration(config));
+        }
+        // label propagation needs the heavy graph
+        final Class<? extends GraphFactory> graphImpl = steps.contains(Step.LABEL_PROPAGATION)
+                ? configuration.getGraphImpl(HeavyGraph.TYPE, HeavyGraph.TYPE)
+                : configuration.getGraphImpl();
+
+        final List<Step> directed = new ArrayList<>();
+        final List<Step> undirected = new ArrayList<>();
+        final boolean mergesUndirected = steps.contains(Step.TRIANGLE_COUNT) && mergesUndirected(graphImpl);
+        for (Step step : steps) {
+            (mergesUndirected && !step.directed ? undirected : directed).add(step);
+        }
+
+        final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
+        final PipelineResult result = new PipelineResult();
+        final List<Exporter.Property<?>> properties = new ArrayList<>();
+        Graph target = null;
+
+        if (!directed.isEmpty()) {
+            final boolean triangles = directed.contains(Step.TRIANGLE_COUNT);
+            final Direction direction = triangles || directed.contains(Step.LABEL_PROPAGATION)
+                    && stepConfigurations.get(Step.LABEL_PROPAGATION).getDirection(Direction.OUTGOING) != Direction.OUTGOING
+                    ? Direction.BOTH
+                    : Direction.OUTGOING;
+            final GraphLoader loader = new GraphLoader(api, Pools.DEFAULT)
+                    .init(log, label, relationship, configuration)
+                    .withSort(triangles)
+                    .withDirection(direction);
+            if (directed.contains(Step.LABEL_PROPAGATION)) {
+                labelPropagationProperties(loader, stepConfigurations.get(Step.LABEL_PROPAGATION));
+            } else {
+                loader.withoutNodeProperties()
+                        .withDefaultNodeWeight(1.0)
+                        .withDefaultRelationshipWeight(1.0);
+            }
+            target = run(loader, graphImpl, directed, stepConfigurations, null, terminationFlag, properties, result);
+        }
+        if (!undirected.isEmpty()) {
+            final GraphLoader loader = new GraphLoader(api, Pools.DEFAULT)
+                    .init(log, label, relationship, configuration)
+                    .withoutNodeProperties()
+                    .withoutNodeWeights()
+                    .withoutRelationshipWeights()
+                    .withSort(true)
+                    .asUndirected(true)
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .withDirection(TriangleCountBase.D);
+            final Graph graph = run(loader, graphImpl, undirected, stepConfigurations, target, terminationFlag, properties, result);
+            if (target == null) {
+                target = graph;
+            }
+        }
+
+        result.nodes = target.nodeCount();
+        result.algorithms = steps.stream().map(step -> step.name).collect(Collectors.toList());
+        result.writeProperties = properties.stream().map(Exporter.Property::name).collect(Collectors.toList());
+        if (configuration.isWriteFlag(true)) {
+            final Graph graph = target;
+            try (ProgressTimer timer = ProgressTimer.start(millis -> result.writeMillis = millis)) {
+                Exporter.of(api, graph)
+                        .withLog(log)
+                        .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
+                        .build()
+                        .write(properties.toArray(new Exporter.Property<?>[0]));
+            }
+        } else {
+            result.writeProperties = Collections.emptyList();
+        }
+        return Stream.of(result);
+    }
+
+    /**
+     * Graphs of these factories merge both directions into one undirected adjacency
+     * when triangle count asks for it, instead of keeping the relationships directed.
+     */
+    private static boolean mergesUndirected(Class<? extends GraphFactory> graphImpl) {
+        return HugeGraphFactory.class.isAssignableFrom(graphImpl)
+                || FileGraphFactory.class.isAssignableFrom(graphImpl);
+    }
+
+    /**
+     * Loads the seed labels and the weights of label propagation, like {@link LabelPropagationProc} does.
+     */
+    private static void labelPropagationProperties(GraphLoader loader, ProcedureConfiguration configuration) {
+        final String weightProperty = configuration.getString(
+                LabelPropagationProc.CONFIG_WEIGHT_KEY,
+                LabelPropagationProc.DEFAULT_WEIGHT_KEY);
+        loader.withOptionalRelationshipWeightsFromProperty(weightProperty, 1.0)
+                .withOptionalNodeWeightsFromProperty(weightProperty, 1.0)
+                .withOptionalNodeProperty(
+                        configuration.getString(
+                                LabelPropagationProc.CONFIG_PARTITION_KEY,
+                                LabelPropagationProc.DEFAULT_PARTITION_KEY),
+                        0.0);
+    }
+
+    /**
+     * Loads a graph and runs the steps on it. The results are stored by the node ids of
+     * {@code target}, or of the loaded graph if there is no target yet.
+     *
+     * @return the loaded graph, already released
+     */
+    private Graph run(
+            GraphLoader loader,
+            Class<? extends GraphFactory> graphImpl,
+            List<Step> steps,
+            Map<Step, ProcedureConfiguration> configurations,
+            Graph target,
+            TerminationFlag terminationFlag,
+            List<Exporter.Property<?>> properties,
+            PipelineResult result) {
+
+        final GraphFactory factory = loader.build(graphImpl);
+        final GraphDimensions dimensions = factory.dimensions();
+        final Graph graph;
+        try (ProgressTimer timer = ProgressTimer.start()) {
+            graph = factory.build();
+            result.loadMillis += timer.stop().getDuration();
+        }
+        result.graphLoads++;
+        final LongUnaryOperator toTarget = target == null
+                ? LongUnaryOperator.identity()
+                : nodeId -> target.toMappedNodeId(graph.toOriginalNodeId((int) nodeId));
+        final long targetNodeCount = target == null ? graph.nodeCount() : target.nodeCount();
+
+        try (ProgressTimer timer = ProgressTimer.start()) {
+            final List<Future<Exporter.Property<?>>> futures = new ArrayList<>();
+            for (Step step : steps) {
+                final ProcedureConfiguration configuration = configurations.get(step);
+                futures.add(STEPS.submit(() -> {
+                    final AllocationTracker tracker = AllocationTracker.create();
+                    final int concurrency = configuration.getConcurrency();
+                    final long estimatedBytes = MemoryEstimationProc.estimateAlgorithmMaxBytes(
+                            step.estimation,
+                            dimensions.hugeNodeCount(),
+                            dimensions.maxRelCount(),
+                            concurrency);
+                    try (AlgoScheduler.Job job = AlgoScheduler.DEFAULT.admit(
+                            "algo.pipeline." + step.name,
+                            concurrency,
+                            estimatedBytes,
+                            tracker,
+                            terminationFlag)) {
+                        final Column column = new Column(toTarget, targetNodeCount, tracker);
+                        return step.compute(
+                                graph,
+                                configuration,
+                                job.concurrency(),
+                                tracker,
+                                ProgressLogger.wrap(log, "Pipeline(" + step.name + ")"),
+                                terminationFlag,
+                                column);
+                    }
+                }));
+            }
+            for (Future<Exporter.Property<?>> future : futures) {
+                properties.add(await(future));
+            }
+            result.computeMillis += timer.stop().getDuration();
+        } finally {
+            graph.release();
+        }
+        return graph;
+    }
+
+    private static Exporter.Property<?> await(Future<Exporter.Property<?>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static List<Step> steps(ProcedureConfiguration configuration) {
+        final Object algorithms = configuration.get(CONFIG_ALGORITHMS);
+        if (!(algorithms instanceof List) || ((List<?>) algorithms).isEmpty()) {
+            throw new IllegalArgumentException(String.format(
+                    "The pipeline needs a list of algorithms, available algorithms are %s",
+                    Step.names()));
+        }
+        final List<Step> steps = new ArrayList<>();
+        for (Object algorithm : (List<?>) algorithms) {
+            final Step step = Step.of(String.valueOf(algorithm));
+            if (!steps.contains(step)) {
+                steps.add(step);
+            }
+        }
+        return steps;
+    }
+
+    /**
+     * The result column of one step, indexed by the node ids of the graph that is written.
+     */
+    private static final class Column {
+        private final LongUnaryOperator toTarget;
+        private final long nodeCount;
+        private final AllocationTracker tracker;
+
+        private Column(LongUnaryOperator toTarget, long nodeCount, AllocationTracker tracker) {
+            this.toTarget = toTarget;
+            this.nodeCount = nodeCount;
+            this.tracker = tracker;
+        }
+
+        Exporter.Property<DoubleArray> doubles(String property, Graph graph, LongToDoubleFunction values) {
+            final DoubleArray column = DoubleArray.newArray(nodeCount, tracker);
+            for (long i = 0L, n = graph.nodeCount(); i < n; i++) {
+                column.set(toTarget.applyAsLong(i), values.applyAsDouble(i));
+            }
+            return Exporter.Property.of(property, column, DoubleArray.Translator.INSTANCE);
+        }
+
+        Exporter.Property<LongArray> longs(String property, Graph graph, LongUnaryOperator values) {
+            final LongArray column = LongArray.newArray(nodeCount, tracker);
+            for (long i = 0L, n = graph.nodeCount(); i < n; i++) {
+                column.set(toTarget.applyAsLong(i), values.applyAsLong(i));
+            }
+            return Exporter.Property.of(property, column, LongArray.Translator.INSTANCE);
+        }
+    }
+
+    private enum Step {
+        PAGE_RANK("pageRank", "pagerank", PageRankProc.DEFAULT_SCORE_PROPERTY, true) {
+            @Override
+            Exporter.Property<?> compute(
+                    Graph graph,
+                    ProcedureConfiguration configuration,
+                    int concurrency,
+                    AllocationTracker tracker,
+                    ProgressLogger progressLogger,
+                    TerminationFlag terminationFlag,
+                    Column column) {
+                final PageRankAlgorithm algo = PageRankAlgorithm.of(
+                        tracker,
+                        graph,
+                        configuration.get(PageRankProc.CONFIG_DAMPING, PageRankProc.DEFAULT_DAMPING),
+                        Pools.DEFAULT,
+                        concurrency,
+                        configuration.getBatchSize());
+                algo.algorithm()
+                        .withProgressLogger(progressLogger)
+                        .withTerminationFlag(terminationFlag);
+                algo.compute(configuration.getIterations(PageRankProc.DEFAULT_ITERATIONS));
+                final PageRankResult scores = algo.result();
+                final Exporter.Property<?> property = column.doubles(writeProperty(configuration), graph, scores::score);
+                algo.algorithm().release();
+                return property;
+            }
+        },
+        UNION_FIND("unionFind", "unionfind", "partition", false) {
+            @Override
+            Exporter.Property<?> compute(
+                    Graph graph,
+                    ProcedureConfiguration configuration,
+                    int concurrency,
+                    AllocationTracker tracker,
+                    ProgressLogger progressLogger,
+                    TerminationFlag terminationFlag,
+                    Column column) {
+                final DSSResult dss = UnionFindAlgo.QUEUE.runAny(
+                        graph,
+                        Pools.DEFAULT,
+                        tracker,
+                        configuration.getBatchSize(),
+                        concurrency,
+                        Double.NaN,
+                        (name, algo) -> algo
+                                .withProgressLogger(progressLogger)
+                                .withTerminationFlag(terminationFlag));
+                return column.longs(
+                        writeProperty(configuration),
+                        graph,
+                        dss.struct != null
+                                ? nodeId -> dss.struct.find((int) nodeId)
+                                : dss.hugeStruct::find);
+            }
+        },
+        LABEL_PROPAGATION("labelPropagation", "labelpropagation", "label", true) {
+            @Override
+            Exporter.Property<?> compute(
+                    Graph graph,
+                    ProcedureConfiguration configuration,
+                    int concurrency,
+                    AllocationTracker tracker,
+                    ProgressLogger progressLogger,
+                    TerminationFlag terminationFlag,
+                    Column column) {
+                final LabelPropagation algo = new LabelPropagation(
+                        (HeavyGraph) graph,
+                        configuration.getBatchSize(),
+                        concurrency,
+                        Pools.DEFAULT)
+                        .withProgressLogger(progressLogger)
+                        .withTerminationFlag(terminationFlag)
+                        .compute(
+                                configuration.getDirection(Direction.OUTGOING),
+                                configuration.getIterations(LabelPropagationProc.DEFAULT_ITERATIONS));
+                final int[] labels = algo.labels();
+                final Exporter.Property<?> property = column.longs(
+                        writeProperty(configuration),
+                        graph,
+                        nodeId -> labels[(int) nodeId]);
+                algo.release();
+                return property;
+            }
+        },
+        TRIANGLE_COUNT("triangleCount", "trianglecount", TriangleProc.DEFAULT_WRITE_PROPERTY_VALUE, false) {
+            @Override
+            Exporter.Property<?> compute(
+                    Graph graph,
+                    ProcedureConfiguration configuration,
+                    int concurrency,
+                    AllocationTracker tracker,
+                    ProgressLogger progressLogger,
+                    TerminationFlag terminationFlag,
+                    Column column) {
+                final TriangleCountAlgorithm algo = TriangleCountAlgorithm.instance(graph, Pools.DEFAULT, concurrency)
+                        .withProgressLogger(progressLogger)
+                        .withTerminationFlag(terminationFlag)
+                        .compute();
+                final Exporter.Property<?> property;
+                if (algo instanceof HugeTriangleCount) {
+                    final PagedAtomicIntegerArray triangles = ((HugeTriangleCount) algo).getTriangles();
+                    property = column.longs(writeProperty(configuration), graph, triangles::get);
+                } else {
+                    final AtomicIntegerArray triangles = ((TriangleCountQueue) algo).getTriangles();
+                    property = column.longs(writeProperty(configuration), graph, nodeId -> triangles.get((int) nodeId));
+                }
+                algo.release();
+                return property;
+            }
+        };
+
+        private final String name;
+        private final String estimation;
+        private final String defaultWriteProperty;
+        // whether the step needs the directed relationships or can run on a merged undirected adjacency
+        private final boolean directed;
+
+        Step(String name, String estimation, String defaultWriteProperty, boolean directed) {
+            this.name = name;
+            this.estimation = estimation;
+            this.defaultWriteProperty = defaultWriteProperty;
+            this.directed = directed;
+        }
+
+        abstract Exporter.Property<?> compute(
+                Graph graph,
+                ProcedureConfiguration configuration,
+                int concurrency,
+                AllocationTracker tracker,
+                ProgressLogger progressLogger,
+                TerminationFlag terminationFlag,
+                Column column);
+
+        String writeProperty(ProcedureConfiguration configuration) {
+            return configuration.getWriteProperty(defaultWriteProperty);
+        }
+
+        /**
+         * The configuration of a step is the pipeline configuration, overridden
+         * by the map that is stored under the name of the step.
+         */
+        @SuppressWarnings("unchecked")
+        ProcedureConfiguration configuration(Map<String, Object> config) {
+            final Map<String, Object> merged = new HashMap<>(config);
+            merged.remove(CONFIG_ALGORITHMS);
+            merged.remove(ProcedureConstants.WRITE_PROPERTY);
+            final Object own = config.get(name);
+            if (own instanceof Map) {
+                merged.putAll((Map<String, Object>) own);
+            }
+            return ProcedureConfiguration.create(merged);
+        }
+
+        static Step of(String name) {
+            for (Step step : values()) {
+                if (step.name.toLowerCase(Locale.ENGLISH).equals(name.toLowerCase(Locale.ENGLISH))) {
+                    return step;
+                }
+            }
+            throw new IllegalArgumentException(String.format(
+                    "Algorithm '%s' can not run in a pipeline, available algorithms are %s",
+                    name,
+                    names()));
+        }
+
+        static List<String> names() {
+            return Arrays.stream(values()).map(step -> step.name).collect(Collectors.toList());
+        }
+    }
+
+    public static final class PipelineResult {
+        public long nodes;
+        public List<String> algorithms;
+        public long graphLoads;
+        public long loadMillis;
+        public long computeMillis;
+        public long writeMillis;
+        public List<String> writeProperties;
+    }
+}
@@ -19,15 +19,18 @@
 package org.neo4j.graphalgo;
 
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.api.RelationshipConsumer;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.impl.spanningTrees.Prim;
 import org.neo4j.graphalgo.impl.spanningTrees.SpanningTree;
@@ -124,42 +127,57 @@ public class PrimProc {
 
         final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
         final Prim.Builder builder = new Prim.Builder();
-        final Graph graph;
-        try (ProgressTimer timer = builder.timeLoad()) {
-            graph = new GraphLoader(api, Pools.DEFAULT)
-                    .withOptionalLabel(label)
-                    .withOptionalRelationshipType(relationship)
-                    .withRelationshipWeightsFromProperty(weightProperty, configuration.getWeightPropertyDefaultValue(Double.MAX_VALUE))
-                    .withoutNodeWeights()
-                    .asUndirected(true)
-                    .withLog(log)
-                    .load(configuration.getGraphImpl(HugeGraph.TYPE));
-        }
-        final int root = graph.toMappedNodeId(startNode);
-        final Prim mstPrim = new Prim(graph, graph, graph)
-                .withProgressLogger(ProgressLogger.wrap(log, "Prim(MaximumSpanningTree)"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction));
-        builder.timeEval(() -> {
-            if (max) {
-                mstPrim.computeMaximumSpanningTree(root);
-            } else {
-                mstPrim.computeMinimumSpanningTree(root);
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = new GraphLoader(api, Pools.DEFAULT)
+                .withOptionalLabel(label)
+                .withOptionalRelationshipType(relationship)
+                .withRelationshipWeightsFromProperty(weightProperty, configuration.getWeightPropertyDefaultValue(Double.MAX_VALUE))
+                .withoutNodeWeights()
+                .asUndirected(true)
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .withAllocationTracker(tracker)
+                .withLog(log);
+        final Class<? extends GraphFactory> graphImpl = configuration.getGraphImpl(HugeGraph.TYPE);
+
+        try (AlgoScheduler.Job job = AlgoSchedulerProc.admit(
+                max ? "algo.spanningTree.maximum" : "algo.spanningTree.minimum",
+                "prim",
+                loader,
+                graphImpl,
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log)) {
+            final Graph graph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = loader.load(graphImpl);
             }
-        });
-        final SpanningTree spanningTree = mstPrim.getSpanningTree();
-        builder.withEffectiveNodeCount(spanningTree.effectiveNodeCount);
-        if (configuration.isWriteFlag()) {
-            mstPrim.release();
-            builder.timeWrite(() -> {
-                Exporter.of(graph, api)
-                        .withLog(log)
-                        .build()
-                        .writeRelationshipAndProperty(
-                                configuration.get(CONFIG_WRITE_RELATIONSHIP, CONFIG_WRITE_RELATIONSHIP_DEFAULT),
-                                weightProperty,
-                                (ops, relType, propertyType) -> spanningTree.forEach(writeBack(relType, propertyType, graph, ops))
-                        );
+            final int root = graph.toMappedNodeId(startNode);
+            final Prim mstPrim = new Prim(graph, graph, graph)
+                    .withProgressLogger(ProgressLogger.wrap(log, "Prim(MaximumSpanningTree)"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction));
+            builder.timeEval(() -> {
+                if (max) {
+                    mstPrim.computeMaximumSpanningTree(root);
+                } else {
+                    mstPrim.computeMinimumSpanningTree(root);
+                }
             });
+            final SpanningTree spanningTree = mstPrim.getSpanningTree();
+            builder.withEffectiveNodeCount(spanningTree.effectiveNodeCount);
+            if (configuration.isWriteFlag()) {
+                mstPrim.release();
+                builder.timeWrite(() -> {
+                    Exporter.of(graph, api)
+                            .withLog(log)
+                            .build()
+                            .writeRelationshipAndProperty(
+                                    configuration.get(CONFIG_WRITE_RELATIONSHIP, CONFIG_WRITE_RELATIONSHIP_DEFAULT),
+                                    weightProperty,
+                                    (ops, relType, propertyType) -> spanningTree.forEach(writeBack(relType, propertyType, graph, ops))
+                            );
+                });
+            }
         }
         return Stream.of(builder.build());
     }
@@ -21,10 +21,12 @@ package org.neo4j.graphalgo;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.Translators;
 import org.neo4j.graphalgo.impl.ShortestPathDeltaStepping;
@@ -81,24 +83,22 @@ public class ShortestPathDeltaSteppingProc {
                     Map<String, Object> config) {
 
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(propertyName, configuration, tracker);
 
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
-                .withRelationshipWeightsFromProperty(
-                        propertyName,
-                        configuration.getWeightPropertyDefaultValue(Double.MAX_VALUE))
-                .withDirection(Direction.OUTGOING)
-                .load(configuration.getGraphImpl());
+        try (AlgoScheduler.Job job = admit("algo.shortestPath.deltaStepping.stream", loader, configuration, tracker)) {
+            final Graph graph = loader.load(configuration.getGraphImpl());
 
-        final ShortestPathDeltaStepping algo = new ShortestPathDeltaStepping(graph, delta)
-                .withProgressLogger(ProgressLogger.wrap(log, "ShortestPaths(DeltaStepping)"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction))
-                .withExecutorService(Executors.newFixedThreadPool(
-                        configuration.getConcurrency()
-                )).compute(startNode.getId());
+            final ShortestPathDeltaStepping algo = new ShortestPathDeltaStepping(graph, delta)
+                    .withProgressLogger(ProgressLogger.wrap(log, "ShortestPaths(DeltaStepping)"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .withExecutorService(Executors.newFixedThreadPool(
+                            job.concurrency()
+                    )).compute(startNode.getId());
 
-        graph.release();
-        return algo.resultStream();
+            graph.release();
+            return algo.resultStream();
+        }
     }
 
     @Procedure(value = "algo.shortestPath.deltaStepping", mode = Mode.WRITE)
@@ -114,44 +114,71 @@ public class ShortestPathDeltaSteppingProc {
 
         final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
         final DeltaSteppingProcResult.Builder builder = DeltaSteppingProcResult.builder();
-
-        final Graph graph;
-        try (ProgressTimer timer = builder.timeLoad()) {
-            graph = new GraphLoader(api, Pools.DEFAULT)
-                    .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
-                    .withRelationshipWeightsFromProperty(
-                            propertyName,
-                            configuration.getWeightPropertyDefaultValue(Double.MAX_VALUE))
-                    .withDirection(Direction.OUTGOING)
-                    .load(configuration.getGraphImpl());
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(propertyName, configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.shortestPath.deltaStepping", loader, configuration, tracker)) {
+            final Graph graph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = loader.load(configuration.getGraphImpl());
+            }
+
+            final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
+            final ShortestPathDeltaStepping algorithm = new ShortestPathDeltaStepping(graph, delta)
+                    .withProgressLogger(ProgressLogger.wrap(log, "ShortestPaths(DeltaStepping)"))
+                    .withTerminationFlag(terminationFlag)
+                    .withExecutorService(Pools.DEFAULT);
+
+            builder.timeEval(() -> algorithm.compute(startNode.getId()));
+
+            if (configuration.isWriteFlag()) {
+                final double[] shortestPaths = algorithm.getShortestPaths();
+                algorithm.release();
+                graph.release();
+                builder.timeWrite(() -> Exporter
+                        .of(api, graph)
+                        .withLog(log)
+                        .parallel(Pools.DEFAULT, job.concurrency(), terminationFlag)
+                        .build()
+                        .write(
+                                configuration.get(WRITE_PROPERTY, DEFAULT_TARGET_PROPERTY),
+                                shortestPaths,
+                                Translators.DOUBLE_ARRAY_TRANSLATOR
+                        ));
+            }
+
+            builder.withNodeCount(graph.nodeCount());
         }
 
-        final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-        final ShortestPathDeltaStepping algorithm = new ShortestPathDeltaStepping(graph, delta)
-                .withProgressLogger(ProgressLogger.wrap(log, "ShortestPaths(DeltaStepping)"))
-                .withTerminationFlag(terminationFlag)
-                .withExecutorService(Pools.DEFAULT);
-
-        builder.timeEval(() -> algorithm.compute(startNode.getId()));
+        return Stream.of(builder.build());
+    }
 
-        if (configuration.isWriteFlag()) {
-            final double[] shortestPaths = algorithm.getShortestPaths();
-            algorithm.release();
-            graph.release();
-            builder.timeWrite(() -> Exporter
-                    .of(api, graph)
-                    .withLog(log)
-                    .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
-                    .build()
-                    .write(
-                            configuration.get(WRITE_PROPERTY, DEFAULT_TARGET_PROPERTY),
-                            shortestPaths,
-                            Translators.DOUBLE_ARRAY_TRANSLATOR
-                    ));
-        }
+    private GraphLoader graphLoader(
+            String propertyName,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return new GraphLoader(api, Pools.DEFAULT)
+                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
+                .withRelationshipWeightsFromProperty(
+                        propertyName,
+                        configuration.getWeightPropertyDefaultValue(Double.MAX_VALUE))
+                .withDirection(Direction.OUTGOING)
+                .withAllocationTracker(tracker);
+    }
 
-        return Stream.of(builder
-                .withNodeCount(graph.nodeCount())
-                .build());
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader loader,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "deltastepping",
+                loader,
+                configuration.getGraphImpl(),
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
     }
 }
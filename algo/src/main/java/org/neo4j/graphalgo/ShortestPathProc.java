@@ -23,10 +23,12 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.IdMapping;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.PropertyTranslator;
 import org.neo4j.graphalgo.impl.ShortestPathDijkstra;
@@ -84,20 +86,18 @@ public class ShortestPathProc {
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
         final Direction direction = configuration.getDirection(Direction.BOTH);
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(propertyName, direction, configuration, tracker);
 
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
-                .withOptionalRelationshipWeightsFromProperty(
-                        propertyName,
-                        configuration.getWeightPropertyDefaultValue(1.0))
-                .withDirection(direction)
-                .load(configuration.getGraphImpl());
+        try (AlgoScheduler.Job job = admit("algo.shortestPath.stream", loader, configuration, tracker)) {
+            final Graph graph = loader.load(configuration.getGraphImpl());
 
-        return new ShortestPathDijkstra(graph)
-                .withProgressLogger(ProgressLogger.wrap(log, "ShortestPath(Dijkstra)"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction))
-                .compute(startNode.getId(), endNode.getId(), direction)
-                .resultStream();
+            return new ShortestPathDijkstra(graph)
+                    .withProgressLogger(ProgressLogger.wrap(log, "ShortestPath(Dijkstra)"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .compute(startNode.getId(), endNode.getId(), direction)
+                    .resultStream();
+        }
     }
 
     @Procedure(value = "algo.shortestPath", mode = Mode.WRITE)
@@ -119,45 +119,74 @@ public class ShortestPathProc {
         final ShortestPathDijkstra dijkstra;
 
         final Direction direction = configuration.getDirection(Direction.BOTH);
-        try (ProgressTimer timer = builder.timeLoad()) {
-            graph = new GraphLoader(api, Pools.DEFAULT)
-                    .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
-                    .withOptionalRelationshipWeightsFromProperty(
-                            propertyName,
-                            configuration.getWeightPropertyDefaultValue(1.0))
-                    .withDirection(direction)
-                    .load(configuration.getGraphImpl());
-        }
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(propertyName, direction, configuration, tracker);
 
-        try (ProgressTimer timer = builder.timeEval()) {
-            dijkstra = new ShortestPathDijkstra(graph)
-                    .withProgressLogger(ProgressLogger.wrap(log, "ShortestPath(Dijkstra)"))
-                    .withTerminationFlag(TerminationFlag.wrap(transaction))
-                    .compute(startNode.getId(), endNode.getId(), direction);
-            builder.withNodeCount(dijkstra.getPathLength())
-                    .withTotalCosts(dijkstra.getTotalCost());
-        }
+        try (AlgoScheduler.Job job = admit("algo.shortestPath", loader, configuration, tracker)) {
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = loader.load(configuration.getGraphImpl());
+            }
+
+            try (ProgressTimer timer = builder.timeEval()) {
+                dijkstra = new ShortestPathDijkstra(graph)
+                        .withProgressLogger(ProgressLogger.wrap(log, "ShortestPath(Dijkstra)"))
+                        .withTerminationFlag(TerminationFlag.wrap(transaction))
+                        .compute(startNode.getId(), endNode.getId(), direction);
+                builder.withNodeCount(dijkstra.getPathLength())
+                        .withTotalCosts(dijkstra.getTotalCost());
+            }
 
-        if (configuration.isWriteFlag()) {
-            try (ProgressTimer timer = builder.timeWrite()) {
-                final IntArrayDeque finalPath = dijkstra.getFinalPath();
-                dijkstra.release();
-
-                final DequeMapping mapping = new DequeMapping(graph, finalPath);
-                Exporter.of(mapping, api)
-                        .withLog(log)
-                        .build()
-                        .write(
-                                configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY),
-                                finalPath,
-                                (PropertyTranslator.OfInt<IntArrayDeque>) (data, nodeId) -> (int) nodeId
-                        );
+            if (configuration.isWriteFlag()) {
+                try (ProgressTimer timer = builder.timeWrite()) {
+                    final IntArrayDeque finalPath = dijkstra.getFinalPath();
+                    dijkstra.release();
+
+                    final DequeMapping mapping = new DequeMapping(graph, finalPath);
+                    Exporter.of(mapping, api)
+                            .withLog(log)
+                            .build()
+                            .write(
+                                    configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY),
+                                    finalPath,
+                                    (PropertyTranslator.OfInt<IntArrayDeque>) (data, nodeId) -> (int) nodeId
+                            );
+                }
             }
         }
 
         return Stream.of(builder.build());
     }
 
+    private GraphLoader graphLoader(
+            String propertyName,
+            Direction direction,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return new GraphLoader(api, Pools.DEFAULT)
+                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
+                .withOptionalRelationshipWeightsFromProperty(
+                        propertyName,
+                        configuration.getWeightPropertyDefaultValue(1.0))
+                .withDirection(direction)
+                .withAllocationTracker(tracker);
+    }
+
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader loader,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "dijkstra",
+                loader,
+                configuration.getGraphImpl(),
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
+    }
+
     private static final class DequeMapping implements IdMapping {
         private final IdMapping mapping;
         private final int[] data;
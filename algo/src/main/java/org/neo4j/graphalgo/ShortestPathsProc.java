@@ -22,10 +22,12 @@ import com.carrotsearch.hppc.IntDoubleMap;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.Translators;
 import org.neo4j.graphalgo.impl.ShortestPaths;
@@ -68,21 +70,19 @@ public class ShortestPathsProc {
                     Map<String, Object> config) {
 
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
-
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .init(log, configuration.getNodeLabelOrQuery(),configuration.getRelationshipOrQuery(),configuration)
-                .withOptionalRelationshipWeightsFromProperty(
-                        propertyName,
-                        configuration.getWeightPropertyDefaultValue(1.0))
-                .withDirection(Direction.OUTGOING)
-                .load(configuration.getGraphImpl());
-
-        final ShortestPaths algo = new ShortestPaths(graph)
-                .withProgressLogger(ProgressLogger.wrap(log, "ShortestPaths"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction))
-                .compute(startNode.getId());
-        graph.release();
-        return algo.resultStream();
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(propertyName, configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.shortestPaths.stream", loader, configuration, tracker)) {
+            final Graph graph = loader.load(configuration.getGraphImpl());
+
+            final ShortestPaths algo = new ShortestPaths(graph)
+                    .withProgressLogger(ProgressLogger.wrap(log, "ShortestPaths"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .compute(startNode.getId());
+            graph.release();
+            return algo.resultStream();
+        }
     }
 
     @Procedure(value = "algo.shortestPaths", mode = Mode.WRITE)
@@ -99,41 +99,69 @@ public class ShortestPathsProc {
 
         ShortestPathResult.Builder builder = ShortestPathResult.builder();
 
-        ProgressTimer load = builder.timeLoad();
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(propertyName, configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.shortestPaths", loader, configuration, tracker)) {
+            ProgressTimer load = builder.timeLoad();
+            final Graph graph = loader.load(configuration.getGraphImpl());
+            load.stop();
+
+            final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
+            final ShortestPaths algorithm = new ShortestPaths(graph)
+                    .withProgressLogger(ProgressLogger.wrap(log, "ShortestPaths"))
+                    .withTerminationFlag(terminationFlag);
+
+            builder.timeEval(() -> algorithm.compute(startNode.getId()));
+
+            if (configuration.isWriteFlag()) {
+                builder.timeWrite(() -> {
+                    final IntDoubleMap shortestPaths = algorithm.getShortestPaths();
+                    algorithm.release();
+                    graph.release();
+                    Exporter.of(api, graph)
+                            .withLog(log)
+                            .parallel(Pools.DEFAULT, job.concurrency(), terminationFlag)
+                            .build()
+                            .write(
+                                    configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY),
+                                    shortestPaths,
+                                    Translators.INT_DOUBLE_MAP_TRANSLATOR
+                            );
+                });
+            }
+        }
+
+        return Stream.of(builder.build());
+    }
+
+    private GraphLoader graphLoader(
+            String propertyName,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return new GraphLoader(api, Pools.DEFAULT)
                 .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
                 .withOptionalRelationshipWeightsFromProperty(
                         propertyName,
                         configuration.getWeightPropertyDefaultValue(1.0))
                 .withDirection(Direction.OUTGOING)
-                .load(configuration.getGraphImpl());
-        load.stop();
-
-        final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-        final ShortestPaths algorithm = new ShortestPaths(graph)
-                .withProgressLogger(ProgressLogger.wrap(log, "ShortestPaths"))
-                .withTerminationFlag(terminationFlag);
-
-        builder.timeEval(() -> algorithm.compute(startNode.getId()));
-
-        if (configuration.isWriteFlag()) {
-            builder.timeWrite(() -> {
-                final IntDoubleMap shortestPaths = algorithm.getShortestPaths();
-                algorithm.release();
-                graph.release();
-                Exporter.of(api, graph)
-                        .withLog(log)
-                        .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
-                        .build()
-                        .write(
-                                configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY),
-                                shortestPaths,
-                                Translators.INT_DOUBLE_MAP_TRANSLATOR
-                        );
-            });
-        }
+                .withAllocationTracker(tracker);
+    }
 
-        return Stream.of(builder.build());
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader loader,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "shortestpaths",
+                loader,
+                configuration.getGraphImpl(),
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
     }
 
 }
@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.write.Exporter;
+import org.neo4j.graphalgo.impl.spanningTrees.ParallelBoruvka;
+import org.neo4j.graphalgo.results.AbstractResultBuilder;
+import org.neo4j.helpers.Exceptions;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.api.properties.DefinedProperty;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Minimum and maximum weight spanning forests of the whole graph,
+ * computed in parallel with {@link ParallelBoruvka}.
+ */
+public class SpanningForestProc {
+
+    public static final String CONFIG_WRITE_RELATIONSHIP = "writeProperty";
+    public static final String CONFIG_WRITE_RELATIONSHIP_DEFAULT = "MSF";
+    public static final String CONFIG_K = "k";
+    public static final String CONFIG_MAXIMUM = "maximum";
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public Log log;
+
+    @Context
+    public KernelTransaction transaction;
+
+    @Procedure(value = "algo.spanningForest.minimum", mode = Mode.WRITE)
+    @Description("CALL algo.spanningForest.minimum(label:String, relationshipType:String, weightProperty:String, {" +
+            "writeProperty:'MSF', k:1, concurrency:4}) " +
+            "YIELD loadMillis, computeMillis, writeMillis, relationships, trees, totalWeight")
+    public Stream<ForestResult> minimumSpanningForest(
+            @Name(value = "label") String label,
+            @Name(value = "relationshipType") String relationship,
+            @Name(value = "weightProperty") String weightProperty,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+        return spanningForest(label, relationship, weightProperty, config, false);
+    }
+
+    @Procedure(value = "algo.spanningForest.maximum", mode = Mode.WRITE)
+    @Description("CALL algo.spanningForest.maximum(label:String, relationshipType:String, weightProperty:String, {" +
+            "writeProperty:'MSF', k:1, concurrency:4}) " +
+            "YIELD loadMillis, computeMillis, writeMillis, relationships, trees, totalWeight")
+    public Stream<ForestResult> maximumSpanningForest(
+            @Name(value = "label") String label,
+            @Name(value = "relationshipType") String relationship,
+            @Name(value = "weightProperty") String weightProperty,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+        return spanningForest(label, relationship, weightProperty, config, true);
+    }
+
+    @Procedure(value = "algo.spanningForest.stream")
+    @Description("CALL algo.spanningForest.stream(label:String, relationshipType:String, weightProperty:String, {" +
+            "maximum:false, k:1, concurrency:4}) " +
+            "YIELD sourceNodeId, targetNodeId, weight - yields the relationships of the spanning forest")
+    public Stream<ForestRelationship> spanningForestStream(
+            @Name(value = "label") String label,
+            @Name(value = "relationshipType") String relationship,
+            @Name(value = "weightProperty") String weightProperty,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, weightProperty, configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.spanningForest.stream", loader, configuration, tracker)) {
+            final HugeGraph graph = (HugeGraph) loader.load(HugeGraphFactory.class);
+            final ParallelBoruvka boruvka = compute(graph, configuration, configuration.get(CONFIG_MAXIMUM, false), tracker);
+
+            graph.release();
+            return boruvka.resultStream((source, target, weight) -> new ForestRelationship(
+                    graph.toOriginalNodeId(source),
+                    graph.toOriginalNodeId(target),
+                    weight));
+        }
+    }
+
+    private Stream<ForestResult> spanningForest(
+            String label,
+            String relationship,
+            String weightProperty,
+            Map<String, Object> config,
+            boolean maximum) {
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
+        final ForestResult.Builder builder = new ForestResult.Builder();
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, weightProperty, configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit(
+                maximum ? "algo.spanningForest.maximum" : "algo.spanningForest.minimum",
+                loader,
+                configuration,
+                tracker)) {
+            final HugeGraph graph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = (HugeGraph) loader.load(HugeGraphFactory.class);
+            }
+
+            final ParallelBoruvka boruvka;
+            try (ProgressTimer timer = builder.timeEval()) {
+                boruvka = compute(graph, configuration, maximum, tracker);
+            }
+            builder.withForest(boruvka);
+
+            if (configuration.isWriteFlag()) {
+                builder.timeWrite(() -> Exporter.of(graph, api)
+                        .withLog(log)
+                        .build()
+                        .writeRelationshipAndProperty(
+                                configuration.get(CONFIG_WRITE_RELATIONSHIP, CONFIG_WRITE_RELATIONSHIP_DEFAULT),
+                                weightProperty,
+                                (ops, relType, propertyType) -> boruvka.forEach((source, target, weight) -> {
+                                    try {
+                                        final long relId = ops.relationshipCreate(
+                                                relType,
+                                                graph.toOriginalNodeId(source),
+                                                graph.toOriginalNodeId(target));
+                                        ops.relationshipSetProperty(relId, DefinedProperty.doubleProperty(propertyType, weight));
+                                    } catch (KernelException e) {
+                                        throw Exceptions.launderedException(e);
+                                    }
+                                    return true;
+                                })));
+            }
+            graph.release();
+        }
+        return Stream.of(builder.build());
+    }
+
+    private GraphLoader graphLoader(
+            String label,
+            String relationship,
+            String weightProperty,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return new GraphLoader(api, Pools.DEFAULT)
+                .withOptionalLabel(label)
+                .withOptionalRelationshipType(relationship)
+                .withRelationshipWeightsFromProperty(weightProperty, configuration.getWeightPropertyDefaultValue(1.0))
+                .withoutNodeWeights()
+                .asUndirected(true)
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .withConcurrency(configuration.getConcurrency())
+                .withAllocationTracker(tracker)
+                .withLog(log);
+    }
+
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader loader,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "boruvka",
+                loader,
+                HugeGraphFactory.class,
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
+    }
+
+    private ParallelBoruvka compute(
+            HugeGraph graph,
+            ProcedureConfiguration configuration,
+            boolean maximum,
+            AllocationTracker tracker) {
+        return new ParallelBoruvka(
+                graph,
+                maximum,
+                configuration.getConcurrency(),
+                Pools.DEFAULT,
+                tracker)
+                .withProgressLogger(ProgressLogger.wrap(log, "Boruvka"))
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .compute(configuration.getInt(CONFIG_K, 1));
+    }
+
+    public static final class ForestRelationship {
+
+        public final long sourceNodeId;
+        public final long targetNodeId;
+        public final double weight;
+
+        public ForestRelationship(long sourceNodeId, long targetNodeId, double weight) {
+            this.sourceNodeId = sourceNodeId;
+            this.targetNodeId = targetNodeId;
+            this.weight = weight;
+        }
+    }
+
+    public static final class ForestResult {
+
+        public final long loadMillis;
+        public final long computeMillis;
+        public final long writeMillis;
+        public final long relationships;
+        public final long trees;
+        public final double totalWeight;
+
+        public ForestResult(
+                long loadMillis,
+                long computeMillis,
+                long writeMillis,
+                long relationships,
+                long trees,
+                double totalWeight) {
+            this.loadMillis = loadMillis;
+            this.computeMillis = computeMillis;
+            this.writeMillis = writeMillis;
+            this.relationships = relationships;
+            this.trees = trees;
+            this.totalWeight = totalWeight;
+        }
+
+        public static final class Builder extends AbstractResultBuilder<ForestResult> {
+
+            private long relationships;
+            private long trees;
+            private double totalWeight;
+
+            public Builder withForest(ParallelBoruvka forest) {
+                this.relationships = forest.relationshipCount();
+                this.trees = forest.treeCount();
+                this.totalWeight = forest.totalWeight();
+                return this;
+            }
+
+            @Override
+            public ForestResult build() {
+                return new ForestResult(
+                        loadDuration,
+                        evalDuration,
+                        writeDuration,
+                        relationships,
+                        trees,
+                        totalWeight);
+            }
+        }
+    }
+}
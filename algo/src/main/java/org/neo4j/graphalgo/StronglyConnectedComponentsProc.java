@@ -26,6 +26,7 @@ import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.neo4jview.DirectIdMapping;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
@@ -106,49 +107,49 @@ public class StronglyConnectedComponentsProc {
 
         SCCResult.Builder builder = SCCResult.builder();
 
-        ProgressTimer loadTimer = builder.timeLoad();
-        Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .init(log, label, relationship, configuration)
-                .withOptionalLabel(label)
-                .withOptionalRelationshipType(relationship)
-                .withoutRelationshipWeights()
-                .withDirection(Direction.OUTGOING)
-                .load(configuration.getGraphImpl());
-        loadTimer.stop();
-
-        final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-        SCCTarjan tarjan = new SCCTarjan(graph)
-                .withProgressLogger(ProgressLogger.wrap(log, "SCC(Tarjan)"))
-                .withTerminationFlag(terminationFlag);
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker)
+                .withDirection(Direction.OUTGOING);
+
+        try (AlgoScheduler.Job job = admit("algo.scc.recursive.tarjan", loader, configuration, tracker)) {
+            ProgressTimer loadTimer = builder.timeLoad();
+            Graph graph = loader.load(configuration.getGraphImpl());
+            loadTimer.stop();
+
+            final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
+            SCCTarjan tarjan = new SCCTarjan(graph)
+                    .withProgressLogger(ProgressLogger.wrap(log, "SCC(Tarjan)"))
+                    .withTerminationFlag(terminationFlag);
+
+            builder.timeEval(() -> {
+                tarjan.compute();
+                builder.withMaxSetSize(tarjan.getMaxSetSize())
+                        .withMinSetSize(tarjan.getMinSetSize())
+                        .withSetCount(tarjan.getConnectedComponents().size());
+            });
 
-        builder.timeEval(() -> {
-            tarjan.compute();
-            builder.withMaxSetSize(tarjan.getMaxSetSize())
-                    .withMinSetSize(tarjan.getMinSetSize())
-                    .withSetCount(tarjan.getConnectedComponents().size());
-        });
-
-        if (configuration.isWriteFlag()) {
-            builder.timeWrite(() -> {
-                final ObjectArrayList<IntSet> connectedComponents = tarjan.getConnectedComponents();
-                tarjan.release();
-                Exporter.of(new DirectIdMapping(connectedComponents.size()), api)
-                        .withLog(log)
-                        .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
-                        .build()
-                        .write(
-                                configuration.get(CONFIG_WRITE_PROPERTY, CONFIG_CLUSTER),
-                                propertyId -> (ops, id) -> {
-                                    final int setId = (int) (id);
-                                    DefinedProperty property = DefinedProperty.intProperty(propertyId, setId + 1);
-                                    for (final IntCursor iCursor : connectedComponents.get(setId)) {
-                                        ops.nodeSetProperty(
-                                                graph.toOriginalNodeId(iCursor.value),
-                                                property);
+            if (configuration.isWriteFlag()) {
+                builder.timeWrite(() -> {
+                    final ObjectArrayList<IntSet> connectedComponents = tarjan.getConnectedComponents();
+                    tarjan.release();
+                    Exporter.of(new DirectIdMapping(connectedComponents.size()), api)
+                            .withLog(log)
+                            .parallel(Pools.DEFAULT, job.concurrency(), terminationFlag)
+                            .build()
+                            .write(
+                                    configuration.get(CONFIG_WRITE_PROPERTY, CONFIG_CLUSTER),
+                                    propertyId -> (ops, id) -> {
+                                        final int setId = (int) (id);
+                                        DefinedProperty property = DefinedProperty.intProperty(propertyId, setId + 1);
+                                        for (final IntCursor iCursor : connectedComponents.get(setId)) {
+                                            ops.nodeSetProperty(
+                                                    graph.toOriginalNodeId(iCursor.value),
+                                                    property);
+                                        }
                                     }
-                                }
-                        );
-            });
+                            );
+                });
+            }
         }
 
         return Stream.of(builder.build());
@@ -167,36 +168,38 @@ public class StronglyConnectedComponentsProc {
 
         SCCResult.Builder builder = SCCResult.builder();
 
-        ProgressTimer loadTimer = builder.timeLoad();
-        Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .init(log, label, relationship, configuration)
-                .withoutRelationshipWeights()
-                .withDirection(Direction.OUTGOING)
-                .load(configuration.getGraphImpl());
-        loadTimer.stop();
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker)
+                .withDirection(Direction.OUTGOING);
 
-        final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-        SCCTunedTarjan tarjan = new SCCTunedTarjan(graph)
-                .withProgressLogger(ProgressLogger.wrap(log, "SCC(TunedTarjan)"))
-                .withTerminationFlag(terminationFlag);
+        try (AlgoScheduler.Job job = admit("algo.scc.recursive.tunedTarjan", loader, configuration, tracker)) {
+            ProgressTimer loadTimer = builder.timeLoad();
+            Graph graph = loader.load(configuration.getGraphImpl());
+            loadTimer.stop();
 
-        builder.timeEval(tarjan::compute);
+            final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
+            SCCTunedTarjan tarjan = new SCCTunedTarjan(graph)
+                    .withProgressLogger(ProgressLogger.wrap(log, "SCC(TunedTarjan)"))
+                    .withTerminationFlag(terminationFlag);
 
-        builder.withMaxSetSize(tarjan.getMaxSetSize())
-                .withMinSetSize(tarjan.getMinSetSize())
-                .withSetCount(tarjan.getSetCount());
+            builder.timeEval(tarjan::compute);
 
-        if (configuration.isWriteFlag()) {
-            builder.timeWrite(() -> Exporter
-                    .of(api, graph)
-                    .withLog(log)
-                    .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
-                    .build()
-                    .write(
-                            configuration.get(CONFIG_WRITE_PROPERTY, CONFIG_CLUSTER),
-                            tarjan.getConnectedComponents(),
-                            Translators.OPTIONAL_INT_ARRAY_TRANSLATOR
-                    ));
+            builder.withMaxSetSize(tarjan.getMaxSetSize())
+                    .withMinSetSize(tarjan.getMinSetSize())
+                    .withSetCount(tarjan.getSetCount());
+
+            if (configuration.isWriteFlag()) {
+                builder.timeWrite(() -> Exporter
+                        .of(api, graph)
+                        .withLog(log)
+                        .parallel(Pools.DEFAULT, job.concurrency(), terminationFlag)
+                        .build()
+                        .write(
+                                configuration.get(CONFIG_WRITE_PROPERTY, CONFIG_CLUSTER),
+                                tarjan.getConnectedComponents(),
+                                Translators.OPTIONAL_INT_ARRAY_TRANSLATOR
+                        ));
+            }
         }
 
         return Stream.of(builder.build());
@@ -213,17 +216,19 @@ public class StronglyConnectedComponentsProc {
 
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
-        Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .init(log, label, relationship, configuration)
-                .withoutRelationshipWeights()
-                .withDirection(Direction.OUTGOING)
-                .load(configuration.getGraphImpl());
-
-        return new SCCTunedTarjan(graph)
-                .withProgressLogger(ProgressLogger.wrap(log, "SCC(TunedTarjan)"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction))
-                .compute()
-                .resultStream();
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker)
+                .withDirection(Direction.OUTGOING);
+
+        try (AlgoScheduler.Job job = admit("algo.scc.recursive.tunedTarjan.stream", loader, configuration, tracker)) {
+            Graph graph = loader.load(configuration.getGraphImpl());
+
+            return new SCCTunedTarjan(graph)
+                    .withProgressLogger(ProgressLogger.wrap(log, "SCC(TunedTarjan)"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .compute()
+                    .resultStream();
+        }
     }
 
     // algo.scc.iterative
@@ -239,28 +244,29 @@ public class StronglyConnectedComponentsProc {
 
         final SCCResult.Builder builder = SCCResult.builder();
 
-        final ProgressTimer loadTimer = builder.timeLoad();
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .init(log, label, relationship, configuration)
-                .withoutRelationshipWeights()
-                .withDirection(Direction.OUTGOING)
-                .load(configuration.getGraphImpl());
-        loadTimer.stop();
-
         final AllocationTracker tracker = AllocationTracker.create();
-        final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-        final SCCAlgorithm tarjan = SCCAlgorithm.iterativeTarjan(graph, tracker)
-                .withProgressLogger(ProgressLogger.wrap(log, "SCC(IterativeTarjan)"))
-                .withTerminationFlag(terminationFlag);
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker)
+                .withDirection(Direction.OUTGOING);
 
-        builder.timeEval(tarjan::compute);
+        try (AlgoScheduler.Job job = admit("algo.scc.iterative", loader, configuration, tracker)) {
+            final ProgressTimer loadTimer = builder.timeLoad();
+            final Graph graph = loader.load(configuration.getGraphImpl());
+            loadTimer.stop();
 
-        builder.withSetCount(tarjan.getSetCount())
-                .withMinSetSize(tarjan.getMinSetSize())
-                .withMaxSetSize(tarjan.getMaxSetSize());
+            final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
+            final SCCAlgorithm tarjan = SCCAlgorithm.iterativeTarjan(graph, tracker)
+                    .withProgressLogger(ProgressLogger.wrap(log, "SCC(IterativeTarjan)"))
+                    .withTerminationFlag(terminationFlag);
 
-        if (configuration.isWriteFlag()) {
-            builder.timeWrite(() -> write(configuration,  graph, terminationFlag, tarjan));
+            builder.timeEval(tarjan::compute);
+
+            builder.withSetCount(tarjan.getSetCount())
+                    .withMinSetSize(tarjan.getMinSetSize())
+                    .withMaxSetSize(tarjan.getMaxSetSize());
+
+            if (configuration.isWriteFlag()) {
+                builder.timeWrite(() -> write(configuration,  graph, terminationFlag, tarjan));
+            }
         }
 
         return Stream.of(builder.build());
@@ -310,21 +316,22 @@ public class StronglyConnectedComponentsProc {
 
         final ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .init(log, label, relationship, configuration)
-                .withoutRelationshipWeights()
-                .withDirection(Direction.OUTGOING)
-                .load(configuration.getGraphImpl());
-
         final AllocationTracker tracker = AllocationTracker.create();
-        final SCCAlgorithm compute = SCCAlgorithm.iterativeTarjan(graph, tracker)
-                .withProgressLogger(ProgressLogger.wrap(log, "SCC(IterativeTarjan)"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction))
-                .compute();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker)
+                .withDirection(Direction.OUTGOING);
 
-        graph.release();
+        try (AlgoScheduler.Job job = admit("algo.scc.iterative.stream", loader, configuration, tracker)) {
+            final Graph graph = loader.load(configuration.getGraphImpl());
+
+            final SCCAlgorithm compute = SCCAlgorithm.iterativeTarjan(graph, tracker)
+                    .withProgressLogger(ProgressLogger.wrap(log, "SCC(IterativeTarjan)"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .compute();
+
+            graph.release();
 
-        return compute.resultStream();
+            return compute.resultStream();
+        }
     }
 
 
@@ -341,40 +348,42 @@ public class StronglyConnectedComponentsProc {
 
         SCCResult.Builder builder = SCCResult.builder();
 
-        ProgressTimer loadTimer = builder.timeLoad();
-        Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .init(log, label, relationship, configuration)
-                .withoutRelationshipWeights()
-                .load(configuration.getGraphImpl());
-        loadTimer.stop();
-
-        final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-        final MultistepSCC multistep = new MultistepSCC(graph, org.neo4j.graphalgo.core.utils.Pools.DEFAULT,
-                configuration.getConcurrency(),
-                configuration.getNumber("cutoff", 100_000).intValue())
-                .withProgressLogger(ProgressLogger.wrap(log, "SCC(MultiStep)"))
-                .withTerminationFlag(terminationFlag);
-
-        builder.timeEval(multistep::compute);
-
-        builder.withMaxSetSize(multistep.getMaxSetSize())
-                .withMinSetSize(multistep.getMinSetSize())
-                .withSetCount(multistep.getSetCount());
-
-        if (configuration.isWriteFlag()) {
-            final int[] connectedComponents = multistep.getConnectedComponents();
-            graph.release();
-            multistep.release();
-            builder.timeWrite(() -> Exporter
-                    .of(api, graph)
-                    .withLog(log)
-                    .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
-                    .build()
-                    .write(
-                            configuration.get(CONFIG_WRITE_PROPERTY, CONFIG_CLUSTER),
-                            connectedComponents,
-                            Translators.OPTIONAL_INT_ARRAY_TRANSLATOR
-                    ));
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.scc.multistep", loader, configuration, tracker)) {
+            ProgressTimer loadTimer = builder.timeLoad();
+            Graph graph = loader.load(configuration.getGraphImpl());
+            loadTimer.stop();
+
+            final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
+            final MultistepSCC multistep = new MultistepSCC(graph, org.neo4j.graphalgo.core.utils.Pools.DEFAULT,
+                    job.concurrency(),
+                    configuration.getNumber("cutoff", 100_000).intValue())
+                    .withProgressLogger(ProgressLogger.wrap(log, "SCC(MultiStep)"))
+                    .withTerminationFlag(terminationFlag);
+
+            builder.timeEval(multistep::compute);
+
+            builder.withMaxSetSize(multistep.getMaxSetSize())
+                    .withMinSetSize(multistep.getMinSetSize())
+                    .withSetCount(multistep.getSetCount());
+
+            if (configuration.isWriteFlag()) {
+                final int[] connectedComponents = multistep.getConnectedComponents();
+                graph.release();
+                multistep.release();
+                builder.timeWrite(() -> Exporter
+                        .of(api, graph)
+                        .withLog(log)
+                        .parallel(Pools.DEFAULT, job.concurrency(), terminationFlag)
+                        .build()
+                        .write(
+                                configuration.get(CONFIG_WRITE_PROPERTY, CONFIG_CLUSTER),
+                                connectedComponents,
+                                Translators.OPTIONAL_INT_ARRAY_TRANSLATOR
+                        ));
+            }
         }
 
         return Stream.of(builder.build());
@@ -391,20 +400,22 @@ public class StronglyConnectedComponentsProc {
 
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
-        Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .init(log, label, relationship, configuration)
-                .withoutRelationshipWeights()
-                .load(configuration.getGraphImpl());
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker);
 
-        final MultistepSCC multistep = new MultistepSCC(graph, org.neo4j.graphalgo.core.utils.Pools.DEFAULT,
-                configuration.getConcurrency(),
-                configuration.getNumber("cutoff", 100_000).intValue())
-                .withProgressLogger(ProgressLogger.wrap(log, "SCC(MultiStep)"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction));
+        try (AlgoScheduler.Job job = admit("algo.scc.multistep.stream", loader, configuration, tracker)) {
+            Graph graph = loader.load(configuration.getGraphImpl());
 
-        multistep.compute();
-        graph.release();
-        return multistep.resultStream();
+            final MultistepSCC multistep = new MultistepSCC(graph, org.neo4j.graphalgo.core.utils.Pools.DEFAULT,
+                    job.concurrency(),
+                    configuration.getNumber("cutoff", 100_000).intValue())
+                    .withProgressLogger(ProgressLogger.wrap(log, "SCC(MultiStep)"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction));
+
+            multistep.compute();
+            graph.release();
+            return multistep.resultStream();
+        }
     }
 
     // algo.scc.forwardBackward.stream
@@ -419,17 +430,46 @@ public class StronglyConnectedComponentsProc {
 
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
-        Graph graph = new GraphLoader(api, Pools.DEFAULT)
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker);
+
+        try (AlgoScheduler.Job job = admit("algo.scc.forwardBackward.stream", loader, configuration, tracker)) {
+            Graph graph = loader.load(configuration.getGraphImpl());
+
+            final ForwardBackwardScc algo = new ForwardBackwardScc(graph, Pools.DEFAULT,
+                    job.concurrency())
+                    .withProgressLogger(ProgressLogger.wrap(log, "SCC(ForwardBackward)"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .compute(graph.toMappedNodeId(startNodeId));
+            graph.release();
+            return algo.resultStream();
+        }
+    }
+
+    private GraphLoader graphLoader(
+            String label,
+            String relationship,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return new GraphLoader(api, Pools.DEFAULT)
                 .init(log, label, relationship, configuration)
                 .withoutRelationshipWeights()
-                .load(configuration.getGraphImpl());
+                .withAllocationTracker(tracker);
+    }
 
-        final ForwardBackwardScc algo = new ForwardBackwardScc(graph, Pools.DEFAULT,
-                configuration.getConcurrency())
-                .withProgressLogger(ProgressLogger.wrap(log, "SCC(ForwardBackward)"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction))
-                .compute(graph.toMappedNodeId(startNodeId));
-        graph.release();
-        return algo.resultStream();
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader loader,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "scc",
+                loader,
+                configuration.getGraphImpl(),
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
     }
 }
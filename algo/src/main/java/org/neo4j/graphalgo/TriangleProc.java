@@ -22,6 +22,7 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.utils.*;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
 import org.neo4j.graphalgo.core.utils.paged.PagedAtomicIntegerArray;
 import org.neo4j.graphalgo.core.write.Exporter;
@@ -68,20 +69,30 @@ public class TriangleProc {
                 .overrideNodeLabelOrQuery(label)
                 .overrideRelationshipTypeOrQuery(relationship);
 
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = new GraphLoader(api, Pools.DEFAULT)
                 .withOptionalLabel(configuration.getNodeLabelOrQuery())
                 .withOptionalRelationshipType(configuration.getRelationshipOrQuery())
                 .withoutRelationshipWeights()
                 .withoutNodeWeights()
                 .init(log, label, relationship, configuration)
                 .withDirection(TriangleCountBase.D)
-                .load(configuration.getGraphImpl());
+                .withAllocationTracker(tracker);
 
-        final TriangleStream triangleStream = new TriangleStream(graph, Pools.DEFAULT, configuration.getConcurrency())
-                .withProgressLogger(ProgressLogger.wrap(log, "triangleStream"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction));
+        // the triangles are found while the stream is consumed, so the job stays admitted until it is closed
+        final AlgoScheduler.Job job = admit("algo.triangle.stream", "triangles", loader, configuration, tracker);
+        try {
+            final Graph graph = loader.load(configuration.getGraphImpl());
 
-        return triangleStream.resultStream();
+            final TriangleStream triangleStream = new TriangleStream(graph, Pools.DEFAULT, job.concurrency())
+                    .withProgressLogger(ProgressLogger.wrap(log, "triangleStream"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction));
+
+            return triangleStream.resultStream().onClose(job::close);
+        } catch (RuntimeException | Error e) {
+            job.close();
+            throw e;
+        }
     }
 
     @Procedure("algo.triangleCount.stream")
@@ -96,22 +107,18 @@ public class TriangleProc {
                 .overrideNodeLabelOrQuery(label)
                 .overrideRelationshipTypeOrQuery(relationship);
 
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .withOptionalLabel(configuration.getNodeLabelOrQuery())
-                .withOptionalRelationshipType(configuration.getRelationshipOrQuery())
-                .withoutRelationshipWeights()
-                .withoutNodeWeights()
-                .withSort(true)
-                .asUndirected(true)
-                .init(log, label, relationship, configuration)
-                .withDirection(TriangleCountBase.D)
-                .load(configuration.getGraphImpl());
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker);
 
-        return TriangleCountAlgorithm.instance(graph, Pools.DEFAULT, configuration.getConcurrency())
-                .withProgressLogger(ProgressLogger.wrap(log, "triangleCount"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction))
-                .compute()
-                .resultStream();
+        try (AlgoScheduler.Job job = admit("algo.triangleCount.stream", "trianglecount", loader, configuration, tracker)) {
+            final Graph graph = loader.load(configuration.getGraphImpl());
+
+            return TriangleCountAlgorithm.instance(graph, configuration.getExecutor(), job.concurrency())
+                    .withProgressLogger(ProgressLogger.wrap(log, "triangleCount"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .compute()
+                    .resultStream();
+        }
     }
 
 
@@ -127,25 +134,21 @@ public class TriangleProc {
                 .overrideNodeLabelOrQuery(label)
                 .overrideRelationshipTypeOrQuery(relationship);
 
-        final Graph graph = new GraphLoader(api, Pools.DEFAULT)
-                .withOptionalLabel(configuration.getNodeLabelOrQuery())
-                .withOptionalRelationshipType(configuration.getRelationshipOrQuery())
-                .withoutRelationshipWeights()
-                .withoutNodeWeights()
-                .withSort(true)
-                .asUndirected(true)
-                .init(log, label, relationship, configuration)
-                .withDirection(TriangleCountBase.D)
-                .load(configuration.getGraphImpl());
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker);
 
-        return new TriangleCountForkJoin(
-                graph,
-                ForkJoinPool.commonPool(),
-                configuration.getNumber("threshold", 10_000).intValue())
-                .withProgressLogger(ProgressLogger.wrap(log, "triangleCount"))
-                .withTerminationFlag(TerminationFlag.wrap(transaction))
-                .compute()
-                .resultStream();
+        try (AlgoScheduler.Job job = admit("algo.triangleCount.forkJoin.stream", "trianglecount", loader, configuration, tracker)) {
+            final Graph graph = loader.load(configuration.getGraphImpl());
+
+            return new TriangleCountForkJoin(
+                    graph,
+                    ForkJoinPool.commonPool(),
+                    configuration.getNumber("threshold", 10_000).intValue())
+                    .withProgressLogger(ProgressLogger.wrap(log, "triangleCount"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .compute()
+                    .resultStream();
+        }
     }
 
 
@@ -166,38 +169,34 @@ public class TriangleProc {
                 .overrideNodeLabelOrQuery(label)
                 .overrideRelationshipTypeOrQuery(relationship);
         final TriangleCountResultBuilder builder = new TriangleCountResultBuilder();
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker);
 
-        try (ProgressTimer timer = builder.timeLoad()) {
-            graph = new GraphLoader(api, Pools.DEFAULT)
-                    .withOptionalLabel(configuration.getNodeLabelOrQuery())
-                    .withOptionalRelationshipType(configuration.getRelationshipOrQuery())
-                    .withoutRelationshipWeights()
-                    .withoutNodeWeights()
-                    .withSort(true)
-                    .asUndirected(true)
-                    .init(log, label, relationship, configuration)
-                    .withDirection(TriangleCountBase.D)
-                    .load(configuration.getGraphImpl());
-        }
+        try (AlgoScheduler.Job job = admit("algo.triangleCount", "trianglecount", loader, configuration, tracker)) {
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = loader.load(configuration.getGraphImpl());
+            }
 
-        final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-        try (ProgressTimer timer = builder.timeEval()) {
-            triangleCount = TriangleCountAlgorithm.instance(graph, Pools.DEFAULT, configuration.getConcurrency())
-                    .withProgressLogger(ProgressLogger.wrap(log, "triangleCount"))
-                    .withTerminationFlag(TerminationFlag.wrap(transaction))
-                    .compute();
-            clusteringCoefficients = triangleCount.getCoefficients();
-        }
+            final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
+            try (ProgressTimer timer = builder.timeEval()) {
+                triangleCount = TriangleCountAlgorithm.instance(graph, configuration.getExecutor(), job.concurrency())
+                        .withProgressLogger(ProgressLogger.wrap(log, "triangleCount"))
+                        .withTerminationFlag(TerminationFlag.wrap(transaction))
+                        .compute();
+                clusteringCoefficients = triangleCount.getCoefficients();
+            }
 
-        if (configuration.isWriteFlag()) {
-            try (ProgressTimer timer = builder.timeWrite()) {
-                write(graph, triangleCount, configuration, terminationFlag);
+            if (configuration.isWriteFlag()) {
+                try (ProgressTimer timer = builder.timeWrite()) {
+                    write(graph, triangleCount, configuration, terminationFlag);
+                }
             }
-        }
 
-        builder.withNodeCount(graph.nodeCount())
-                .withTriangleCount(triangleCount.getTriangleCount())
-                .withAverageClusteringCoefficient(triangleCount.getAverageCoefficient());
+            builder.withNodeCount(graph.nodeCount())
+                    .withTriangleCount(triangleCount.getTriangleCount())
+                    .withAverageClusteringCoefficient(triangleCount.getAverageCoefficient());
+            triangleCount.release();
+        }
 
         return Stream.of(builder.build());
     }
@@ -283,65 +282,95 @@ public class TriangleProc {
                 .overrideNodeLabelOrQuery(label)
                 .overrideRelationshipTypeOrQuery(relationship);
         final TriangleCountResultBuilder builder = new TriangleCountResultBuilder();
+        final AllocationTracker tracker = AllocationTracker.create();
+        final GraphLoader loader = graphLoader(label, relationship, configuration, tracker);
 
-        try (ProgressTimer timer = builder.timeLoad()) {
-            graph = new GraphLoader(api, Pools.DEFAULT)
-                    .withOptionalLabel(configuration.getNodeLabelOrQuery())
-                    .withOptionalRelationshipType(configuration.getRelationshipOrQuery())
-                    .withoutRelationshipWeights()
-                    .withoutNodeWeights()
-                    .withSort(true)
-                    .asUndirected(true)
-                    .init(log, label, relationship, configuration)
-                    .withDirection(TriangleCountBase.D)
-                    .load(configuration.getGraphImpl());
-        }
+        try (AlgoScheduler.Job job = admit("algo.triangleCount.forkJoin", "trianglecount", loader, configuration, tracker)) {
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = loader.load(configuration.getGraphImpl());
+            }
 
-        final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
-        try (ProgressTimer timer = builder.timeEval()) {
-            triangleCount = new TriangleCountForkJoin(
-                    graph,
-                    ForkJoinPool.commonPool(),
-                    configuration.getNumber("threshold", 10_000).intValue())
-                    .withProgressLogger(ProgressLogger.wrap(log, "triangleCount"))
-                    .withTerminationFlag(terminationFlag)
-                    .compute();
-            clusteringCoefficients = triangleCount.getClusteringCoefficients();
-        }
+            final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
+            try (ProgressTimer timer = builder.timeEval()) {
+                triangleCount = new TriangleCountForkJoin(
+                        graph,
+                        ForkJoinPool.commonPool(),
+                        configuration.getNumber("threshold", 10_000).intValue())
+                        .withProgressLogger(ProgressLogger.wrap(log, "triangleCount"))
+                        .withTerminationFlag(terminationFlag)
+                        .compute();
+                clusteringCoefficients = triangleCount.getClusteringCoefficients();
+            }
 
-        if (configuration.isWriteFlag()) {
-            try (ProgressTimer timer = builder.timeWrite()) {
-                final Optional<String> coefficientProperty = configuration.getString(COEFFICIENT_WRITE_PROPERTY_VALUE);
-                final Exporter exporter = Exporter.of(api, graph)
-                        .withLog(log)
-                        .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
-                        .build();
-                if (coefficientProperty.isPresent()) {
-                    exporter.write(
-                            configuration.getWriteProperty(DEFAULT_WRITE_PROPERTY_VALUE),
-                            triangleCount.getTriangles(),
-                            Translators.ATOMIC_INTEGER_ARRAY_TRANSLATOR,
-                            coefficientProperty.get(),
-                            clusteringCoefficients,
-                            Translators.ATOMIC_DOUBLE_ARRAY_TRANSLATOR
-                    );
-                } else {
-                    exporter.write(
-                            configuration.getWriteProperty(DEFAULT_WRITE_PROPERTY_VALUE),
-                            triangleCount.getTriangles(),
-                            Translators.ATOMIC_INTEGER_ARRAY_TRANSLATOR
-                    );
+            if (configuration.isWriteFlag()) {
+                try (ProgressTimer timer = builder.timeWrite()) {
+                    final Optional<String> coefficientProperty = configuration.getString(COEFFICIENT_WRITE_PROPERTY_VALUE);
+                    final Exporter exporter = Exporter.of(api, graph)
+                            .withLog(log)
+                            .parallel(Pools.DEFAULT, job.concurrency(), terminationFlag)
+                            .build();
+                    if (coefficientProperty.isPresent()) {
+                        exporter.write(
+                                configuration.getWriteProperty(DEFAULT_WRITE_PROPERTY_VALUE),
+                                triangleCount.getTriangles(),
+                                Translators.ATOMIC_INTEGER_ARRAY_TRANSLATOR,
+                                coefficientProperty.get(),
+                                clusteringCoefficients,
+                                Translators.ATOMIC_DOUBLE_ARRAY_TRANSLATOR
+                        );
+                    } else {
+                        exporter.write(
+                                configuration.getWriteProperty(DEFAULT_WRITE_PROPERTY_VALUE),
+                                triangleCount.getTriangles(),
+                                Translators.ATOMIC_INTEGER_ARRAY_TRANSLATOR
+                        );
+                    }
                 }
             }
-        }
 
-        builder.withNodeCount(graph.nodeCount())
-                .withTriangleCount(triangleCount.getTriangleCount())
-                .withAverageClusteringCoefficient(triangleCount.getAverageClusteringCoefficient());
+            builder.withNodeCount(graph.nodeCount())
+                    .withTriangleCount(triangleCount.getTriangleCount())
+                    .withAverageClusteringCoefficient(triangleCount.getAverageClusteringCoefficient());
+        }
 
         return Stream.of(builder.build());
     }
 
+    private GraphLoader graphLoader(
+            String label,
+            String relationship,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return new GraphLoader(api, Pools.DEFAULT)
+                .withOptionalLabel(configuration.getNodeLabelOrQuery())
+                .withOptionalRelationshipType(configuration.getRelationshipOrQuery())
+                .withoutRelationshipWeights()
+                .withoutNodeWeights()
+                .withSort(true)
+                .asUndirected(true)
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .init(log, label, relationship, configuration)
+                .withDirection(TriangleCountBase.D)
+                .withAllocationTracker(tracker);
+    }
+
+    private AlgoScheduler.Job admit(
+            String procedure,
+            String algorithm,
+            GraphLoader loader,
+            ProcedureConfiguration configuration,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                algorithm,
+                loader,
+                configuration.getGraphImpl(),
+                configuration,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
+    }
+
 
     /**
      * result dto
@@ -58,6 +58,7 @@ public class UnionFindProc {
             @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
 
         return UnionFindProcExec.run(
+                "algo.unionFind",
                 config,
                 label,
                 relationship,
@@ -74,6 +75,7 @@ public class UnionFindProc {
             @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
 
         return UnionFindProcExec.stream(
+                "algo.unionFind.stream",
                 config,
                 label,
                 relationship,
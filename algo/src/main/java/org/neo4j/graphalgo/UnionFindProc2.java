@@ -57,7 +57,7 @@ public class UnionFindProc2 {
             @Name(value = "relationship", defaultValue = "") String relationship,
             @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
 
-        return UnionFindProcExec.run(config, label, relationship, this::ufExec);
+        return UnionFindProcExec.run("algo.unionFind.queue", config, label, relationship, this::ufExec);
     }
 
     @Procedure(value = "algo.unionFind.queue.stream")
@@ -70,6 +70,7 @@ public class UnionFindProc2 {
             @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
 
         return UnionFindProcExec.stream(
+                "algo.unionFind.queue.stream",
                 config,
                 label,
                 relationship,
@@ -58,6 +58,7 @@ public class UnionFindProc3 {
             @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
 
         return UnionFindProcExec.run(
+                "algo.unionFind.forkJoinMerge",
                 config,
                 label,
                 relationship,
@@ -74,6 +75,7 @@ public class UnionFindProc3 {
             @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
 
         return UnionFindProcExec.stream(
+                "algo.unionFind.forkJoinMerge.stream",
                 config,
                 label,
                 relationship,
@@ -58,6 +58,7 @@ public class UnionFindProc4 {
             @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
 
         return UnionFindProcExec.run(
+                "algo.unionFind.forkJoin",
                 config,
                 label,
                 relationship,
@@ -74,6 +75,7 @@ public class UnionFindProc4 {
             @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
 
         return UnionFindProcExec.stream(
+                "algo.unionFind.forkJoin.stream",
                 config,
                 label,
                 relationship,
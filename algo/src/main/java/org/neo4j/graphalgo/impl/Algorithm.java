@@ -20,6 +20,7 @@ package org.neo4j.graphalgo.impl;
 
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.logging.Log;
 
 /**
@@ -61,4 +62,46 @@ public abstract class Algorithm<ME extends Algorithm<ME>> implements Termination
     public boolean running() {
         return terminationFlag.running();
     }
+
+    /**
+     * Releases the resources of this algorithm and throws if the
+     * termination flag signals that the computation should stop.
+     * This frees the working set of a terminated algorithm right away,
+     * instead of keeping it alive until the transaction is closed.
+     */
+    @Override
+    public void assertRunning() {
+        if (!running()) {
+            release();
+            terminationFlag.assertRunning();
+        }
+    }
+
+    /**
+     * Estimates the memory an algorithm allocates for its working set
+     * and results, excluding the graph it runs on. Implementations are
+     * static methods next to the algorithm, e.g. {@link HugePageRank#memoryEstimation(long, long, int)}.
+     */
+    @FunctionalInterface
+    public interface MemoryEstimation {
+        MemoryRange estimate(long nodeCount, long relationshipCount, int concurrency);
+
+        /**
+         * Returns the highest concurrency, up to {@code concurrency}, for which
+         * the estimated maximum fits into {@code availableBytes}, or 0 if the
+         * algorithm would not even fit when running single-threaded.
+         */
+        default int maxConcurrency(
+                long nodeCount,
+                long relationshipCount,
+                int concurrency,
+                long availableBytes) {
+            for (int c = concurrency; c > 0; c--) {
+                if (estimate(nodeCount, relationshipCount, c).max() <= availableBytes) {
+                    return c;
+                }
+            }
+            return 0;
+        }
+    }
 }
@@ -23,7 +23,9 @@ import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.queue.IntPriorityQueue;
 import org.neo4j.graphdb.Direction;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.LongStream;
@@ -46,10 +48,13 @@ import java.util.stream.Stream;
  * Due to the high memory footprint the result set would have we emit each result into
  * a blocking queue. The result stream takes elements from the queue while the workers
  * add elements to it. The result stream is limited by N^2. If the stream gets closed
- * prematurely the workers get closed too.
+ * prematurely or the transaction gets terminated the workers get cancelled too.
  */
 public class AllShortestPaths extends MSBFSASPAlgorithm<AllShortestPaths> {
 
+    // how long the result stream waits for the next result before checking the termination flag
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+
     private Graph graph;
     private final int nodeCount;
 
@@ -64,6 +69,7 @@ public class AllShortestPaths extends MSBFSASPAlgorithm<AllShortestPaths> {
     private AtomicInteger counter;
     private ExecutorService executorService;
     private BlockingQueue<Result> resultQueue;
+    private final List<Future<?>> futures;
 
     private volatile boolean outputStreamOpen;
 
@@ -77,6 +83,7 @@ public class AllShortestPaths extends MSBFSASPAlgorithm<AllShortestPaths> {
         this.concurrency = concurrency;
         this.counter = new AtomicInteger();
         this.resultQueue = new LinkedBlockingQueue<>(); // TODO limit size?
+        this.futures = new ArrayList<>(concurrency);
     }
 
     /**
@@ -92,20 +99,40 @@ public class AllShortestPaths extends MSBFSASPAlgorithm<AllShortestPaths> {
         outputStreamOpen = true;
 
         for (int i = 0; i < concurrency; i++) {
-            executorService.submit(new ShortestPathTask());
+            futures.add(executorService.submit(new ShortestPathTask()));
         }
 
         long end = (long) nodeCount * nodeCount;
 
         return LongStream.range(0, end)
-                .onClose(() -> outputStreamOpen = false)
-                .mapToObj(i -> {
-                    try {
-                        return resultQueue.take();
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                }).filter(result -> result.distance != Double.POSITIVE_INFINITY);
+                .onClose(this::cancelTasks)
+                .mapToObj(i -> nextResult())
+                .filter(result -> result.distance != Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * take the next result from the queue, but do not block
+     * forever if the transaction gets terminated in between
+     */
+    private Result nextResult() {
+        try {
+            Result result;
+            while ((result = resultQueue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                assertRunning();
+            }
+            return result;
+        } catch (InterruptedException e) {
+            cancelTasks();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void cancelTasks() {
+        outputStreamOpen = false;
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+        futures.clear();
     }
 
     @Override
@@ -115,6 +142,7 @@ public class AllShortestPaths extends MSBFSASPAlgorithm<AllShortestPaths> {
 
     @Override
     public AllShortestPaths release() {
+        cancelTasks();
         graph = null;
         counter = null;
         resultQueue = null;
@@ -162,7 +190,7 @@ public class AllShortestPaths extends MSBFSASPAlgorithm<AllShortestPaths> {
             Arrays.fill(distance, Double.POSITIVE_INFINITY);
             distance[startNode] = 0d;
             queue.add(startNode, 0d);
-            while (outputStreamOpen && !queue.isEmpty()) {
+            while (outputStreamOpen && running() && !queue.isEmpty()) {
                 final int node = queue.pop();
                 final double sourceDistance = distance[node];
                 // scan relationships
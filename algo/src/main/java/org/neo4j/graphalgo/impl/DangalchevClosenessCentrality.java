@@ -64,7 +64,9 @@ public class DangalchevClosenessCentrality extends Algorithm<DangalchevCloseness
         };
 
         new MultiSourceBFS(graph, graph, Direction.OUTGOING, consumer)
+                .withTerminationFlag(getTerminationFlag())
                 .run(concurrency, executorService);
+        assertRunning();
 
         return this;
     }
@@ -69,6 +69,7 @@ public class GraphUnionFind extends GraphUnionFindAlgo<Graph, DisjointSetStruct,
             progressLogger.logProgress((double) node / (nodeCount - 1));
             return true;
         });
+        assertRunning();
         return dss;
     }
 
@@ -95,6 +96,7 @@ public class GraphUnionFind extends GraphUnionFindAlgo<Graph, DisjointSetStruct,
             progressLogger.logProgress((double) node / (nodeCount - 1));
             return true;
         });
+        assertRunning();
         return dss;
     }
 
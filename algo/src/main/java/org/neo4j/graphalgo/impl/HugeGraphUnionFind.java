@@ -99,6 +99,7 @@ public class HugeGraphUnionFind extends GraphUnionFindAlgo<HugeGraph, PagedDisjo
             progressLogger.logProgress((double) node / (nodeCount - 1));
             return true;
         });
+        assertRunning();
         return dss;
     }
 
@@ -147,7 +147,7 @@ public class HugeMSBFSAllShortestPaths extends MSBFSASPAlgorithm<HugeMSBFSAllSho
                         progressLogger.logProgress(target, maxNodeId);
                     },
                     tracker
-            ).run(concurrency, executorService);
+            ).withTerminationFlag(getTerminationFlag()).run(concurrency, executorService);
 
             resultQueue.add(new Result(-1, -1, -1));
         }
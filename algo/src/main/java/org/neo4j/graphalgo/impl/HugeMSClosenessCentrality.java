@@ -21,6 +21,7 @@ package org.neo4j.graphalgo.impl;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.PagedAtomicIntegerArray;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.PropertyTranslator;
@@ -29,6 +30,7 @@ import org.neo4j.graphalgo.impl.msbfs.HugeMultiSourceBFS;
 import org.neo4j.graphdb.Direction;
 
 import java.util.concurrent.ExecutorService;
+import java.util.function.LongToDoubleFunction;
 import java.util.function.LongToIntFunction;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
@@ -48,6 +50,15 @@ public class HugeMSClosenessCentrality extends MSBFSCCAlgorithm<HugeMSClosenessC
     private final long nodeCount;
     private final AllocationTracker tracker;
 
+    public static MemoryRange memoryEstimation(
+            long nodeCount,
+            long relationshipCount,
+            int concurrency) {
+        return HugeMultiSourceBFS
+                .memoryEstimation(nodeCount, concurrency)
+                .add(PagedAtomicIntegerArray.estimateMemoryUsage(nodeCount));
+    }
+
     public HugeMSClosenessCentrality(
             HugeGraph graph,
             AllocationTracker tracker,
@@ -78,7 +89,9 @@ public class HugeMSClosenessCentrality extends MSBFSCCAlgorithm<HugeMSClosenessC
                 Direction.OUTGOING,
                 consumer,
                 tracker)
+                .withTerminationFlag(getTerminationFlag())
                 .run(concurrency, executorService);
+        assertRunning();
 
         return this;
     }
@@ -93,6 +106,12 @@ public class HugeMSClosenessCentrality extends MSBFSCCAlgorithm<HugeMSClosenessC
                         (data, nodeId) -> centrality(data.get(nodeId), k));
     }
 
+    @Override
+    public LongToDoubleFunction centrality() {
+        final double k = nodeCount - 1;
+        return nodeId -> centrality(farness.get(nodeId), k);
+    }
+
     @Override
     public LongToIntFunction farness() {
         return farness::get;
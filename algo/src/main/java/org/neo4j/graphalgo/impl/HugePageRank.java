@@ -21,13 +21,15 @@ package org.neo4j.graphalgo.impl;
 import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.LongArrayList;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.graphalgo.api.HugeAdjacencyCursor;
 import org.neo4j.graphalgo.api.HugeDegrees;
 import org.neo4j.graphalgo.api.HugeIdMapping;
 import org.neo4j.graphalgo.api.HugeNodeIterator;
-import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
 import org.neo4j.graphalgo.api.HugeRelationshipIterator;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.PropertyTranslator;
 import org.neo4j.graphalgo.core.write.Translators;
@@ -42,6 +44,7 @@ import java.util.concurrent.ExecutorService;
 
 import static org.neo4j.graphalgo.core.utils.ArrayUtil.binaryLookup;
 import static org.neo4j.graphalgo.core.utils.paged.AllocationTracker.humanReadable;
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.availableMemory;
 import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
 import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfDoubleArray;
 import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfIntArray;
@@ -284,6 +287,7 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
                     relationshipIterator,
                     degrees,
                     tracker,
+                    getTerminationFlag(),
                     partitionCount,
                     start
             ));
@@ -357,21 +361,37 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
         return newConcurrency;
     }
 
-    private static long availableMemory() {
-        // TODO: run gc first to free up memory?
-        Runtime rt = Runtime.getRuntime();
-
-        long max = rt.maxMemory(); // max allocated
-        long total = rt.totalMemory(); // currently allocated
-        long free = rt.freeMemory(); // unused portion of currently allocated
-
-        return max - total + free;
-    }
-
     private static long estimateMemoryUsagePerThread(long nodeCount, int concurrency) {
         int nodesPerThread = (int) Math.ceil((double) nodeCount / (double) concurrency);
         long partitions = sizeOfIntArray(nodesPerThread) * (long) concurrency;
-        return shallowSizeOfInstance(ComputeStep.class) + partitions;
+        return shallowSizeOfInstance(ComputeStep.class)
+                + sizeOfLongArray(HugeAdjacencyCursor.BATCH_SIZE)
+                + partitions;
+    }
+
+    /**
+     * Estimates the memory usage for running PageRank on a graph with
+     * {@code nodeCount} nodes, assuming one partition per thread.
+     */
+    public static MemoryRange memoryEstimation(
+            long nodeCount,
+            long relationshipCount,
+            int concurrency) {
+        int stepSize = Math.max(1, concurrency);
+        int partitionSize = (int) Math.min(
+                ParallelUtil.threadSize((long) stepSize, nodeCount),
+                Integer.MAX_VALUE);
+
+        long perThreadUsage = sizeOfIntArray(partitionSize) * (long) stepSize;
+        perThreadUsage += shallowSizeOfInstance(ComputeStep.class);
+        perThreadUsage += sizeOfLongArray(HugeAdjacencyCursor.BATCH_SIZE);
+        perThreadUsage += sizeOfObjectArray(stepSize);
+
+        long sharedUsage = (sizeOfDoubleArray(partitionSize) << 1) * (long) stepSize;
+        sharedUsage += shallowSizeOfInstance(ComputeSteps.class);
+        sharedUsage += sizeOfLongArray(stepSize) << 1;
+
+        return MemoryRange.of(sharedUsage + perThreadUsage * stepSize);
     }
 
     private static long memoryUsageFor(
@@ -401,6 +421,7 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
 
         perThreadUsage *= stepSize;
         perThreadUsage += shallowSizeOfInstance(ComputeStep.class);
+        perThreadUsage += sizeOfLongArray(HugeAdjacencyCursor.BATCH_SIZE);
         perThreadUsage += sizeOfObjectArray(stepSize);
 
         sharedUsage += shallowSizeOfInstance(ComputeSteps.class);
@@ -416,7 +437,10 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
 
     @Override
     public HugePageRank release() {
-        computeSteps.release();
+        if (computeSteps != null) {
+            computeSteps.release();
+            computeSteps = null;
+        }
         return this;
     }
 
@@ -489,18 +513,21 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
 
         private void run(int iterations) {
             final int operations = (iterations << 1) + 1;
+            final TerminationFlag flag = getTerminationFlag();
             int op = 0;
-            ParallelUtil.runWithConcurrency(concurrency, steps, pool);
+            ParallelUtil.runWithConcurrency(concurrency, steps, flag, pool);
             getProgressLogger().logProgress(++op, operations, tracker);
             for (int i = 0; i < iterations && running(); i++) {
                 // calculate scores
-                ParallelUtil.runWithConcurrency(concurrency, steps, pool);
+                ParallelUtil.runWithConcurrency(concurrency, steps, flag, pool);
                 getProgressLogger().logProgress(++op, operations, tracker);
+                assertRunning();
                 synchronizeScores();
                 // sync scores
-                ParallelUtil.runWithConcurrency(concurrency, steps, pool);
+                ParallelUtil.runWithConcurrency(concurrency, steps, flag, pool);
                 getProgressLogger().logProgress(++op, operations, tracker);
             }
+            assertRunning();
         }
 
         private void synchronizeScores() {
@@ -533,7 +560,7 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
         }
     }
 
-    private static final class ComputeStep implements Runnable, HugeRelationshipConsumer {
+    private static final class ComputeStep implements Runnable {
         private static final int S_INIT = 0;
         private static final int S_CALC = 1;
         private static final int S_SYNC = 2;
@@ -542,9 +569,11 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
 
         private long[] starts;
         private int[] lengths;
-        private final HugeRelationshipIterator relationshipIterator;
+        private final HugeAdjacencyCursor cursor;
+        private final long[] targets;
         private final HugeDegrees degrees;
         private final AllocationTracker tracker;
+        private final TerminationFlag terminationFlag;
 
         private final double alpha;
         private final double dampingFactor;
@@ -558,20 +587,21 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
         private final long endNode;
         private final int partitionSize;
 
-        private int srcRankDelta = 0;
-
         ComputeStep(
                 double dampingFactor,
                 HugeRelationshipIterator relationshipIterator,
                 HugeDegrees degrees,
                 AllocationTracker tracker,
+                TerminationFlag terminationFlag,
                 int partitionSize,
                 long startNode) {
             this.dampingFactor = dampingFactor;
             this.alpha = 1.0 - dampingFactor;
-            this.relationshipIterator = relationshipIterator.concurrentCopy();
+            this.cursor = relationshipIterator.concurrentCopy().adjacencyCursor(Direction.OUTGOING);
+            this.targets = new long[HugeAdjacencyCursor.BATCH_SIZE];
             this.degrees = degrees;
             this.tracker = tracker;
+            this.terminationFlag = terminationFlag;
             this.partitionSize = partitionSize;
             this.startNode = startNode;
             this.endNode = startNode + (long) partitionSize;
@@ -616,28 +646,41 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
         private void singleIteration() {
             long startNode = this.startNode;
             long endNode = this.endNode;
-            HugeRelationshipIterator rels = this.relationshipIterator;
+            HugeAdjacencyCursor cursor = this.cursor;
+            long[] targets = this.targets;
+            int untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
             for (long nodeId = startNode; nodeId < endNode; ++nodeId) {
+                if (--untilCheck == 0) {
+                    if (!terminationFlag.running()) {
+                        return;
+                    }
+                    untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
+                }
                 double delta = deltas[(int) (nodeId - startNode)];
                 if (delta > 0) {
                     int degree = degrees.degree(nodeId, Direction.OUTGOING);
                     if (degree > 0) {
-                        srcRankDelta = (int) (100_000 * (delta / degree));
-                        rels.forEachRelationship(nodeId, Direction.OUTGOING, this);
+                        int srcRankDelta = (int) (100_000 * (delta / degree));
+                        if (srcRankDelta != 0) {
+                            cursor.init(nodeId);
+                            int length;
+                            while ((length = cursor.nextTargets(targets)) > 0) {
+                                addRankDelta(targets, length, srcRankDelta);
+                            }
+                        }
                     }
                 }
             }
         }
 
-        @Override
-        public boolean accept(
-                long sourceNodeId,
-                long targetNodeId) {
-            if (srcRankDelta != 0) {
-                int idx = binaryLookup(targetNodeId, starts);
-                nextScores[idx][(int) (targetNodeId - starts[idx])] += srcRankDelta;
+        private void addRankDelta(long[] targets, int length, int srcRankDelta) {
+            long[] starts = this.starts;
+            int[][] nextScores = this.nextScores;
+            for (int i = 0; i < length; i++) {
+                long target = targets[i];
+                int idx = binaryLookup(target, starts);
+                nextScores[idx][(int) (target - starts[idx])] += srcRankDelta;
             }
-            return true;
         }
 
         void prepareNextIteration(int[][] prevScores) {
@@ -21,7 +21,9 @@ package org.neo4j.graphalgo.impl;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.api.HugeRelationshipIterator;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.PagedDisjointSetStruct;
 import org.neo4j.graphdb.Direction;
 
@@ -53,6 +55,25 @@ public class HugeParallelUnionFindQueue extends GraphUnionFindAlgo<HugeGraph, Pa
     private final int stepSize;
     private final AllocationTracker tracker;
 
+    /**
+     * Every step unions its batch into its own disjoint set struct, which
+     * are merged afterwards. In the worst case, all structs are alive at
+     * the same time.
+     */
+    public static MemoryRange memoryEstimation(
+            long nodeCount,
+            long relationshipCount,
+            int concurrency) {
+        long batchSize = ParallelUtil.adjustBatchSize(
+                nodeCount,
+                concurrency,
+                ParallelUtil.DEFAULT_BATCH_SIZE,
+                Integer.MAX_VALUE);
+        long steps = Math.max(1L, ParallelUtil.threadSize(batchSize, nodeCount));
+        long perStep = PagedDisjointSetStruct.estimateSize(nodeCount);
+        return MemoryRange.of(perStep, perStep * steps);
+    }
+
     /**
      * initialize parallel UF
      */
@@ -108,6 +129,7 @@ public class HugeParallelUnionFindQueue extends GraphUnionFindAlgo<HugeGraph, Pa
         }
 
         await(futures);
+        assertRunning();
         return getStruct(queue);
     }
 
@@ -147,7 +169,15 @@ public class HugeParallelUnionFindQueue extends GraphUnionFindAlgo<HugeGraph, Pa
             final PagedDisjointSetStruct struct = new PagedDisjointSetStruct(
                     nodeCount,
                     tracker).reset();
+            int untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
             for (long node = offset; node < end; node++) {
+                // a stopped task still hands over its struct, so that the merges do not block
+                if (--untilCheck == 0) {
+                    if (!running()) {
+                        break;
+                    }
+                    untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
+                }
                 rels.forEachRelationship(
                         node,
                         Direction.OUTGOING,
@@ -29,7 +29,10 @@ import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.graphalgo.api.RelationshipConsumer;
 import org.neo4j.graphalgo.core.heavyweight.HeavyGraph;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.Partition;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphdb.Direction;
 
 import java.util.List;
@@ -37,6 +40,8 @@ import java.util.Random;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadLocalRandom;
 
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfIntArray;
+
 public final class LabelPropagation extends Algorithm<LabelPropagation> {
 
     private static final int[] EMPTY_INTS = new int[0];
@@ -48,9 +53,18 @@ public final class LabelPropagation extends Algorithm<LabelPropagation> {
     private final int nodeCount;
 
     private int[] labels;
+    private List<Partition> partitions;
+    private Direction partitionDirection;
     private long ranIterations;
     private boolean didConverge;
 
+    public static MemoryRange memoryEstimation(
+            long nodeCount,
+            long relationshipCount,
+            int concurrency) {
+        return MemoryRange.of(sizeOfIntArray(Math.toIntExact(nodeCount)));
+    }
+
     public LabelPropagation(
             HeavyGraph graph,
             int batchSize,
@@ -83,16 +97,25 @@ public final class LabelPropagation extends Algorithm<LabelPropagation> {
         ranIterations = 0;
         didConverge = false;
 
+        // same number of batches as an equal-count split, but balanced by degree
+        if (partitions == null || partitionDirection != direction) {
+            partitions = ParallelUtil.degreePartitions(
+                    nodeCount,
+                    ParallelUtil.threadSize(batchSize, nodeCount),
+                    node -> graph.degree((int) node, direction));
+            partitionDirection = direction;
+        }
+
         final List<Runnable> computeSteps = ParallelUtil.readParallel(
                 concurrency,
-                batchSize,
-                graph,
+                partitions,
                 (offset, nodes) -> new InitStep(
                         graph,
                         labels,
                         direction,
                         randomizeOrder,
                         getProgressLogger(),
+                        getTerminationFlag(),
                         nodes
                 ),
                 executor);
@@ -101,9 +124,10 @@ public final class LabelPropagation extends Algorithm<LabelPropagation> {
             computeSteps.set(i, ((InitStep) computeSteps.get(i)).computeStep());
         }
 
-        for (long i = 0L; i < maxIterations; i++) {
-            ParallelUtil.runWithConcurrency(concurrency, computeSteps, executor);
+        for (long i = 0L; i < maxIterations && running(); i++) {
+            ParallelUtil.runWithConcurrency(concurrency, computeSteps, getTerminationFlag(), executor);
         }
+        assertRunning();
 
         long maxIteration = 0;
         boolean converged = true;
@@ -161,6 +185,7 @@ public final class LabelPropagation extends Algorithm<LabelPropagation> {
     @Override
     public LabelPropagation release() {
         graph = null;
+        partitions = null;
         return this;
     }
 
@@ -171,6 +196,7 @@ public final class LabelPropagation extends Algorithm<LabelPropagation> {
         private final Direction direction;
         private final boolean randomizeOrder;
         private final ProgressLogger progressLogger;
+        private final TerminationFlag terminationFlag;
         private final PrimitiveIntIterable nodes;
 
         private InitStep(
@@ -179,12 +205,14 @@ public final class LabelPropagation extends Algorithm<LabelPropagation> {
                 Direction direction,
                 boolean randomizeOrder,
                 ProgressLogger progressLogger,
+                TerminationFlag terminationFlag,
                 PrimitiveIntIterable nodes) {
             this.graph = graph;
             this.existingLabels = existingLabels;
             this.direction = direction;
             this.randomizeOrder = randomizeOrder;
             this.progressLogger = progressLogger;
+            this.terminationFlag = terminationFlag;
             this.nodes = nodes;
         }
 
@@ -208,6 +236,7 @@ public final class LabelPropagation extends Algorithm<LabelPropagation> {
                     direction,
                     randomizeOrder,
                     progressLogger,
+                    terminationFlag,
                     nodes);
         }
     }
@@ -218,6 +247,7 @@ public final class LabelPropagation extends Algorithm<LabelPropagation> {
         private final int[] existingLabels;
         private final Direction direction;
         private final ProgressLogger progressLogger;
+        private final TerminationFlag terminationFlag;
         private final PrimitiveIntIterable nodes;
         private final int maxNode;
         private final IntDoubleHashMap votes;
@@ -231,11 +261,13 @@ public final class LabelPropagation extends Algorithm<LabelPropagation> {
                 Direction direction,
                 boolean randomizeOrder,
                 ProgressLogger progressLogger,
+                TerminationFlag terminationFlag,
                 PrimitiveIntIterable nodes) {
             this.graph = graph;
             this.existingLabels = existingLabels;
             this.direction = direction;
             this.progressLogger = progressLogger;
+            this.terminationFlag = terminationFlag;
             this.nodes = RandomlySwitchingIterable.of(randomizeOrder, nodes);
             this.maxNode = (int) (graph.nodeCount() - 1L);
             this.votes = new IntDoubleScatterMap();
@@ -247,7 +279,14 @@ public final class LabelPropagation extends Algorithm<LabelPropagation> {
                 iteration++;
                 PrimitiveIntIterator iterator = nodes.iterator();
                 boolean didChange = false;
+                int untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
                 while (iterator.hasNext()) {
+                    if (--untilCheck == 0) {
+                        if (!terminationFlag.running()) {
+                            return;
+                        }
+                        untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
+                    }
                     didChange = compute(iterator.next(), didChange);
                 }
                 this.didChange = didChange;
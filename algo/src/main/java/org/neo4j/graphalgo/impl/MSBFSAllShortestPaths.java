@@ -140,7 +140,7 @@ public class MSBFSAllShortestPaths extends MSBFSASPAlgorithm<MSBFSAllShortestPat
                         }
                         progressLogger.logProgress((double) target / (nodeCount - 1));
                     }
-            ).run(concurrency, executorService);
+            ).withTerminationFlag(getTerminationFlag()).run(concurrency, executorService);
 
             resultQueue.add(new Result(-1, -1, -1));
         }
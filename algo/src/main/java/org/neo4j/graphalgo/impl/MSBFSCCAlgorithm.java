@@ -20,6 +20,7 @@ package org.neo4j.graphalgo.impl;
 
 import org.neo4j.graphalgo.core.write.Exporter;
 
+import java.util.function.LongToDoubleFunction;
 import java.util.function.LongToIntFunction;
 import java.util.stream.Stream;
 
@@ -31,6 +32,11 @@ public abstract class MSBFSCCAlgorithm<ME extends MSBFSCCAlgorithm<ME>> extends
 
     public abstract LongToIntFunction farness();
 
+    /**
+     * @return the closeness centrality of a node, by its mapped node id
+     */
+    public abstract LongToDoubleFunction centrality();
+
     public abstract void export(String propertyName, Exporter exporter);
 
     public final double[] exportToArray() {
@@ -28,6 +28,7 @@ import org.neo4j.graphdb.Direction;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.LongToDoubleFunction;
 import java.util.function.LongToIntFunction;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -66,7 +67,9 @@ public class MSClosenessCentrality extends MSBFSCCAlgorithm<MSClosenessCentralit
         };
 
         new MultiSourceBFS(graph, graph, Direction.OUTGOING, consumer)
+                .withTerminationFlag(getTerminationFlag())
                 .run(concurrency, executorService);
+        assertRunning();
 
         return this;
     }
@@ -80,6 +83,12 @@ public class MSClosenessCentrality extends MSBFSCCAlgorithm<MSClosenessCentralit
                         centrality(farness.get(nodeId), k)));
     }
 
+    @Override
+    public LongToDoubleFunction centrality() {
+        final double k = nodeCount - 1;
+        return nodeId -> centrality(farness.get((int) nodeId), k);
+    }
+
     @Override
     public LongToIntFunction farness() {
         return (i) -> farness.get((int) i);
@@ -343,14 +343,15 @@ public class PageRank extends Algorithm<PageRank> implements PageRankAlgorithm {
 
         private void run(int iterations) {
             // initialize data structures
-            ParallelUtil.runWithConcurrency(concurrency, steps, pool);
+            ParallelUtil.runWithConcurrency(concurrency, steps, getTerminationFlag(), pool);
             for (int i = 0; i < iterations && running(); i++) {
                 // calculate scores
-                ParallelUtil.runWithConcurrency(concurrency, steps, pool);
+                ParallelUtil.runWithConcurrency(concurrency, steps, getTerminationFlag(), pool);
                 synchronizeScores();
                 // sync scores
-                ParallelUtil.runWithConcurrency(concurrency, steps, pool);
+                ParallelUtil.runWithConcurrency(concurrency, steps, getTerminationFlag(), pool);
             }
+            assertRunning();
         }
 
         private void synchronizeScores() {
@@ -20,6 +20,7 @@ package org.neo4j.graphalgo.impl;
 
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.dss.DisjointSetStruct;
 import org.neo4j.graphdb.Direction;
 
@@ -93,6 +94,7 @@ public class ParallelUnionFindQueue extends GraphUnionFindAlgo<Graph, DisjointSe
         }
 
         await(futures);
+        assertRunning();
         return getStruct(queue);
     }
 
@@ -136,7 +138,15 @@ public class ParallelUnionFindQueue extends GraphUnionFindAlgo<Graph, DisjointSe
         public void run() {
             phaser.arriveAndDeregister();
             final DisjointSetStruct struct = new DisjointSetStruct(nodeCount).reset();
+            int untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
             for (int node = offset; node < end; node++) {
+                // a stopped task still hands over its struct, so that the merges do not block
+                if (--untilCheck == 0) {
+                    if (!running()) {
+                        break;
+                    }
+                    untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
+                }
                 graph.forEachRelationship(node, Direction.OUTGOING, (sourceNodeId, targetNodeId, relationId) -> {
                     struct.union(sourceNodeId, targetNodeId);
                     return true;
@@ -73,6 +73,7 @@ public class UnionFind extends Algorithm<UnionFind> {
             progressLogger.logProgress((double) stepCount / (nodeCount - 1));
             return running();
         });
+        assertRunning();
         return dss;
     }
 
@@ -92,6 +93,7 @@ public class UnionFind extends Algorithm<UnionFind> {
             progressLogger.logProgress((double) stepCount / (nodeCount - 1));
             return running();
         });
+        assertRunning();
         return dss;
     }
 
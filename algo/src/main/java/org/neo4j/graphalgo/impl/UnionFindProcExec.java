@@ -18,9 +18,11 @@
  */
 package org.neo4j.graphalgo.impl;
 
+import org.neo4j.graphalgo.AlgoSchedulerProc;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.AlgoScheduler;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
@@ -54,6 +56,7 @@ public final class UnionFindProcExec implements BiConsumer<String, Algorithm<?>>
     private final UnionFindAlgo parallel;
 
     public static Stream<UnionFindResult> run(
+            String procedure,
             Map<String, Object> config,
             String label,
             String relationship,
@@ -68,16 +71,23 @@ public final class UnionFindProcExec implements BiConsumer<String, Algorithm<?>>
 
         UnionFindProcExec uf = unionFind.get();
 
-        final Graph graph = uf.load(builder::timeLoad, configuration, tracker);
-        DSSResult dssResult = uf.evaluate(
-                builder::timeEval,
-                graph,
-                configuration,
-                tracker);
-        graph.release();
+        final GraphLoader loader = uf.graphLoader(configuration, tracker);
+        final Graph graph;
+        final DSSResult dssResult;
+        try (AlgoScheduler.Job ignored = uf.admit(procedure, loader, configuration, tracker)) {
+            try (ProgressTimer timer = builder.timeLoad()) {
+                graph = loader.load(configuration.getGraphImpl());
+            }
+            dssResult = uf.evaluate(
+                    builder::timeEval,
+                    graph,
+                    configuration,
+                    tracker);
+            graph.release();
 
-        if (configuration.isWriteFlag()) {
-            uf.write(builder::timeWrite, graph, dssResult, configuration);
+            if (configuration.isWriteFlagOrFile(true)) {
+                uf.write(builder::timeWrite, graph, dssResult, configuration);
+            }
         }
 
         return Stream.of(builder
@@ -87,6 +97,7 @@ public final class UnionFindProcExec implements BiConsumer<String, Algorithm<?>>
     }
 
     public static Stream<DisjointSetStruct.Result> stream(
+            String procedure,
             Map<String, Object> config,
             String label,
             String relationship,
@@ -99,8 +110,13 @@ public final class UnionFindProcExec implements BiConsumer<String, Algorithm<?>>
         AllocationTracker tracker = AllocationTracker.create();
         UnionFindProcExec uf = unionFind.get();
 
-        final Graph graph = uf.load(configuration, tracker);
-        DSSResult result = uf.evaluate(graph, configuration, tracker);
+        final GraphLoader loader = uf.graphLoader(configuration, tracker);
+        final Graph graph;
+        final DSSResult result;
+        try (AlgoScheduler.Job ignored = uf.admit(procedure, loader, configuration, tracker)) {
+            graph = loader.load(configuration.getGraphImpl());
+            result = uf.evaluate(graph, configuration, tracker);
+        }
         graph.release();
         return result.resultStream(graph);
     }
@@ -130,14 +146,35 @@ public final class UnionFindProcExec implements BiConsumer<String, Algorithm<?>>
     public Graph load(
             ProcedureConfiguration config,
             AllocationTracker tracker) {
+        return graphLoader(config, tracker).load(config.getGraphImpl());
+    }
+
+    private GraphLoader graphLoader(
+            ProcedureConfiguration config,
+            AllocationTracker tracker) {
         return new GraphLoader(api, Pools.DEFAULT)
                 .init(log, config.getNodeLabelOrQuery(), config.getRelationshipOrQuery(), config)
                 .withOptionalRelationshipWeightsFromProperty(
                         config.getWeightProperty(),
                         config.getWeightPropertyDefaultValue(1.0))
                 .withDirection(Direction.OUTGOING)
-                .withAllocationTracker(tracker)
-                .load(config.getGraphImpl());
+                .withAllocationTracker(tracker);
+    }
+
+    private AlgoScheduler.Job admit(
+            String procedure,
+            GraphLoader loader,
+            ProcedureConfiguration config,
+            AllocationTracker tracker) {
+        return AlgoSchedulerProc.admit(
+                procedure,
+                "unionfind",
+                loader,
+                config.getGraphImpl(),
+                config,
+                tracker,
+                TerminationFlag.wrap(transaction),
+                log);
     }
 
     private DSSResult evaluate(
@@ -189,6 +226,7 @@ public final class UnionFindProcExec implements BiConsumer<String, Algorithm<?>>
                         Pools.DEFAULT,
                         configuration.getConcurrency(),
                         TerminationFlag.wrap(transaction))
+                .withFile(configuration.getWriteFile())
                 .build();
         if (struct.hugeStruct != null) {
             write(exporter, struct.hugeStruct, configuration);
@@ -24,17 +24,21 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.utils.AtomicDoubleArray;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.container.Paths;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphalgo.impl.Algorithm;
 import org.neo4j.graphdb.Direction;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfDoubleArray;
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfIntArray;
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfLongArray;
+
 /**
  * Implements Betweenness Centrality for unweighted graphs
  * as specified in <a href="http://www.algo.uni-konstanz.de/publications/b-fabc-01.pdf">this paper</a>
@@ -66,6 +70,25 @@ public class ParallelBetweennessCentrality extends Algorithm<ParallelBetweenness
      * @param executorService the executor service
      * @param concurrency desired number of threads to spawn
      */
+    /**
+     * Every thread keeps arrays for sigma, delta and distance. The stack,
+     * the queue and the paths grow up to the size of the graph.
+     */
+    public static MemoryRange memoryEstimation(
+            long nodeCount,
+            long relationshipCount,
+            int concurrency) {
+        int nodes = Math.toIntExact(nodeCount);
+        long minPerThread = (sizeOfIntArray(nodes) << 1) + sizeOfDoubleArray(nodes);
+        long maxPerThread = minPerThread
+                + (sizeOfIntArray(nodes) << 1)
+                + nodeCount * sizeOfIntArray(Paths.INITIAL_PATH_CAPACITY)
+                + relationshipCount * Integer.BYTES;
+        return MemoryRange.of(minPerThread, maxPerThread)
+                .times(Math.max(1, concurrency))
+                .add(sizeOfLongArray(nodes));
+    }
+
     public ParallelBetweennessCentrality(Graph graph, ExecutorService executorService, int concurrency) {
         this.graph = graph;
         this.nodeCount = Math.toIntExact(graph.nodeCount());
@@ -87,11 +110,11 @@ public class ParallelBetweennessCentrality extends Algorithm<ParallelBetweenness
      */
     public ParallelBetweennessCentrality compute() {
         nodeQueue.set(0);
-        final ArrayList<Future<?>> futures = new ArrayList<>();
+        final ArrayList<Runnable> tasks = new ArrayList<>();
         for (int i = 0; i < concurrency; i++) {
-            futures.add(executorService.submit(new BCTask()));
+            tasks.add(new BCTask());
         }
-        ParallelUtil.awaitTermination(futures);
+        ParallelUtil.run(tasks, executorService, this);
         return this;
     }
 
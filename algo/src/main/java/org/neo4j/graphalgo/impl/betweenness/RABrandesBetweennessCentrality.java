@@ -29,7 +29,6 @@ import org.neo4j.graphdb.Direction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.IntStream;
@@ -107,11 +106,11 @@ public class RABrandesBetweennessCentrality extends Algorithm<RABrandesBetweenne
      */
     public RABrandesBetweennessCentrality compute() {
         nodeQueue.set(0);
-        final ArrayList<Future<?>> futures = new ArrayList<>();
+        final ArrayList<Runnable> tasks = new ArrayList<>();
         for (int i = 0; i < concurrency; i++) {
-            futures.add(executorService.submit(new BCTask()));
+            tasks.add(new BCTask());
         }
-        ParallelUtil.awaitTermination(futures);
+        ParallelUtil.run(tasks, executorService, this);
         return this;
     }
 
@@ -30,6 +30,7 @@ import org.neo4j.graphalgo.impl.msbfs.MultiSourceBFS;
 import org.neo4j.graphdb.Direction;
 
 import java.util.concurrent.ExecutorService;
+import java.util.function.LongToDoubleFunction;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -61,10 +62,17 @@ public class HarmonicCentrality extends Algorithm<HarmonicCentrality> implements
             progressLogger.logProgress((double) nodeId / (nodeCount - 1));
         };
         new MultiSourceBFS(graph, graph, Direction.BOTH, consumer)
+                .withTerminationFlag(getTerminationFlag())
                 .run(concurrency, executorService);
+        assertRunning();
         return this;
     }
 
+    @Override
+    public LongToDoubleFunction centrality() {
+        return nodeId -> inverseFarness.get((int) nodeId) / (double) (nodeCount - 1);
+    }
+
     public Stream<Result> resultStream() {
         return IntStream.range(0, nodeCount)
                 .mapToObj(nodeId -> new Result(
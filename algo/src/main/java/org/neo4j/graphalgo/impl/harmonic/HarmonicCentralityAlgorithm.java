@@ -11,6 +11,7 @@ import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.impl.Algorithm;
 
 import java.util.concurrent.ExecutorService;
+import java.util.function.LongToDoubleFunction;
 import java.util.stream.Stream;
 
 /**
@@ -22,6 +23,11 @@ public interface HarmonicCentralityAlgorithm {
 
     Stream<Result> resultStream();
 
+    /**
+     * @return the harmonic centrality of a node, by its mapped node id
+     */
+    LongToDoubleFunction centrality();
+
     HarmonicCentralityAlgorithm withProgressLogger(ProgressLogger wrap);
 
     HarmonicCentralityAlgorithm withTerminationFlag(TerminationFlag wrap);
@@ -21,6 +21,7 @@ package org.neo4j.graphalgo.impl.harmonic;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.PagedAtomicDoubleArray;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.PropertyTranslator;
@@ -30,6 +31,7 @@ import org.neo4j.graphalgo.impl.msbfs.HugeMultiSourceBFS;
 import org.neo4j.graphdb.Direction;
 
 import java.util.concurrent.ExecutorService;
+import java.util.function.LongToDoubleFunction;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
@@ -47,6 +49,15 @@ public class HugeHarmonicCentrality extends Algorithm<HugeHarmonicCentrality> im
     private final int concurrency;
     private final long nodeCount;
 
+    public static MemoryRange memoryEstimation(
+            long nodeCount,
+            long relationshipCount,
+            int concurrency) {
+        return HugeMultiSourceBFS
+                .memoryEstimation(nodeCount, concurrency)
+                .add(PagedAtomicDoubleArray.estimateMemoryUsage(nodeCount));
+    }
+
     public HugeHarmonicCentrality(HugeGraph graph, AllocationTracker allocationTracker, int concurrency, ExecutorService executorService) {
         this.graph = graph;
         this.allocationTracker = allocationTracker;
@@ -70,11 +81,18 @@ public class HugeHarmonicCentrality extends Algorithm<HugeHarmonicCentrality> im
                 Direction.BOTH,
                 consumer,
                 allocationTracker)
+                .withTerminationFlag(getTerminationFlag())
                 .run(concurrency, executorService);
+        assertRunning();
 
         return this;
     }
 
+    @Override
+    public LongToDoubleFunction centrality() {
+        return nodeId -> inverseFarness.get(nodeId) / (double) (nodeCount - 1);
+    }
+
     public Stream<Result> resultStream() {
         return LongStream.range(0, nodeCount)
                 .mapToObj(nodeId -> new Result(
@@ -0,0 +1,345 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.hyperball;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+import org.neo4j.graphalgo.api.HugeRelationshipIterator;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HyperLogLogCounterArray;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicBitSet;
+import org.neo4j.graphalgo.impl.Algorithm;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * HyperBall approximates the neighbourhood function of a graph by keeping
+ * a {@link HyperLogLogCounterArray HyperLogLog counter} per node.
+ * <p>
+ * After iteration {@code t} the counter of a node estimates the size of
+ * its ball of radius {@code t}, that is all nodes that can be reached
+ * from it in at most {@code t} hops along {@code direction}. It is computed
+ * as the union of the node's own counter and the counters of its neighbours
+ * from the previous iteration. The growth of the ball between two
+ * iterations is the number of nodes at distance {@code t}, which gives
+ * approximate farness, closeness and harmonic centrality for every node,
+ * as well as the effective diameter of the graph.
+ * <p>
+ * Each iteration is {@code O(m * 2^log2m)}, the computation stops once no
+ * counter changes anymore, i.e. after diameter many iterations.
+ * Only neighbours whose counter changed in the previous iteration are merged.
+ * <p>
+ * See Boldi and Vigna, "In-Core Computation of Geometric Centralities with HyperBall".
+ */
+public final class HyperBall extends Algorithm<HyperBall> {
+
+    public static final int DEFAULT_LOG2M = 6;
+
+    private static final long MIN_BATCH_SIZE = 1024L;
+
+    private HugeGraph graph;
+    private final Direction direction;
+    private final long nodeCount;
+    private final int maxIterations;
+    private final ExecutorService executor;
+    private final List<Task> tasks;
+
+    private HyperLogLogCounterArray current;
+    private HyperLogLogCounterArray next;
+    private PagedAtomicBitSet modified;
+    private PagedAtomicBitSet nextModified;
+    private DoubleArray counts;
+    private DoubleArray farness;
+    private DoubleArray harmonic;
+
+    private int iterations;
+    // the radius of the balls in the running iteration
+    private int distance;
+    private double[] neighbourhoodFunction = new double[0];
+
+    public static MemoryRange memoryEstimation(long nodeCount, int log2m) {
+        return MemoryRange.of(HyperLogLogCounterArray.estimateMemoryUsage(nodeCount, log2m))
+                .times(2)
+                .add(MemoryRange.of(PagedAtomicBitSet.estimateMemoryUsage(nodeCount)).times(2))
+                .add(MemoryRange.of(DoubleArray.estimateMemoryUsage(nodeCount)).times(3));
+    }
+
+    /**
+     * @param direction the direction in which balls grow, {@code INCOMING}
+     *                  counts the nodes that can reach a node, which is the
+     *                  farness used by {@code MSClosenessCentrality}
+     * @param log2m the base 2 logarithm of the number of registers per counter
+     */
+    public HyperBall(
+            HugeGraph graph,
+            Direction direction,
+            int log2m,
+            int maxIterations,
+            int concurrency,
+            ExecutorService executor,
+            AllocationTracker tracker) {
+        this.graph = graph;
+        this.direction = direction;
+        this.nodeCount = graph.nodeCount();
+        this.maxIterations = maxIterations;
+        this.executor = executor;
+        this.current = HyperLogLogCounterArray.newArray(nodeCount, log2m, tracker);
+        this.next = HyperLogLogCounterArray.newArray(nodeCount, log2m, tracker);
+        this.modified = PagedAtomicBitSet.newBitSet(nodeCount, tracker);
+        this.nextModified = PagedAtomicBitSet.newBitSet(nodeCount, tracker);
+        this.counts = DoubleArray.newArray(nodeCount, tracker);
+        this.farness = DoubleArray.newArray(nodeCount, tracker);
+        this.harmonic = DoubleArray.newArray(nodeCount, tracker);
+
+        long batchSize = ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE);
+        // align ranges to whole bit set words, every task clears its own words
+        batchSize = (batchSize + 63L) & ~63L;
+        this.tasks = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += batchSize) {
+            tasks.add(new Task(start, Math.min(nodeCount, start + batchSize)));
+        }
+    }
+
+    public HyperBall compute() {
+        iterations = 0;
+        distance = 0;
+        List<Double> function = new ArrayList<>();
+        function.add(runIteration());
+        while (iterations < maxIterations) {
+            assertRunning();
+            distance = iterations + 1;
+            double sum = runIteration();
+            long changed = changedCounters();
+            getProgressLogger().logProgress(
+                    distance,
+                    maxIterations,
+                    () -> String.format("iteration %d, %d counters changed", distance, changed));
+            if (changed == 0L) {
+                break;
+            }
+            iterations = distance;
+            function.add(sum);
+
+            HyperLogLogCounterArray tmpCounters = current;
+            current = next;
+            next = tmpCounters;
+            PagedAtomicBitSet tmpModified = modified;
+            modified = nextModified;
+            nextModified = tmpModified;
+        }
+        neighbourhoodFunction = function.stream().mapToDouble(Double::doubleValue).toArray();
+        return this;
+    }
+
+    private double runIteration() {
+        ParallelUtil.run(tasks, executor, this);
+        double sum = 0.0;
+        for (Task task : tasks) {
+            sum += task.sum;
+        }
+        return sum;
+    }
+
+    private long changedCounters() {
+        long changed = 0L;
+        for (Task task : tasks) {
+            changed += task.changed;
+        }
+        return changed;
+    }
+
+    /**
+     * @return the number of iterations that changed any counter, an approximation of the diameter
+     */
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * @return the approximate number of node pairs within distance {@code t}, indexed by {@code t}
+     */
+    public double[] neighbourhoodFunction() {
+        return Arrays.copyOf(neighbourhoodFunction, neighbourhoodFunction.length);
+    }
+
+    /**
+     * The interpolated distance within which {@code fraction} of all
+     * reachable node pairs are found, usually computed for {@code 0.9}.
+     */
+    public double effectiveDiameter(double fraction) {
+        final double[] function = neighbourhoodFunction;
+        if (function.length == 0) {
+            return 0.0;
+        }
+        final double target = fraction * function[function.length - 1];
+        int t = 0;
+        while (t < function.length - 1 && function[t] < target) {
+            t++;
+        }
+        if (t == 0) {
+            return 0.0;
+        }
+        final double previous = function[t - 1];
+        return (t - 1) + (target - previous) / (function[t] - previous);
+    }
+
+    /**
+     * @return the approximate sum of distances to all nodes in the ball of a node
+     */
+    public LongToDoubleFunction farness() {
+        return farness::get;
+    }
+
+    /**
+     * @return the approximate closeness centrality, normalized
+     * by {@code nodeCount - 1} like {@code MSClosenessCentrality}
+     */
+    public LongToDoubleFunction closeness() {
+        final double k = nodeCount - 1;
+        return nodeId -> {
+            final double f = farness.get(nodeId);
+            return f > 0.0 ? k / f : 0.0;
+        };
+    }
+
+    /**
+     * @return the approximate harmonic centrality, normalized
+     * by {@code nodeCount - 1} like {@code HarmonicCentrality}
+     */
+    public LongToDoubleFunction harmonic() {
+        final double k = nodeCount - 1;
+        return nodeId -> harmonic.get(nodeId) / k;
+    }
+
+    /**
+     * @return the approximate number of nodes in the ball of a node, including itself
+     */
+    public LongToDoubleFunction reachable() {
+        return counts::get;
+    }
+
+    @Override
+    public HyperBall me() {
+        return this;
+    }
+
+    @Override
+    public HyperBall release() {
+        if (current != null) {
+            current.release();
+            next.release();
+            modified.release();
+            nextModified.release();
+        }
+        current = null;
+        next = null;
+        modified = null;
+        nextModified = null;
+        graph = null;
+        tasks.clear();
+        return this;
+    }
+
+    private final class Task implements Runnable, HugeRelationshipConsumer {
+
+        private final long startNode;
+        private final long endNode;
+        private final HugeRelationshipIterator iterator;
+
+        private long changed;
+        private double sum;
+        private boolean nodeChanged;
+
+        private Task(long startNode, long endNode) {
+            this.startNode = startNode;
+            this.endNode = endNode;
+            this.iterator = graph.concurrentCopy();
+        }
+
+        @Override
+        public void run() {
+            changed = 0L;
+            sum = 0.0;
+            nextModified.clearWords(startNode >>> 6, (endNode + 63L) >>> 6);
+            if (distance == 0) {
+                init();
+            } else {
+                iterate(distance);
+            }
+        }
+
+        private void init() {
+            for (long node = startNode; node < endNode; node++) {
+                current.add(node, node);
+                // every counter counts as changed for the first iteration
+                modified.set(node);
+                double count = current.count(node);
+                counts.set(node, count);
+                farness.set(node, 0.0);
+                harmonic.set(node, 0.0);
+                sum += count;
+            }
+        }
+
+        private void iterate(int distance) {
+            int untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
+            for (long node = startNode; node < endNode; node++) {
+                if (--untilCheck == 0) {
+                    if (!running()) {
+                        return;
+                    }
+                    untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
+                }
+                next.copy(node, current);
+                nodeChanged = false;
+                iterator.forEachRelationship(node, direction, this);
+                double count = counts.get(node);
+                if (nodeChanged) {
+                    nextModified.set(node);
+                    changed++;
+                    // estimations are not monotone, but the ball can only grow
+                    double newCount = Math.max(count, next.count(node));
+                    double delta = newCount - count;
+                    counts.set(node, newCount);
+                    farness.add(node, distance * delta);
+                    harmonic.add(node, delta / distance);
+                    count = newCount;
+                }
+                sum += count;
+            }
+        }
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId) {
+            if (modified.get(targetNodeId)) {
+                nodeChanged |= next.union(sourceNodeId, current, targetNodeId);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.hyperball;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.write.Exporter;
+import org.neo4j.graphalgo.core.write.PropertyTranslator;
+import org.neo4j.graphalgo.impl.MSBFSCCAlgorithm;
+import org.neo4j.graphalgo.impl.MSClosenessCentrality;
+
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Approximate closeness centrality, backed by {@link HyperBall}.
+ * The ball has to grow along {@code INCOMING} relationships
+ * to match the farness of {@link MSClosenessCentrality}.
+ */
+public final class HyperBallCloseness extends MSBFSCCAlgorithm<HyperBallCloseness> {
+
+    private final HugeGraph graph;
+    private final HyperBall hyperBall;
+
+    public HyperBallCloseness(HugeGraph graph, HyperBall hyperBall) {
+        this.graph = graph;
+        this.hyperBall = hyperBall;
+    }
+
+    @Override
+    public HyperBallCloseness compute() {
+        hyperBall
+                .withProgressLogger(getProgressLogger())
+                .withTerminationFlag(getTerminationFlag())
+                .compute();
+        return this;
+    }
+
+    public HyperBall hyperBall() {
+        return hyperBall;
+    }
+
+    @Override
+    public LongToIntFunction farness() {
+        final LongToDoubleFunction farness = hyperBall.farness();
+        return nodeId -> (int) Math.min(Math.round(farness.applyAsDouble(nodeId)), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public LongToDoubleFunction centrality() {
+        return hyperBall.closeness();
+    }
+
+    @Override
+    public Stream<MSClosenessCentrality.Result> resultStream() {
+        final LongToDoubleFunction closeness = hyperBall.closeness();
+        return LongStream.range(0L, graph.nodeCount())
+                .mapToObj(nodeId -> new MSClosenessCentrality.Result(
+                        graph.toOriginalNodeId(nodeId),
+                        closeness.applyAsDouble(nodeId)));
+    }
+
+    @Override
+    public void export(String propertyName, Exporter exporter) {
+        final LongToDoubleFunction closeness = hyperBall.closeness();
+        exporter.write(
+                propertyName,
+                closeness,
+                (PropertyTranslator.OfDouble<LongToDoubleFunction>) LongToDoubleFunction::applyAsDouble);
+    }
+
+    @Override
+    public HyperBallCloseness me() {
+        return this;
+    }
+
+    @Override
+    public HyperBallCloseness release() {
+        hyperBall.release();
+        return this;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.hyperball;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.write.Exporter;
+import org.neo4j.graphalgo.core.write.PropertyTranslator;
+import org.neo4j.graphalgo.impl.harmonic.HarmonicCentralityAlgorithm;
+
+import java.util.function.LongToDoubleFunction;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Approximate harmonic centrality, backed by {@link HyperBall}.
+ */
+public final class HyperBallHarmonic implements HarmonicCentralityAlgorithm {
+
+    private final HugeGraph graph;
+    private final HyperBall hyperBall;
+
+    public HyperBallHarmonic(HugeGraph graph, HyperBall hyperBall) {
+        this.graph = graph;
+        this.hyperBall = hyperBall;
+    }
+
+    @Override
+    public HyperBallHarmonic compute() {
+        hyperBall.compute();
+        return this;
+    }
+
+    public HyperBall hyperBall() {
+        return hyperBall;
+    }
+
+    @Override
+    public LongToDoubleFunction centrality() {
+        return hyperBall.harmonic();
+    }
+
+    @Override
+    public Stream<Result> resultStream() {
+        final LongToDoubleFunction harmonic = hyperBall.harmonic();
+        return LongStream.range(0L, graph.nodeCount())
+                .mapToObj(nodeId -> new Result(
+                        graph.toOriginalNodeId(nodeId),
+                        harmonic.applyAsDouble(nodeId)));
+    }
+
+    @Override
+    public HyperBallHarmonic withProgressLogger(ProgressLogger progressLogger) {
+        hyperBall.withProgressLogger(progressLogger);
+        return this;
+    }
+
+    @Override
+    public HyperBallHarmonic withTerminationFlag(TerminationFlag terminationFlag) {
+        hyperBall.withTerminationFlag(terminationFlag);
+        return this;
+    }
+
+    @Override
+    public HyperBallHarmonic release() {
+        hyperBall.release();
+        return this;
+    }
+
+    @Override
+    public void export(String propertyName, Exporter exporter) {
+        final LongToDoubleFunction harmonic = hyperBall.harmonic();
+        exporter.write(
+                propertyName,
+                harmonic,
+                (PropertyTranslator.OfDouble<LongToDoubleFunction>) LongToDoubleFunction::applyAsDouble);
+    }
+}
@@ -0,0 +1,355 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.kcore;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+import org.neo4j.graphalgo.api.HugeRelationshipIterator;
+import org.neo4j.graphalgo.core.huge.HugeNodeFilteredGraph;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicIntegerArray;
+import org.neo4j.graphalgo.impl.Algorithm;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Parallel k-core decomposition of an undirected {@link HugeGraph} by peeling
+ * nodes level by level (ParK).
+ * <p>
+ * Every node starts with its degree in an atomic counter. For each level {@code k}
+ * all remaining nodes with a degree of exactly {@code k} are collected in parallel
+ * and then peeled: removing a node decrements the degree of all its neighbours that
+ * are still above {@code k}, and every neighbour that drops to {@code k} is peeled
+ * in the next sub-round of the same level. A degree never drops below the level it
+ * is peeled at, so once the decomposition is done the counter of every node holds
+ * its core number. Levels without any node are skipped by jumping straight to the
+ * smallest remaining degree.
+ * <p>
+ * The peeled nodes are appended to a single array in the order they are removed,
+ * every task collects them in a local buffer first and reserves space for the whole
+ * buffer at once.
+ * <p>
+ * The graph must be undirected: either loaded with {@code asUndirected(true)} and used
+ * with {@link Direction#OUTGOING} or loaded with both directions and used with
+ * {@link Direction#BOTH}.
+ */
+public final class ParallelKCore extends Algorithm<ParallelKCore> {
+
+    private static final long MIN_BATCH_SIZE = 1024L;
+    private static final int BUFFER_SIZE = 1024;
+
+    private HugeGraph graph;
+    private final Direction direction;
+    private final long nodeCount;
+    private final int concurrency;
+    private final ExecutorService executor;
+    private final AllocationTracker tracker;
+
+    private PagedAtomicIntegerArray degrees;
+    private LongArray order;
+    private final AtomicLong peeled = new AtomicLong();
+    private final List<Task> scanTasks;
+    private final List<Task> peelTasks;
+
+    private int level;
+    private boolean peelPhase;
+    private int degeneracy;
+    private int levels;
+
+    public static MemoryRange memoryEstimation(long nodeCount) {
+        return MemoryRange.of(PagedAtomicIntegerArray.estimateMemoryUsage(nodeCount))
+                .add(LongArray.estimateMemoryUsage(nodeCount));
+    }
+
+    public ParallelKCore(
+            HugeGraph graph,
+            Direction direction,
+            int concurrency,
+            ExecutorService executor,
+            AllocationTracker tracker) {
+        this.graph = graph;
+        this.direction = direction;
+        this.nodeCount = graph.nodeCount();
+        this.concurrency = Math.max(1, concurrency);
+        this.executor = executor;
+        this.tracker = tracker;
+        this.degrees = PagedAtomicIntegerArray.newArray(nodeCount, tracker);
+        this.order = LongArray.newArray(nodeCount, tracker);
+
+        final long batchSize = ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE);
+        this.scanTasks = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += batchSize) {
+            scanTasks.add(new Task(start, Math.min(nodeCount, start + batchSize)));
+        }
+        this.peelTasks = new ArrayList<>();
+        for (int i = 0; i < this.concurrency; i++) {
+            peelTasks.add(new Task(0L, 0L));
+        }
+    }
+
+    public ParallelKCore compute() {
+        peeled.set(0L);
+        degeneracy = 0;
+        levels = 0;
+        level = -1;
+        peelPhase = false;
+        ParallelUtil.run(scanTasks, executor, this);
+
+        int next = 0;
+        while (peeled.get() < nodeCount) {
+            assertRunning();
+            level = next;
+            final long start = peeled.get();
+            peelPhase = false;
+            ParallelUtil.run(scanTasks, executor, this);
+            if (peeled.get() == start) {
+                // no node left at this level, continue with the smallest remaining degree
+                next = minDegree();
+                continue;
+            }
+
+            peelPhase = true;
+            long from = start;
+            long to;
+            while (from < (to = peeled.get())) {
+                peel(from, to);
+                from = to;
+            }
+            degeneracy = level;
+            levels++;
+            next = level + 1;
+            getProgressLogger().logProgress(
+                    peeled.get(),
+                    nodeCount,
+                    () -> String.format("level %d, %d nodes peeled", level, peeled.get() - start));
+        }
+        return this;
+    }
+
+    /**
+     * Peels the nodes that have been appended in the last sub-round, every task takes an equally sized slice.
+     */
+    private void peel(long from, long to) {
+        final int tasks = (int) Math.min(concurrency, ParallelUtil.threadSize(MIN_BATCH_SIZE, to - from));
+        final long sliceSize = ParallelUtil.threadSize((long) tasks, to - from);
+        for (int i = 0; i < tasks; i++) {
+            final Task task = peelTasks.get(i);
+            task.from = Math.min(to, from + i * sliceSize);
+            task.to = Math.min(to, task.from + sliceSize);
+        }
+        ParallelUtil.run(peelTasks.subList(0, tasks), executor, this);
+    }
+
+    private int minDegree() {
+        int min = Integer.MAX_VALUE;
+        for (Task task : scanTasks) {
+            min = Math.min(min, task.minDegree);
+        }
+        return min;
+    }
+
+    /**
+     * @return the core number of the node, the largest k such that the node belongs to the k-core
+     */
+    public int coreNumber(long nodeId) {
+        return degrees.get(nodeId);
+    }
+
+    /**
+     * @return the core numbers of all nodes
+     */
+    public PagedAtomicIntegerArray coreNumbers() {
+        return degrees;
+    }
+
+    /**
+     * @return the largest core number of the graph
+     */
+    public int degeneracy() {
+        return degeneracy;
+    }
+
+    /**
+     * @return the number of non-empty levels that were peeled
+     */
+    public int levels() {
+        return levels;
+    }
+
+    /**
+     * @return the number of nodes in the k-core
+     */
+    public long coreSize(int k) {
+        long size = 0L;
+        for (long node = 0L; node < nodeCount; node++) {
+            if (degrees.get(node) >= k) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Creates a view on the graph that only contains the k-core. The view takes
+     * over the graph, releasing the view releases the graph.
+     */
+    public HugeNodeFilteredGraph coreGraph(int k) {
+        final PagedAtomicIntegerArray degrees = this.degrees;
+        return HugeNodeFilteredGraph.of(graph, node -> degrees.get(node) >= k, direction, tracker);
+    }
+
+    /**
+     * @return a stream of results for all nodes of the k-core
+     */
+    public Stream<Result> resultStream(int k) {
+        return LongStream.range(0L, nodeCount)
+                .filter(node -> degrees.get(node) >= k)
+                .mapToObj(node -> new Result(graph.toOriginalNodeId(node), degrees.get(node)));
+    }
+
+    @Override
+    public ParallelKCore me() {
+        return this;
+    }
+
+    @Override
+    public ParallelKCore release() {
+        if (order != null) {
+            tracker.remove(order.release());
+            tracker.remove(degrees.release());
+        }
+        order = null;
+        degrees = null;
+        graph = null;
+        scanTasks.clear();
+        peelTasks.clear();
+        return this;
+    }
+
+    private final class Task implements Runnable, HugeRelationshipConsumer {
+
+        private final long startNode;
+        private final long endNode;
+        private final HugeRelationshipIterator iterator;
+        private final long[] buffer = new long[BUFFER_SIZE];
+        private int buffered;
+        private int minDegree;
+        private long from;
+        private long to;
+
+        private Task(long startNode, long endNode) {
+            this.startNode = startNode;
+            this.endNode = endNode;
+            this.iterator = graph.concurrentCopy();
+        }
+
+        @Override
+        public void run() {
+            if (peelPhase) {
+                peel();
+            } else if (level < 0) {
+                init();
+            } else {
+                scan();
+            }
+            flush();
+        }
+
+        private void init() {
+            for (long node = startNode; node < endNode; node++) {
+                degrees.set(node, graph.degree(node, direction));
+            }
+        }
+
+        private void scan() {
+            final int k = level;
+            int min = Integer.MAX_VALUE;
+            for (long node = startNode; node < endNode; node++) {
+                final int degree = degrees.get(node);
+                if (degree == k) {
+                    append(node);
+                } else if (degree > k && degree < min) {
+                    min = degree;
+                }
+            }
+            minDegree = min;
+        }
+
+        private void peel() {
+            for (long i = from; i < to; i++) {
+                iterator.forEachRelationship(order.get(i), direction, this);
+            }
+        }
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId) {
+            final int k = level;
+            while (true) {
+                final int degree = degrees.get(targetNodeId);
+                if (degree <= k) {
+                    return true;
+                }
+                if (degrees.cas(targetNodeId, degree, degree - 1)) {
+                    if (degree - 1 == k) {
+                        append(targetNodeId);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        private void append(long node) {
+            if (buffered == BUFFER_SIZE) {
+                flush();
+            }
+            buffer[buffered++] = node;
+        }
+
+        private void flush() {
+            if (buffered == 0) {
+                return;
+            }
+            final long offset = peeled.getAndAdd(buffered);
+            for (int i = 0; i < buffered; i++) {
+                order.set(offset + i, buffer[i]);
+            }
+            buffered = 0;
+        }
+    }
+
+    public static final class Result {
+
+        public final long nodeId;
+        public final long coreNumber;
+
+        public Result(long nodeId, long coreNumber) {
+            this.nodeId = nodeId;
+            this.coreNumber = coreNumber;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
 import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.PagedSimpleBitSet;
 import org.neo4j.graphalgo.impl.Algorithm;
 import org.neo4j.graphdb.Direction;
@@ -38,6 +39,8 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
+
 /**
  * Parallel modularity based community detection algo
  *
@@ -100,6 +103,16 @@ public class HugeParallelLouvain extends Algorithm<HugeParallelLouvain> implemen
      */
     private final int maxIterations;
 
+    public static MemoryRange memoryEstimation(
+            long nodeCount,
+            long relationshipCount,
+            int concurrency) {
+        return MemoryRange.of(
+                LongArray.estimateMemoryUsage(nodeCount)
+                        + DoubleArray.estimateMemoryUsage(nodeCount)
+                        + shallowSizeOfInstance(Task.class) * concurrency);
+    }
+
     public HugeParallelLouvain(HugeGraph graph,
                                ExecutorService executorService,
                                AllocationTracker tracker,
@@ -126,6 +139,7 @@ public class HugeParallelLouvain extends Algorithm<HugeParallelLouvain> implemen
         for (this.iterations = 0; this.iterations < maxIterations; this.iterations++) {
             queue.set(0);
             ParallelUtil.runWithConcurrency(concurrency, tasks, getTerminationFlag(), executorService);
+            assertRunning();
             boolean changes = false;
             for (Task task : tasks) {
                 changes |= task.changes;
@@ -141,8 +155,14 @@ public class HugeParallelLouvain extends Algorithm<HugeParallelLouvain> implemen
     public HugeParallelLouvain release() {
         graph = null;
         executorService = null;
-        communityIds = null;
-        communityWeights = null;
+        if (communityIds != null) {
+            communityIds.release();
+            communityIds = null;
+        }
+        if (communityWeights != null) {
+            communityWeights.release();
+            communityWeights = null;
+        }
         return this;
     }
 
@@ -222,7 +242,9 @@ public class HugeParallelLouvain extends Algorithm<HugeParallelLouvain> implemen
         for (long i = 0; i < communityIds.size(); i++) {
             bitSet.put(communityIds.get(i));
         }
-        return bitSet._size();
+        final long communityCount = bitSet._size();
+        tracker.remove(bitSet.release());
+        return communityCount;
     }
 
     @Override
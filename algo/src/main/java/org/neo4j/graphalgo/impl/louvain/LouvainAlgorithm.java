@@ -26,6 +26,7 @@ import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.PagePool;
 
 import java.util.stream.Stream;
 
@@ -50,6 +51,8 @@ public interface LouvainAlgorithm {
 
     LouvainAlgorithm withTerminationFlag(TerminationFlag terminationFlag);
 
+    LouvainAlgorithm release();
+
     class Result {
 
         public final long nodeId;
@@ -76,7 +79,7 @@ public interface LouvainAlgorithm {
                 return new WeightedLouvain(graph, Pools.DEFAULT, config.getConcurrency(), config.getIterations(DEFAULT_ITERATIONS));
             }
 
-            return new HugeParallelLouvain((HugeGraph) graph, Pools.DEFAULT, AllocationTracker.create(), config.getConcurrency(), config.getIterations(DEFAULT_ITERATIONS));
+            return new HugeParallelLouvain((HugeGraph) graph, Pools.DEFAULT, AllocationTracker.create(PagePool.DEFAULT), config.getConcurrency(), config.getIterations(DEFAULT_ITERATIONS));
         }
 
         return new ParallelLouvain(graph,
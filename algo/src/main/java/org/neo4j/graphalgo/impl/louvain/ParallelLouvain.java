@@ -88,6 +88,7 @@ public class ParallelLouvain extends Algorithm<ParallelLouvain> implements Louva
         for (this.iterations = 0; this.iterations < maxIterations; this.iterations++) {
             queue.set(0);
             ParallelUtil.runWithConcurrency(concurrency, tasks, getTerminationFlag(), executorService);
+            assertRunning();
             boolean changes = false;
             for (Task task : tasks) {
                 changes |= task.changes;
@@ -159,6 +159,7 @@ public class WeightedLouvain extends Algorithm<WeightedLouvain> implements Louva
         for (this.iterations = 0; this.iterations < maxIterations; this.iterations++) {
             queue.set(0);
             ParallelUtil.runWithConcurrency(concurrency, tasks, getTerminationFlag(), pool);
+            assertRunning();
             boolean changes = false;
             for (Task task : tasks) {
                 changes |= task.changes;
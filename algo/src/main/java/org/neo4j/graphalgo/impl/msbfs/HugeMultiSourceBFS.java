@@ -21,7 +21,11 @@ package org.neo4j.graphalgo.impl.msbfs;
 import org.neo4j.graphalgo.api.HugeIdMapping;
 import org.neo4j.graphalgo.api.HugeRelationshipIterator;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.IntArray;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphdb.Direction;
 
 import java.util.AbstractCollection;
@@ -86,10 +90,20 @@ public final class HugeMultiSourceBFS implements Runnable, MsBFSAlgo {
     private final HugeRelationshipIterator relationships;
     private final Direction direction;
     private final HugeBfsConsumer perNodeAction;
+    private TerminationFlag terminationFlag = TerminationFlag.RUNNING_TRUE;
     private final long[] startNodes;
     private long nodeOffset, nodeCount;
     private int sourceNodeCount;
 
+    /**
+     * Every thread keeps its own visit, next and seen bit sets.
+     */
+    public static MemoryRange memoryEstimation(long nodeCount, int concurrency) {
+        long perThread = IntArray.estimateMemoryUsage(nodeCount)
+                + LongArray.estimateMemoryUsage(nodeCount);
+        return MemoryRange.of(perThread * Math.max(1, concurrency));
+    }
+
     public HugeMultiSourceBFS(
             HugeIdMapping nodeIds,
             HugeRelationshipIterator relationships,
@@ -148,6 +162,15 @@ public final class HugeMultiSourceBFS implements Runnable, MsBFSAlgo {
         this.nextAndSeens = nextAndSeens;
     }
 
+    /**
+     * Stops the traversal of all sources once the flag signals termination.
+     * The caller has to check the flag after {@link #run(int, ExecutorService)} returns.
+     */
+    public HugeMultiSourceBFS withTerminationFlag(TerminationFlag terminationFlag) {
+        this.terminationFlag = terminationFlag;
+        return this;
+    }
+
     /**
      * Runs MS-BFS, possibly in parallel.
      */
@@ -197,9 +220,16 @@ public final class HugeMultiSourceBFS implements Runnable, MsBFSAlgo {
 
         int depth = 0;
 
-        while (true) {
+        int untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
+        while (terminationFlag.running()) {
             long nodeId = -1L;
             while ((nodeId = visit.nextSetNodeId(nodeId + 1)) >= 0) {
+                if (--untilCheck == 0) {
+                    if (!terminationFlag.running()) {
+                        return;
+                    }
+                    untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
+                }
                 int nodeVisit = visit.get(nodeId);
                 assert nodeVisit != 0;
                 relationships.forEachRelationship(
@@ -264,7 +294,7 @@ public final class HugeMultiSourceBFS implements Runnable, MsBFSAlgo {
                             length,
                             visits,
                             nextAndSeens
-                    );
+                    ).withTerminationFlag(terminationFlag);
                 }
             };
         }
@@ -281,7 +311,7 @@ public final class HugeMultiSourceBFS implements Runnable, MsBFSAlgo {
                         visits,
                         nextAndSeens,
                         Arrays.copyOfRange(startNodes, (int) from, (int) (from + length))
-                );
+                ).withTerminationFlag(terminationFlag);
             }
         };
     }
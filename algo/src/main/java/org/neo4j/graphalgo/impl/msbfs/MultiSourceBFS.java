@@ -21,6 +21,7 @@ package org.neo4j.graphalgo.impl.msbfs;
 import org.neo4j.graphalgo.api.IdMapping;
 import org.neo4j.graphalgo.api.RelationshipIterator;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphdb.Direction;
 
 import java.util.AbstractCollection;
@@ -85,6 +86,7 @@ public final class MultiSourceBFS implements Runnable, MsBFSAlgo {
     private final RelationshipIterator relationships;
     private final Direction direction;
     private final BfsConsumer perNodeAction;
+    private TerminationFlag terminationFlag = TerminationFlag.RUNNING_TRUE;
     private final int[] startNodes;
     private int nodeOffset, sourceNodeCount;
     private int nodeCount;
@@ -146,6 +148,15 @@ public final class MultiSourceBFS implements Runnable, MsBFSAlgo {
         this.nextAndSeens = nextAndSeens;
     }
 
+    /**
+     * Stops the traversal of all sources once the flag signals termination.
+     * The caller has to check the flag after {@link #run(int, ExecutorService)} returns.
+     */
+    public MultiSourceBFS withTerminationFlag(TerminationFlag terminationFlag) {
+        this.terminationFlag = terminationFlag;
+        return this;
+    }
+
     /**
      * Runs MS-BFS, possibly in parallel.
      */
@@ -196,9 +207,16 @@ public final class MultiSourceBFS implements Runnable, MsBFSAlgo {
 
         int depth = 0;
 
-        while (true) {
+        int untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
+        while (terminationFlag.running()) {
             int nodeId = -1;
             while ((nodeId = visit.nextSetNodeId(nodeId + 1)) >= 0) {
+                if (--untilCheck == 0) {
+                    if (!terminationFlag.running()) {
+                        return;
+                    }
+                    untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
+                }
                 int nodeVisit = visit.get(nodeId);
                 assert nodeVisit != 0;
                 relationships.forEachRelationship(
@@ -254,7 +272,7 @@ public final class MultiSourceBFS implements Runnable, MsBFSAlgo {
                             length,
                             visits,
                             nextAndSeens
-                    );
+                    ).withTerminationFlag(terminationFlag);
                 }
             };
         }
@@ -271,7 +289,7 @@ public final class MultiSourceBFS implements Runnable, MsBFSAlgo {
                         visits,
                         nextAndSeens,
                         Arrays.copyOfRange(startNodes, from, from + length)
-                );
+                ).withTerminationFlag(terminationFlag);
             }
         };
     }
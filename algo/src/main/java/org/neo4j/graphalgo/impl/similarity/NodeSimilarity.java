@@ -0,0 +1,350 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.similarity;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+import org.neo4j.graphalgo.api.HugeRelationshipIterator;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TopK;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.IntArray;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
+import org.neo4j.graphalgo.impl.Algorithm;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Similarity of nodes by their sets of neighbours, keeping the {@code topK} most
+ * similar nodes for every node.
+ * <p>
+ * Only nodes that share at least one neighbour are compared: the candidates of a node
+ * are found by going to its neighbours and back. Neighbours with more than
+ * {@code hubDegreeCutoff} relationships are not used to find candidates, otherwise a
+ * single hub would make every pair of its neighbours a candidate. Nodes with less than
+ * {@code degreeCutoff} neighbours are not compared at all.
+ * <p>
+ * The size of the intersection of two nodes is computed by merging their sorted
+ * adjacency lists; the neighbours of the current node are read once into a buffer and
+ * the adjacency of every candidate is merged against it and abandoned as soon as it
+ * passes the last neighbour in the buffer.
+ * <p>
+ * Every node is handled by a single thread, which keeps a bounded heap of its best
+ * candidates, so no synchronization is necessary. Threads take batches of nodes from
+ * a shared counter, since the work per node varies a lot.
+ * <p>
+ * With {@link Direction#OUTGOING} (or {@link Direction#INCOMING}) the graph has to be
+ * loaded with both directions, the candidates are found along the reverse direction.
+ * With {@link Direction#BOTH} the graph has to be loaded undirected.
+ */
+public final class NodeSimilarity extends Algorithm<NodeSimilarity> {
+
+    private static final long BATCH_SIZE = 256L;
+
+    public enum Metric {
+        /**
+         * size of the intersection divided by the size of the union
+         */
+        JACCARD {
+            @Override
+            public double similarity(long intersection, long degreeA, long degreeB) {
+                return intersection / (double) (degreeA + degreeB - intersection);
+            }
+        },
+        /**
+         * size of the intersection divided by the size of the smaller set
+         */
+        OVERLAP {
+            @Override
+            public double similarity(long intersection, long degreeA, long degreeB) {
+                return intersection / (double) Math.min(degreeA, degreeB);
+            }
+        };
+
+        public abstract double similarity(long intersection, long degreeA, long degreeB);
+
+        public static Metric parse(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown similarity metric: " + name + ", expected one of " + Arrays.toString(values()));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface SimilarityConsumer {
+        boolean accept(long sourceNodeId, long targetNodeId, double similarity);
+    }
+
+    @FunctionalInterface
+    public interface ResultFactory<R> {
+        R create(long sourceNodeId, long targetNodeId, double similarity);
+    }
+
+    private HugeGraph graph;
+    private final long nodeCount;
+    private final Direction neighbourDirection;
+    private final Direction candidateDirection;
+    private final Metric metric;
+    private final int topK;
+    private final double similarityCutoff;
+    private final int degreeCutoff;
+    private final int hubDegreeCutoff;
+    private final int concurrency;
+    private final ExecutorService executor;
+    private final AllocationTracker tracker;
+
+    private LongArray targets;
+    private DoubleArray similarities;
+    private IntArray counts;
+    private final AtomicLong nextBatch = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong pairs = new AtomicLong();
+
+    public static MemoryRange memoryEstimation(long nodeCount, int topK) {
+        return MemoryRange.of(LongArray.estimateMemoryUsage(nodeCount * topK))
+                .add(DoubleArray.estimateMemoryUsage(nodeCount * topK))
+                .add(IntArray.estimateMemoryUsage(nodeCount));
+    }
+
+    /**
+     * @param similarityCutoff the minimal similarity a pair must have to be kept
+     * @param degreeCutoff     the minimal number of neighbours a node must have to be compared
+     * @param hubDegreeCutoff  neighbours with more relationships are not used to find candidates
+     */
+    public NodeSimilarity(
+            HugeGraph graph,
+            Direction direction,
+            Metric metric,
+            int topK,
+            double similarityCutoff,
+            int degreeCutoff,
+            int hubDegreeCutoff,
+            int concurrency,
+            ExecutorService executor,
+            AllocationTracker tracker) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("topK must be positive, but was " + topK);
+        }
+        this.graph = graph;
+        this.nodeCount = graph.nodeCount();
+        this.neighbourDirection = direction == Direction.BOTH ? Direction.OUTGOING : direction;
+        this.candidateDirection = direction == Direction.BOTH ? Direction.OUTGOING : direction.reverse();
+        this.metric = metric;
+        this.topK = topK;
+        this.similarityCutoff = similarityCutoff;
+        this.degreeCutoff = Math.max(1, degreeCutoff);
+        this.hubDegreeCutoff = hubDegreeCutoff;
+        this.concurrency = Math.max(1, concurrency);
+        this.executor = executor;
+        this.tracker = tracker;
+        this.targets = LongArray.newArray(nodeCount * topK, tracker);
+        this.similarities = DoubleArray.newArray(nodeCount * topK, tracker);
+        this.counts = IntArray.newArray(nodeCount, tracker);
+    }
+
+    public NodeSimilarity compute() {
+        nextBatch.set(0L);
+        processed.set(0L);
+        pairs.set(0L);
+        final int threads = (int) Math.min(concurrency, ParallelUtil.threadSize(BATCH_SIZE, nodeCount));
+        final List<Task> tasks = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            tasks.add(new Task());
+        }
+        ParallelUtil.run(tasks, executor, this);
+        return this;
+    }
+
+    /**
+     * @return the number of kept pairs
+     */
+    public long similarityPairs() {
+        return pairs.get();
+    }
+
+    /**
+     * Calls the consumer for the most similar nodes of the node, most similar first.
+     */
+    public void forEachSimilar(long nodeId, SimilarityConsumer consumer) {
+        final long offset = nodeId * topK;
+        for (int i = 0, count = counts.get(nodeId); i < count; i++) {
+            if (!consumer.accept(nodeId, targets.get(offset + i), similarities.get(offset + i))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return a lazy stream of results for all kept pairs
+     */
+    public <R> Stream<R> resultStream(ResultFactory<R> results) {
+        return LongStream.range(0L, nodeCount)
+                .boxed()
+                .flatMap(node -> {
+                    final long offset = node * topK;
+                    return LongStream.range(offset, offset + counts.get(node))
+                            .mapToObj(i -> results.create(node, targets.get(i), similarities.get(i)));
+                });
+    }
+
+    @Override
+    public NodeSimilarity me() {
+        return this;
+    }
+
+    @Override
+    public NodeSimilarity release() {
+        if (targets != null) {
+            tracker.remove(targets.release());
+            tracker.remove(similarities.release());
+            tracker.remove(counts.release());
+        }
+        targets = null;
+        similarities = null;
+        counts = null;
+        graph = null;
+        return this;
+    }
+
+    private final class Task implements Runnable, HugeRelationshipConsumer {
+
+        private final HugeRelationshipIterator iterator;
+        private final TopK.Heap heap;
+        private final long[] ids;
+        private final double[] scores;
+        private long[] neighbours = new long[64];
+        private long[] candidates = new long[64];
+        private int degree;
+        private int candidateCount;
+
+        // state of the merge with the adjacency of a candidate
+        private int position;
+        private int intersection;
+
+        private Task() {
+            this.iterator = graph.concurrentCopy();
+            this.heap = new TopK.Heap(topK);
+            this.ids = new long[topK];
+            this.scores = new double[topK];
+        }
+
+        @Override
+        public void run() {
+            long start;
+            while ((start = nextBatch.getAndAdd(BATCH_SIZE)) < nodeCount && running()) {
+                final long end = Math.min(nodeCount, start + BATCH_SIZE);
+                for (long node = start; node < end; node++) {
+                    compute(node);
+                }
+                getProgressLogger().logProgress(processed.addAndGet(end - start), nodeCount);
+            }
+        }
+
+        private void compute(long node) {
+            if (graph.degree(node, neighbourDirection) < degreeCutoff) {
+                return;
+            }
+            degree = 0;
+            iterator.forEachRelationship(node, neighbourDirection, (s, t) -> {
+                if (degree == neighbours.length) {
+                    neighbours = Arrays.copyOf(neighbours, degree << 1);
+                }
+                neighbours[degree++] = t;
+                return true;
+            });
+
+            candidateCount = 0;
+            for (int i = 0; i < degree; i++) {
+                final long neighbour = neighbours[i];
+                if (graph.degree(neighbour, candidateDirection) > hubDegreeCutoff) {
+                    continue;
+                }
+                iterator.forEachRelationship(neighbour, candidateDirection, (s, t) -> {
+                    if (t != node) {
+                        if (candidateCount == candidates.length) {
+                            candidates = Arrays.copyOf(candidates, candidateCount << 1);
+                        }
+                        candidates[candidateCount++] = t;
+                    }
+                    return true;
+                });
+            }
+            Arrays.sort(candidates, 0, candidateCount);
+
+            long previous = -1L;
+            for (int i = 0; i < candidateCount; i++) {
+                final long candidate = candidates[i];
+                if (candidate == previous) {
+                    continue;
+                }
+                previous = candidate;
+                final int candidateDegree = graph.degree(candidate, neighbourDirection);
+                if (candidateDegree < degreeCutoff) {
+                    continue;
+                }
+                position = 0;
+                intersection = 0;
+                iterator.forEachRelationship(candidate, neighbourDirection, this);
+                final double similarity = metric.similarity(intersection, degree, candidateDegree);
+                if (intersection > 0 && similarity >= similarityCutoff) {
+                    heap.offer(candidate, similarity);
+                }
+            }
+
+            final int count = heap.drainTo(ids, scores);
+            final long offset = node * topK;
+            for (int i = 0; i < count; i++) {
+                targets.set(offset + i, ids[i]);
+                similarities.set(offset + i, scores[i]);
+            }
+            counts.set(node, count);
+            pairs.addAndGet(count);
+        }
+
+        /**
+         * Merges the next neighbour of the candidate against the sorted neighbours of the node.
+         */
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId) {
+            while (position < degree && neighbours[position] < targetNodeId) {
+                position++;
+            }
+            if (position == degree) {
+                return false;
+            }
+            if (neighbours[position] == targetNodeId) {
+                intersection++;
+                position++;
+            }
+            return true;
+        }
+    }
+}
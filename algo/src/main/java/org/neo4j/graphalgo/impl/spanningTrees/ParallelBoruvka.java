@@ -0,0 +1,387 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.spanningTrees;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+import org.neo4j.graphalgo.api.HugeRelationshipIterator;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.TopK;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicBitSet;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicDisjointSetStruct;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicLongArray;
+import org.neo4j.graphalgo.impl.Algorithm;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Parallel minimum (or maximum) weight spanning forest on a {@link HugeGraph}
+ * that has been loaded undirected and with relationship weights (Boruvka).
+ * <p>
+ * Every round each node looks up its cheapest relationship that leaves
+ * its component and offers it to the root of the component by CAS on a
+ * per-component slot. Afterwards the selected relationships are merged
+ * through a lock-free {@link PagedAtomicDisjointSetStruct}; a relationship
+ * that has been selected by both of its components is added only once.
+ * Relationships are ordered by weight and then by their node ids, which
+ * makes the selection cycle free even for equal weights. The number of
+ * components at least halves with every round.
+ * <p>
+ * Nodes without any relationship to another component are skipped in
+ * all later rounds, since components only ever grow.
+ * <p>
+ * With {@code k > 1} the {@code k - 1} most expensive relationships of
+ * the forest are removed afterwards, like {@link KSpanningTree} does for
+ * the tree of a single start node.
+ */
+public final class ParallelBoruvka extends Algorithm<ParallelBoruvka> {
+
+    private static final long MIN_BATCH_SIZE = 1024L;
+
+    private HugeGraph graph;
+    private final long nodeCount;
+    private final boolean maximum;
+    private final int concurrency;
+    private final ExecutorService executor;
+    private final List<Task> tasks;
+
+    private PagedAtomicDisjointSetStruct components;
+    private PagedAtomicLongArray componentBest;
+    private PagedAtomicBitSet done;
+    private LongArray bestTarget;
+    private DoubleArray bestWeight;
+
+    private LongArray sources;
+    private LongArray targets;
+    private DoubleArray weights;
+    private PagedAtomicBitSet removed;
+    private final AtomicLong relationships = new AtomicLong();
+    private long removedCount;
+    private int rounds;
+    private final AllocationTracker tracker;
+
+    private boolean mergePhase;
+
+    public static MemoryRange memoryEstimation(long nodeCount) {
+        return MemoryRange.of(PagedAtomicDisjointSetStruct.estimateSize(nodeCount))
+                .add(PagedAtomicLongArray.estimateMemoryUsage(nodeCount))
+                .add(MemoryRange.of(PagedAtomicBitSet.estimateMemoryUsage(nodeCount)).times(2))
+                .add(MemoryRange.of(LongArray.estimateMemoryUsage(nodeCount)).times(3))
+                .add(MemoryRange.of(DoubleArray.estimateMemoryUsage(nodeCount)).times(2));
+    }
+
+    /**
+     * @param maximum whether the forest should maximize instead of minimize the weight
+     */
+    public ParallelBoruvka(
+            HugeGraph graph,
+            boolean maximum,
+            int concurrency,
+            ExecutorService executor,
+            AllocationTracker tracker) {
+        this.graph = graph;
+        this.nodeCount = graph.nodeCount();
+        this.maximum = maximum;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.tracker = tracker;
+        this.components = new PagedAtomicDisjointSetStruct(nodeCount, tracker);
+        this.componentBest = PagedAtomicLongArray.newArray(nodeCount, tracker);
+        this.done = PagedAtomicBitSet.newBitSet(nodeCount, tracker);
+        this.bestTarget = LongArray.newArray(nodeCount, tracker);
+        this.bestWeight = DoubleArray.newArray(nodeCount, tracker);
+        long maxRelationships = Math.max(0L, nodeCount - 1L);
+        this.sources = LongArray.newArray(maxRelationships, tracker);
+        this.targets = LongArray.newArray(maxRelationships, tracker);
+        this.weights = DoubleArray.newArray(maxRelationships, tracker);
+
+        final long batchSize = ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE);
+        this.tasks = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += batchSize) {
+            tasks.add(new Task(start, Math.min(nodeCount, start + batchSize)));
+        }
+    }
+
+    public ParallelBoruvka compute() {
+        return compute(1);
+    }
+
+    /**
+     * Computes the spanning forest and removes its {@code k - 1} most expensive
+     * relationships, which splits it into {@code k} more trees.
+     */
+    public ParallelBoruvka compute(int k) {
+        rounds = 0;
+        while (true) {
+            assertRunning();
+            final long before = relationships.get();
+            mergePhase = false;
+            ParallelUtil.run(tasks, executor, this);
+            mergePhase = true;
+            ParallelUtil.run(tasks, executor, this);
+            rounds++;
+            final long merged = relationships.get() - before;
+            getProgressLogger().logProgress(
+                    relationships.get(),
+                    nodeCount - 1,
+                    () -> String.format("round %d, %d relationships merged", rounds, merged));
+            if (merged == 0L) {
+                break;
+            }
+        }
+        releaseWorkingSet();
+        cut(k);
+        return this;
+    }
+
+    private void cut(int k) {
+        removedCount = 0L;
+        final long count = relationships.get();
+        if (k <= 1 || count == 0L) {
+            return;
+        }
+        final long[] cuts = TopK.select(
+                count,
+                (int) Math.min(k - 1L, count),
+                maximum ? i -> -weights.get(i) : weights::get,
+                concurrency,
+                executor);
+        removed = PagedAtomicBitSet.newBitSet(count, tracker);
+        for (long cut : cuts) {
+            removed.set(cut);
+        }
+        removedCount = cuts.length;
+    }
+
+    /**
+     * @return the number of relationships in the forest
+     */
+    public long relationshipCount() {
+        return relationships.get() - removedCount;
+    }
+
+    /**
+     * @return the number of trees in the forest, including single nodes
+     */
+    public long treeCount() {
+        return nodeCount - relationshipCount();
+    }
+
+    public double totalWeight() {
+        double sum = 0.0;
+        for (long i = 0L, count = relationships.get(); i < count; i++) {
+            if (removed == null || !removed.get(i)) {
+                sum += weights.get(i);
+            }
+        }
+        return sum;
+    }
+
+    public int rounds() {
+        return rounds;
+    }
+
+    /**
+     * Calls the consumer for every relationship of the forest.
+     */
+    public void forEach(WeightedRelationshipConsumer consumer) {
+        for (long i = 0L, count = relationships.get(); i < count; i++) {
+            if (removed != null && removed.get(i)) {
+                continue;
+            }
+            if (!consumer.accept(sources.get(i), targets.get(i), weights.get(i))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return a lazy stream of results for the relationships of the forest
+     */
+    public <R> Stream<R> resultStream(ResultFactory<R> results) {
+        return LongStream.range(0L, relationships.get())
+                .filter(i -> removed == null || !removed.get(i))
+                .mapToObj(i -> results.create(sources.get(i), targets.get(i), weights.get(i)));
+    }
+
+    @FunctionalInterface
+    public interface WeightedRelationshipConsumer {
+        boolean accept(long sourceNodeId, long targetNodeId, double weight);
+    }
+
+    @FunctionalInterface
+    public interface ResultFactory<R> {
+        R create(long sourceNodeId, long targetNodeId, double weight);
+    }
+
+    @Override
+    public ParallelBoruvka me() {
+        return this;
+    }
+
+    @Override
+    public ParallelBoruvka release() {
+        releaseWorkingSet();
+        graph = null;
+        return this;
+    }
+
+    private void releaseWorkingSet() {
+        if (components != null) {
+            components.release();
+            componentBest.release();
+            done.release();
+            bestTarget.release();
+            bestWeight.release();
+        }
+        components = null;
+        componentBest = null;
+        done = null;
+        bestTarget = null;
+        bestWeight = null;
+        tasks.clear();
+    }
+
+    /**
+     * Total order of relationships, by weight and then by their node ids.
+     *
+     * @return {@code true} if relationship {@code (s1, t1)} is preferred over {@code (s2, t2)}
+     */
+    private boolean better(double w1, long s1, long t1, double w2, long s2, long t2) {
+        if (w1 != w2) {
+            return maximum ? w1 > w2 : w1 < w2;
+        }
+        final long min1 = Math.min(s1, t1);
+        final long min2 = Math.min(s2, t2);
+        if (min1 != min2) {
+            return min1 < min2;
+        }
+        return Math.max(s1, t1) < Math.max(s2, t2);
+    }
+
+    private final class Task implements Runnable, HugeRelationshipConsumer {
+
+        private final long startNode;
+        private final long endNode;
+        private final HugeRelationshipIterator iterator;
+
+        private long root;
+        private long target;
+        private double weight;
+
+        private Task(long startNode, long endNode) {
+            this.startNode = startNode;
+            this.endNode = endNode;
+            this.iterator = graph.concurrentCopy();
+        }
+
+        @Override
+        public void run() {
+            if (mergePhase) {
+                merge();
+            } else {
+                select();
+            }
+        }
+
+        private void select() {
+            int untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
+            for (long node = startNode; node < endNode; node++) {
+                if (--untilCheck == 0) {
+                    if (!running()) {
+                        return;
+                    }
+                    untilCheck = TerminationFlag.RUN_CHECK_NODE_COUNT;
+                }
+                if (done.get(node)) {
+                    continue;
+                }
+                root = components.find(node);
+                target = -1L;
+                iterator.forEachRelationship(node, Direction.OUTGOING, this);
+                if (target == -1L) {
+                    done.set(node);
+                    continue;
+                }
+                bestTarget.set(node, target);
+                bestWeight.set(node, weight);
+                offer(node);
+            }
+        }
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId) {
+            if (components.find(targetNodeId) != root) {
+                final double w = graph.weightOf(sourceNodeId, targetNodeId);
+                if (target == -1L || better(w, sourceNodeId, targetNodeId, weight, sourceNodeId, target)) {
+                    target = targetNodeId;
+                    weight = w;
+                }
+            }
+            return true;
+        }
+
+        private void offer(long node) {
+            // slots store the node id plus one, zero is the empty slot
+            while (true) {
+                final long current = componentBest.get(root);
+                if (current != 0L) {
+                    final long other = current - 1L;
+                    if (!better(
+                            weight, node, target,
+                            bestWeight.get(other), other, bestTarget.get(other))) {
+                        return;
+                    }
+                }
+                if (componentBest.cas(root, current, node + 1L)) {
+                    return;
+                }
+            }
+        }
+
+        private void merge() {
+            for (long node = startNode; node < endNode; node++) {
+                final long best = componentBest.get(node);
+                if (best == 0L) {
+                    continue;
+                }
+                componentBest.set(node, 0L);
+                final long source = best - 1L;
+                final long target = bestTarget.get(source);
+                if (components.union(source, target)) {
+                    final long index = relationships.getAndIncrement();
+                    sources.set(index, source);
+                    targets.set(index, target);
+                    weights.set(index, bestWeight.get(source));
+                }
+            }
+        }
+    }
+}
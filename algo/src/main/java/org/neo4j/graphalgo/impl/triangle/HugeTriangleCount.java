@@ -18,18 +18,22 @@
  */
 package org.neo4j.graphalgo.impl.triangle;
 
+import org.apache.lucene.util.ArrayUtil;
+import org.neo4j.graphalgo.api.HugeAdjacencyCursor;
 import org.neo4j.graphalgo.api.HugeGraph;
-import org.neo4j.graphalgo.api.HugeRelationshipIntersect;
-import org.neo4j.graphalgo.api.IntersectionConsumer;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.Partition;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.PagedAtomicDoubleArray;
 import org.neo4j.graphalgo.core.utils.paged.PagedAtomicIntegerArray;
 import org.neo4j.graphalgo.impl.Algorithm;
 import org.neo4j.graphdb.Direction;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLong;
@@ -46,6 +50,9 @@ import java.util.stream.Stream;
  */
 public class HugeTriangleCount extends Algorithm<HugeTriangleCount> implements TriangleCountAlgorithm {
 
+    // more partitions than threads, so that threads which finish early can take over
+    private static final int PARTITIONS_PER_THREAD = 16;
+
     private HugeGraph graph;
     private ExecutorService executorService;
     private final int concurrency;
@@ -55,8 +62,22 @@ public class HugeTriangleCount extends Algorithm<HugeTriangleCount> implements T
     private final AtomicLong queue;
     private final AtomicLong visitedNodes;
     private PagedAtomicIntegerArray triangles;
+    private List<Partition> partitions;
     private double averageClusteringCoefficient;
 
+    /**
+     * The coefficients are only allocated if they are requested.
+     */
+    public static MemoryRange memoryEstimation(
+            long nodeCount,
+            long relationshipCount,
+            int concurrency) {
+        long triangles = PagedAtomicIntegerArray.estimateMemoryUsage(nodeCount);
+        return MemoryRange.of(
+                triangles,
+                triangles + DoubleArray.estimateMemoryUsage(nodeCount));
+    }
+
     public HugeTriangleCount(HugeGraph graph, ExecutorService executorService, int concurrency, AllocationTracker tracker) {
         this.graph = graph;
         this.tracker = tracker;
@@ -114,7 +135,11 @@ public class HugeTriangleCount extends Algorithm<HugeTriangleCount> implements T
     public HugeTriangleCount release() {
         executorService = null;
         graph = null;
+        if (triangles != null) {
+            tracker.remove(triangles.release());
+        }
         triangles = null;
+        partitions = null;
         return this;
     }
 
@@ -124,36 +149,145 @@ public class HugeTriangleCount extends Algorithm<HugeTriangleCount> implements T
         queue.set(0);
         triangleCount.reset();
         averageClusteringCoefficient = 0.0;
+        // threads take partitions of about the same degree sum from the queue
+        if (partitions == null) {
+            partitions = ParallelUtil.degreePartitions(
+                    nodeCount,
+                    concurrency * PARTITIONS_PER_THREAD,
+                    node -> graph.degree(node, Direction.OUTGOING));
+        }
         // create tasks
         final Collection<? extends Runnable> tasks = ParallelUtil.tasks(concurrency, () -> new HugeTask(graph));
         // run
-        ParallelUtil.run(tasks, executorService);
+        ParallelUtil.run(tasks, executorService, this);
+        assertRunning();
         return this;
     }
 
-    private class HugeTask implements Runnable, IntersectionConsumer {
+    /**
+     * @return the index of the first value in the sorted {@code values} that is larger than {@code node}
+     */
+    private static int firstAbove(long[] values, int length, long node) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (values[mid] <= node) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Counts the triangles {@code a < b < c} of the nodes in a partition by
+     * intersecting the sorted adjacency lists of {@code a} and {@code b}.
+     * The lists are decoded in bulk into arrays that are reused for every node.
+     */
+    private class HugeTask implements Runnable {
 
-        private HugeRelationshipIntersect hg;
+        private final HugeAdjacencyCursor cursor;
+        private final long[] targets;
+        private long[] neighboursA;
+        private long[] neighboursB;
+        // the number of neighbours written by the last call to neighbours
+        private int length;
 
         HugeTask(HugeGraph graph) {
-            hg = graph.intersectionCopy();
+            cursor = graph.concurrentCopy().adjacencyCursor(Direction.OUTGOING);
+            targets = new long[HugeAdjacencyCursor.BATCH_SIZE];
+            neighboursA = new long[HugeAdjacencyCursor.BATCH_SIZE];
+            neighboursB = new long[HugeAdjacencyCursor.BATCH_SIZE];
         }
 
         @Override
         public void run() {
-            long node;
-            while ((node = queue.getAndIncrement()) < nodeCount && running()) {
-                hg.intersectAll(node, this);
-                getProgressLogger().logProgress(visitedNodes.incrementAndGet(), nodeCount);
+            int index;
+            while ((index = (int) queue.getAndIncrement()) < partitions.size() && running()) {
+                Partition partition = partitions.get(index);
+                for (long node = partition.startNode, end = partition.endNode(); node < end && running(); node++) {
+                    countTriangles(node);
+                }
+                getProgressLogger().logProgress(visitedNodes.addAndGet(partition.nodeCount), nodeCount);
             }
         }
 
-        @Override
-        public void accept(final long nodeA, final long nodeB, final long nodeC) {
-            triangles.add((int) nodeA, 1);
-            triangles.add((int) nodeB, 1);
-            triangles.add((int) nodeC, 1);
-            triangleCount.increment();
+        private void countTriangles(long nodeA) {
+            neighboursA = neighbours(nodeA, neighboursA);
+            final long[] neighboursA = this.neighboursA;
+            final int lengthA = length;
+            for (int i = firstAbove(neighboursA, lengthA, nodeA); i < lengthA; i++) {
+                final long nodeB = neighboursA[i];
+                neighboursB = neighbours(nodeB, neighboursB);
+                final int lengthB = length;
+                intersect(
+                        nodeA,
+                        nodeB,
+                        neighboursA,
+                        i + 1,
+                        lengthA,
+                        neighboursB,
+                        firstAbove(neighboursB, lengthB, nodeB),
+                        lengthB);
+            }
+        }
+
+        /**
+         * Writes the sorted neighbours of {@code node} into {@code into},
+         * growing it if needed, and sets {@link #length}.
+         */
+        private long[] neighbours(long node, long[] into) {
+            final int degree = cursor.init(node);
+            if (degree > into.length) {
+                into = new long[ArrayUtil.oversize(degree, Long.BYTES)];
+            }
+            // decodes the whole list at once unless the cursor returns smaller blocks,
+            // the degree is only a size hint, the list ends when the cursor returns no more targets
+            int length = cursor.nextTargets(into);
+            if (length > 0) {
+                final long[] targets = this.targets;
+                int batch;
+                while ((batch = cursor.nextTargets(targets)) > 0) {
+                    if (length + batch > into.length) {
+                        into = Arrays.copyOf(into, ArrayUtil.oversize(length + batch, Long.BYTES));
+                    }
+                    System.arraycopy(targets, 0, into, length, batch);
+                    length += batch;
+                }
+            }
+            this.length = length;
+            return into;
+        }
+
+        private void intersect(
+                long nodeA,
+                long nodeB,
+                long[] neighboursA,
+                int offsetA,
+                int lengthA,
+                long[] neighboursB,
+                int offsetB,
+                int lengthB) {
+            int a = offsetA;
+            int b = offsetB;
+            while (a < lengthA && b < lengthB) {
+                final long nodeC = neighboursA[a];
+                final long other = neighboursB[b];
+                if (nodeC < other) {
+                    ++a;
+                } else if (nodeC > other) {
+                    ++b;
+                } else {
+                    triangles.add((int) nodeA, 1);
+                    triangles.add((int) nodeB, 1);
+                    triangles.add((int) nodeC, 1);
+                    triangleCount.increment();
+                    ++a;
+                    ++b;
+                }
+            }
         }
     }
 }
@@ -6,6 +6,7 @@ import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.PagePool;
 
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Stream;
@@ -65,7 +66,7 @@ public interface TriangleCountAlgorithm {
 
     static TriangleCountAlgorithm instance(Graph graph, ExecutorService pool, int concurrency) {
         if (graph instanceof HugeGraph) {
-            return new HugeTriangleCount((HugeGraph) graph, pool, concurrency, AllocationTracker.create());
+            return new HugeTriangleCount((HugeGraph) graph, pool, concurrency, AllocationTracker.create(PagePool.DEFAULT));
         } else {
             return new TriangleCountQueue(graph, pool, concurrency);
         }
@@ -30,6 +30,7 @@ import org.neo4j.graphalgo.impl.Algorithm;
 import org.neo4j.graphdb.Direction;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.Spliterators;
@@ -47,6 +48,9 @@ import java.util.stream.StreamSupport;
 public class TriangleStream extends Algorithm<TriangleStream> {
 
     public static final Direction D = Direction.BOTH;
+    // how long a producer waits for space in the result queue before checking the termination flag
+    private static final long OFFER_TIMEOUT_MILLIS = 100L;
+
     private Graph graph;
     private ExecutorService executorService;
     private final AtomicInteger queue;
@@ -55,6 +59,8 @@ public class TriangleStream extends Algorithm<TriangleStream> {
     private AtomicInteger visitedNodes;
     private AtomicInteger runningThreads;
     private BlockingQueue<Result> resultQueue;
+    private Collection<Future<?>> futures = Collections.emptyList();
+    private volatile boolean outputStreamOpen;
 
     public TriangleStream(Graph graph, ExecutorService executorService, int concurrency) {
         this.graph = graph;
@@ -74,6 +80,7 @@ public class TriangleStream extends Algorithm<TriangleStream> {
 
     @Override
     public TriangleStream release() {
+        cancelTasks();
         visitedNodes = null;
         runningThreads = null;
         resultQueue = null;
@@ -104,9 +111,18 @@ public class TriangleStream extends Algorithm<TriangleStream> {
 
         return StreamSupport
                 .stream(Spliterators.spliteratorUnknownSize(it, 0), false)
+                .onClose(this::cancelTasks)
                 .filter(Objects::nonNull);
     }
 
+    private void cancelTasks() {
+        outputStreamOpen = false;
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+        futures = Collections.emptyList();
+    }
+
     private void submitTasks() {
         queue.set(0);
         runningThreads.set(0);
@@ -117,7 +133,8 @@ public class TriangleStream extends Algorithm<TriangleStream> {
         } else {
             tasks = ParallelUtil.tasks(concurrency, Task::new);
         }
-        ParallelUtil.run(tasks, false, executorService, null);
+        outputStreamOpen = true;
+        futures = ParallelUtil.run(tasks, false, executorService, null);
     }
 
     private abstract class BaseTask implements Runnable {
@@ -131,7 +148,7 @@ public class TriangleStream extends Algorithm<TriangleStream> {
             try {
                 ProgressLogger progressLogger = getProgressLogger();
                 int node;
-                while ((node = queue.getAndIncrement()) < nodeCount && running()) {
+                while (outputStreamOpen && (node = queue.getAndIncrement()) < nodeCount && running()) {
                     evaluateNode(node);
                     progressLogger.logProgress(visitedNodes.incrementAndGet(), nodeCount);
                 }
@@ -147,7 +164,15 @@ public class TriangleStream extends Algorithm<TriangleStream> {
                     graph.toOriginalNodeId(nodeA),
                     graph.toOriginalNodeId(nodeB),
                     graph.toOriginalNodeId(nodeC));
-            resultQueue.offer(result);
+            try {
+                while (!resultQueue.offer(result, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (!outputStreamOpen || !running()) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
     }
 
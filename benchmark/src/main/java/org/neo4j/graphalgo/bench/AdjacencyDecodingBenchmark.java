@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.bench;
+
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.ByteArray;
+import org.neo4j.graphalgo.core.utils.paged.DeltaEncoding;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes the same adjacency lists in the former vlong encoding and in the block
+ * encoding of {@link ByteArray.DeltaCursor}, one target at a time and in bulk.
+ */
+@Threads(1)
+@Fork(value = 1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AdjacencyDecodingBenchmark {
+
+    private static final int TOTAL_TARGETS = 1 << 20;
+    private static final long BYTE_ARRAY_BASE = UnsafeUtil.arrayBaseOffset(byte[].class);
+
+    @Param({"4", "16", "128", "1024"})
+    public int degree;
+
+    /**
+     * Upper bound for the gap between two targets, 16 for dense and 1M for sparse neighbourhoods.
+     */
+    @Param({"16", "1048576"})
+    public int maxGap;
+
+    @Param({"false", "true"})
+    public boolean offHeap;
+
+    private int lists;
+    private byte[] vlongs;
+    private ByteArray blocks;
+    private long[] offsets;
+    private ByteArray.DeltaCursor cursor;
+    private long[] buffer;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42L);
+        lists = TOTAL_TARGETS / degree;
+        vlongs = new byte[TOTAL_TARGETS * 9];
+        blocks = ByteArray.newArray(0L, offHeap, AllocationTracker.EMPTY);
+        offsets = new long[lists];
+
+        ByteArray.LocalAllocator allocator = blocks.newAllocator();
+        allocator.prepare();
+        long[] deltas = new long[degree];
+        int vlongOffset = 0;
+        for (int i = 0; i < lists; i++) {
+            for (int j = 0; j < degree; j++) {
+                deltas[j] = 1L + random.nextInt(maxGap);
+            }
+            for (long delta : deltas) {
+                vlongOffset = DeltaEncoding.encodeVLong(delta, vlongs, vlongOffset);
+            }
+            offsets[i] = allocator.allocate(Integer.BYTES + DeltaEncoding.blockSize(deltas, 0, degree));
+            allocator.adder.addUnsignedInt(degree);
+            allocator.adder.addDeltaBlocks(deltas, 0, degree);
+        }
+        cursor = blocks.newCursor();
+        buffer = new long[64];
+    }
+
+    @TearDown
+    public void tearDown() {
+        blocks.release();
+    }
+
+    @Benchmark
+    public long vlongDecoding() {
+        byte[] vlongs = this.vlongs;
+        long address = BYTE_ARRAY_BASE;
+        long sum = 0L;
+        for (int i = 0; i < lists; i++) {
+            long target = 0L;
+            for (int j = 0; j < degree; j++) {
+                byte b = UnsafeUtil.getByte(vlongs, address++);
+                long value = (long) ((int) b & 0x7F);
+                for (int shift = 7; ((int) b & 0x80) != 0; shift += 7) {
+                    b = UnsafeUtil.getByte(vlongs, address++);
+                    value |= ((long) b & 0x7FL) << shift;
+                }
+                target += value;
+                sum += target;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long blockDecoding() {
+        ByteArray.DeltaCursor cursor = this.cursor;
+        long sum = 0L;
+        for (long offset : offsets) {
+            blocks.deltaCursor(cursor, offset);
+            while (cursor.hasNextVLong()) {
+                sum += cursor.nextVLong();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long bulkBlockDecoding() {
+        ByteArray.DeltaCursor cursor = this.cursor;
+        long[] buffer = this.buffer;
+        long sum = 0L;
+        for (long offset : offsets) {
+            blocks.deltaCursor(cursor, offset);
+            int length;
+            while ((length = cursor.nextTargets(buffer)) > 0) {
+                for (int i = 0; i < length; i++) {
+                    sum += buffer[i];
+                }
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.bench;
+
+import org.neo4j.graphalgo.api.HugeAdjacencyCursor;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.impl.PageRankAlgorithm;
+import org.neo4j.graphalgo.impl.PageRankResult;
+import org.neo4j.graphalgo.impl.triangle.HugeTriangleCount;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iterates all relationships of a random HugeGraph with a {@link HugeRelationshipConsumer}
+ * and with a {@link HugeAdjacencyCursor}, and runs the algorithms that use the cursor.
+ */
+@Threads(1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HugeAdjacencyCursorBenchmark {
+
+    private static final int NODE_COUNT = 10_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Param({"4", "16", "64"})
+    public int averageDegree;
+
+    private GraphDatabaseAPI db;
+    private HugeGraph directed;
+    private HugeGraph undirected;
+
+    @Setup
+    public void setup() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .newGraphDatabase();
+
+        // random targets with a degree of 0 to 2 * averageDegree per node
+        Random random = new Random(42L);
+        RelationshipType type = RelationshipType.withName("TYPE");
+        Node[] nodes = new Node[NODE_COUNT];
+        try (Transaction tx = db.beginTx()) {
+            for (int i = 0; i < NODE_COUNT; i++) {
+                nodes[i] = db.createNode();
+            }
+            tx.success();
+        }
+        for (int start = 0; start < NODE_COUNT; start += BATCH_SIZE) {
+            try (Transaction tx = db.beginTx()) {
+                for (int i = start, end = Math.min(start + BATCH_SIZE, NODE_COUNT); i < end; i++) {
+                    for (int degree = random.nextInt(2 * averageDegree + 1); degree > 0; degree--) {
+                        nodes[i].createRelationshipTo(nodes[random.nextInt(NODE_COUNT)], type);
+                    }
+                }
+                tx.success();
+            }
+        }
+
+        directed = (HugeGraph) new GraphLoader(db)
+                .withDirection(Direction.OUTGOING)
+                .load(HugeGraphFactory.class);
+        undirected = (HugeGraph) new GraphLoader(db)
+                .withDirection(Direction.OUTGOING)
+                .withSort(true)
+                .asUndirected(true)
+                .load(HugeGraphFactory.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        directed.release();
+        undirected.release();
+        db.shutdown();
+        Pools.DEFAULT.shutdownNow();
+    }
+
+    @Benchmark
+    public long consumerIteration() {
+        SumConsumer consumer = new SumConsumer();
+        HugeGraph graph = directed;
+        for (long node = 0L, nodeCount = graph.nodeCount(); node < nodeCount; node++) {
+            graph.forEachOutgoing(node, consumer);
+        }
+        return consumer.sum;
+    }
+
+    @Benchmark
+    public long cursorIteration() {
+        HugeAdjacencyCursor cursor = directed.adjacencyCursor(Direction.OUTGOING);
+        long[] targets = new long[HugeAdjacencyCursor.BATCH_SIZE];
+        long sum = 0L;
+        for (long node = 0L, nodeCount = directed.nodeCount(); node < nodeCount; node++) {
+            cursor.init(node);
+            int length;
+            while ((length = cursor.nextTargets(targets)) > 0) {
+                for (int i = 0; i < length; i++) {
+                    sum += targets[i];
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public PageRankResult pageRank() {
+        return PageRankAlgorithm
+                .of(directed, 0.85)
+                .compute(20)
+                .result();
+    }
+
+    @Benchmark
+    public long triangleCount() {
+        return new HugeTriangleCount(undirected, Pools.DEFAULT, 1, AllocationTracker.EMPTY)
+                .compute()
+                .getTriangleCount();
+    }
+
+    private static final class SumConsumer implements HugeRelationshipConsumer {
+        private long sum;
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId) {
+            sum += targetNodeId;
+            return true;
+        }
+    }
+}
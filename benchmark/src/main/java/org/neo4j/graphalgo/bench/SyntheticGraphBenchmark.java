@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.bench;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.EdgeList;
+import org.neo4j.graphalgo.core.huge.HugeGraphBuilder;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.helper.generator.BarabasiAlbertGenerator;
+import org.neo4j.graphalgo.helper.generator.EdgeListGenerator;
+import org.neo4j.graphalgo.helper.generator.RMatGenerator;
+import org.neo4j.graphalgo.impl.PageRankAlgorithm;
+import org.neo4j.graphalgo.impl.PageRankResult;
+import org.neo4j.graphdb.Direction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds HugeGraphs from generated graphs and runs PageRank on them, without a database.
+ * The graphs only depend on the parameters, so the runs are reproducible.
+ * <p>
+ * An R-MAT graph of scale {@code s} has {@code 2^s} nodes and {@code 16 * 2^s} edges,
+ * the Barabási-Albert graph has as many nodes with 16 edges each.
+ * A scale of 26 yields a billion edges, which needs a heap of about 64 GB,
+ * e.g. {@code -p scale=26 -jvmArgs -Xmx64g}.
+ */
+@Threads(1)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SyntheticGraphBenchmark {
+
+    private static final int EDGE_FACTOR = 16;
+
+    @Param({"rmat", "ba"})
+    public String generator;
+
+    @Param({"16", "20"})
+    public int scale;
+
+    private EdgeList edges;
+    private long nodeCount;
+    private HugeGraph graph;
+
+    @Setup
+    public void setup() {
+        EdgeListGenerator<?> generator = "ba".equals(this.generator)
+                ? new BarabasiAlbertGenerator(1L << scale, EDGE_FACTOR)
+                : new RMatGenerator(scale, EDGE_FACTOR);
+        nodeCount = generator.nodeCount();
+        edges = generator.withSeed(42L).generate();
+        graph = newBuilder().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.release();
+        edges.release();
+        Pools.DEFAULT.shutdownNow();
+    }
+
+    @Benchmark
+    public long build() {
+        HugeGraph graph = newBuilder().build();
+        long nodeCount = graph.nodeCount();
+        graph.release();
+        return nodeCount;
+    }
+
+    @Benchmark
+    public PageRankResult pageRank() {
+        return PageRankAlgorithm
+                .of(graph, 0.85, Pools.DEFAULT, Pools.DEFAULT_CONCURRENCY, ParallelUtil.DEFAULT_BATCH_SIZE)
+                .compute(20)
+                .result();
+    }
+
+    private HugeGraphBuilder newBuilder() {
+        return new HugeGraphBuilder(nodeCount, edges).withDirection(Direction.OUTGOING);
+    }
+}
@@ -27,10 +27,12 @@ import org.neo4j.graphalgo.core.NullWeightMap;
 import org.neo4j.graphalgo.core.WeightMap;
 import org.neo4j.graphalgo.core.huge.HugeIdMap;
 import org.neo4j.graphalgo.core.huge.HugeNodeImporter;
+import org.neo4j.graphalgo.core.huge.HugeNodePropertyMap;
 import org.neo4j.graphalgo.core.utils.ImportProgress;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressLoggerAdapter;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.kernel.api.StatementConstants;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -76,6 +78,21 @@ public abstract class GraphFactory {
 
     public abstract Graph build();
 
+    /**
+     * Estimates the memory that {@link #build()} is going to allocate,
+     * based on the {@link GraphDimensions} of the graph to load.
+     *
+     * @throws UnsupportedOperationException if the factory cannot estimate its memory usage
+     */
+    public MemoryRange memoryEstimation() {
+        throw new UnsupportedOperationException(
+                "Memory estimation is not supported by " + getClass().getSimpleName());
+    }
+
+    public GraphDimensions dimensions() {
+        return dimensions;
+    }
+
     protected IdMap loadIdMap() throws EntityNotFoundException {
         final NodeImporter nodeImporter = new NodeImporter(
                 api,
@@ -88,6 +105,7 @@ public abstract class GraphFactory {
     protected HugeIdMap loadHugeIdMap(AllocationTracker tracker) throws EntityNotFoundException {
         final HugeNodeImporter nodeImporter = new HugeNodeImporter(
                 api,
+                log,
                 tracker,
                 progress,
                 dimensions.hugeNodeCount(),
@@ -96,6 +114,23 @@ public abstract class GraphFactory {
         return nodeImporter.call();
     }
 
+    protected HugeIdMap loadHugeIdMap(
+            AllocationTracker tracker,
+            HugeNodePropertyMap nodeProperties) throws EntityNotFoundException {
+        final HugeNodeImporter nodeImporter = new HugeNodeImporter(
+                api,
+                log,
+                threadPool,
+                setup.concurrency(),
+                tracker,
+                progress,
+                dimensions.hugeNodeCount(),
+                dimensions.allNodesCount(),
+                dimensions.labelId(),
+                nodeProperties);
+        return nodeImporter.call();
+    }
+
     protected WeightMapping newWeightMap(int propertyId, double defaultValue) {
         return propertyId == StatementConstants.NO_SUCH_PROPERTY_KEY
                 ? new NullWeightMap(defaultValue)
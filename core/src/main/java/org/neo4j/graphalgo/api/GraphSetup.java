@@ -18,7 +18,9 @@
  */
 package org.neo4j.graphalgo.api;
 
+import org.neo4j.graphalgo.core.RelationshipAggregation;
 import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.logging.Log;
@@ -60,12 +62,16 @@ public class GraphSetup {
     public final String nodePropertyName;
     // default property is used for node properties if property is not set.
     public final double nodeDefaultPropertyValue;
+    // additional node properties that are loaded into columns of the graph
+    public final PropertyMapping[] nodePropertyMappings;
 
     public final Map<String,Object> params;
 
     public final Log log;
     public final long logMillis;
     public final AllocationTracker tracker;
+    // checked by long running imports, to stop loading once the calling transaction is terminated
+    public final TerminationFlag terminationFlag;
 
     // the executor service for parallel execution. null means single threaded evaluation.
     public final ExecutorService executor;
@@ -77,10 +83,16 @@ public class GraphSetup {
     public final int batchSize;
 
     public final boolean accumulateWeights;
+    // how the weights of parallel relationships are combined by the huge graph import
+    public final RelationshipAggregation relationshipAggregation;
     // tells whether the underlying array should be sorted during import
     public final boolean sort;
     // in/out adjacencies are allowed to be merged into an undirected view of the graph
     public final boolean loadAsUndirected;
+    // the adjacency of a huge graph is allocated off-heap
+    public final boolean offHeap;
+    // the id map of a huge graph is compressed after the graph has been loaded
+    public final boolean compressIdMap;
 
     /**
      * main ctor
@@ -96,10 +108,15 @@ public class GraphSetup {
      * @param nodePropertyName property name which holds additional values of a node.
 *                         null means the default value is used for each value.
      * @param nodeDefaultPropertyValue the default node value if property is not given.
+     * @param nodePropertyMappings additional node properties to load into columns
      * @param executor the executor. null means single threaded evaluation
      * @param batchSize batch size for parallel loading
      * @param accumulateWeights true if relationship-weights should be summed within the loader
+     * @param relationshipAggregation how the weights of parallel relationships are combined
      * @param sort
+     * @param offHeap true if the adjacency should be kept outside of the Java heap
+     * @param compressIdMap true if the id map should be compressed after loading
+     * @param terminationFlag checked during the import. null means the import cannot be terminated
      */
     public GraphSetup(
             String startLabel,
@@ -112,16 +129,21 @@ public class GraphSetup {
             double nodeDefaultWeight,
             String nodePropertyName,
             double nodeDefaultPropertyValue,
+            PropertyMapping[] nodePropertyMappings,
             Map<String, Object> params,
             ExecutorService executor,
             int concurrency,
             int batchSize,
             boolean accumulateWeights,
+            RelationshipAggregation relationshipAggregation,
             Log log,
             long logMillis,
             boolean sort,
             boolean loadAsUndirected,
+            boolean offHeap,
+            boolean compressIdMap,
             AllocationTracker tracker,
+            TerminationFlag terminationFlag,
             String name) {
 
         this.startLabel = startLabel;
@@ -135,16 +157,21 @@ public class GraphSetup {
         this.nodeDefaultWeight = nodeDefaultWeight;
         this.nodePropertyName = nodePropertyName;
         this.nodeDefaultPropertyValue = nodeDefaultPropertyValue;
+        this.nodePropertyMappings = nodePropertyMappings;
         this.params = params == null ? Collections.emptyMap() : params;
         this.executor = executor;
         this.concurrency = concurrency;
         this.batchSize = batchSize;
         this.accumulateWeights = accumulateWeights;
+        this.relationshipAggregation = relationshipAggregation == null ? RelationshipAggregation.NONE : relationshipAggregation;
         this.log = log;
         this.logMillis = logMillis;
         this.sort = sort;
         this.loadAsUndirected = loadAsUndirected;
+        this.offHeap = offHeap;
+        this.compressIdMap = compressIdMap;
         this.tracker = tracker;
+        this.terminationFlag = terminationFlag == null ? TerminationFlag.RUNNING_TRUE : terminationFlag;
         this.name = name;
     }
 
@@ -162,16 +189,21 @@ public class GraphSetup {
         this.nodeDefaultWeight = 1.0;
         this.nodePropertyName = null;
         this.nodeDefaultPropertyValue = 1.0;
+        this.nodePropertyMappings = new PropertyMapping[0];
         this.params = Collections.emptyMap();
         this.executor = null;
         this.concurrency = Pools.DEFAULT_CONCURRENCY;
         this.batchSize = -1;
         this.accumulateWeights = false;
+        this.relationshipAggregation = RelationshipAggregation.NONE;
         this.log = NullLog.getInstance();
         this.logMillis = -1;
         this.sort = false;
         this.loadAsUndirected = false;
+        this.offHeap = false;
+        this.compressIdMap = false;
         this.tracker = AllocationTracker.EMPTY;
+        this.terminationFlag = TerminationFlag.RUNNING_TRUE;
     }
 
     /**
@@ -191,16 +223,21 @@ public class GraphSetup {
         this.nodeDefaultWeight = 1.0;
         this.nodePropertyName = null;
         this.nodeDefaultPropertyValue = 1.0;
+        this.nodePropertyMappings = new PropertyMapping[0];
         this.params = Collections.emptyMap();
         this.executor = executor;
         this.concurrency = Pools.DEFAULT_CONCURRENCY;
         this.batchSize = -1;
         this.accumulateWeights = false;
+        this.relationshipAggregation = RelationshipAggregation.NONE;
         this.log = NullLog.getInstance();
         this.logMillis = -1;
         this.sort = false;
         this.loadAsUndirected = false;
+        this.offHeap = false;
+        this.compressIdMap = false;
         this.tracker = AllocationTracker.EMPTY;
+        this.terminationFlag = TerminationFlag.RUNNING_TRUE;
     }
 
     public boolean loadConcurrent() {
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.api;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Bulk access to the adjacency list of one node at a time.
+ * <p>
+ * Instead of calling a {@link HugeRelationshipConsumer} for every relationship,
+ * the cursor fills a caller-supplied {@code long[]} with the next targets – all of them
+ * for most nodes and a block of them for high-degree nodes. Algorithms can then process
+ * the targets in a plain loop over the array, which the JIT can inline and unroll,
+ * and reuse both the cursor and the array for every node.
+ * <p>
+ * A cursor is obtained once per thread from {@link HugeRelationshipIterator#adjacencyCursor(Direction)}
+ * and then moved to a node with {@link #init(long)}:
+ * <pre>
+ * HugeAdjacencyCursor cursor = graph.adjacencyCursor(Direction.OUTGOING);
+ * long[] targets = new long[HugeAdjacencyCursor.BATCH_SIZE];
+ * cursor.init(nodeId);
+ * int length;
+ * while ((length = cursor.nextTargets(targets)) > 0) {
+ *     for (int i = 0; i < length; i++) {
+ *         // use targets[i]
+ *     }
+ * }
+ * </pre>
+ * The targets are returned in the same order as they would be passed
+ * to {@link HugeRelationshipIterator#forEachRelationship(long, Direction, HugeRelationshipConsumer)}.
+ * An instance of this is not thread-safe.
+ */
+public interface HugeAdjacencyCursor {
+
+    /**
+     * A buffer length that lets implementations decode whole blocks at once.
+     */
+    int BATCH_SIZE = 64;
+
+    /**
+     * Moves the cursor to the adjacency list of {@code nodeId}.
+     * The returned degree can be used to size buffers, but a cursor may return
+     * fewer targets, so the list must be read until {@link #nextTargets(long[])} returns 0.
+     *
+     * @return the degree of this node
+     */
+    int init(long nodeId);
+
+    /**
+     * Writes the next targets into {@code targets}, starting at index 0
+     * and at most {@code targets.length} of them.
+     *
+     * @return the number of targets written, 0 iff all targets have been returned
+     */
+    int nextTargets(long[] targets);
+
+    /**
+     * Writes the next targets into {@code targets} and the weights of the
+     * respective relationships at the same index into {@code weights},
+     * which must be at least as long as {@code targets}.
+     *
+     * @return the number of targets written, 0 iff all targets have been returned
+     * @throws UnsupportedOperationException if the cursor has no access to relationship weights
+     */
+    int nextTargets(long[] targets, double[] weights);
+
+    /**
+     * A cursor for every {@link HugeRelationshipIterator}, that collects the
+     * adjacency list of a node with {@link HugeRelationshipIterator#forEachRelationship(long, Direction, HugeRelationshipConsumer)}
+     * and returns it from an internal buffer.
+     */
+    final class Buffered implements HugeAdjacencyCursor, HugeRelationshipConsumer {
+        private final HugeRelationshipIterator relationships;
+        private final Direction direction;
+        private final HugeRelationshipWeights weights;
+
+        private long nodeId;
+        private long[] buffer;
+        private int length;
+        private int position;
+
+        /**
+         * @param weights the weights for {@link #nextTargets(long[], double[])}, or {@code null}
+         */
+        public Buffered(
+                HugeRelationshipIterator relationships,
+                Direction direction,
+                HugeRelationshipWeights weights) {
+            this.relationships = relationships;
+            this.direction = direction;
+            this.weights = weights;
+            this.buffer = new long[BATCH_SIZE];
+        }
+
+        @Override
+        public int init(final long nodeId) {
+            this.nodeId = nodeId;
+            length = 0;
+            position = 0;
+            relationships.forEachRelationship(nodeId, direction, this);
+            return length;
+        }
+
+        @Override
+        public boolean accept(final long sourceNodeId, final long targetNodeId) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, ArrayUtil.oversize(length + 1, Long.BYTES));
+            }
+            buffer[length++] = targetNodeId;
+            return true;
+        }
+
+        @Override
+        public int nextTargets(final long[] targets) {
+            int count = Math.min(targets.length, length - position);
+            System.arraycopy(buffer, position, targets, 0, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int nextTargets(final long[] targets, final double[] weights) {
+            if (this.weights == null) {
+                throw new UnsupportedOperationException("No relationship weights available");
+            }
+            int count = nextTargets(targets);
+            for (int i = 0; i < count; i++) {
+                weights[i] = this.weights.weightOf(nodeId, targets[i]);
+            }
+            return count;
+        }
+    }
+}
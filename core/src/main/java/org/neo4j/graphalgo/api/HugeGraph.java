@@ -25,6 +25,8 @@ import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphdb.Direction;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
 import java.util.function.IntPredicate;
 import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
@@ -34,7 +36,7 @@ import java.util.stream.Collectors;
  *
  * @author mknblch
  */
-public interface HugeGraph extends HugeIdMapping, HugeDegrees, HugeNodeIterator, HugeBatchNodeIterable, HugeRelationshipIterator, HugeRelationshipWeights, HugeRelationshipPredicate, Graph {
+public interface HugeGraph extends HugeIdMapping, HugeDegrees, HugeNodeIterator, HugeBatchNodeIterable, HugeRelationshipIterator, HugeRelationshipWeights, HugeRelationshipPredicate, HugeNodeProperties, Graph {
 
     String TYPE = "huge";
 
@@ -49,6 +51,34 @@ public interface HugeGraph extends HugeIdMapping, HugeDegrees, HugeNodeIterator,
         return TYPE;
     }
 
+    /**
+     * @return the relationship types that have been loaded separately and can be
+     * selected with {@link #withRelationshipTypes(String)}, empty if the graph is not typed
+     */
+    default Set<String> relationshipTypes() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Returns a view on this graph that only contains the relationships of the given types,
+     * separated by {@code |}. The view shares the nodes and the relationships with this graph,
+     * releasing the view does not release anything.
+     *
+     * @param types the types to select, or {@code null} for all relationships of this graph
+     * @throws IllegalArgumentException if a type has not been loaded separately
+     */
+    default HugeGraph withRelationshipTypes(String types) {
+        if (types == null || types.isEmpty()) {
+            return this;
+        }
+        throw new IllegalArgumentException("The relationship types of the graph have not been loaded separately");
+    }
+
+    @Override
+    default HugeAdjacencyCursor adjacencyCursor(Direction direction) {
+        return new HugeAdjacencyCursor.Buffered(this, direction, this);
+    }
+
     @Override
     default Collection<PrimitiveIntIterable> batchIterables(int batchSize) {
         return hugeBatchIterables(batchSize)
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.api;
+
+import java.util.Set;
+
+/**
+ * Gives access to the named numeric node properties that were loaded
+ * alongside the graph, see {@link PropertyMapping}.
+ * <p>
+ * The properties are stored in columns indexed by the mapped node id, so
+ * resolving a property once and reading it for many nodes does not involve
+ * any hashing.
+ */
+public interface HugeNodeProperties {
+
+    /**
+     * @return the names of all loaded node properties
+     */
+    Set<String> nodePropertyKeys();
+
+    /**
+     * @throws IllegalArgumentException if no double property with that name was loaded
+     */
+    OfDouble doubleNodeProperty(String name);
+
+    /**
+     * @throws IllegalArgumentException if no long property with that name was loaded
+     */
+    OfLong longNodeProperty(String name);
+
+    @FunctionalInterface
+    interface OfDouble {
+        double get(long nodeId);
+    }
+
+    @FunctionalInterface
+    interface OfLong {
+        long get(long nodeId);
+    }
+}
@@ -42,6 +42,16 @@ public interface HugeRelationshipIterator {
         forEachRelationship(nodeId, Direction.OUTGOING, consumer);
     }
 
+    /**
+     * @return a new cursor for bulk access to the adjacency lists in the given direction.
+     * The default implementation buffers the relationships of {@link #forEachRelationship(long, Direction, HugeRelationshipConsumer)}
+     * and has no access to weights. The cursor reads from this iterator, so use it on a
+     * {@link #concurrentCopy()} when iterating on multiple threads.
+     */
+    default HugeAdjacencyCursor adjacencyCursor(Direction direction) {
+        return new HugeAdjacencyCursor.Buffered(this, direction, null);
+    }
+
     /**
      * @return a copy of this iterator that reuses new cursors internally,
      * so that iterations happen independent from other iterations.
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.api;
+
+import java.util.Objects;
+
+/**
+ * Describes a numeric node property that is loaded into a column of the graph.
+ * The column is accessed by {@link #name}, its values are read from the
+ * Neo4j property {@link #propertyKey}. Nodes that do not have the property
+ * use the {@link #defaultValue} instead.
+ */
+public final class PropertyMapping {
+
+    public enum Type {
+        DOUBLE,
+        LONG
+    }
+
+    // key of the property within the graph
+    public final String name;
+    // property key in the Neo4j database
+    public final String propertyKey;
+    // value for nodes that do not have the property
+    public final double defaultValue;
+    // exact default value of long columns, which may not be representable as a double
+    public final long longDefaultValue;
+    public final Type type;
+
+    private PropertyMapping(
+            String name,
+            String propertyKey,
+            double defaultValue,
+            long longDefaultValue,
+            Type type) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.propertyKey = Objects.requireNonNull(propertyKey, "propertyKey");
+        this.defaultValue = defaultValue;
+        this.longDefaultValue = longDefaultValue;
+        this.type = type;
+    }
+
+    /**
+     * maps the Neo4j property {@code propertyKey} to a double column named {@code name}
+     */
+    public static PropertyMapping of(String name, String propertyKey, double defaultValue) {
+        return new PropertyMapping(name, propertyKey, defaultValue, (long) defaultValue, Type.DOUBLE);
+    }
+
+    /**
+     * maps the Neo4j property {@code propertyKey} to a long column named {@code name}
+     */
+    public static PropertyMapping ofLong(String name, String propertyKey, long defaultValue) {
+        return new PropertyMapping(name, propertyKey, (double) defaultValue, defaultValue, Type.LONG);
+    }
+
+    @Override
+    public String toString() {
+        Object defaultValue = type == Type.LONG ? longDefaultValue : this.defaultValue;
+        return name + "=" + propertyKey + "(" + type + ", default: " + defaultValue + ")";
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+
+/**
+ * A list of relationships as (source, target) pairs of node ids, with an optional weight per relationship.
+ * The node ids are in the range {@code [0, nodeCount)} of the graph that is built from the list.
+ * <p>
+ * The list has a fixed size and is backed by paged arrays, so that it can hold more than
+ * 2^31 relationships and be filled in parallel, as long as every thread writes its own indices.
+ *
+ * @see EdgeListGraphBuilder
+ */
+public final class EdgeList {
+
+    private final long size;
+    private LongArray sources;
+    private LongArray targets;
+    private DoubleArray weights;
+
+    public static long estimateMemoryUsage(long size, boolean withWeights) {
+        long memory = LongArray.estimateMemoryUsage(size) << 1;
+        if (withWeights) {
+            memory += DoubleArray.estimateMemoryUsage(size);
+        }
+        return memory;
+    }
+
+    public static EdgeList newList(long size, boolean withWeights, AllocationTracker tracker) {
+        return new EdgeList(
+                size,
+                LongArray.newArray(size, tracker),
+                LongArray.newArray(size, tracker),
+                withWeights ? DoubleArray.newArray(size, tracker) : null);
+    }
+
+    public static EdgeList of(long[] sources, long[] targets) {
+        return of(sources, targets, null);
+    }
+
+    /**
+     * @param weights the weight of every relationship, or {@code null}
+     */
+    public static EdgeList of(long[] sources, long[] targets, double[] weights) {
+        if (sources.length != targets.length || (weights != null && weights.length != sources.length)) {
+            throw new IllegalArgumentException("All arrays must have the same length");
+        }
+        EdgeList edges = newList(sources.length, weights != null, AllocationTracker.EMPTY);
+        for (int i = 0; i < sources.length; i++) {
+            edges.sources.set(i, sources[i]);
+            edges.targets.set(i, targets[i]);
+            if (weights != null) {
+                edges.weights.set(i, weights[i]);
+            }
+        }
+        return edges;
+    }
+
+    private EdgeList(long size, LongArray sources, LongArray targets, DoubleArray weights) {
+        this.size = size;
+        this.sources = sources;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    public void set(long index, long source, long target) {
+        sources.set(index, source);
+        targets.set(index, target);
+    }
+
+    public void set(long index, long source, long target, double weight) {
+        sources.set(index, source);
+        targets.set(index, target);
+        weights.set(index, weight);
+    }
+
+    public long source(long index) {
+        return sources.get(index);
+    }
+
+    public long target(long index) {
+        return targets.get(index);
+    }
+
+    public double weight(long index) {
+        return weights.get(index);
+    }
+
+    public boolean hasWeights() {
+        return weights != null;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return the number of released bytes
+     */
+    public long release() {
+        long released = 0L;
+        if (sources != null) {
+            released += sources.release();
+            released += targets.release();
+            sources = null;
+            targets = null;
+        }
+        if (weights != null) {
+            released += weights.release();
+            weights = null;
+        }
+        return released;
+    }
+}
@@ -0,0 +1,371 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Reads an {@link EdgeList} from a file, which is memory-mapped and parsed in parallel chunks.
+ * Two formats are supported:
+ * <ul>
+ * <li>Text, with one relationship per line as {@code source target [weight]}, separated by
+ * commas, semicolons, tabs or spaces. Lines that do not start with a number are skipped,
+ * which covers headers, comments and empty lines. A missing weight is the default weight.</li>
+ * <li>Binary, starting with the {@link #MAGIC magic number}, an int of flags, where
+ * {@link #WITH_WEIGHTS} tells if the file has weights, and the number of relationships
+ * as a long. Each relationship follows as the longs source and target and the double weight,
+ * if the file has weights. All values are big-endian.</li>
+ * </ul>
+ * The node ids are returned as they are in the file.
+ */
+public final class EdgeListFile {
+
+    public static final int MAGIC = 0x4E45444C;
+    public static final int WITH_WEIGHTS = 1;
+    public static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+
+    // keeps every chunk addressable by a single MappedByteBuffer
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+    // more chunks than threads, so that threads which finish early can take over
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private EdgeListFile() {
+        throw new UnsupportedOperationException("No instances");
+    }
+
+    /**
+     * @param withWeights    whether to read the weights from the file
+     * @param defaultWeight  the weight of relationships that have none in the file
+     */
+    public static EdgeList read(
+            Path file,
+            boolean withWeights,
+            double defaultWeight,
+            int concurrency,
+            ExecutorService executorService,
+            AllocationTracker tracker) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // a file channel might read less than requested
+            }
+            Reader reader = !header.hasRemaining() && header.getInt(0) == MAGIC
+                    ? new BinaryReader(channel, size, header, withWeights, defaultWeight)
+                    : new TextReader(channel, size, withWeights, defaultWeight);
+            return reader.read(Math.max(1, concurrency), executorService, tracker);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private abstract static class Reader {
+        final FileChannel channel;
+        final long size;
+        final boolean withWeights;
+        final double defaultWeight;
+
+        Reader(FileChannel channel, long size, boolean withWeights, double defaultWeight) {
+            this.channel = channel;
+            this.size = size;
+            this.withWeights = withWeights;
+            this.defaultWeight = defaultWeight;
+        }
+
+        abstract EdgeList read(int concurrency, ExecutorService executorService, AllocationTracker tracker)
+                throws IOException;
+
+        MappedByteBuffer map(long position, long length) {
+            try {
+                return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class BinaryReader extends Reader {
+        private final boolean fileHasWeights;
+        private final long relationshipCount;
+
+        private BinaryReader(
+                FileChannel channel,
+                long size,
+                ByteBuffer header,
+                boolean withWeights,
+                double defaultWeight) {
+            super(channel, size, withWeights, defaultWeight);
+            this.fileHasWeights = (header.getInt(Integer.BYTES) & WITH_WEIGHTS) != 0;
+            this.relationshipCount = header.getLong(2 * Integer.BYTES);
+        }
+
+        @Override
+        EdgeList read(int concurrency, ExecutorService executorService, AllocationTracker tracker)
+                throws IOException {
+            int recordBytes = 2 * Long.BYTES + (fileHasWeights ? Double.BYTES : 0);
+            if (relationshipCount < 0L || (size - HEADER_BYTES) / recordBytes != relationshipCount) {
+                throw new IOException(String.format(
+                        "Expected %d relationships of %d bytes each, but the file has %d bytes",
+                        relationshipCount, recordBytes, size));
+            }
+            EdgeList edges = EdgeList.newList(relationshipCount, withWeights, tracker);
+            long recordsPerChunk = Math.max(1L, Math.min(
+                    MAX_CHUNK_BYTES / recordBytes,
+                    ParallelUtil.threadSize((long) concurrency * CHUNKS_PER_THREAD, relationshipCount)));
+            List<Runnable> tasks = new ArrayList<>();
+            for (long start = 0L; start < relationshipCount; start += recordsPerChunk) {
+                long first = start;
+                long count = Math.min(recordsPerChunk, relationshipCount - start);
+                tasks.add(() -> {
+                    ByteBuffer buffer = map(HEADER_BYTES + first * recordBytes, count * recordBytes);
+                    for (long i = first, end = first + count; i < end; i++) {
+                        long source = buffer.getLong();
+                        long target = buffer.getLong();
+                        if (withWeights) {
+                            edges.set(i, source, target, fileHasWeights ? buffer.getDouble() : defaultWeight);
+                        } else {
+                            edges.set(i, source, target);
+                            if (fileHasWeights) {
+                                buffer.getDouble();
+                            }
+                        }
+                    }
+                });
+            }
+            ParallelUtil.run(tasks, executorService);
+            return edges;
+        }
+    }
+
+    private static final class TextReader extends Reader {
+
+        private TextReader(FileChannel channel, long size, boolean withWeights, double defaultWeight) {
+            super(channel, size, withWeights, defaultWeight);
+        }
+
+        @Override
+        EdgeList read(int concurrency, ExecutorService executorService, AllocationTracker tracker)
+                throws IOException {
+            long[] bounds = chunkBounds(concurrency);
+            int chunks = bounds.length - 1;
+            MappedByteBuffer[] buffers = new MappedByteBuffer[chunks];
+            long[] offsets = new long[chunks + 1];
+
+            // count the relationships of every chunk, so that all chunks can be parsed into a single list
+            List<Runnable> tasks = new ArrayList<>(chunks);
+            for (int i = 0; i < chunks; i++) {
+                int chunk = i;
+                tasks.add(() -> {
+                    buffers[chunk] = map(bounds[chunk], bounds[chunk + 1] - bounds[chunk]);
+                    offsets[chunk + 1] = countLines(buffers[chunk]);
+                });
+            }
+            ParallelUtil.run(tasks, executorService);
+            Arrays.parallelPrefix(offsets, Long::sum);
+
+            EdgeList edges = EdgeList.newList(offsets[chunks], withWeights, tracker);
+            tasks.clear();
+            for (int i = 0; i < chunks; i++) {
+                int chunk = i;
+                tasks.add(() -> parseLines(buffers[chunk], bounds[chunk], edges, offsets[chunk]));
+            }
+            ParallelUtil.run(tasks, executorService);
+            return edges;
+        }
+
+        /**
+         * Splits the file into chunks that start at the beginning of a line.
+         */
+        private long[] chunkBounds(int concurrency) throws IOException {
+            long chunkSize = Math.max(1L, Math.min(
+                    MAX_CHUNK_BYTES,
+                    ParallelUtil.threadSize((long) concurrency * CHUNKS_PER_THREAD, size)));
+            List<Long> bounds = new ArrayList<>();
+            bounds.add(0L);
+            long bound = 0L;
+            while (bound < size) {
+                long next = Math.min(size, bound + chunkSize);
+                if (next < size) {
+                    next = nextLineStart(next);
+                }
+                bounds.add(next);
+                bound = next;
+            }
+            return bounds.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        private long nextLineStart(long position) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            // the line starts right here if the previous byte ends a line
+            long offset = position - 1L;
+            while (offset < size) {
+                buffer.clear();
+                int read = channel.read(buffer, offset);
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        return offset + i + 1L;
+                    }
+                }
+                offset += read;
+            }
+            return size;
+        }
+
+        private static long countLines(ByteBuffer buffer) {
+            long count = 0L;
+            int limit = buffer.limit();
+            int pos = 0;
+            while (pos < limit) {
+                pos = skipBlanks(buffer, pos, limit);
+                if (pos < limit && startsNumber(buffer.get(pos))) {
+                    ++count;
+                }
+                pos = nextLine(buffer, pos, limit);
+            }
+            return count;
+        }
+
+        private void parseLines(ByteBuffer buffer, long fileOffset, EdgeList edges, long index) {
+            int limit = buffer.limit();
+            int pos = 0;
+            long[] value = new long[1];
+            while (pos < limit) {
+                pos = skipBlanks(buffer, pos, limit);
+                if (pos < limit && startsNumber(buffer.get(pos))) {
+                    int lineStart = pos;
+                    pos = parseLong(buffer, pos, limit, value, fileOffset);
+                    long source = value[0];
+                    pos = parseLong(buffer, skipSeparators(buffer, pos, limit), limit, value, fileOffset);
+                    long target = value[0];
+                    if (withWeights) {
+                        pos = skipSeparators(buffer, pos, limit);
+                        int end = tokenEnd(buffer, pos, limit);
+                        double weight = defaultWeight;
+                        if (end > pos) {
+                            weight = parseDouble(buffer, pos, end, fileOffset + lineStart);
+                        }
+                        edges.set(index++, source, target, weight);
+                    } else {
+                        edges.set(index++, source, target);
+                    }
+                }
+                pos = nextLine(buffer, pos, limit);
+            }
+        }
+
+        private static boolean startsNumber(byte b) {
+            return (b >= '0' && b <= '9') || b == '-' || b == '+';
+        }
+
+        private static boolean isSeparator(byte b) {
+            return b == ',' || b == ';' || b == ' ' || b == '\t';
+        }
+
+        private static int skipBlanks(ByteBuffer buffer, int pos, int limit) {
+            while (pos < limit && (buffer.get(pos) == ' ' || buffer.get(pos) == '\t')) {
+                ++pos;
+            }
+            return pos;
+        }
+
+        private static int skipSeparators(ByteBuffer buffer, int pos, int limit) {
+            while (pos < limit && isSeparator(buffer.get(pos))) {
+                ++pos;
+            }
+            return pos;
+        }
+
+        private static int tokenEnd(ByteBuffer buffer, int pos, int limit) {
+            while (pos < limit) {
+                byte b = buffer.get(pos);
+                if (isSeparator(b) || b == '\n' || b == '\r') {
+                    break;
+                }
+                ++pos;
+            }
+            return pos;
+        }
+
+        private static int nextLine(ByteBuffer buffer, int pos, int limit) {
+            while (pos < limit && buffer.get(pos++) != '\n') {
+                // skip the rest of the line
+            }
+            return pos;
+        }
+
+        private static int parseLong(ByteBuffer buffer, int pos, int limit, long[] out, long fileOffset) {
+            int start = pos;
+            boolean negative = false;
+            if (pos < limit && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+                negative = buffer.get(pos) == '-';
+                ++pos;
+            }
+            long value = 0L;
+            int digitsStart = pos;
+            while (pos < limit) {
+                int digit = buffer.get(pos) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10L + digit;
+                ++pos;
+            }
+            if (pos == digitsStart || pos - digitsStart > 18) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid node id at byte %d: '%s'",
+                        fileOffset + start,
+                        token(buffer, start, tokenEnd(buffer, pos, limit))));
+            }
+            out[0] = negative ? -value : value;
+            return pos;
+        }
+
+        private static double parseDouble(ByteBuffer buffer, int start, int end, long fileOffset) {
+            String token = token(buffer, start, end);
+            try {
+                return Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid weight in the line at byte %d: '%s'", fileOffset, token));
+            }
+        }
+
+        private static String token(ByteBuffer buffer, int start, int end) {
+            byte[] bytes = new byte[end - start];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(start + i);
+            }
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicLongArray;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Builds a {@link Graph} directly from an {@link EdgeList}, without a database.
+ * The options mirror the ones of the {@link GraphLoader}.
+ * <p>
+ * The relationships are grouped by node with a parallel counting sort,
+ * so the builder needs the memory of the edge list a second time for every
+ * loaded direction. The edge list can be released once the graph is built.
+ *
+ * @see org.neo4j.graphalgo.core.huge.HugeGraphBuilder
+ * @see org.neo4j.graphalgo.core.heavyweight.HeavyGraphBuilder
+ */
+public abstract class EdgeListGraphBuilder<G extends Graph, ME extends EdgeListGraphBuilder<G, ME>> {
+
+    protected final long nodeCount;
+    protected final EdgeList edges;
+    protected Direction direction = Direction.OUTGOING;
+    protected boolean undirected = false;
+    protected int concurrency = Pools.DEFAULT_CONCURRENCY;
+    protected ExecutorService executorService = Pools.DEFAULT;
+    protected AllocationTracker tracker = AllocationTracker.EMPTY;
+    protected double relWeightDefault = 0.0;
+
+    protected EdgeListGraphBuilder(long nodeCount, EdgeList edges) {
+        if (nodeCount < 0L) {
+            throw new IllegalArgumentException("nodeCount: " + nodeCount);
+        }
+        this.nodeCount = nodeCount;
+        this.edges = Objects.requireNonNull(edges);
+    }
+
+    /**
+     * Instructs the builder to load only relationships of the given direction.
+     * Ignored if the graph is built as undirected.
+     */
+    public ME withDirection(Direction direction) {
+        this.direction = Objects.requireNonNull(direction);
+        return me();
+    }
+
+    /**
+     * Stores every relationship in a single adjacency, on both of its nodes.
+     */
+    public ME asUndirected(boolean undirected) {
+        this.undirected = undirected;
+        return me();
+    }
+
+    /**
+     * change the concurrency level. Negative and zero values are not supported.
+     */
+    public ME withConcurrency(int newConcurrency) {
+        if (newConcurrency <= 0) {
+            throw new IllegalArgumentException("concurrency: " + newConcurrency);
+        }
+        this.concurrency = newConcurrency;
+        return me();
+    }
+
+    /**
+     * Use the given executor service for the parallel build steps.
+     * Can be null, in which case everything is run on the calling thread.
+     */
+    public ME withExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+        return me();
+    }
+
+    public ME withAllocationTracker(AllocationTracker tracker) {
+        this.tracker = tracker == null ? AllocationTracker.EMPTY : tracker;
+        return me();
+    }
+
+    /**
+     * The weight of relationships that have no weight in the edge list.
+     */
+    public ME withDefaultRelationshipWeight(double relWeightDefault) {
+        this.relWeightDefault = relWeightDefault;
+        return me();
+    }
+
+    public abstract G build();
+
+    protected abstract ME me();
+
+    protected final boolean loadOutgoing() {
+        return undirected || direction == Direction.OUTGOING || direction == Direction.BOTH;
+    }
+
+    protected final boolean loadIncoming() {
+        return !undirected && (direction == Direction.INCOMING || direction == Direction.BOTH);
+    }
+
+    /**
+     * Groups the relationships by their source node ({@code bySource}), their
+     * target node ({@code byTarget}), or both, which yields the undirected adjacency.
+     * The neighbours within a group keep no particular order.
+     *
+     * @throws IllegalArgumentException if a node id is outside of {@code [0, nodeCount)}
+     */
+    protected final GroupedEdges group(boolean bySource, boolean byTarget) {
+        long size = edges.size();
+        long batchSize = ParallelUtil.threadSize(concurrency, size);
+        boolean withWeights = edges.hasWeights();
+
+        // count the degrees, the counters are used as write cursors afterwards
+        PagedAtomicLongArray cursors = PagedAtomicLongArray.newArray(nodeCount, tracker);
+        ParallelUtil.run(batches(size, batchSize, (start, end) -> {
+            for (long i = start; i < end; i++) {
+                long source = edges.source(i);
+                long target = edges.target(i);
+                if (source < 0L || source >= nodeCount || target < 0L || target >= nodeCount) {
+                    throw new IllegalArgumentException(String.format(
+                            "Relationship (%d, %d) at index %d is not within %d nodes",
+                            source, target, i, nodeCount));
+                }
+                if (bySource) {
+                    cursors.add(source, 1L);
+                }
+                if (byTarget) {
+                    cursors.add(target, 1L);
+                }
+            }
+        }), executorService);
+
+        LongArray starts = LongArray.newArray(nodeCount + 1L, tracker);
+        long offset = 0L;
+        for (long node = 0L; node < nodeCount; node++) {
+            starts.set(node, offset);
+            offset += cursors.get(node);
+            cursors.set(node, starts.get(node));
+        }
+        starts.set(nodeCount, offset);
+
+        LongArray targets = LongArray.newArray(offset, tracker);
+        DoubleArray weights = withWeights ? DoubleArray.newArray(offset, tracker) : null;
+        ParallelUtil.run(batches(size, batchSize, (start, end) -> {
+            for (long i = start; i < end; i++) {
+                long source = edges.source(i);
+                long target = edges.target(i);
+                double weight = withWeights ? edges.weight(i) : relWeightDefault;
+                if (bySource) {
+                    long index = cursors.add(source, 1L) - 1L;
+                    targets.set(index, target);
+                    if (withWeights) {
+                        weights.set(index, weight);
+                    }
+                }
+                if (byTarget) {
+                    long index = cursors.add(target, 1L) - 1L;
+                    targets.set(index, source);
+                    if (withWeights) {
+                        weights.set(index, weight);
+                    }
+                }
+            }
+        }), executorService);
+        tracker.remove(cursors.release());
+
+        return new GroupedEdges(starts, targets, weights);
+    }
+
+    /**
+     * Splits {@code [0, size)} into consecutive ranges of {@code batchSize} elements.
+     */
+    protected static List<Runnable> batches(long size, long batchSize, RangeTask task) {
+        List<Runnable> tasks = new ArrayList<>();
+        for (long start = 0L; start < size; start += batchSize) {
+            long end = Math.min(size, start + batchSize);
+            long batchStart = start;
+            tasks.add(() -> task.run(batchStart, end));
+        }
+        return tasks;
+    }
+
+    @FunctionalInterface
+    protected interface RangeTask {
+        void run(long start, long end);
+    }
+
+    /**
+     * Relationships grouped by node, the neighbours of node {@code n} are
+     * stored at the indices {@code [start(n), start(n + 1))}.
+     */
+    protected static final class GroupedEdges {
+        private LongArray starts;
+        private LongArray targets;
+        private DoubleArray weights;
+
+        private GroupedEdges(LongArray starts, LongArray targets, DoubleArray weights) {
+            this.starts = starts;
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        public long start(long node) {
+            return starts.get(node);
+        }
+
+        public long target(long index) {
+            return targets.get(index);
+        }
+
+        /**
+         * @return the weight at the index, only valid if the edge list has weights
+         */
+        public double weight(long index) {
+            return weights.get(index);
+        }
+
+        public long release() {
+            long released = starts.release() + targets.release();
+            if (weights != null) {
+                released += weights.release();
+            }
+            starts = null;
+            targets = null;
+            weights = null;
+            return released;
+        }
+    }
+}
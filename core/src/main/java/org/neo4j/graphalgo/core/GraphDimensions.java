@@ -20,27 +20,34 @@ package org.neo4j.graphalgo.core;
 
 import org.neo4j.graphalgo.api.GraphSetup;
 import org.neo4j.graphalgo.core.utils.StatementTask;
+import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.ReadOperations;
 import org.neo4j.kernel.api.Statement;
 import org.neo4j.kernel.api.StatementConstants;
+import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.impl.store.id.IdGenerator;
 import org.neo4j.kernel.impl.store.id.IdGeneratorFactory;
 import org.neo4j.kernel.impl.store.id.IdType;
 import org.neo4j.kernel.impl.util.UnsatisfiedDependencyException;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
+import java.util.Arrays;
+
 public final class GraphDimensions extends StatementTask<GraphDimensions, RuntimeException> {
     private final GraphSetup setup;
 
     private long nodeCount;
     private long allNodesCount;
+    private long allRelationshipsCount;
     private long maxRelCount;
     private int labelId;
     private int[] relationId;
+    private String[] relationshipTypes;
     private int weightId;
     private int relWeightId;
     private int nodeWeightId;
     private int nodePropId;
+    private int[] nodePropertyKeyIds;
 
     public GraphDimensions(
             GraphDatabaseAPI api,
@@ -57,6 +64,13 @@ public final class GraphDimensions extends StatementTask<GraphDimensions, Runtim
         return allNodesCount;
     }
 
+    /**
+     * @return the highest possible relationship id, exclusive, or {@code -1} if it is unknown
+     */
+    public long allRelationshipsCount() {
+        return allRelationshipsCount;
+    }
+
     public int nodeCount() {
         return Math.toIntExact(nodeCount);
     }
@@ -69,10 +83,21 @@ public final class GraphDimensions extends StatementTask<GraphDimensions, Runtim
         return labelId;
     }
 
+    /**
+     * @return the ids of the relationship types to load, or {@code null} to load any type
+     */
     public int[] relationId() {
         return relationId;
     }
 
+    /**
+     * @return the names of the relationship types at the same index as their {@link #relationId() ids},
+     * or {@code null} to load any type
+     */
+    public String[] relationshipTypes() {
+        return relationshipTypes;
+    }
+
     public int weightId() {
         return weightId;
     }
@@ -89,6 +114,14 @@ public final class GraphDimensions extends StatementTask<GraphDimensions, Runtim
         return nodePropId;
     }
 
+    /**
+     * @return the property key of every {@link GraphSetup#nodePropertyMappings node property mapping},
+     * or {@link StatementConstants#NO_SUCH_PROPERTY_KEY} if the key does not exist
+     */
+    public int[] nodePropertyKeyIds() {
+        return nodePropertyKeyIds;
+    }
+
     @Override
     public GraphDimensions apply(final Statement statement) throws RuntimeException {
         final ReadOperations readOp = statement.readOperations();
@@ -96,10 +129,7 @@ public final class GraphDimensions extends StatementTask<GraphDimensions, Runtim
                 ? ReadOperations.ANY_LABEL
                 : readOp.labelGetForName(setup.startLabel);
         if (!setup.loadAnyRelationshipType()) {
-            int relId = readOp.relationshipTypeGetForName(setup.relationshipType);
-            if (relId != StatementConstants.NO_SUCH_RELATIONSHIP_TYPE) {
-                relationId = new int[]{relId};
-            }
+            readRelationshipTypes(readOp);
         }
         weightId = setup.loadDefaultRelationshipWeight()
                 ? StatementConstants.NO_SUCH_PROPERTY_KEY
@@ -113,21 +143,71 @@ public final class GraphDimensions extends StatementTask<GraphDimensions, Runtim
         nodePropId = setup.loadDefaultNodeProperty()
                 ? StatementConstants.NO_SUCH_PROPERTY_KEY
                 : readOp.propertyKeyGetForName(setup.nodePropertyName);
+        nodePropertyKeyIds = new int[setup.nodePropertyMappings.length];
+        for (int i = 0; i < nodePropertyKeyIds.length; i++) {
+            nodePropertyKeyIds[i] = readOp.propertyKeyGetForName(setup.nodePropertyMappings[i].propertyKey);
+        }
         nodeCount = readOp.countsForNode(labelId);
         allNodesCount = getHighestPossibleNodeCount(readOp);
-        maxRelCount = Math.max(
-                readOp.countsForRelationshipWithoutTxState(
-                        labelId,
-                        relationId == null ? ReadOperations.ANY_RELATIONSHIP_TYPE : relationId[0],
-                        ReadOperations.ANY_LABEL),
-                readOp.countsForRelationshipWithoutTxState(
-                        ReadOperations.ANY_LABEL,
-                        relationId == null ? ReadOperations.ANY_RELATIONSHIP_TYPE : relationId[0],
-                        labelId)
-        );
+        allRelationshipsCount = getHighestPossibleRelationshipCount();
+        if (relationId == null) {
+            maxRelCount = maxRelCount(readOp, ReadOperations.ANY_RELATIONSHIP_TYPE);
+        } else {
+            maxRelCount = 0L;
+            for (int typeId : relationId) {
+                maxRelCount += maxRelCount(readOp, typeId);
+            }
+        }
         return this;
     }
 
+    /**
+     * Several relationship types can be given separated by {@code |}, types that do not exist
+     * are skipped. If none of the types exist, any relationship type is loaded.
+     */
+    private void readRelationshipTypes(ReadOperations readOp) {
+        String[] names = setup.relationshipType.split("\\|");
+        int[] ids = new int[names.length];
+        int count = 0;
+        for (String name : names) {
+            name = name.trim();
+            int relId = readOp.relationshipTypeGetForName(name);
+            if (relId != StatementConstants.NO_SUCH_RELATIONSHIP_TYPE) {
+                ids[count] = relId;
+                names[count++] = name;
+            }
+        }
+        if (count > 0) {
+            relationId = Arrays.copyOf(ids, count);
+            relationshipTypes = Arrays.copyOf(names, count);
+        }
+    }
+
+    private long maxRelCount(ReadOperations readOp, int typeId) {
+        return Math.max(
+                readOp.countsForRelationshipWithoutTxState(labelId, typeId, ReadOperations.ANY_LABEL),
+                readOp.countsForRelationshipWithoutTxState(ReadOperations.ANY_LABEL, typeId, labelId));
+    }
+
+    /**
+     * @param relationId the ids of the relationship types or {@code null} for any type
+     * @return the degree of the node over all given relationship types
+     */
+    public static int degree(
+            ReadOperations readOp,
+            long nodeId,
+            Direction direction,
+            int[] relationId) throws EntityNotFoundException {
+        if (relationId == null) {
+            return readOp.nodeGetDegree(nodeId, direction);
+        }
+        int degree = 0;
+        for (int typeId : relationId) {
+            degree += readOp.nodeGetDegree(nodeId, direction, typeId);
+        }
+        return degree;
+    }
+
     private long getHighestPossibleNodeCount(ReadOperations readOp) {
         try {
             IdGeneratorFactory idGeneratorFactory = resolve(IdGeneratorFactory.class);
@@ -141,4 +221,19 @@ public final class GraphDimensions extends StatementTask<GraphDimensions, Runtim
         }
         return readOp.nodesGetCount();
     }
+
+    private long getHighestPossibleRelationshipCount() {
+        try {
+            IdGeneratorFactory idGeneratorFactory = resolve(IdGeneratorFactory.class);
+            if (idGeneratorFactory != null) {
+                final IdGenerator idGenerator = idGeneratorFactory.get(IdType.RELATIONSHIP);
+                if (idGenerator != null) {
+                    return idGenerator.getHighId();
+                }
+            }
+        } catch (IllegalArgumentException | UnsatisfiedDependencyException ignored) {
+        }
+        // the relationship count does not account for holes in the id space
+        return -1L;
+    }
 }
@@ -21,9 +21,12 @@ package org.neo4j.graphalgo.core;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.PropertyMapping;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLoggerAdapter;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Label;
@@ -36,7 +39,10 @@ import org.neo4j.logging.NullLog;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
@@ -74,14 +80,19 @@ public class GraphLoader {
     private double nodeWeightDefault = 0.0;
     private Map<String,Object> params = new HashMap<>();
     private double nodePropDefault = 0.0;
+    private final List<PropertyMapping> nodePropertyMappings = new ArrayList<>();
     private int batchSize = ParallelUtil.DEFAULT_BATCH_SIZE;
     private int concurrency = Pools.DEFAULT_CONCURRENCY;
     private boolean accumulateWeights;
+    private RelationshipAggregation relationshipAggregation = RelationshipAggregation.NONE;
     private Log log = NullLog.getInstance();
     private long logMillis = -1;
     private AllocationTracker tracker = AllocationTracker.EMPTY;
+    private TerminationFlag terminationFlag = TerminationFlag.RUNNING_TRUE;
     private boolean sort = false;
     private boolean loadAsUndirected = false;
+    private boolean offHeap = false;
+    private boolean compressIdMap = false;
 
     /**
      * Creates a new serial GraphLoader.
@@ -139,6 +150,29 @@ public class GraphLoader {
         return this;
     }
 
+    /**
+     * Keep the adjacency of the loaded graph outside of the Java heap.
+     * This is only supported by the {@link org.neo4j.graphalgo.core.huge.HugeGraphFactory},
+     * other factories ignore this setting.
+     * The off-heap memory is freed when the graph is released.
+     */
+    public GraphLoader withOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+        return this;
+    }
+
+    /**
+     * Compress the id map of the loaded graph, which then takes a few bits
+     * per node instead of at least 16 bytes. This requires the nodes to be loaded in
+     * the order of their Neo4j ids, otherwise the id map is left as it is.
+     * This is only supported by the {@link org.neo4j.graphalgo.core.huge.HugeGraphFactory},
+     * other factories ignore this setting.
+     */
+    public GraphLoader withCompressedIdMap(boolean compressIdMap) {
+        this.compressIdMap = compressIdMap;
+        return this;
+    }
+
     /**
      * Use the given {@link AllocationTracker} to track memory allocations during loading.
      * Can be null, in which case no tracking happens. The same effect can be
@@ -149,6 +183,15 @@ public class GraphLoader {
         return this;
     }
 
+    /**
+     * Use the given {@link TerminationFlag} to stop loading once the calling
+     * transaction has been terminated. Not every {@link GraphFactory} checks the flag.
+     */
+    public GraphLoader withTerminationFlag(TerminationFlag terminationFlag) {
+        this.terminationFlag = terminationFlag;
+        return this;
+    }
+
     /**
      * set an executor service
      *
@@ -248,6 +291,8 @@ public class GraphLoader {
     /**
      * Instructs the loader to load only relationships with the given type name.
      * If the type is not found, every relationship will be loaded. TODO review that
+     * Several types can be given separated by {@code |}, which the {@link HugeGraph}
+     * loads into separate adjacencies, see {@link HugeGraph#withRelationshipTypes(String)}.
      *
      * @param relation May not be null; to remove a type filter, use {@link #withAnyRelationshipType()} instead.
      * @return itself to enable fluent interface
@@ -385,6 +430,19 @@ public class GraphLoader {
         return this;
     }
 
+    /**
+     * Instructs the loader to load the given node properties into columns of the graph,
+     * where they can be accessed by their {@link PropertyMapping#name}.
+     * Only the {@link org.neo4j.graphalgo.core.huge.HugeGraphFactory} supports this.
+     *
+     * @param mappings the node properties to load
+     * @return itself to enable fluent interface
+     */
+    public GraphLoader withNodeProperties(PropertyMapping... mappings) {
+        this.nodePropertyMappings.addAll(Arrays.asList(mappings));
+        return this;
+    }
+
     /**
      * Instructs the loader to not load any relationship weights. Instead each weight is set
      * to propertyDefaultValue.
@@ -455,6 +513,7 @@ public class GraphLoader {
     public GraphLoader withoutNodeProperties() {
         this.nodeProp = null;
         this.nodePropDefault = 0.0;
+        this.nodePropertyMappings.clear();
         return this;
     }
 
@@ -473,8 +532,19 @@ public class GraphLoader {
      * @return the freshly loaded graph
      */
     public Graph load(Class<? extends GraphFactory> factoryType) {
+        return build(factoryType).build();
+    }
+
+    /**
+     * Creates the factory for the chosen implementation without loading
+     * the graph. The factory can be used to inspect the dimensions of the
+     * graph or to estimate the memory that loading the graph would take.
+     *
+     * @return the factory that would be used to load the graph
+     */
+    public GraphFactory build(Class<? extends GraphFactory> factoryType) {
         final MethodHandle constructor = findConstructor(factoryType);
-        return invokeConstructor(constructor).build();
+        return invokeConstructor(constructor);
     }
 
     private MethodHandle findConstructor(Class<?> factoryType) {
@@ -498,16 +568,21 @@ public class GraphLoader {
                 nodeWeightDefault,
                 nodeProp,
                 nodePropDefault,
+                nodePropertyMappings.toArray(new PropertyMapping[0]),
                 params,
                 executorService,
                 concurrency,
                 batchSize,
                 accumulateWeights,
+                relationshipAggregation,
                 log,
                 logMillis,
                 sort,
                 loadAsUndirected,
+                offHeap,
+                compressIdMap,
                 tracker,
+                terminationFlag,
                 name);
 
         try {
@@ -561,12 +636,30 @@ public class GraphLoader {
         return this;
     }
 
+    /**
+     * Combine the weights of parallel relationships with the given aggregation.
+     * The adjacency keeps only one relationship per pair of nodes either way.
+     * With {@link RelationshipAggregation#COUNT}, the number of parallel relationships
+     * becomes the weight, even without a weight property.
+     * Only huge graphs aggregate weights.
+     *
+     * @return itself to enable fluent interface
+     */
+    public GraphLoader withRelationshipAggregation(RelationshipAggregation relationshipAggregation) {
+        this.relationshipAggregation = relationshipAggregation;
+        return this;
+    }
+
     public GraphLoader init(Log log, String label, String relationship, ProcedureConfiguration config) {
         return withLog(log)
                 .withName(config.getGraphName(null))
                 .withOptionalLabel(label).withOptionalRelationshipType(relationship)
                 .withConcurrency(config.getConcurrency())
                 .withBatchSize(config.getBatchSize())
+                .withOffHeap(config.isOffHeap())
+                .withCompressedIdMap(config.isCompressedIdMap())
+                .withRelationshipAggregation(config.getRelationshipAggregation())
+                .withNodeProperties(config.getNodePropertyMappings())
                 .withParams(config.getParams());
     }
 }
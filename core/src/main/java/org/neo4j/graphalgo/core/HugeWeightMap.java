@@ -54,6 +54,21 @@ public final class HugeWeightMap implements HugeWeightMapping {
         weights.put(key1, key2, value);
     }
 
+    /**
+     * Combines the value with the one already stored for the pair.
+     * Unlike {@link #put(long, long, Object)}, default values are stored as well,
+     * as they take part in the aggregation. Any stored value, also {@code NaN},
+     * is merged with the new value.
+     */
+    public void aggregate(long key1, long key2, double value, RelationshipAggregation aggregation) {
+        if (weights.containsKey(key1, key2)) {
+            double current = weights.getOrDefault(key1, key2, defaultValue);
+            weights.put(key1, key2, aggregation.merge(current, value));
+        } else {
+            weights.put(key1, key2, aggregation.initial(value));
+        }
+    }
+
     @Override
     public long release() {
         if (weights != null) {
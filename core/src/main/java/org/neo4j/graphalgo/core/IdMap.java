@@ -27,12 +27,16 @@ import org.neo4j.graphalgo.api.BatchNodeIterable;
 import org.neo4j.graphalgo.api.IdMapping;
 import org.neo4j.graphalgo.api.NodeIterator;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.BitUtil;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.function.IntPredicate;
 
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
+
 /**
  * This is basically a long to int mapper. It sorts the id's in ascending order so its
  * guaranteed that there is no ID greater then nextGraphId / capacity
@@ -44,6 +48,18 @@ public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
     private long[] graphIds;
     private LongIntMap nodeToGraphIds;
 
+    /**
+     * Estimates the memory for an id map with {@code nodeCount} nodes.
+     */
+    public static MemoryRange memoryEstimation(long nodeCount) {
+        long slots = BitUtil.nextHighestPowerOfTwo((long) Math.ceil(nodeCount / 0.99)) + 1L;
+        return MemoryRange.of(
+                shallowSizeOfInstance(IdMap.class)
+                        + shallowSizeOfInstance(LongIntHashMap.class)
+                        + slots * (Long.BYTES + Integer.BYTES)
+                        + nodeCount * Long.BYTES);
+    }
+
     /**
      * initialize the map with maximum node capacity
      */
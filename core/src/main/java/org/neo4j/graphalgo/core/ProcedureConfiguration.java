@@ -20,9 +20,11 @@ package org.neo4j.graphalgo.core;
 
 import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.PropertyMapping;
 import org.neo4j.graphalgo.core.heavyweight.HeavyCypherGraphFactory;
 import org.neo4j.graphalgo.core.heavyweight.HeavyGraph;
 import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.huge.FileGraphFactory;
 import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
 import org.neo4j.graphalgo.core.lightweight.LightGraph;
 import org.neo4j.graphalgo.core.loadgraph.LoadGraphFactory;
@@ -34,6 +36,7 @@ import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphdb.Direction;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 import static java.util.Arrays.asList;
 
@@ -100,6 +103,16 @@ public class ProcedureConfiguration {
         return this;
     }
 
+    /**
+     * override the concurrency, e.g. with the budget granted by the {@link org.neo4j.graphalgo.core.utils.AlgoScheduler}
+     *
+     * @return self
+     */
+    public ProcedureConfiguration overrideConcurrency(int concurrency) {
+        config.put(ProcedureConstants.CONCURRENCY, concurrency);
+        return this;
+    }
+
     /**
      * override property param
      *
@@ -153,6 +166,16 @@ public class ProcedureConfiguration {
         return getString(ProcedureConstants.WRITE_PROPERTY, defaultValue);
     }
 
+    /**
+     * return the file to write the results into instead of the graph,
+     * relative to the import directory of the database
+     *
+     * @return the path of the file or null if results are written to the graph
+     */
+    public String getWriteFile() {
+        return getString(ProcedureConstants.WRITE_FILE, null);
+    }
+
     /**
      * return either the relationship name or a cypher query for requesting the relationships
      * TODO: @mh pls. validate
@@ -198,7 +221,39 @@ public class ProcedureConfiguration {
      * @return true if write is activated, false otherwise
      */
     public boolean isWriteFlag(boolean defaultValue) {
-        return get(ProcedureConstants.WRITE_FLAG, defaultValue);
+        final boolean write = get(ProcedureConstants.WRITE_FLAG, defaultValue);
+        if (write && isFileGraph()) {
+            throw new IllegalArgumentException(
+                    "The " + FileGraphFactory.TYPE + " graph can not write results into the database, " +
+                            "set write:false to stream them");
+        }
+        return write;
+    }
+
+    /**
+     * return whether the results are written, either into the graph or into {@link #getWriteFile()}
+     * for procedures that support it. Graphs that are loaded from a file can only write into a file.
+     *
+     * @param defaultValue a default value
+     * @return true if write is activated, false otherwise
+     */
+    public boolean isWriteFlagOrFile(boolean defaultValue) {
+        final boolean write = get(ProcedureConstants.WRITE_FLAG, defaultValue);
+        if (write && isFileGraph() && getWriteFile() == null) {
+            throw new IllegalArgumentException(
+                    "The " + FileGraphFactory.TYPE + " graph can not write results into the database, " +
+                            "set writeFile to write them into a file or write:false to stream them");
+        }
+        return write;
+    }
+
+    /**
+     * return whether the graph is loaded from an edge list file, whose node ids do not refer to the database
+     *
+     * @return true for the file graph, false otherwise
+     */
+    public boolean isFileGraph() {
+        return FileGraphFactory.TYPE.equalsIgnoreCase(getGraphName(ProcedureConstants.DEFAULT_GRAPH_IMPL));
     }
 
     public boolean isCypherFlag(boolean defaultValue) {
@@ -209,6 +264,69 @@ public class ProcedureConfiguration {
         return get(ProcedureConstants.STATS_FLAG, defaultValue);
     }
 
+    /**
+     * return whether the adjacency of a huge graph should be kept off-heap
+     *
+     * @return true if off-heap storage is requested, false otherwise
+     */
+    public boolean isOffHeap() {
+        return get(ProcedureConstants.OFF_HEAP, false);
+    }
+
+    /**
+     * return whether the id map of a huge graph should be compressed
+     *
+     * @return true if a compressed id map is requested, false otherwise
+     */
+    public boolean isCompressedIdMap() {
+        return get(ProcedureConstants.COMPRESSED_ID_MAP, false);
+    }
+
+    /**
+     * return how the weights of parallel relationships are combined
+     *
+     * @return the aggregation, {@link RelationshipAggregation#NONE} if not set
+     */
+    public RelationshipAggregation getRelationshipAggregation() {
+        return RelationshipAggregation.of(getString(ProcedureConstants.DUPLICATE_RELATIONSHIPS, null));
+    }
+
+    /**
+     * return the node properties to load into columns of a huge graph, given as
+     * {@code {name: 'propertyKey'}} or
+     * {@code {name: {property: 'propertyKey', type: 'long', defaultValue: 0}}}.
+     * The type is either {@code double}, the default, or {@code long}.
+     *
+     * @return the mappings, empty if not set
+     */
+    @SuppressWarnings("unchecked")
+    public PropertyMapping[] getNodePropertyMappings() {
+        Map<String, Object> properties = get(ProcedureConstants.NODE_PROPERTIES, Collections.emptyMap());
+        List<PropertyMapping> mappings = new ArrayList<>(properties.size());
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            String name = entry.getKey();
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                mappings.add(PropertyMapping.of(name, (String) value, 0.0));
+            } else if (value instanceof Map) {
+                ProcedureConfiguration mapping = new ProcedureConfiguration((Map<String, Object>) value);
+                String propertyKey = mapping.getString("property", name);
+                String type = mapping.getString("type", "double");
+                Number defaultValue = mapping.getNumber(ProcedureConstants.DEFAULT_PROPERTY_VALUE_PARAM, 0);
+                if ("long".equalsIgnoreCase(type)) {
+                    mappings.add(PropertyMapping.ofLong(name, propertyKey, defaultValue.longValue()));
+                } else if ("double".equalsIgnoreCase(type)) {
+                    mappings.add(PropertyMapping.of(name, propertyKey, defaultValue.doubleValue()));
+                } else {
+                    throw new IllegalArgumentException("Unknown type for node property " + name + ": " + type + ", expected long or double");
+                }
+            } else {
+                throw new IllegalArgumentException("Node property " + name + " must be a property key or a map");
+            }
+        }
+        return mappings.toArray(new PropertyMapping[0]);
+    }
+
     public boolean hasWeightProperty() {
         return containsKeys(ProcedureConstants.PROPERTY_PARAM);
     }
@@ -244,6 +362,36 @@ public class ProcedureConfiguration {
         return getNumber(ProcedureConstants.BATCH_SIZE_PARAM, defaultValue).intValue();
     }
 
+    /**
+     * the number of results a stream procedure should return
+     *
+     * @return the limit, or -1 if all results should be returned
+     */
+    public int getLimit() {
+        final long limit = getNumber(ProcedureConstants.LIMIT, -1L).longValue();
+        return limit < 0L ? -1 : (int) Math.min(limit, Integer.MAX_VALUE);
+    }
+
+    /**
+     * whether an approximation should be computed instead of the exact result
+     *
+     * @return true if the approximate mode is activated, false otherwise
+     */
+    public boolean isApproximate() {
+        return get(ProcedureConstants.APPROXIMATE, false);
+    }
+
+    /**
+     * the precision of an approximation, e.g. the base 2 logarithm of
+     * the number of registers of a HyperLogLog counter
+     *
+     * @param defaultValue a default value
+     * @return the precision
+     */
+    public int getPrecision(int defaultValue) {
+        return getNumber(ProcedureConstants.PRECISION, defaultValue).intValue();
+    }
+
     /**
      * TODO
      *
@@ -257,6 +405,19 @@ public class ProcedureConfiguration {
         return getConcurrency(Pools.DEFAULT_CONCURRENCY);
     }
 
+    /**
+     * return the executor to run the algorithm on, the default pool or the
+     * work-stealing pool if configured with {@code executor:'forkJoin'}
+     *
+     * @return executor
+     */
+    public ExecutorService getExecutor() {
+        String executor = getString(ProcedureConstants.EXECUTOR_PARAM, "default");
+        return ProcedureConstants.EXECUTOR_FORK_JOIN.equalsIgnoreCase(executor)
+                ? Pools.FJ_POOL
+                : Pools.DEFAULT;
+    }
+
     public String getDirectionName() {
         return getDirectionName(ProcedureConstants.DIRECTION_DEFAULT);
     }
@@ -294,6 +455,8 @@ public class ProcedureConfiguration {
                 return GraphViewFactory.class;
             case HugeGraph.TYPE:
                 return HugeGraphFactory.class;
+            case FileGraphFactory.TYPE:
+                return FileGraphFactory.class;
             default:
                 if (validCustomName(graphImpl) && LoadGraphFactory.check(graphImpl)) {
                     return LoadGraphFactory.class;
@@ -303,7 +466,7 @@ public class ProcedureConfiguration {
     }
 
     private static Set<String> RESERVED = new HashSet<>(asList(HeavyGraph.TYPE,HeavyCypherGraphFactory.TYPE,
-            LightGraph.TYPE, GraphView.TYPE, HeavyGraph.TYPE));
+            LightGraph.TYPE, GraphView.TYPE, HeavyGraph.TYPE, FileGraphFactory.TYPE));
 
     public static boolean validCustomName(String name) {
         return name != null && !name.trim().isEmpty() && !RESERVED.contains(name.trim().toLowerCase());
@@ -41,6 +41,8 @@ public class ProcedureConstants {
 
     public static final String WRITE_PROPERTY_DEFAULT = "writeValue";
 
+    public static final String WRITE_FILE = "writeFile";
+
     public static final String STATS_FLAG = "stats";
 
     public static final double DEFAULT_PROPERTY_VALUE_DEFAULT = 1.0;
@@ -61,4 +63,22 @@ public class ProcedureConstants {
 
     public static final String CONCURRENCY = "concurrency";
 
+    public static final String EXECUTOR_PARAM = "executor";
+
+    public static final String EXECUTOR_FORK_JOIN = "forkJoin";
+
+    public static final String LIMIT = "limit";
+
+    public static final String APPROXIMATE = "approximate";
+
+    public static final String PRECISION = "precision";
+
+    public static final String OFF_HEAP = "offHeap";
+
+    public static final String COMPRESSED_ID_MAP = "compressedIdMap";
+
+    public static final String DUPLICATE_RELATIONSHIPS = "duplicateRelationships";
+
+    public static final String NODE_PROPERTIES = "nodeProperties";
+
 }
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Defines how the weights of parallel relationships, that is relationships
+ * with the same start and end node, are combined when a huge graph is loaded.
+ * The adjacency itself always keeps only one of them.
+ */
+public enum RelationshipAggregation {
+
+    /**
+     * The weight of any one of the parallel relationships is kept.
+     */
+    NONE,
+    SUM {
+        @Override
+        public double merge(double current, double value) {
+            return current + value;
+        }
+    },
+    MIN {
+        @Override
+        public double merge(double current, double value) {
+            return Math.min(current, value);
+        }
+    },
+    MAX {
+        @Override
+        public double merge(double current, double value) {
+            return Math.max(current, value);
+        }
+    },
+    /**
+     * The number of parallel relationships becomes the weight, no weight property is required.
+     */
+    COUNT {
+        @Override
+        public double initial(double value) {
+            return 1.0;
+        }
+
+        @Override
+        public double merge(double current, double value) {
+            return current + 1.0;
+        }
+    };
+
+    /**
+     * @return the weight of the first relationship between two nodes
+     */
+    public double initial(double value) {
+        return value;
+    }
+
+    /**
+     * @return the weight after another relationship between the same nodes has been seen
+     */
+    public double merge(double current, double value) {
+        return value;
+    }
+
+    /**
+     * Parses the aggregation case insensitive, {@code null} means {@link #NONE}.
+     *
+     * @throws IllegalArgumentException if there is no such aggregation
+     */
+    public static RelationshipAggregation of(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Unknown relationship aggregation '" + name + "', expected one of " + Arrays.toString(values()));
+        }
+    }
+}
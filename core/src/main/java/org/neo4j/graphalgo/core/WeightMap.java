@@ -22,6 +22,10 @@ import com.carrotsearch.hppc.LongDoubleHashMap;
 import com.carrotsearch.hppc.LongDoubleMap;
 import org.neo4j.graphalgo.api.WeightMapping;
 import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.paged.BitUtil;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
+
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
 
 /**
  * single weight cache
@@ -33,6 +37,18 @@ public final class WeightMap implements WeightMapping {
     private final double defaultValue;
     private final int propertyId;
 
+    /**
+     * Estimates the memory for a weight map of up to {@code entries} values.
+     * Only values that differ from the default are stored, so the map might
+     * even stay empty.
+     */
+    public static MemoryRange memoryEstimation(long entries) {
+        long slots = BitUtil.nextHighestPowerOfTwo((long) Math.ceil(entries / 0.75));
+        long instance = shallowSizeOfInstance(WeightMap.class)
+                + shallowSizeOfInstance(LongDoubleHashMap.class);
+        return MemoryRange.of(instance, instance + slots * (Long.BYTES + Double.BYTES));
+    }
+
     public WeightMap(
             int capacity,
             double defaultValue,
@@ -24,6 +24,7 @@ import org.neo4j.graphalgo.api.*;
 import org.neo4j.graphalgo.core.utils.IdCombiner;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphdb.Direction;
 
 import java.util.Arrays;
@@ -31,6 +32,9 @@ import java.util.concurrent.ExecutorService;
 import java.util.function.IntPredicate;
 
 import static org.neo4j.graphalgo.core.utils.ArrayUtil.*;
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfIntArray;
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfObjectArray;
 
 /**
  * Relation Container built of multiple arrays. The node capacity must be constant and the node IDs have to be
@@ -66,6 +70,36 @@ class AdjacencyMatrix {
 
     private boolean sorted = false;
 
+    /**
+     * Estimates the memory for a matrix of {@code nodeCount} nodes with
+     * {@code relationshipCount} relationships per loaded direction.
+     */
+    static MemoryRange memoryEstimation(
+            long nodeCount,
+            long relationshipCount,
+            boolean withIncoming,
+            boolean withOutgoing) {
+        long minNodesWithRelationships = nodeCount == 0L
+                ? 0L
+                : ParallelUtil.threadSize(nodeCount, relationshipCount);
+        long maxNodesWithRelationships = Math.min(nodeCount, relationshipCount);
+        long perDirection = sizeOfIntArray((int) nodeCount)
+                + sizeOfObjectArray((int) nodeCount)
+                + relationshipCount * Integer.BYTES;
+        MemoryRange direction = MemoryRange.of(
+                perDirection + minNodesWithRelationships * sizeOfIntArray(0),
+                perDirection + maxNodesWithRelationships * sizeOfIntArray(0));
+
+        MemoryRange memory = MemoryRange.of(shallowSizeOfInstance(AdjacencyMatrix.class));
+        if (withIncoming) {
+            memory = memory.add(direction);
+        }
+        if (withOutgoing) {
+            memory = memory.add(direction);
+        }
+        return memory;
+    }
+
     AdjacencyMatrix(int nodeCount, boolean sorted) {
         this(nodeCount, true, true, sorted);
     }
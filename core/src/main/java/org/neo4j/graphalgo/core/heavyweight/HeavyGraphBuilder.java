@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.heavyweight;
+
+import org.neo4j.graphalgo.api.WeightMapping;
+import org.neo4j.graphalgo.core.EdgeList;
+import org.neo4j.graphalgo.core.EdgeListGraphBuilder;
+import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.NullWeightMap;
+import org.neo4j.graphalgo.core.WeightMap;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.RawValues;
+
+/**
+ * Builds a {@link HeavyGraph} from an {@link EdgeList}.
+ * The node ids of the edge list are used as the original node ids,
+ * so there can be at most {@link Integer#MAX_VALUE} nodes.
+ * <p>
+ * As with the {@link HeavyGraphFactory}, parallel relationships are kept.
+ * The adjacency is built in parallel and sorted, the weights are written by a single thread.
+ * An undirected graph stores all relationships as outgoing.
+ */
+public final class HeavyGraphBuilder extends EdgeListGraphBuilder<HeavyGraph, HeavyGraphBuilder> {
+
+    // more batches than threads, so that threads which finish early can take over
+    private static final int BATCHES_PER_THREAD = 4;
+    // the weights are not loaded from a property
+    private static final int NO_PROPERTY = -2;
+
+    public HeavyGraphBuilder(long nodeCount, EdgeList edges) {
+        super(nodeCount, edges);
+        if (nodeCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "A HeavyGraph can hold at most " + Integer.MAX_VALUE + " nodes, but got " + nodeCount);
+        }
+    }
+
+    @Override
+    public HeavyGraph build() {
+        int nodeCount = (int) this.nodeCount;
+        IdMap idMap = new IdMap(nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            idMap.add(node);
+        }
+        idMap.buildMappedIds();
+
+        boolean loadIncoming = loadIncoming();
+        boolean loadOutgoing = loadOutgoing();
+        AdjacencyMatrix matrix = new AdjacencyMatrix(nodeCount, loadIncoming, loadOutgoing, true);
+        if (loadIncoming) {
+            build(matrix, false, true);
+        }
+        if (loadOutgoing) {
+            build(matrix, true, undirected);
+        }
+
+        return new HeavyGraph(
+                idMap,
+                matrix,
+                loadWeights(loadIncoming && loadOutgoing),
+                new NullWeightMap(0.0),
+                new NullWeightMap(0.0));
+    }
+
+    @Override
+    protected HeavyGraphBuilder me() {
+        return this;
+    }
+
+    private void build(AdjacencyMatrix matrix, boolean bySource, boolean byTarget) {
+        GroupedEdges grouped = group(bySource, byTarget);
+        boolean outgoing = bySource;
+        long batchSize = ParallelUtil.threadSize((long) concurrency * BATCHES_PER_THREAD, nodeCount);
+        ParallelUtil.run(batches(nodeCount, batchSize, (startNode, endNode) -> {
+            for (int node = (int) startNode; node < endNode; node++) {
+                long start = grouped.start(node);
+                int degree = Math.toIntExact(grouped.start(node + 1L) - start);
+                if (outgoing) {
+                    matrix.armOut(node, degree);
+                    for (int i = 0; i < degree; i++) {
+                        matrix.addOutgoing(node, (int) grouped.target(start + i));
+                    }
+                    matrix.sortOutgoing(node);
+                } else {
+                    matrix.armIn(node, degree);
+                    for (int i = 0; i < degree; i++) {
+                        matrix.addIncoming((int) grouped.target(start + i), node);
+                    }
+                    matrix.sortIncoming(node);
+                }
+            }
+        }), executorService);
+        tracker.remove(grouped.release());
+    }
+
+    private WeightMapping loadWeights(boolean isBoth) {
+        if (!edges.hasWeights()) {
+            return new NullWeightMap(relWeightDefault);
+        }
+        boolean loadOutgoing = loadOutgoing();
+        boolean loadIncoming = loadIncoming();
+        WeightMap weights = new WeightMap((int) nodeCount, relWeightDefault, NO_PROPERTY);
+        for (long i = 0L; i < edges.size(); i++) {
+            double weight = edges.weight(i);
+            if (Double.compare(weight, relWeightDefault) == 0) {
+                continue;
+            }
+            int source = (int) edges.source(i);
+            int target = (int) edges.target(i);
+            if (isBoth) {
+                weights.put(RawValues.combineSorted(source, target), weight);
+            } else {
+                if (loadOutgoing) {
+                    weights.put(RawValues.combineIntInt(source, target), weight);
+                }
+                if (loadIncoming || undirected) {
+                    weights.put(RawValues.combineIntInt(target, source), weight);
+                }
+            }
+        }
+        return weights;
+    }
+}
@@ -23,14 +23,19 @@ import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.GraphSetup;
 import org.neo4j.graphalgo.api.WeightMapping;
 import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.WeightMap;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.helpers.Exceptions;
+import org.neo4j.kernel.api.StatementConstants;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
 import java.util.Collection;
 import java.util.function.Supplier;
 
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
+
 /**
  * @author mknblch
  */
@@ -47,6 +52,37 @@ public class HeavyGraphFactory extends GraphFactory {
         return build(setup.batchSize);
     }
 
+    @Override
+    public MemoryRange memoryEstimation() {
+        long nodeCount = dimensions.nodeCount();
+        long relationshipCount = dimensions.maxRelCount();
+
+        MemoryRange matrix = AdjacencyMatrix.memoryEstimation(
+                nodeCount,
+                relationshipCount,
+                setup.loadIncoming,
+                setup.loadOutgoing);
+        // with more than one importer, every importer builds its own matrix
+        // that is copied into the final one
+        if (setup.concurrency() > 1) {
+            matrix = matrix.union(matrix.times(2L));
+        }
+
+        MemoryRange memory = IdMap.memoryEstimation(nodeCount)
+                .add(matrix)
+                .add(shallowSizeOfInstance(HeavyGraph.class));
+        if (dimensions.relWeightId() != StatementConstants.NO_SUCH_PROPERTY_KEY) {
+            memory = memory.add(WeightMap.memoryEstimation(relationshipCount));
+        }
+        if (dimensions.nodeWeightId() != StatementConstants.NO_SUCH_PROPERTY_KEY) {
+            memory = memory.add(WeightMap.memoryEstimation(nodeCount));
+        }
+        if (dimensions.nodePropId() != StatementConstants.NO_SUCH_PROPERTY_KEY) {
+            memory = memory.add(WeightMap.memoryEstimation(nodeCount));
+        }
+        return memory;
+    }
+
     /* test-private */ Graph build(int batchSize) {
         try {
             return importGraph(batchSize);
@@ -204,11 +204,10 @@ final class RelationshipImporter extends StatementTask<Void, EntityNotFoundExcep
             int[] relationType) throws EntityNotFoundException {
         final int outDegree;
         final RelationshipIterator rels;
+        outDegree = GraphDimensions.degree(readOp, sourceNodeId, Direction.OUTGOING, relationType);
         if (relationType == null) {
-            outDegree = readOp.nodeGetDegree(sourceNodeId, Direction.OUTGOING);
             rels = readOp.nodeGetRelationships(sourceNodeId, Direction.OUTGOING);
         } else {
-            outDegree = readOp.nodeGetDegree(sourceNodeId, Direction.OUTGOING, relationType[0]);
             rels = readOp.nodeGetRelationships(sourceNodeId, Direction.OUTGOING, relationType);
         }
 
@@ -231,11 +230,10 @@ final class RelationshipImporter extends StatementTask<Void, EntityNotFoundExcep
             int[] relationType) throws EntityNotFoundException {
         final int outDegree;
         final RelationshipIterator rels;
+        outDegree = GraphDimensions.degree(readOp, sourceNodeId, Direction.INCOMING, relationType);
         if (relationType == null) {
-            outDegree = readOp.nodeGetDegree(sourceNodeId, Direction.INCOMING);
             rels = readOp.nodeGetRelationships(sourceNodeId, Direction.INCOMING);
         } else {
-            outDegree = readOp.nodeGetDegree(sourceNodeId, Direction.INCOMING, relationType[0]);
             rels = readOp.nodeGetRelationships(sourceNodeId, Direction.INCOMING, relationType);
         }
 
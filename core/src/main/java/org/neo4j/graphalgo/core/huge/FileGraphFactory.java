@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.EdgeList;
+import org.neo4j.graphalgo.core.EdgeListFile;
+import org.neo4j.graphalgo.core.utils.ImportDirectory;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Loads a {@link HugeGraph} from an edge list file instead of the database,
+ * see {@link EdgeListFile} for the supported formats.
+ * The path of the file is given as the relationship type, relative to the import directory
+ * of the database ({@code dbms.directories.import}), the label is ignored.
+ * Files outside of the import directory are rejected, see {@link ImportDirectory}.
+ * <p>
+ * The graph only contains the nodes that occur in the file. Their ids in the file
+ * are used as the original node ids, so they have to be non-negative.
+ * If a relationship weight property is set, weights are read from the file,
+ * whatever the name of the property.
+ * <p>
+ * The node ids of the file do not refer to nodes in the database,
+ * so algorithms can only stream their results or write them into a file with {@code writeFile},
+ * writing them back into the database is rejected.
+ */
+public final class FileGraphFactory extends GraphFactory {
+
+    public static final String TYPE = "file";
+
+    public FileGraphFactory(GraphDatabaseAPI api, GraphSetup setup) {
+        super(api, setup);
+    }
+
+    @Override
+    public HugeGraph build() {
+        if (setup.relationshipType == null) {
+            throw new IllegalArgumentException(
+                    "The " + TYPE + " graph needs the path of an edge list file as relationship type");
+        }
+        Path file = ImportDirectory.resolve(api, setup.relationshipType);
+        AllocationTracker tracker = setup.tracker;
+        int concurrency = setup.concurrency();
+        EdgeList edges;
+        try {
+            edges = EdgeListFile.read(
+                    file,
+                    !setup.loadDefaultRelationshipWeight(),
+                    setup.relationDefaultWeight,
+                    concurrency,
+                    threadPool,
+                    tracker);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the edge list file " + file, e);
+        }
+
+        HugeIdMap mapping = HugeGraphBuilder.mapNodeIds(edges, concurrency, threadPool, tracker);
+        HugeGraph graph = new HugeGraphBuilder(mapping, edges)
+                .withDirection(direction())
+                .asUndirected(setup.loadAsUndirected)
+                .withConcurrency(concurrency)
+                .withExecutorService(threadPool)
+                .withAllocationTracker(tracker)
+                .withDefaultRelationshipWeight(setup.relationDefaultWeight)
+                .withOffHeap(setup.offHeap)
+                .build();
+        tracker.remove(edges.release());
+        if (setup.compressIdMap) {
+            mapping.compress(tracker);
+        }
+        progressLogger.logDone(tracker);
+        return graph;
+    }
+
+    private Direction direction() {
+        if (setup.loadIncoming && setup.loadOutgoing) {
+            return Direction.BOTH;
+        }
+        return setup.loadIncoming ? Direction.INCOMING : Direction.OUTGOING;
+    }
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeWeightMapping;
+import org.neo4j.graphalgo.core.EdgeList;
+import org.neo4j.graphalgo.core.EdgeListGraphBuilder;
+import org.neo4j.graphalgo.core.HugeNullWeightMap;
+import org.neo4j.graphalgo.core.HugeWeightMap;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.ByteArray;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicBitSet;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds a {@link HugeGraph} from an {@link EdgeList}.
+ * The node ids of the edge list are used as the original node ids.
+ * <p>
+ * Parallel relationships are merged, as they are by the {@link HugeGraphFactory}.
+ * Every node is written by exactly one thread, so the adjacency of every
+ * direction is built in parallel without synchronization.
+ * <pre>
+ * HugeGraph graph = new HugeGraphBuilder(nodeCount, edges)
+ *         .withDirection(Direction.BOTH)
+ *         .withConcurrency(8)
+ *         .build();
+ * </pre>
+ */
+public final class HugeGraphBuilder extends EdgeListGraphBuilder<HugeGraph, HugeGraphBuilder> {
+
+    // more batches than threads, so that threads which finish early can take over
+    private static final int BATCHES_PER_THREAD = 4;
+
+    private final HugeIdMap idMap;
+    private boolean offHeap = false;
+
+    public HugeGraphBuilder(long nodeCount, EdgeList edges) {
+        super(nodeCount, edges);
+        this.idMap = null;
+    }
+
+    /**
+     * Builds the graph with the given id map, the edge list must contain mapped node ids.
+     * @see #mapNodeIds(EdgeList, int, ExecutorService, AllocationTracker)
+     */
+    HugeGraphBuilder(HugeIdMap idMap, EdgeList edges) {
+        super(idMap.nodeCount(), edges);
+        this.idMap = idMap;
+    }
+
+    /**
+     * Maps the node ids of the edge list, which can be any non-negative ids,
+     * to the dense ids of a graph. The ids are replaced in the edge list and the
+     * mapped ids follow the order of the original ids, so that the returned
+     * id map can be compressed. Ids that do not occur in the edge list are not mapped.
+     *
+     * @throws IllegalArgumentException if the edge list contains a negative node id
+     */
+    static HugeIdMap mapNodeIds(
+            EdgeList edges,
+            int concurrency,
+            ExecutorService executorService,
+            AllocationTracker tracker) {
+        long size = edges.size();
+        long batchSize = ParallelUtil.threadSize(concurrency, size);
+
+        AtomicLong highestId = new AtomicLong(-1L);
+        ParallelUtil.run(batches(size, batchSize, (start, end) -> {
+            long highest = -1L;
+            for (long i = start; i < end; i++) {
+                long source = edges.source(i);
+                long target = edges.target(i);
+                if (source < 0L || target < 0L) {
+                    throw new IllegalArgumentException(String.format(
+                            "Relationship (%d, %d) at index %d has a negative node id", source, target, i));
+                }
+                highest = Math.max(highest, Math.max(source, target));
+            }
+            highestId.accumulateAndGet(highest, Math::max);
+        }), executorService);
+
+        long idCount = highestId.get() + 1L;
+        PagedAtomicBitSet usedIds = PagedAtomicBitSet.newBitSet(idCount, tracker);
+        ParallelUtil.run(batches(size, batchSize, (start, end) -> {
+            for (long i = start; i < end; i++) {
+                usedIds.set(edges.source(i));
+                usedIds.set(edges.target(i));
+            }
+        }), executorService);
+
+        HugeIdMap idMap = new HugeIdMap(usedIds.cardinality(), idCount, tracker);
+        for (long word = 0L, words = usedIds.words(); word < words; word++) {
+            long bits = usedIds.word(word);
+            while (bits != 0L) {
+                idMap.add((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1L;
+            }
+        }
+        tracker.remove(usedIds.release());
+
+        ParallelUtil.run(batches(size, batchSize, (start, end) -> {
+            for (long i = start; i < end; i++) {
+                edges.set(
+                        i,
+                        idMap.toHugeMappedNodeId(edges.source(i)),
+                        idMap.toHugeMappedNodeId(edges.target(i)));
+            }
+        }), executorService);
+        return idMap;
+    }
+
+    /**
+     * Keep the adjacency of the graph outside of the Java heap,
+     * the off-heap memory is freed when the graph is released.
+     */
+    public HugeGraphBuilder withOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+        return this;
+    }
+
+    @Override
+    public HugeGraph build() {
+        HugeIdMap idMap = this.idMap;
+        if (idMap == null) {
+            idMap = new HugeIdMap(nodeCount, nodeCount, tracker);
+            for (long node = 0L; node < nodeCount; node++) {
+                idMap.add(node);
+            }
+        }
+
+        HugeWeightMapping weights = edges.hasWeights()
+                ? new HugeWeightMap(nodeCount, relWeightDefault, tracker)
+                : new HugeNullWeightMap(relWeightDefault);
+
+        LongArray inOffsets = null;
+        LongArray outOffsets = null;
+        ByteArray inAdjacency = null;
+        ByteArray outAdjacency = null;
+        boolean isBoth = loadIncoming() && loadOutgoing();
+        // the incoming adjacency first, so that the weight from the smaller to the larger id
+        // is written last, as the importers do for reciprocal relationships
+        if (loadIncoming()) {
+            inOffsets = LongArray.newArray(nodeCount, tracker);
+            inAdjacency = ByteArray.newArray(0, offHeap, tracker);
+            build(false, true, isBoth, weights, inOffsets, inAdjacency);
+        }
+        if (loadOutgoing()) {
+            outOffsets = LongArray.newArray(nodeCount, tracker);
+            outAdjacency = ByteArray.newArray(0, offHeap, tracker);
+            build(true, undirected, isBoth, weights, outOffsets, outAdjacency);
+        }
+        return new HugeGraphImpl(
+                tracker,
+                idMap,
+                weights,
+                HugeNodePropertyMap.EMPTY,
+                inAdjacency,
+                outAdjacency,
+                inOffsets,
+                outOffsets
+        );
+    }
+
+    @Override
+    protected HugeGraphBuilder me() {
+        return this;
+    }
+
+    private void build(
+            boolean bySource,
+            boolean byTarget,
+            boolean isBoth,
+            HugeWeightMapping weights,
+            LongArray offsets,
+            ByteArray adjacency) {
+        GroupedEdges grouped = group(bySource, byTarget);
+        HugeWeightMap weightMap = edges.hasWeights() ? (HugeWeightMap) weights : null;
+        // relationships to larger ids are stored as outgoing and to smaller ids as incoming
+        boolean withSelfLoops = bySource || !isBoth;
+
+        long batchSize = ParallelUtil.threadSize((long) concurrency * BATCHES_PER_THREAD, nodeCount);
+        ParallelUtil.run(batches(nodeCount, batchSize, (startNode, endNode) -> {
+            ByteArray.LocalAllocator allocator = adjacency.newAllocator();
+            allocator.prepare();
+            long[] targets = new long[0];
+            for (long node = startNode; node < endNode; node++) {
+                long start = grouped.start(node);
+                int degree = Math.toIntExact(grouped.start(node + 1L) - start);
+                if (degree == 0) {
+                    continue;
+                }
+                if (targets.length < degree) {
+                    targets = new long[ArrayUtil.oversize(degree, Long.BYTES)];
+                }
+                for (int i = 0; i < degree; i++) {
+                    long target = targets[i] = grouped.target(start + i);
+                    if (weightMap != null && (!isBoth || node < target || (withSelfLoops && node == target))) {
+                        double weight = grouped.weight(start + i);
+                        if (weight != relWeightDefault) {
+                            weightMap.put(node, target, weight);
+                        }
+                    }
+                }
+                ScanningRelationshipImporter.write(node, targets, 0, degree, offsets, allocator);
+            }
+        }), executorService);
+        tracker.remove(grouped.release());
+    }
+}
@@ -25,6 +25,7 @@ import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.api.HugeWeightMapping;
 import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.HugeWeightMap;
+import org.neo4j.graphalgo.core.RelationshipAggregation;
 import org.neo4j.graphalgo.core.utils.ImportProgress;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.RawValues;
@@ -33,24 +34,38 @@ import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.ByteArray;
 import org.neo4j.graphalgo.core.utils.paged.DeltaEncoding;
 import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
+import org.neo4j.graphalgo.core.utils.paged.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.PagedLongLongDoubleMap;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.helpers.Exceptions;
 import org.neo4j.kernel.api.ReadOperations;
 import org.neo4j.kernel.api.Statement;
+import org.neo4j.kernel.api.StatementConstants;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.impl.api.RelationshipVisitor;
 import org.neo4j.kernel.impl.api.store.RelationshipIterator;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
+
 public final class HugeGraphFactory extends GraphFactory {
 
+    // decided once, so that the estimation and the import agree even if the available memory changes
+    private final boolean scansRelationships;
+
     public HugeGraphFactory(
             GraphDatabaseAPI api,
             GraphSetup setup) {
         super(api, setup);
+        this.scansRelationships = scansRelationships(MemoryUsage.availableMemory());
     }
 
     @Override
@@ -63,35 +78,290 @@ public final class HugeGraphFactory extends GraphFactory {
     }
 
 
+    @Override
+    public MemoryRange memoryEstimation() {
+        long nodeCount = dimensions.hugeNodeCount();
+        long relationshipCount = dimensions.maxRelCount();
+        // every relationship type that is loaded separately has its own offsets and weights
+        int typeCount = dimensions.relationshipTypes() == null ? 1 : dimensions.relationshipTypes().length;
+
+        MemoryRange memory = HugeIdMap
+                .memoryEstimation(nodeCount, dimensions.allNodesCount())
+                .add(HugeNodePropertyMap.memoryEstimation(nodeCount, setup.nodePropertyMappings))
+                .add(shallowSizeOfInstance(HugeGraphImpl.class));
+        if (setup.loadAsUndirected) {
+            memory = memory.add(adjacencyEstimation(nodeCount, relationshipCount << 1, typeCount));
+        } else {
+            if (setup.loadIncoming) {
+                memory = memory.add(adjacencyEstimation(nodeCount, relationshipCount, typeCount));
+            }
+            if (setup.loadOutgoing) {
+                memory = memory.add(adjacencyEstimation(nodeCount, relationshipCount, typeCount));
+            }
+        }
+        boolean withWeights = loadsWeights();
+        if (withWeights) {
+            memory = memory.add(weightsEstimation(nodeCount, relationshipCount, typeCount));
+        }
+        if (scansRelationships) {
+            // the buffers are only needed during import, when the adjacency is not yet fully allocated
+            memory = memory.add(MemoryRange.of(0L, ScanningRelationshipImporter.bufferMemoryEstimation(
+                    relationshipCount,
+                    scannedDirections(),
+                    withWeights)));
+        }
+        return memory;
+    }
+
+    /**
+     * Loading both directions, or loading undirected, reads every relationship
+     * twice when reading node by node, and loading several types separately reads
+     * the relationships of every node once per type. If all nodes are loaded anyway,
+     * scanning the relationship store once is cheaper, as long as the scan buffers
+     * fit into the available memory. A scan that needs several passes reads the
+     * whole store once per pass, then reading node by node is cheaper.
+     */
+    private boolean scansRelationships(long availableMemory) {
+        return (setup.loadAsUndirected || (setup.loadIncoming && setup.loadOutgoing) || loadsTypesSeparately())
+                && dimensions.labelId() == ReadOperations.ANY_LABEL
+                && dimensions.allRelationshipsCount() >= 0L
+                && ScanningRelationshipImporter.passes(
+                        dimensions.maxRelCount(),
+                        scannedDirections(),
+                        loadsWeights(),
+                        availableMemory) == 1L;
+    }
+
+    /**
+     * @return the number of directions that the scan buffers every relationship for
+     */
+    private int scannedDirections() {
+        if (setup.loadAsUndirected) {
+            return 2;
+        }
+        return (setup.loadIncoming ? 1 : 0) + (setup.loadOutgoing ? 1 : 0);
+    }
+
+    private boolean loadsTypesSeparately() {
+        String[] relationshipTypes = dimensions.relationshipTypes();
+        return relationshipTypes != null && relationshipTypes.length > 1;
+    }
+
+    /**
+     * Counting parallel relationships needs weights even if there is no weight property.
+     */
+    private boolean loadsWeights() {
+        return dimensions.weightId() != StatementConstants.NO_SUCH_PROPERTY_KEY
+                || setup.relationshipAggregation == RelationshipAggregation.COUNT;
+    }
+
+    private HugeWeightMapping newWeights(AllocationTracker tracker) {
+        if (setup.relationshipAggregation == RelationshipAggregation.COUNT) {
+            return new HugeWeightMap(dimensions.hugeNodeCount(), setup.relationDefaultWeight, tracker);
+        }
+        return hugeWeightMapping(tracker, dimensions.weightId(), setup.relationDefaultWeight);
+    }
+
+    private ScanningRelationshipImporter relationshipScanner(
+            int[] relationId,
+            HugeIdMap mapping,
+            HugeWeightMapping[] weights,
+            int concurrency,
+            ImportProgress progress) {
+        return new ScanningRelationshipImporter(
+                api,
+                threadPool,
+                concurrency,
+                progress,
+                setup.terminationFlag,
+                mapping,
+                relationId,
+                dimensions.weightId(),
+                weights,
+                setup.relationshipAggregation,
+                dimensions.allRelationshipsCount(),
+                dimensions.maxRelCount());
+    }
+
+    /**
+     * Every node with relationships stores its degree as an int, followed
+     * by the block encoded deltas of the target ids, which take at least one byte
+     * and at most as many bytes as the largest node id, plus 3 header bits each.
+     * The header of the last block of every list is rounded up to full bytes.
+     */
+    private static MemoryRange adjacencyEstimation(long nodeCount, long relationshipCount, int typeCount) {
+        long minNodesWithRelationships = nodeCount == 0L
+                ? 0L
+                : ParallelUtil.threadSize(nodeCount, relationshipCount);
+        long maxNodesWithRelationships = Math.min(nodeCount, relationshipCount);
+        long maxBytesPerRelationship = DeltaEncoding.byteLength(Math.max(1L, nodeCount));
+        long headerBytes = (relationshipCount * 3L + 7L) >>> 3;
+        long maxBytesPerNode = Integer.BYTES + 1L;
+
+        return MemoryRange.of(
+                ByteArray.estimateMemoryUsage(
+                        relationshipCount + headerBytes + minNodesWithRelationships * Integer.BYTES),
+                ByteArray.estimateMemoryUsage(
+                        relationshipCount * maxBytesPerRelationship + headerBytes + maxNodesWithRelationships * maxBytesPerNode))
+                .add(LongArray.estimateMemoryUsage(nodeCount) * typeCount);
+    }
+
+    /**
+     * Weights are stored in one hash map per node, which are between
+     * one and two thirds filled, each entry consisting of a long and a double.
+     */
+    private static MemoryRange weightsEstimation(long nodeCount, long relationshipCount, int typeCount) {
+        long bytesPerEntry = Long.BYTES + Double.BYTES;
+        long base = PagedLongLongDoubleMap.estimateMemoryUsage(nodeCount) * typeCount;
+        return MemoryRange.of(
+                base,
+                Math.max(base, relationshipCount * bytesPerEntry * 3L));
+    }
+
     private HugeGraph importGraph() throws EntityNotFoundException {
         int concurrency = setup.concurrency();
         AllocationTracker tracker = setup.tracker;
-        HugeWeightMapping weights = hugeWeightMapping(tracker, dimensions.weightId(), setup.relationDefaultWeight);
-        HugeIdMap mapping = loadHugeIdMap(tracker);
-        HugeGraph graph = loadRelationships(dimensions, mapping, weights, concurrency, tracker, progress);
+        HugeWeightMapping weights = newWeights(tracker);
+        HugeNodePropertyMap nodeProperties = HugeNodePropertyMap.allocate(
+                setup.nodePropertyMappings,
+                dimensions.nodePropertyKeyIds(),
+                dimensions.hugeNodeCount(),
+                tracker);
+        HugeIdMap mapping = loadHugeIdMap(tracker, nodeProperties);
+        String[] relationshipTypes = dimensions.relationshipTypes();
+        HugeGraph graph;
+        if (loadsTypesSeparately()) {
+            graph = loadTypedRelationships(relationshipTypes, mapping, weights, nodeProperties, concurrency, tracker);
+        } else {
+            graph = loadRelationships(dimensions.relationId(), mapping, weights, nodeProperties, concurrency, tracker, progress);
+        }
+        if (setup.compressIdMap && !mapping.compress(tracker)) {
+            setup.log.info("The id map could not be compressed, the nodes were not loaded in the order of their ids");
+        }
         progressLogger.logDone(tracker);
         return graph;
     }
 
-    private HugeGraph loadRelationships(
-            GraphDimensions dimensions,
+    /**
+     * Loads every relationship type into its own adjacency, which share the id map and the node properties.
+     * The relationship store is scanned once for all types, unless only some nodes are loaded,
+     * then the relationships of every node are read once per type.
+     */
+    private HugeGraph loadTypedRelationships(
+            String[] relationshipTypes,
+            HugeIdMap mapping,
+            HugeWeightMapping firstWeights,
+            HugeNodePropertyMap nodeProperties,
+            int concurrency,
+            AllocationTracker tracker) {
+        int[] relationId = dimensions.relationId();
+        HugeWeightMapping[] weights = new HugeWeightMapping[relationId.length];
+        weights[0] = firstWeights;
+        for (int i = 1; i < relationId.length; i++) {
+            weights[i] = newWeights(tracker);
+        }
+
+        Map<String, HugeGraphImpl> graphs = new LinkedHashMap<>();
+        if (scansRelationships) {
+            List<HugeGraphImpl> typeGraphs =
+                    scanTypedRelationships(relationId, mapping, weights, nodeProperties, concurrency, tracker);
+            for (int i = 0; i < relationId.length; i++) {
+                graphs.put(relationshipTypes[i], typeGraphs.get(i));
+            }
+        } else {
+            for (int i = 0; i < relationId.length; i++) {
+                if (i > 0) {
+                    progress.resetForRelationships();
+                }
+                graphs.put(relationshipTypes[i], loadRelationships(
+                        new int[]{relationId[i]},
+                        mapping,
+                        weights[i],
+                        nodeProperties,
+                        concurrency,
+                        tracker,
+                        progress));
+            }
+        }
+        return new HugeMultiTypeGraph(tracker, graphs, nodeProperties, setup.relationDefaultWeight);
+    }
+
+    /**
+     * Loads all relationship types with a single scan of the relationship store,
+     * which buffers every relationship for the adjacency of its type.
+     *
+     * @return the graphs of the types, at the same index as their ids
+     */
+    private List<HugeGraphImpl> scanTypedRelationships(
+            int[] relationId,
+            HugeIdMap mapping,
+            HugeWeightMapping[] weights,
+            HugeNodePropertyMap nodeProperties,
+            int concurrency,
+            AllocationTracker tracker) {
+        final long nodeCount = dimensions.hugeNodeCount();
+        final int typeCount = relationId.length;
+        final boolean loadsIncoming = setup.loadIncoming && !setup.loadAsUndirected;
+        final boolean loadsOutgoing = setup.loadOutgoing || setup.loadAsUndirected;
+
+        LongArray[] inOffsets = loadsIncoming ? new LongArray[typeCount] : null;
+        ByteArray[] inAdjacency = loadsIncoming ? new ByteArray[typeCount] : null;
+        LongArray[] outOffsets = loadsOutgoing ? new LongArray[typeCount] : null;
+        ByteArray[] outAdjacency = loadsOutgoing ? new ByteArray[typeCount] : null;
+        for (int i = 0; i < typeCount; i++) {
+            if (loadsIncoming) {
+                inOffsets[i] = LongArray.newArray(nodeCount, tracker);
+                inAdjacency[i] = ByteArray.newArray(0, setup.offHeap, tracker);
+            }
+            if (loadsOutgoing) {
+                outOffsets[i] = LongArray.newArray(nodeCount, tracker);
+                outAdjacency[i] = ByteArray.newArray(0, setup.offHeap, tracker);
+            }
+        }
+
+        ScanningRelationshipImporter scanner = relationshipScanner(relationId, mapping, weights, concurrency, progress);
+        if (setup.loadAsUndirected) {
+            scanner.importUndirectedTypedRelationships(outOffsets, outAdjacency);
+        } else {
+            scanner.importTypedRelationships(outOffsets, outAdjacency, inOffsets, inAdjacency);
+        }
+
+        List<HugeGraphImpl> graphs = new ArrayList<>(typeCount);
+        for (int i = 0; i < typeCount; i++) {
+            graphs.add(new HugeGraphImpl(
+                    tracker,
+                    mapping,
+                    weights[i],
+                    nodeProperties,
+                    loadsIncoming ? inAdjacency[i] : null,
+                    loadsOutgoing ? outAdjacency[i] : null,
+                    loadsIncoming ? inOffsets[i] : null,
+                    loadsOutgoing ? outOffsets[i] : null
+            ));
+        }
+        return graphs;
+    }
+
+    private HugeGraphImpl loadRelationships(
+            int[] relationId,
             HugeIdMap mapping,
             HugeWeightMapping weights,
+            HugeNodePropertyMap nodeProperties,
             int concurrency,
             AllocationTracker tracker,
             ImportProgress progress) {
         if (setup.loadAsUndirected) {
             return loadUndirectedRelationships(
-                    dimensions,
+                    relationId,
                     mapping,
                     weights,
+                    nodeProperties,
                     concurrency,
                     tracker,
                     progress);
         }
 
         final long nodeCount = dimensions.hugeNodeCount();
-        final int[] relationId = dimensions.relationId();
         final int weightId = dimensions.weightId();
 
         LongArray inOffsets = null;
@@ -100,13 +370,16 @@ public final class HugeGraphFactory extends GraphFactory {
         ByteArray outAdjacency = null;
         if (setup.loadIncoming) {
             inOffsets = LongArray.newArray(nodeCount, tracker);
-            inAdjacency = ByteArray.newArray(0, tracker);
+            inAdjacency = ByteArray.newArray(0, setup.offHeap, tracker);
         }
         if (setup.loadOutgoing) {
             outOffsets = LongArray.newArray(nodeCount, tracker);
-            outAdjacency = ByteArray.newArray(nodeCount, tracker);
+            outAdjacency = ByteArray.newArray(nodeCount, setup.offHeap, tracker);
         }
-        if (setup.loadIncoming || setup.loadOutgoing) {
+        if (scansRelationships) {
+            relationshipScanner(relationId, mapping, new HugeWeightMapping[]{weights}, concurrency, progress)
+                    .importRelationships(outOffsets, outAdjacency, inOffsets, inAdjacency);
+        } else if (setup.loadIncoming || setup.loadOutgoing) {
             // needs final b/c of reference from lambda
             final LongArray finalInOffsets = inOffsets;
             final LongArray finalOutOffsets = outOffsets;
@@ -128,7 +401,8 @@ public final class HugeGraphFactory extends GraphFactory {
                     false,
                     relationId,
                     weightId,
-                    weights
+                    weights,
+                    setup.relationshipAggregation
             ));
             ParallelUtil.run(Arrays.asList(tasks), threadPool);
         }
@@ -137,6 +411,7 @@ public final class HugeGraphFactory extends GraphFactory {
                 tracker,
                 mapping,
                 weights,
+                nodeProperties,
                 inAdjacency,
                 outAdjacency,
                 inOffsets,
@@ -144,19 +419,34 @@ public final class HugeGraphFactory extends GraphFactory {
         );
     }
 
-    private HugeGraph loadUndirectedRelationships(
-            GraphDimensions dimensions,
+    private HugeGraphImpl loadUndirectedRelationships(
+            int[] relationId,
             HugeIdMap mapping,
             HugeWeightMapping weights,
+            HugeNodePropertyMap nodeProperties,
             int concurrency,
             AllocationTracker tracker,
             ImportProgress progress) {
         final long nodeCount = dimensions.hugeNodeCount();
-        final int[] relationId = dimensions.relationId();
         final int weightId = dimensions.weightId();
 
         LongArray offsets = LongArray.newArray(nodeCount, tracker);
-        ByteArray adjacency = ByteArray.newArray(0, tracker);
+        ByteArray adjacency = ByteArray.newArray(0, setup.offHeap, tracker);
+
+        if (scansRelationships) {
+            relationshipScanner(relationId, mapping, new HugeWeightMapping[]{weights}, concurrency, progress)
+                    .importUndirectedRelationships(offsets, adjacency);
+            return new HugeGraphImpl(
+                    tracker,
+                    mapping,
+                    weights,
+                    nodeProperties,
+                    null,
+                    adjacency,
+                    null,
+                    offsets
+            );
+        }
 
         NodeQueue nodes = new NodeQueue(nodeCount);
         HugeRelationshipImporter[] tasks = new HugeRelationshipImporter[concurrency];
@@ -173,7 +463,8 @@ public final class HugeGraphFactory extends GraphFactory {
                 true,
                 relationId,
                 weightId,
-                weights
+                weights,
+                setup.relationshipAggregation
         ));
         ParallelUtil.run(Arrays.asList(tasks), threadPool);
 
@@ -181,6 +472,7 @@ public final class HugeGraphFactory extends GraphFactory {
                 tracker,
                 mapping,
                 weights,
+                nodeProperties,
                 null,
                 adjacency,
                 null,
@@ -219,6 +511,7 @@ public final class HugeGraphFactory extends GraphFactory {
         private final int[] relationId;
         private final int weightId;
         private final HugeWeightMapping weights;
+        private final RelationshipAggregation aggregation;
         private final boolean loadsBoth;
         private final boolean undirected;
 
@@ -235,7 +528,8 @@ public final class HugeGraphFactory extends GraphFactory {
                 boolean undirected,
                 int[] relationId,
                 int weightId,
-                HugeWeightMapping weights) {
+                HugeWeightMapping weights,
+                RelationshipAggregation aggregation) {
             super(api);
             this.batchIndex = batchIndex;
             this.progress = progress;
@@ -248,6 +542,7 @@ public final class HugeGraphFactory extends GraphFactory {
             this.relationId = relationId;
             this.weightId = weightId;
             this.weights = weights;
+            this.aggregation = aggregation;
             this.loadsBoth = inAdjacency != null && outAdjacency != null;
             this.undirected = undirected;
         }
@@ -347,14 +642,16 @@ public final class HugeGraphFactory extends GraphFactory {
         private RelationshipDeltaEncoding newImporter(
                 ReadOperations readOp,
                 Direction direction) {
-            if (weightId >= 0) {
+            if (weights instanceof HugeWeightMap) {
                 return new RelationshipDeltaEncodingWithWeights(
                         idMap,
                         direction,
                         readOp,
                         weightId,
-                        weights,
-                        loadsBoth);
+                        (HugeWeightMap) weights,
+                        aggregation,
+                        loadsBoth,
+                        undirected);
             }
             return new RelationshipDeltaEncoding(idMap, direction);
         }
@@ -390,10 +687,7 @@ public final class HugeGraphFactory extends GraphFactory {
 
             ByteArray.BulkAdder bulkAdder = allocator.adder;
             bulkAdder.addUnsignedInt(degree);
-            long[] targets = delta.targets;
-            for (int i = 0; i < degree; i++) {
-                bulkAdder.addVLong(targets[i]);
-            }
+            bulkAdder.addDeltaBlocks(delta.targets, 0, degree);
         }
 
         private void readUndirectedRelationships(
@@ -425,10 +719,7 @@ public final class HugeGraphFactory extends GraphFactory {
 
                 ByteArray.BulkAdder bulkAdder = allocator.adder;
                 bulkAdder.addUnsignedInt(degree);
-                long[] targets = delta.targets;
-                for (int i = 0; i < degree; i++) {
-                    bulkAdder.addVLong(targets[i]);
-                }
+                bulkAdder.addDeltaBlocks(delta.targets, 0, degree);
             }
         }
 
@@ -436,9 +727,7 @@ public final class HugeGraphFactory extends GraphFactory {
                 long sourceNodeId,
                 ReadOperations readOp,
                 Direction direction) throws EntityNotFoundException {
-            return relationId == null
-                    ? readOp.nodeGetDegree(sourceNodeId, direction)
-                    : readOp.nodeGetDegree(sourceNodeId, direction, relationId[0]);
+            return GraphDimensions.degree(readOp, sourceNodeId, direction, relationId);
         }
 
         private RelationshipIterator relationships(
@@ -487,6 +776,10 @@ public final class HugeGraphFactory extends GraphFactory {
             this.direction = direction;
         }
 
+        final Direction direction() {
+            return direction;
+        }
+
         @Override
         public final void visit(
                 final long relationshipId,
@@ -531,28 +824,29 @@ public final class HugeGraphFactory extends GraphFactory {
 
             long delta = targets[0];
             int writePos = 1;
-            long requiredBytes = 4L + DeltaEncoding.vSize(delta);  // length as full-int
 
             for (int i = 1; i < length; ++i) {
                 long nextDelta = targets[i];
                 long value = targets[writePos] = nextDelta - delta;
                 if (value > 0L) {
                     ++writePos;
-                    requiredBytes += DeltaEncoding.vSize(value);
                     delta = nextDelta;
                 }
             }
 
             this.length = writePos;
-            return requiredBytes;
+            // length as full-int
+            return Integer.BYTES + DeltaEncoding.blockSize(targets, 0, writePos);
         }
     }
 
     private static final class RelationshipDeltaEncodingWithWeights extends RelationshipDeltaEncoding {
         private final int weightId;
         private final HugeWeightMap weights;
+        private final RelationshipAggregation aggregation;
         private final ReadOperations readOp;
         private final boolean isBoth;
+        private final boolean undirected;
         private final double defaultValue;
 
         RelationshipDeltaEncodingWithWeights(
@@ -560,18 +854,18 @@ public final class HugeGraphFactory extends GraphFactory {
                 final Direction direction,
                 final ReadOperations readOp,
                 int weightId,
-                HugeWeightMapping weights,
-                boolean isBoth) {
+                HugeWeightMap weights,
+                RelationshipAggregation aggregation,
+                boolean isBoth,
+                boolean undirected) {
             super(idMap, direction);
             this.readOp = readOp;
             this.isBoth = isBoth;
-            if (!(weights instanceof HugeWeightMap) || weightId < 0) {
-                throw new IllegalArgumentException(
-                        "expected weights to be defined");
-            }
+            this.undirected = undirected;
             this.weightId = weightId;
-            this.weights = (HugeWeightMap) weights;
-            defaultValue = this.weights.defaultValue();
+            this.weights = weights;
+            this.aggregation = aggregation;
+            defaultValue = weights.defaultValue();
         }
 
         @Override
@@ -579,22 +873,51 @@ public final class HugeGraphFactory extends GraphFactory {
                 final long relationshipId,
                 final long endNodeId) throws EntityNotFoundException {
             long targetGraphId = super.maybeVisit(relationshipId, endNodeId);
-            if (targetGraphId >= 0) {
-                Object value = readOp.relationshipGetProperty(
-                        relationshipId,
-                        weightId);
-                double doubleVal = RawValues.extractValue(value, defaultValue);
-                if (doubleVal != defaultValue) {
-                    long source = sourceGraphId;
-                    long target = targetGraphId;
-                    if (isBoth && source > target) {
-                        target = source;
-                        source = targetGraphId;
-                    }
-                    weights.put(source, target, doubleVal);
+            if (targetGraphId < 0) {
+                return targetGraphId;
+            }
+            if (aggregation != RelationshipAggregation.NONE) {
+                if (ownsWeight(targetGraphId)) {
+                    weights.aggregate(sourceGraphId, targetGraphId, readWeight(relationshipId), aggregation);
                 }
+                return targetGraphId;
+            }
+            double doubleVal = readWeight(relationshipId);
+            if (doubleVal != defaultValue) {
+                long source = sourceGraphId;
+                long target = targetGraphId;
+                if (isBoth && source > target) {
+                    target = source;
+                    source = targetGraphId;
+                }
+                weights.put(source, target, doubleVal);
             }
             return targetGraphId;
         }
+
+        private double readWeight(long relationshipId) throws EntityNotFoundException {
+            if (weightId < 0 || aggregation == RelationshipAggregation.COUNT) {
+                return defaultValue;
+            }
+            Object value = readOp.relationshipGetProperty(
+                    relationshipId,
+                    weightId);
+            return RawValues.extractValue(value, defaultValue);
+        }
+
+        /**
+         * Aggregated weights must see every relationship exactly once.
+         * With both directions, the weight is stored once under the smaller id and
+         * written while reading that node. Undirected, every node stores its own
+         * weights, but self loops are seen in both directions.
+         */
+        private boolean ownsWeight(long targetGraphId) {
+            if (direction() == Direction.INCOMING) {
+                return isBoth
+                        ? sourceGraphId < targetGraphId
+                        : !undirected || sourceGraphId != targetGraphId;
+            }
+            return !isBoth || sourceGraphId <= targetGraphId;
+        }
     }
 }
@@ -20,6 +20,7 @@ package org.neo4j.graphalgo.core.huge;
 
 import org.neo4j.collection.primitive.PrimitiveLongIterable;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.graphalgo.api.HugeAdjacencyCursor;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
 import org.neo4j.graphalgo.api.HugeRelationshipIntersect;
@@ -33,6 +34,7 @@ import org.neo4j.graphalgo.core.utils.paged.LongArray;
 import org.neo4j.graphdb.Direction;
 
 import java.util.Collection;
+import java.util.Set;
 import java.util.function.LongPredicate;
 
 /**
@@ -48,19 +50,22 @@ import java.util.function.LongPredicate;
  * </blockquote>
  * The {@code degree} is stored as a fill-sized 4 byte long {@code int}
  * (the neo kernel api returns an int for {@link org.neo4j.kernel.api.ReadOperations#nodeGetDegree(long, Direction)}).
- * Every target ID is first sorted, then delta encoded, and finally written as variable-length vlongs.
- * The delta encoding does not write the actual value but only the difference to the previous value, which plays very nice with the vlong encoding.
+ * Every target ID is first sorted, then delta encoded, and finally written in blocks of 8 deltas,
+ * where each block starts with a header that stores how many bytes each delta takes
+ * (see {@link org.neo4j.graphalgo.core.utils.paged.DeltaEncoding#encodeBlocks(long[], int, int, byte[], int)}).
+ * The delta encoding does not write the actual value but only the difference to the previous value,
+ * which keeps most deltas within a few bytes.
  * <p>
  * The seconds data structure is a LongArray, which is a long[] addressable by longs
  * and capable of storing about 2^43 (~9k bn) longs – or 64 TiB worth of 64 bit longs.
  * The data is the offset address into the aforementioned adjacency array, the index is the respective source node id.
  * <p>
  * To traverse all nodes, first access to offset from the LongArray, then read
- * 4 bytes into the {@code degree} from the ByteArray, starting from the offset, then read
- * {@code degree} vlongs as targetId.
+ * 4 bytes into the {@code degree} from the ByteArray, starting from the offset, then decode
+ * {@code degree} targetIds from the following blocks.
  * <p>
  * <p>
- * The graph encoding (sans delta+vlong) is similar to that of the
+ * The graph encoding (sans delta+blocks) is similar to that of the
  * {@link org.neo4j.graphalgo.core.lightweight.LightGraph} but stores degree
  * explicitly into the target adjacency array where the LightGraph would subtract
  * offsets of two consecutive nodes. While that doesn't use up memory to store the
@@ -74,7 +79,6 @@ import java.util.function.LongPredicate;
  * has to happen when a new chunk has to be pre-allocated. This is similar to
  * what most garbage collectors do with TLAB allocations.
  *
- * @see <a href="https://developers.google.com/protocol-buffers/docs/encoding#varints">more abount vlong</a>
  * @see <a href="https://shipilev.net/jvm-anatomy-park/4-tlab-allocation/">more abount TLAB allocation</a>
  */
 public class HugeGraphImpl implements HugeGraph {
@@ -83,6 +87,7 @@ public class HugeGraphImpl implements HugeGraph {
     private final AllocationTracker tracker;
 
     private HugeWeightMapping weights;
+    private HugeNodePropertyMap nodeProperties;
     private ByteArray inAdjacency;
     private ByteArray outAdjacency;
     private LongArray inOffsets;
@@ -97,6 +102,7 @@ public class HugeGraphImpl implements HugeGraph {
             final AllocationTracker tracker,
             final HugeIdMap idMapping,
             final HugeWeightMapping weights,
+            final HugeNodePropertyMap nodeProperties,
             final ByteArray inAdjacency,
             final ByteArray outAdjacency,
             final LongArray inOffsets,
@@ -104,6 +110,7 @@ public class HugeGraphImpl implements HugeGraph {
         this.idMapping = idMapping;
         this.tracker = tracker;
         this.weights = weights;
+        this.nodeProperties = nodeProperties;
         this.inAdjacency = inAdjacency;
         this.outAdjacency = outAdjacency;
         this.inOffsets = inOffsets;
@@ -134,6 +141,21 @@ public class HugeGraphImpl implements HugeGraph {
         return idMapping.hugeNodeIterator();
     }
 
+    @Override
+    public Set<String> nodePropertyKeys() {
+        return nodeProperties.nodePropertyKeys();
+    }
+
+    @Override
+    public OfDouble doubleNodeProperty(final String name) {
+        return nodeProperties.doubleNodeProperty(name);
+    }
+
+    @Override
+    public OfLong longNodeProperty(final String name) {
+        return nodeProperties.longNodeProperty(name);
+    }
+
     @Override
     public double weightOf(final long sourceNodeId, final long targetNodeId) {
         if (isBoth && sourceNodeId > targetNodeId) {
@@ -263,7 +285,7 @@ public class HugeGraphImpl implements HugeGraph {
                 inAdjacency.newCursor(),
                 inOffsets,
                 inAdjacency);
-        consumeNodes(node, cursor, (s, t) -> consumer.accept(
+        consumeNodesOneByOne(node, cursor, (s, t) -> consumer.accept(
                 (int) s,
                 (int) t,
                 RawValues.combineIntInt((int) t, (int) s)));
@@ -289,7 +311,7 @@ public class HugeGraphImpl implements HugeGraph {
                 outAdjacency.newCursor(),
                 outOffsets,
                 outAdjacency);
-        consumeNodes(node, cursor, (s, t) -> consumer.accept(
+        consumeNodesOneByOne(node, cursor, (s, t) -> consumer.accept(
                 (int) s,
                 (int) t,
                 RawValues.combineIntInt((int) s, (int) t)));
@@ -301,6 +323,7 @@ public class HugeGraphImpl implements HugeGraph {
                 tracker,
                 idMapping,
                 weights,
+                nodeProperties,
                 inAdjacency,
                 outAdjacency,
                 inOffsets,
@@ -308,6 +331,11 @@ public class HugeGraphImpl implements HugeGraph {
         );
     }
 
+    @Override
+    public HugeAdjacencyCursor adjacencyCursor(final Direction direction) {
+        return new AdjacencyCursor(direction);
+    }
+
     @Override
     public HugeRelationshipIntersect intersectionCopy() {
         return new HugeGraphIntersectImpl(outAdjacency, outOffsets);
@@ -341,13 +369,111 @@ public class HugeGraphImpl implements HugeGraph {
             long startNode,
             ByteArray.DeltaCursor cursor,
             HugeRelationshipConsumer consumer) {
+        final long[] targets = cursor.targetBuffer();
+        int length;
+        while ((length = cursor.nextTargets(targets)) > 0) {
+            for (int i = 0; i < length; i++) {
+                if (!consumer.accept(startNode, targets[i])) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes one target at a time, without the target buffer of the cursor.
+     * Used with the short-lived cursors of the int-based iteration, which is
+     * called once per node and would otherwise allocate a new buffer for every node.
+     */
+    private void consumeNodesOneByOne(
+            long startNode,
+            ByteArray.DeltaCursor cursor,
+            HugeRelationshipConsumer consumer) {
         //noinspection StatementWithEmptyBody
         while (cursor.hasNextVLong() && consumer.accept(startNode, cursor.nextVLong()));
     }
 
+    /**
+     * Decodes the blocks of the adjacency lists straight into the caller's buffer.
+     * Uses its own delta cursors, so it is independent from other iterations.
+     */
+    private final class AdjacencyCursor implements HugeAdjacencyCursor {
+        private final Direction direction;
+        private final ByteArray.DeltaCursor inCursor;
+        private final ByteArray.DeltaCursor outCursor;
+
+        private long nodeId;
+        private ByteArray.DeltaCursor current;
+        // the outgoing cursor when iterating BOTH directions, read after the incoming one
+        private ByteArray.DeltaCursor next;
+
+        private AdjacencyCursor(Direction direction) {
+            this.direction = direction;
+            inCursor = newCursor(inAdjacency);
+            outCursor = newCursor(outAdjacency);
+        }
+
+        @Override
+        public int init(final long nodeId) {
+            this.nodeId = nodeId;
+            switch (direction) {
+                case INCOMING:
+                    current = cursor(nodeId, inCursor, inOffsets, inAdjacency);
+                    next = null;
+                    return current.cost();
+
+                case OUTGOING:
+                    current = cursor(nodeId, outCursor, outOffsets, outAdjacency);
+                    next = null;
+                    return current.cost();
+
+                case BOTH:
+                    current = cursor(nodeId, inCursor, inOffsets, inAdjacency);
+                    next = cursor(nodeId, outCursor, outOffsets, outAdjacency);
+                    return current.cost() + next.cost();
+
+                default:
+                    throw new IllegalArgumentException(direction + "");
+            }
+        }
+
+        @Override
+        public int nextTargets(final long[] targets) {
+            int length = current.nextTargets(targets);
+            if (length == 0 && next != null) {
+                current = next;
+                next = null;
+                length = current.nextTargets(targets);
+            }
+            return length;
+        }
+
+        @Override
+        public int nextTargets(final long[] targets, final double[] weights) {
+            final int length = nextTargets(targets);
+            final long nodeId = this.nodeId;
+            for (int i = 0; i < length; i++) {
+                weights[i] = weightOf(nodeId, targets[i]);
+            }
+            return length;
+        }
+    }
+
     @Override
     public void release() {
         if (!canRelease) return;
+        releaseRelationships();
+        if (nodeProperties != null) {
+            tracker.remove(nodeProperties.release());
+        }
+        nodeProperties = null;
+    }
+
+    /**
+     * Releases the adjacency and the weights, but not the node properties,
+     * which can be shared with other graphs, see {@link HugeMultiTypeGraph}.
+     */
+    void releaseRelationships() {
         if (inAdjacency != null) {
             tracker.remove(inAdjacency.release());
             tracker.remove(inOffsets.release());
@@ -128,7 +128,14 @@ class HugeGraphIntersectImpl implements HugeRelationshipIntersect {
             long startNode,
             ByteArray.DeltaCursor cursor,
             HugeRelationshipConsumer consumer) {
-        //noinspection StatementWithEmptyBody
-        while (cursor.hasNextVLong() && consumer.accept(startNode, cursor.nextVLong()));
+        final long[] targets = cursor.targetBuffer();
+        int length;
+        while ((length = cursor.nextTargets(targets)) > 0) {
+            for (int i = 0; i < length; i++) {
+                if (!consumer.accept(startNode, targets[i])) {
+                    return;
+                }
+            }
+        }
     }
 }
@@ -25,16 +25,23 @@ import org.neo4j.graphalgo.api.HugeIdMapping;
 import org.neo4j.graphalgo.api.HugeNodeIterator;
 import org.neo4j.graphalgo.core.utils.LazyBatchCollection;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.EliasFanoLongArray;
 import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.PageUtil;
 import org.neo4j.graphalgo.core.utils.paged.SparseLongArray;
 
 import java.util.Collection;
 import java.util.function.LongPredicate;
 
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
+
 /**
  * This is basically a long to int mapper. It sorts the id's in ascending order so its
  * guaranteed that there is no ID greater then nextGraphId / capacity
+ * <p>
+ * After loading, the map can be {@link #compress(AllocationTracker) compressed} into an
+ * {@link EliasFanoLongArray}, if the original ids are increasing in the order of the mapped ids.
  */
 public final class HugeIdMap implements HugeIdMapping, HugeNodeIterator, HugeBatchNodeIterable {
 
@@ -46,6 +53,20 @@ public final class HugeIdMap implements HugeIdMapping, HugeNodeIterator, HugeBat
     private long nextGraphId;
     private LongArray graphIds;
     private SparseLongArray nodeToGraphIds;
+    private EliasFanoLongArray compressedIds;
+
+    /**
+     * Estimates the memory for an id map of {@code nodeCount} nodes whose
+     * Neo4j ids are all lower than {@code highestNodeId}. Pages of the
+     * sparse original id mapping are only allocated for ids that are used.
+     */
+    static MemoryRange memoryEstimation(long nodeCount, long highestNodeId) {
+        return MemoryRange.of(
+                SparseLongArray.estimateMemoryUsage(nodeCount),
+                SparseLongArray.estimateMemoryUsage(Math.max(nodeCount, highestNodeId)))
+                .add(LongArray.estimateMemoryUsage(nodeCount))
+                .add(shallowSizeOfInstance(HugeIdMap.class));
+    }
 
     /**
      * initialize the map with maximum node capacity
@@ -64,24 +85,79 @@ public final class HugeIdMap implements HugeIdMapping, HugeNodeIterator, HugeBat
         nodeToGraphIds = sparseOriginalMap;
     }
 
-    void add(long longValue) {
+    long add(long longValue) {
         long internalId = nextGraphId++;
         nodeToGraphIds.set(longValue, internalId);
         graphIds.set(internalId, longValue);
+        return internalId;
+    }
+
+    /**
+     * Replaces the mapping with an Elias-Fano encoding of the original ids, in which
+     * the reverse lookup is a rank query. This is only possible if the original ids are strictly
+     * increasing in the order of the mapped ids, which they are when nodes are scanned in store order.
+     * Otherwise, the mapping is left as it is.
+     * Lookups are slower on the compressed mapping, so it should be compressed
+     * after all relationships have been imported.
+     * This method must not be called concurrently with any other method.
+     *
+     * @return true iff the mapping has been compressed
+     */
+    boolean compress(AllocationTracker tracker) {
+        if (compressedIds != null) {
+            return true;
+        }
+        if (!isIncreasing()) {
+            return false;
+        }
+        compressedIds = EliasFanoLongArray.of(graphIds, nextGraphId, tracker);
+        tracker.remove(graphIds.release());
+        tracker.remove(nodeToGraphIds.release());
+        graphIds = null;
+        nodeToGraphIds = null;
+        return true;
+    }
+
+    boolean isCompressed() {
+        return compressedIds != null;
+    }
+
+    private boolean isIncreasing() {
+        long previous = -1L;
+        for (long i = 0L; i < nextGraphId; i++) {
+            long originalId = graphIds.get(i);
+            if (originalId <= previous) {
+                return false;
+            }
+            previous = originalId;
+        }
+        return true;
     }
 
     @Override
     public long toHugeMappedNodeId(long nodeId) {
+        final EliasFanoLongArray compressedIds = this.compressedIds;
+        if (compressedIds != null) {
+            return compressedIds.indexOf(nodeId);
+        }
         return nodeToGraphIds.get(nodeId);
     }
 
     @Override
     public long toOriginalNodeId(long nodeId) {
+        final EliasFanoLongArray compressedIds = this.compressedIds;
+        if (compressedIds != null) {
+            return compressedIds.get(nodeId);
+        }
         return graphIds.get(nodeId);
     }
 
     @Override
     public boolean contains(final long nodeId) {
+        final EliasFanoLongArray compressedIds = this.compressedIds;
+        if (compressedIds != null) {
+            return compressedIds.contains(nodeId);
+        }
         return nodeToGraphIds.contains(nodeId);
     }
 
@@ -113,11 +189,11 @@ public final class HugeIdMap implements HugeIdMapping, HugeNodeIterator, HugeBat
                 IdIterable::new);
     }
 
-    private static final class IdIterable implements PrimitiveLongIterable {
+    static final class IdIterable implements PrimitiveLongIterable {
         private final long start;
         private final long length;
 
-        private IdIterable(long start, long length) {
+        IdIterable(long start, long length) {
             this.start = start;
             this.length = length;
         }
@@ -128,17 +204,17 @@ public final class HugeIdMap implements HugeIdMapping, HugeNodeIterator, HugeBat
         }
     }
 
-    private static final class IdIterator implements PrimitiveLongIterator {
+    static final class IdIterator implements PrimitiveLongIterator {
 
         private long current;
         private long limit; // exclusive upper bound
 
-        private IdIterator(long length) {
+        IdIterator(long length) {
             this.current = 0;
             this.limit = length;
         }
 
-        private IdIterator(long start, long length) {
+        IdIterator(long start, long length) {
             this.current = start;
             this.limit = start + length;
         }
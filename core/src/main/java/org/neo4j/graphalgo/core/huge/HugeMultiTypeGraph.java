@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterable;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+import org.neo4j.graphalgo.api.HugeRelationshipIntersect;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.WeightedRelationshipConsumer;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * A {@link HugeGraph} that stores the relationships of every type in its own adjacency,
+ * while all types share the id map and the node properties. A single load can then serve
+ * algorithms on different relationship types, each of which selects its types with
+ * {@link #withRelationshipTypes(String)}.
+ * <p>
+ * The graph itself contains the relationships of all types, one type after another.
+ * A pair of nodes that is connected by relationships of several types is visited once per type,
+ * and the weight of such a pair is the first weight that is not the default weight,
+ * in the order in which the types have been loaded.
+ * The adjacency of a node is not sorted across types, so only views on a single type
+ * support {@link #intersectionCopy()}.
+ */
+public final class HugeMultiTypeGraph implements HugeGraph {
+
+    private final AllocationTracker tracker;
+    private final Map<String, HugeGraphImpl> graphs;
+    private final HugeGraphImpl[] typeGraphs;
+    private final HugeGraphImpl first;
+    private final double defaultWeight;
+    private final boolean isView;
+    private HugeNodePropertyMap nodeProperties;
+    private boolean canRelease = true;
+    private boolean released;
+
+    HugeMultiTypeGraph(
+            AllocationTracker tracker,
+            Map<String, HugeGraphImpl> graphs,
+            HugeNodePropertyMap nodeProperties,
+            double defaultWeight) {
+        this(tracker, graphs, nodeProperties, defaultWeight, false);
+        // the type graphs are released together, so that the shared node properties are released once
+        for (HugeGraphImpl graph : typeGraphs) {
+            graph.canRelease(false);
+        }
+    }
+
+    private HugeMultiTypeGraph(
+            AllocationTracker tracker,
+            Map<String, HugeGraphImpl> graphs,
+            HugeNodePropertyMap nodeProperties,
+            double defaultWeight,
+            boolean isView) {
+        if (graphs.isEmpty()) {
+            throw new IllegalArgumentException("At least one relationship type is required");
+        }
+        this.tracker = tracker;
+        this.graphs = graphs;
+        this.typeGraphs = graphs.values().toArray(new HugeGraphImpl[0]);
+        this.first = typeGraphs[0];
+        this.nodeProperties = nodeProperties;
+        this.defaultWeight = defaultWeight;
+        this.isView = isView;
+    }
+
+    @Override
+    public Set<String> relationshipTypes() {
+        return Collections.unmodifiableSet(graphs.keySet());
+    }
+
+    @Override
+    public HugeGraph withRelationshipTypes(String types) {
+        if (types == null || types.trim().isEmpty()) {
+            return this;
+        }
+        Map<String, HugeGraphImpl> selected = new LinkedHashMap<>();
+        for (String type : types.split("\\|")) {
+            type = type.trim();
+            HugeGraphImpl graph = graphs.get(type);
+            if (graph == null) {
+                throw new IllegalArgumentException(String.format(
+                        "Relationship type '%s' has not been loaded, the graph contains %s",
+                        type,
+                        graphs.keySet()));
+            }
+            selected.put(type, graph);
+        }
+        if (selected.size() == 1) {
+            return selected.values().iterator().next();
+        }
+        return new HugeMultiTypeGraph(tracker, selected, nodeProperties, defaultWeight, true);
+    }
+
+    @Override
+    public long nodeCount() {
+        return first.nodeCount();
+    }
+
+    @Override
+    public Collection<PrimitiveLongIterable> hugeBatchIterables(final int batchSize) {
+        return first.hugeBatchIterables(batchSize);
+    }
+
+    @Override
+    public void forEachNode(LongPredicate consumer) {
+        first.forEachNode(consumer);
+    }
+
+    @Override
+    public PrimitiveLongIterator hugeNodeIterator() {
+        return first.hugeNodeIterator();
+    }
+
+    @Override
+    public long toHugeMappedNodeId(long nodeId) {
+        return first.toHugeMappedNodeId(nodeId);
+    }
+
+    @Override
+    public long toOriginalNodeId(long nodeId) {
+        return first.toOriginalNodeId(nodeId);
+    }
+
+    @Override
+    public boolean contains(final long nodeId) {
+        return first.contains(nodeId);
+    }
+
+    @Override
+    public Set<String> nodePropertyKeys() {
+        return first.nodePropertyKeys();
+    }
+
+    @Override
+    public OfDouble doubleNodeProperty(final String name) {
+        return first.doubleNodeProperty(name);
+    }
+
+    @Override
+    public OfLong longNodeProperty(final String name) {
+        return first.longNodeProperty(name);
+    }
+
+    @Override
+    public double weightOf(final long sourceNodeId, final long targetNodeId) {
+        for (HugeGraphImpl graph : typeGraphs) {
+            double weight = graph.weightOf(sourceNodeId, targetNodeId);
+            if (weight != defaultWeight) {
+                return weight;
+            }
+        }
+        return defaultWeight;
+    }
+
+    @Override
+    public int degree(final long node, final Direction direction) {
+        int degree = 0;
+        for (HugeGraphImpl graph : typeGraphs) {
+            degree += graph.degree(node, direction);
+        }
+        return degree;
+    }
+
+    @Override
+    public void forEachRelationship(
+            long nodeId,
+            Direction direction,
+            HugeRelationshipConsumer consumer) {
+        for (HugeGraphImpl graph : typeGraphs) {
+            graph.forEachRelationship(nodeId, direction, consumer);
+        }
+    }
+
+    @Override
+    public void forEachIncoming(final long node, final HugeRelationshipConsumer consumer) {
+        forEachRelationship(node, Direction.INCOMING, consumer);
+    }
+
+    @Override
+    public void forEachOutgoing(final long node, final HugeRelationshipConsumer consumer) {
+        forEachRelationship(node, Direction.OUTGOING, consumer);
+    }
+
+    @Override
+    public void forEachRelationship(
+            int nodeId,
+            Direction direction,
+            RelationshipConsumer consumer) {
+        for (HugeGraphImpl graph : typeGraphs) {
+            graph.forEachRelationship(nodeId, direction, consumer);
+        }
+    }
+
+    @Override
+    public void forEachIncoming(int nodeId, RelationshipConsumer consumer) {
+        for (HugeGraphImpl graph : typeGraphs) {
+            graph.forEachIncoming(nodeId, consumer);
+        }
+    }
+
+    @Override
+    public void forEachOutgoing(int nodeId, RelationshipConsumer consumer) {
+        for (HugeGraphImpl graph : typeGraphs) {
+            graph.forEachOutgoing(nodeId, consumer);
+        }
+    }
+
+    @Override
+    public void forEachRelationship(
+            int nodeId,
+            Direction direction,
+            WeightedRelationshipConsumer consumer) {
+        for (HugeGraphImpl graph : typeGraphs) {
+            graph.forEachRelationship(nodeId, direction, consumer);
+        }
+    }
+
+    @Override
+    public boolean exists(long sourceNodeId, long targetNodeId, Direction direction) {
+        for (HugeGraphImpl graph : typeGraphs) {
+            if (graph.exists(sourceNodeId, targetNodeId, direction)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean exists(int sourceNodeId, int targetNodeId, Direction direction) {
+        return exists((long) sourceNodeId, (long) targetNodeId, direction);
+    }
+
+    @Override
+    public HugeGraph concurrentCopy() {
+        Map<String, HugeGraphImpl> copies = new LinkedHashMap<>();
+        graphs.forEach((type, graph) -> {
+            HugeGraphImpl copy = (HugeGraphImpl) graph.concurrentCopy();
+            copy.canRelease(false);
+            copies.put(type, copy);
+        });
+        return new HugeMultiTypeGraph(tracker, copies, nodeProperties, defaultWeight, isView);
+    }
+
+    @Override
+    public HugeRelationshipIntersect intersectionCopy() {
+        throw new UnsupportedOperationException(
+                "The adjacency is not sorted across relationship types, select a single type of " + graphs.keySet());
+    }
+
+    @Override
+    public void canRelease(boolean canRelease) {
+        this.canRelease = canRelease;
+    }
+
+    @Override
+    public void release() {
+        if (!canRelease || isView || released) return;
+        for (HugeGraphImpl graph : typeGraphs) {
+            graph.releaseRelationships();
+        }
+        if (nodeProperties != null) {
+            tracker.remove(nodeProperties.release());
+        }
+        nodeProperties = null;
+        released = true;
+    }
+}
@@ -0,0 +1,493 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterable;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.graphalgo.api.HugeAdjacencyCursor;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+import org.neo4j.graphalgo.api.HugeRelationshipIntersect;
+import org.neo4j.graphalgo.api.HugeRelationshipIterator;
+import org.neo4j.graphalgo.api.IntersectionConsumer;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.WeightedRelationshipConsumer;
+import org.neo4j.graphalgo.core.utils.LazyBatchCollection;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.IntArray;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * A view on a {@link HugeGraph} that only contains the nodes accepted by a filter
+ * and the relationships between them, e.g. the k-core of a graph.
+ * <p>
+ * The remaining nodes get new, dense ids in the order of their ids in the
+ * underlying graph. That keeps the adjacency lists sorted, so the view supports
+ * {@link #intersectionCopy()} and every algorithm that runs on a HugeGraph can run
+ * on the view without reloading the graph. The view only stores the id mapping
+ * in both directions and the filtered degrees, the adjacency is read from the
+ * underlying graph and filtered on the fly.
+ * <p>
+ * The view owns the underlying graph, releasing the view also releases the graph.
+ */
+public final class HugeNodeFilteredGraph implements HugeGraph {
+
+    private HugeGraph graph;
+    private final HugeRelationshipIterator relationships;
+    private final Direction loadDirection;
+    private final long nodeCount;
+    private final AllocationTracker tracker;
+
+    private LongArray toGraph;
+    private LongArray fromGraph;
+    private IntArray inDegrees;
+    private IntArray outDegrees;
+    private boolean canRelease = true;
+
+    public static MemoryRange memoryEstimation(long graphNodeCount, long nodeCount, Direction direction) {
+        MemoryRange degrees = MemoryRange.of(IntArray.estimateMemoryUsage(nodeCount));
+        return MemoryRange.of(LongArray.estimateMemoryUsage(graphNodeCount))
+                .add(LongArray.estimateMemoryUsage(nodeCount))
+                .add(direction == Direction.BOTH ? degrees.times(2) : degrees);
+    }
+
+    /**
+     * Creates a view on all nodes of the graph that are accepted by the filter.
+     *
+     * @param loadDirection the direction(s) the graph has been loaded with,
+     *                      OUTGOING for graphs that have been loaded undirected.
+     */
+    public static HugeNodeFilteredGraph of(
+            HugeGraph graph,
+            LongPredicate filter,
+            Direction loadDirection,
+            AllocationTracker tracker) {
+        final long graphNodeCount = graph.nodeCount();
+        final LongArray fromGraph = LongArray.newArray(graphNodeCount, tracker);
+        long nodeCount = 0L;
+        for (long node = 0L; node < graphNodeCount; node++) {
+            fromGraph.set(node, filter.test(node) ? nodeCount++ : -1L);
+        }
+
+        final LongArray toGraph = LongArray.newArray(nodeCount, tracker);
+        for (long node = 0L; node < graphNodeCount; node++) {
+            final long mapped = fromGraph.get(node);
+            if (mapped != -1L) {
+                toGraph.set(mapped, node);
+            }
+        }
+
+        IntArray inDegrees = null;
+        IntArray outDegrees = null;
+        if (loadDirection != Direction.OUTGOING) {
+            inDegrees = degrees(graph, Direction.INCOMING, toGraph, fromGraph, nodeCount, tracker);
+        }
+        if (loadDirection != Direction.INCOMING) {
+            outDegrees = degrees(graph, Direction.OUTGOING, toGraph, fromGraph, nodeCount, tracker);
+        }
+
+        return new HugeNodeFilteredGraph(
+                graph,
+                graph,
+                loadDirection,
+                nodeCount,
+                toGraph,
+                fromGraph,
+                inDegrees,
+                outDegrees,
+                tracker);
+    }
+
+    private static IntArray degrees(
+            HugeGraph graph,
+            Direction direction,
+            LongArray toGraph,
+            LongArray fromGraph,
+            long nodeCount,
+            AllocationTracker tracker) {
+        final IntArray degrees = IntArray.newArray(nodeCount, tracker);
+        final int[] degree = {0};
+        for (long node = 0L; node < nodeCount; node++) {
+            degree[0] = 0;
+            graph.forEachRelationship(toGraph.get(node), direction, (s, t) -> {
+                if (fromGraph.get(t) != -1L) {
+                    degree[0]++;
+                }
+                return true;
+            });
+            degrees.set(node, degree[0]);
+        }
+        return degrees;
+    }
+
+    private HugeNodeFilteredGraph(
+            HugeGraph graph,
+            HugeRelationshipIterator relationships,
+            Direction loadDirection,
+            long nodeCount,
+            LongArray toGraph,
+            LongArray fromGraph,
+            IntArray inDegrees,
+            IntArray outDegrees,
+            AllocationTracker tracker) {
+        this.graph = graph;
+        this.relationships = relationships;
+        this.loadDirection = loadDirection;
+        this.nodeCount = nodeCount;
+        this.toGraph = toGraph;
+        this.fromGraph = fromGraph;
+        this.inDegrees = inDegrees;
+        this.outDegrees = outDegrees;
+        this.tracker = tracker;
+    }
+
+    /**
+     * @return the id of the node in the underlying graph
+     */
+    public long toGraphNodeId(long nodeId) {
+        return toGraph.get(nodeId);
+    }
+
+    /**
+     * @return the id of a node of the underlying graph in this view or -1 if the node has been filtered
+     */
+    public long fromGraphNodeId(long graphNodeId) {
+        return fromGraph.get(graphNodeId);
+    }
+
+    @Override
+    public long nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public Collection<PrimitiveLongIterable> hugeBatchIterables(final int batchSize) {
+        return LazyBatchCollection.of(
+                nodeCount,
+                batchSize,
+                HugeIdMap.IdIterable::new);
+    }
+
+    @Override
+    public void forEachNode(LongPredicate consumer) {
+        for (long node = 0L; node < nodeCount; node++) {
+            if (!consumer.test(node)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public PrimitiveLongIterator hugeNodeIterator() {
+        return new HugeIdMap.IdIterator(nodeCount);
+    }
+
+    @Override
+    public long toHugeMappedNodeId(long nodeId) {
+        final long graphNodeId = graph.toHugeMappedNodeId(nodeId);
+        return graphNodeId == -1L ? -1L : fromGraph.get(graphNodeId);
+    }
+
+    @Override
+    public long toOriginalNodeId(long nodeId) {
+        return graph.toOriginalNodeId(toGraph.get(nodeId));
+    }
+
+    @Override
+    public boolean contains(final long nodeId) {
+        return graph.contains(nodeId) && toHugeMappedNodeId(nodeId) != -1L;
+    }
+
+    @Override
+    public Set<String> nodePropertyKeys() {
+        return graph.nodePropertyKeys();
+    }
+
+    @Override
+    public OfDouble doubleNodeProperty(final String name) {
+        final OfDouble property = graph.doubleNodeProperty(name);
+        return property == null ? null : node -> property.get(toGraph.get(node));
+    }
+
+    @Override
+    public OfLong longNodeProperty(final String name) {
+        final OfLong property = graph.longNodeProperty(name);
+        return property == null ? null : node -> property.get(toGraph.get(node));
+    }
+
+    @Override
+    public double weightOf(final long sourceNodeId, final long targetNodeId) {
+        return graph.weightOf(toGraph.get(sourceNodeId), toGraph.get(targetNodeId));
+    }
+
+    @Override
+    public int degree(final long node, final Direction direction) {
+        switch (direction) {
+            case INCOMING:
+                return inDegrees.get(node);
+
+            case OUTGOING:
+                return outDegrees.get(node);
+
+            case BOTH:
+                return inDegrees.get(node) + outDegrees.get(node);
+
+            default:
+                throw new IllegalArgumentException(direction + "");
+        }
+    }
+
+    @Override
+    public void forEachRelationship(
+            long nodeId,
+            Direction direction,
+            HugeRelationshipConsumer consumer) {
+        final LongArray fromGraph = this.fromGraph;
+        relationships.forEachRelationship(toGraph.get(nodeId), direction, (s, t) -> {
+            final long target = fromGraph.get(t);
+            return target == -1L || consumer.accept(nodeId, target);
+        });
+    }
+
+    @Override
+    public void forEachIncoming(final long node, final HugeRelationshipConsumer consumer) {
+        forEachRelationship(node, Direction.INCOMING, consumer);
+    }
+
+    @Override
+    public void forEachOutgoing(final long node, final HugeRelationshipConsumer consumer) {
+        forEachRelationship(node, Direction.OUTGOING, consumer);
+    }
+
+    @Override
+    public void forEachRelationship(
+            int nodeId,
+            Direction direction,
+            RelationshipConsumer consumer) {
+        switch (direction) {
+            case INCOMING:
+                forEachIncoming(nodeId, consumer);
+                return;
+
+            case OUTGOING:
+                forEachOutgoing(nodeId, consumer);
+                return;
+
+            case BOTH:
+                forEachIncoming(nodeId, consumer);
+                forEachOutgoing(nodeId, consumer);
+                return;
+
+            default:
+                throw new IllegalArgumentException(direction + "");
+        }
+    }
+
+    @Override
+    public void forEachIncoming(int nodeId, RelationshipConsumer consumer) {
+        forEachRelationship((long) nodeId, Direction.INCOMING, (s, t) -> consumer.accept(
+                (int) s,
+                (int) t,
+                RawValues.combineIntInt((int) t, (int) s)));
+    }
+
+    @Override
+    public void forEachOutgoing(int nodeId, RelationshipConsumer consumer) {
+        forEachRelationship((long) nodeId, Direction.OUTGOING, (s, t) -> consumer.accept(
+                (int) s,
+                (int) t,
+                RawValues.combineIntInt((int) s, (int) t)));
+    }
+
+    @Override
+    public void forEachRelationship(
+            int nodeId,
+            Direction direction,
+            WeightedRelationshipConsumer consumer) {
+        RelationshipConsumer nonWeighted = (s, t, relId) -> consumer.accept(
+                s,
+                t,
+                RawValues.combineIntInt(direction, s, t),
+                weightOf((long) s, (long) t));
+        forEachRelationship(nodeId, direction, nonWeighted);
+    }
+
+    @Override
+    public boolean exists(long sourceNodeId, long targetNodeId, Direction direction) {
+        return graph.exists(toGraph.get(sourceNodeId), toGraph.get(targetNodeId), direction);
+    }
+
+    @Override
+    public boolean exists(int sourceNodeId, int targetNodeId, Direction direction) {
+        return exists((long) sourceNodeId, (long) targetNodeId, direction);
+    }
+
+    @Override
+    public HugeGraph concurrentCopy() {
+        return new HugeNodeFilteredGraph(
+                graph,
+                graph.concurrentCopy(),
+                loadDirection,
+                nodeCount,
+                toGraph,
+                fromGraph,
+                inDegrees,
+                outDegrees,
+                tracker);
+    }
+
+    @Override
+    public HugeRelationshipIntersect intersectionCopy() {
+        return new FilteredIntersect(graph.intersectionCopy());
+    }
+
+    @Override
+    public HugeAdjacencyCursor adjacencyCursor(final Direction direction) {
+        return new FilteredAdjacencyCursor(relationships.adjacencyCursor(direction), direction);
+    }
+
+    @Override
+    public void canRelease(boolean canRelease) {
+        this.canRelease = canRelease;
+    }
+
+    @Override
+    public void release() {
+        if (!canRelease || graph == null) return;
+        tracker.remove(toGraph.release());
+        tracker.remove(fromGraph.release());
+        if (inDegrees != null) {
+            tracker.remove(inDegrees.release());
+        }
+        if (outDegrees != null) {
+            tracker.remove(outDegrees.release());
+        }
+        graph.release();
+        graph = null;
+        toGraph = null;
+        fromGraph = null;
+        inDegrees = null;
+        outDegrees = null;
+    }
+
+    /**
+     * Reads blocks from a cursor of the underlying graph and removes the filtered targets in place.
+     */
+    private final class FilteredAdjacencyCursor implements HugeAdjacencyCursor {
+
+        private final HugeAdjacencyCursor cursor;
+        private final Direction direction;
+
+        private FilteredAdjacencyCursor(HugeAdjacencyCursor cursor, Direction direction) {
+            this.cursor = cursor;
+            this.direction = direction;
+        }
+
+        @Override
+        public int init(final long nodeId) {
+            cursor.init(toGraph.get(nodeId));
+            return degree(nodeId, direction);
+        }
+
+        @Override
+        public int nextTargets(final long[] targets) {
+            final LongArray fromGraph = HugeNodeFilteredGraph.this.fromGraph;
+            int length;
+            while ((length = cursor.nextTargets(targets)) > 0) {
+                int kept = 0;
+                for (int i = 0; i < length; i++) {
+                    final long target = fromGraph.get(targets[i]);
+                    if (target != -1L) {
+                        targets[kept++] = target;
+                    }
+                }
+                if (kept > 0) {
+                    return kept;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public int nextTargets(final long[] targets, final double[] weights) {
+            final LongArray fromGraph = HugeNodeFilteredGraph.this.fromGraph;
+            int length;
+            while ((length = cursor.nextTargets(targets, weights)) > 0) {
+                int kept = 0;
+                for (int i = 0; i < length; i++) {
+                    final long target = fromGraph.get(targets[i]);
+                    if (target != -1L) {
+                        weights[kept] = weights[i];
+                        targets[kept++] = target;
+                    }
+                }
+                if (kept > 0) {
+                    return kept;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Intersects the adjacency of the underlying graph and skips all triangles with a filtered node.
+     * Since the mapping keeps the order of the ids, the triangles are still reported as {@code a < b < c}.
+     */
+    private final class FilteredIntersect implements HugeRelationshipIntersect {
+
+        private final HugeRelationshipIntersect intersect;
+
+        private FilteredIntersect(HugeRelationshipIntersect intersect) {
+            this.intersect = intersect;
+        }
+
+        @Override
+        public int degree(long nodeId) {
+            return outDegrees.get(nodeId);
+        }
+
+        @Override
+        public void forEachRelationship(long nodeId, HugeRelationshipConsumer consumer) {
+            final LongArray fromGraph = HugeNodeFilteredGraph.this.fromGraph;
+            intersect.forEachRelationship(toGraph.get(nodeId), (s, t) -> {
+                final long target = fromGraph.get(t);
+                return target == -1L || consumer.accept(nodeId, target);
+            });
+        }
+
+        @Override
+        public void intersectAll(long nodeIdA, IntersectionConsumer consumer) {
+            final LongArray fromGraph = HugeNodeFilteredGraph.this.fromGraph;
+            intersect.intersectAll(toGraph.get(nodeIdA), (a, b, c) -> {
+                final long nodeIdB = fromGraph.get(b);
+                final long nodeIdC;
+                if (nodeIdB != -1L && (nodeIdC = fromGraph.get(c)) != -1L) {
+                    consumer.accept(nodeIdA, nodeIdB, nodeIdC);
+                }
+            });
+        }
+    }
+}
@@ -20,33 +20,104 @@ package org.neo4j.graphalgo.core.huge;
 
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphalgo.core.utils.ImportProgress;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.StatementTask;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.SparseLongArray;
 import org.neo4j.kernel.api.ReadOperations;
 import org.neo4j.kernel.api.Statement;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the {@link HugeIdMap} and loads the node properties.
+ * <p>
+ * With an executor, the node id space is scanned in parallel. It is cut into
+ * ranges that are aligned to the pages of the {@link SparseLongArray}, so that
+ * every page of the reverse mapping is only written by one thread. The ranges
+ * are processed in waves: every thread collects the node ids of the ranges it
+ * takes into a local buffer, a prefix sum over the buffer sizes assigns the
+ * mapped ids, and then all ranges of the wave are written in parallel.
+ * The mapped ids follow the order of the Neo4j ids, independent of the
+ * number of threads, just as they do for the sequential scan.
+ * <p>
+ * Nodes that are created while the import is running can exceed the node count
+ * and the highest id that the structures have been sized for. They are skipped
+ * and only reported in the log, as they are not part of the counted graph.
+ * <p>
+ * If only a small fraction of all nodes has the label to load,
+ * reading the label index in a single thread is cheaper than checking
+ * every node, so the sequential scan is used instead.
+ */
 public final class HugeNodeImporter extends StatementTask<HugeIdMap, EntityNotFoundException> {
+
+    // must be a multiple of the page size of the SparseLongArray
+    private static final int RANGE_SIZE = HugeIdMap.PAGE_SIZE << 2;
+    private static final int RANGES_PER_THREAD = 16;
+    // scan all nodes for a label if at least 1 in 8 nodes has that label
+    private static final int LABEL_SELECTIVITY_SHIFT = 3;
+
+    private final GraphDatabaseAPI api;
+    private final ExecutorService threadPool;
+    private final int concurrency;
     private final AllocationTracker tracker;
     private final ImportProgress progress;
     private final long nodeCount;
     private final long allNodesCount;
     private final int labelId;
+    private final HugeNodePropertyMap properties;
+    private final Log log;
 
     public HugeNodeImporter(
             GraphDatabaseAPI api,
+            Log log,
             AllocationTracker tracker,
             ImportProgress progress,
             long nodeCount,
             long allNodesCount,
             int labelId) {
+        this(api, log, null, 1, tracker, progress, nodeCount, allNodesCount, labelId, HugeNodePropertyMap.EMPTY);
+    }
+
+    public HugeNodeImporter(
+            GraphDatabaseAPI api,
+            Log log,
+            ExecutorService threadPool,
+            int concurrency,
+            AllocationTracker tracker,
+            ImportProgress progress,
+            long nodeCount,
+            long allNodesCount,
+            int labelId,
+            HugeNodePropertyMap properties) {
         super(api);
+        this.api = api;
+        this.threadPool = threadPool;
+        this.concurrency = concurrency;
         this.tracker = tracker;
         this.progress = progress;
         this.nodeCount = nodeCount;
         this.allNodesCount = allNodesCount;
         this.labelId = labelId;
+        this.properties = properties;
+        this.log = log;
+    }
+
+    @Override
+    public HugeIdMap call() throws EntityNotFoundException {
+        if (!scansInParallel()) {
+            return super.call();
+        }
+        HugeIdMap mapping = importInParallel();
+        progress.resetForRelationships();
+        return mapping;
     }
 
     @Override
@@ -56,11 +127,172 @@ public final class HugeNodeImporter extends StatementTask<HugeIdMap, EntityNotFo
         final PrimitiveLongIterator nodeIds = labelId == ReadOperations.ANY_LABEL
                 ? readOp.nodesGetAll()
                 : readOp.nodesGetForLabel(labelId);
+        final boolean loadProperties = !properties.isEmpty();
+        long skipped = 0L;
         while (nodeIds.hasNext()) {
-            mapping.add(nodeIds.next());
+            final long neoId = nodeIds.next();
+            if (mapping.nodeCount() >= nodeCount || neoId >= allNodesCount) {
+                ++skipped;
+                continue;
+            }
+            final long nodeId = mapping.add(neoId);
+            if (loadProperties) {
+                properties.load(readOp, neoId, nodeId);
+            }
             progress.nodeProgress();
         }
+        logSkipped(skipped);
         progress.resetForRelationships();
         return mapping;
     }
+
+    private void logSkipped(long skipped) {
+        if (skipped > 0L) {
+            log.warn("Skipped %d nodes that were created while the graph was loading", skipped);
+        }
+    }
+
+    private boolean scansInParallel() {
+        return concurrency > 1
+                && ParallelUtil.canRunInParallel(threadPool)
+                && allNodesCount > RANGE_SIZE
+                && (labelId == ReadOperations.ANY_LABEL || nodeCount >= allNodesCount >>> LABEL_SELECTIVITY_SHIFT);
+    }
+
+    private HugeIdMap importInParallel() {
+        LongArray graphIds = LongArray.newArray(nodeCount, tracker);
+        SparseLongArray nodeToGraphIds = SparseLongArray.newArray(allNodesCount, tracker);
+
+        int rangeCount = Math.toIntExact(ParallelUtil.threadSize(RANGE_SIZE, allNodesCount));
+        int waveSize = Math.min(rangeCount, concurrency * RANGES_PER_THREAD);
+        long[][] buffers = new long[waveSize][];
+        int[] lengths = new int[waveSize];
+        long[] offsets = new long[waveSize];
+
+        long nextGraphId = 0L;
+        long skipped = 0L;
+        for (int waveStart = 0; waveStart < rangeCount; waveStart += waveSize) {
+            int ranges = Math.min(waveSize, rangeCount - waveStart);
+            AtomicInteger queue = new AtomicInteger();
+            List<ScanTask> scans = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                scans.add(new ScanTask(waveStart, ranges, queue, buffers, lengths));
+            }
+            ParallelUtil.run(scans, threadPool);
+
+            for (int i = 0; i < ranges; i++) {
+                // keep the ids that fit, the highest ones are skipped
+                int length = (int) Math.min(lengths[i], nodeCount - nextGraphId);
+                skipped += lengths[i] - length;
+                lengths[i] = length;
+                offsets[i] = nextGraphId;
+                nextGraphId += length;
+            }
+
+            queue.set(0);
+            List<WriteTask> writes = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                writes.add(new WriteTask(ranges, queue, buffers, lengths, offsets, graphIds, nodeToGraphIds));
+            }
+            ParallelUtil.run(writes, threadPool);
+        }
+
+        logSkipped(skipped);
+        return new HugeIdMap(nextGraphId, graphIds, nodeToGraphIds);
+    }
+
+    private final class ScanTask extends StatementTask<Void, EntityNotFoundException> {
+        private final int waveStart;
+        private final int ranges;
+        private final AtomicInteger queue;
+        private final long[][] buffers;
+        private final int[] lengths;
+
+        private ScanTask(
+                int waveStart,
+                int ranges,
+                AtomicInteger queue,
+                long[][] buffers,
+                int[] lengths) {
+            super(api);
+            this.waveStart = waveStart;
+            this.ranges = ranges;
+            this.queue = queue;
+            this.buffers = buffers;
+            this.lengths = lengths;
+        }
+
+        @Override
+        public Void apply(final Statement statement) throws EntityNotFoundException {
+            ReadOperations readOp = statement.readOperations();
+            boolean anyLabel = labelId == ReadOperations.ANY_LABEL;
+            int index;
+            while ((index = queue.getAndIncrement()) < ranges) {
+                long start = (long) (waveStart + index) * RANGE_SIZE;
+                long end = Math.min(start + RANGE_SIZE, allNodesCount);
+                long[] buffer = buffers[index];
+                if (buffer == null) {
+                    buffer = buffers[index] = new long[RANGE_SIZE];
+                }
+                int length = 0;
+                for (long neoId = start; neoId < end; neoId++) {
+                    if (readOp.nodeExists(neoId) && (anyLabel || readOp.nodeHasLabel(neoId, labelId))) {
+                        buffer[length++] = neoId;
+                    }
+                }
+                lengths[index] = length;
+            }
+            return null;
+        }
+    }
+
+    private final class WriteTask extends StatementTask<Void, EntityNotFoundException> {
+        private final int ranges;
+        private final AtomicInteger queue;
+        private final long[][] buffers;
+        private final int[] lengths;
+        private final long[] offsets;
+        private final LongArray graphIds;
+        private final SparseLongArray nodeToGraphIds;
+
+        private WriteTask(
+                int ranges,
+                AtomicInteger queue,
+                long[][] buffers,
+                int[] lengths,
+                long[] offsets,
+                LongArray graphIds,
+                SparseLongArray nodeToGraphIds) {
+            super(api);
+            this.ranges = ranges;
+            this.queue = queue;
+            this.buffers = buffers;
+            this.lengths = lengths;
+            this.offsets = offsets;
+            this.graphIds = graphIds;
+            this.nodeToGraphIds = nodeToGraphIds;
+        }
+
+        @Override
+        public Void apply(final Statement statement) throws EntityNotFoundException {
+            ReadOperations readOp = statement.readOperations();
+            boolean loadProperties = !properties.isEmpty();
+            int index;
+            while ((index = queue.getAndIncrement()) < ranges) {
+                long[] buffer = buffers[index];
+                int length = lengths[index];
+                long nodeId = offsets[index];
+                for (int i = 0; i < length; i++, nodeId++) {
+                    long neoId = buffer[i];
+                    graphIds.set(nodeId, neoId);
+                    nodeToGraphIds.set(neoId, nodeId);
+                    if (loadProperties) {
+                        properties.load(readOp, neoId, nodeId);
+                    }
+                    progress.nodeProgress();
+                }
+            }
+            return null;
+        }
+    }
 }
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.api.HugeNodeProperties;
+import org.neo4j.graphalgo.api.PropertyMapping;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.StatementConstants;
+import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stores every loaded node property in its own paged column, either a
+ * {@link DoubleArray} or a {@link LongArray}, that is indexed by the mapped node id.
+ * Long columns never convert their values to double, so that ids and other
+ * values above 2^53 are kept exactly.
+ * The columns are pre-filled with the default value of their mapping and
+ * are written once during the node import, see {@link HugeNodeImporter}.
+ */
+public final class HugeNodePropertyMap implements HugeNodeProperties {
+
+    static final HugeNodePropertyMap EMPTY = new HugeNodePropertyMap(
+            new PropertyMapping[0],
+            new int[0],
+            new DoubleArray[0],
+            new LongArray[0]);
+
+    private final PropertyMapping[] mappings;
+    private final int[] propertyKeyIds;
+    private final DoubleArray[] doubleColumns;
+    private final LongArray[] longColumns;
+    private final Map<String, Integer> columnIndex;
+
+    static MemoryRange memoryEstimation(long nodeCount, PropertyMapping[] mappings) {
+        long memory = 0L;
+        for (PropertyMapping mapping : mappings) {
+            memory += mapping.type == PropertyMapping.Type.LONG
+                    ? LongArray.estimateMemoryUsage(nodeCount)
+                    : DoubleArray.estimateMemoryUsage(nodeCount);
+        }
+        return MemoryRange.of(memory);
+    }
+
+    /**
+     * Allocates one column per mapping.
+     *
+     * @param propertyKeyIds the resolved property key of every mapping, or
+     *                       {@link StatementConstants#NO_SUCH_PROPERTY_KEY} if the key does not exist
+     */
+    static HugeNodePropertyMap allocate(
+            PropertyMapping[] mappings,
+            int[] propertyKeyIds,
+            long nodeCount,
+            AllocationTracker tracker) {
+        if (mappings.length == 0) {
+            return EMPTY;
+        }
+        DoubleArray[] doubleColumns = new DoubleArray[mappings.length];
+        LongArray[] longColumns = new LongArray[mappings.length];
+        for (int i = 0; i < mappings.length; i++) {
+            PropertyMapping mapping = mappings[i];
+            if (mapping.type == PropertyMapping.Type.LONG) {
+                longColumns[i] = LongArray.newArray(nodeCount, tracker);
+                longColumns[i].fill(mapping.longDefaultValue);
+            } else {
+                doubleColumns[i] = DoubleArray.newArray(nodeCount, tracker);
+                doubleColumns[i].fill(mapping.defaultValue);
+            }
+        }
+        return new HugeNodePropertyMap(mappings, propertyKeyIds, doubleColumns, longColumns);
+    }
+
+    private HugeNodePropertyMap(
+            PropertyMapping[] mappings,
+            int[] propertyKeyIds,
+            DoubleArray[] doubleColumns,
+            LongArray[] longColumns) {
+        this.mappings = mappings;
+        this.propertyKeyIds = propertyKeyIds;
+        this.doubleColumns = doubleColumns;
+        this.longColumns = longColumns;
+        Map<String, Integer> columnIndex = new LinkedHashMap<>();
+        for (int i = 0; i < mappings.length; i++) {
+            if (columnIndex.put(mappings[i].name, i) != null) {
+                throw new IllegalArgumentException("Duplicate node property: " + mappings[i].name);
+            }
+        }
+        this.columnIndex = columnIndex;
+    }
+
+    /**
+     * Reads all properties of the Neo4j node {@code neoId} into the row {@code nodeId}.
+     */
+    void load(ReadOperations readOp, long neoId, long nodeId) throws EntityNotFoundException {
+        for (int i = 0; i < mappings.length; i++) {
+            int propertyKeyId = propertyKeyIds[i];
+            if (propertyKeyId == StatementConstants.NO_SUCH_PROPERTY_KEY) {
+                continue;
+            }
+            Object value = readOp.nodeGetProperty(neoId, propertyKeyId);
+            if (value == null) {
+                continue;
+            }
+            if (longColumns[i] != null) {
+                longColumns[i].set(nodeId, RawValues.extractLongValue(value, mappings[i].longDefaultValue));
+            } else {
+                doubleColumns[i].set(nodeId, RawValues.extractValue(value, mappings[i].defaultValue));
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return mappings.length == 0;
+    }
+
+    @Override
+    public Set<String> nodePropertyKeys() {
+        return Collections.unmodifiableSet(columnIndex.keySet());
+    }
+
+    @Override
+    public OfDouble doubleNodeProperty(String name) {
+        DoubleArray column = doubleColumns[column(name, PropertyMapping.Type.DOUBLE)];
+        return column::get;
+    }
+
+    @Override
+    public OfLong longNodeProperty(String name) {
+        LongArray column = longColumns[column(name, PropertyMapping.Type.LONG)];
+        return column::get;
+    }
+
+    long release() {
+        long released = 0L;
+        for (int i = 0; i < mappings.length; i++) {
+            if (doubleColumns[i] != null) {
+                released += doubleColumns[i].release();
+                doubleColumns[i] = null;
+            }
+            if (longColumns[i] != null) {
+                released += longColumns[i].release();
+                longColumns[i] = null;
+            }
+        }
+        return released;
+    }
+
+    private int column(String name, PropertyMapping.Type type) {
+        Integer index = columnIndex.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("Node property " + name + " has not been loaded, available properties are " + columnIndex.keySet());
+        }
+        if (mappings[index].type != type) {
+            throw new IllegalArgumentException("Node property " + name + " has been loaded as " + mappings[index].type + ", not as " + type);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,768 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.neo4j.graphalgo.api.HugeWeightMapping;
+import org.neo4j.graphalgo.core.HugeWeightMap;
+import org.neo4j.graphalgo.core.RelationshipAggregation;
+import org.neo4j.graphalgo.core.utils.ImportProgress;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.StatementTask;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.ByteArray;
+import org.neo4j.graphalgo.core.utils.paged.DeltaEncoding;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.Statement;
+import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
+import org.neo4j.kernel.impl.api.RelationshipVisitor;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports relationships by scanning the relationship store once, instead of
+ * reading the relationships of every node, which reads every relationship
+ * twice when both directions are loaded.
+ * <p>
+ * The import runs in two phases:
+ * <ol>
+ * <li>The relationship id space is scanned in parallel. Every thread buffers
+ * the relationships it finds in local buckets, one per node partition,
+ * grouped by source node for the outgoing and by target node for the
+ * incoming adjacency.</li>
+ * <li>Every node partition is then built by a single thread, which collects
+ * the buckets of all scanning threads for that partition, sorts the targets
+ * per node and writes the compressed adjacency. Weights are written in that
+ * phase as well, so every weight map entry is only written from one thread.</li>
+ * </ol>
+ * The buffers hold every relationship once per loaded direction until its
+ * partition is built, which is memory that the node-by-node import does not need.
+ * Importing in several passes would scan the whole store once per pass, so the
+ * scan is only used if the buffers of a single pass fit into the heap that is
+ * available, see {@link #passes(long, int, boolean, long)}. Otherwise the
+ * relationships are read node by node.
+ * <p>
+ * Several relationship types can be loaded into separate adjacencies with a single scan.
+ * Every relationship is buffered in the buckets of its type and every type is built
+ * into its own offsets, adjacency and weights.
+ */
+final class ScanningRelationshipImporter {
+
+    // more partitions than threads, so that threads which finish early can take over
+    private static final int PARTITIONS_PER_THREAD = 4;
+    // partitions are sized for this many relationships, if they are evenly spread
+    private static final long MAX_RELATIONSHIPS_PER_PARTITION = 1L << 26;
+    // partitions with more relationships, e.g. with hub nodes, are built in chunks of nodes
+    private static final int MAX_RELATIONSHIPS_PER_CHUNK = 1 << 26;
+    private static final long RELATIONSHIP_BATCH_SIZE = ParallelUtil.DEFAULT_BATCH_SIZE;
+    // the buffers may take this share of the available heap, the adjacency is allocated while they are held
+    private static final int AVAILABLE_MEMORY_SHARE = 4;
+
+    private final GraphDatabaseAPI api;
+    private final ExecutorService threadPool;
+    private final int concurrency;
+    private final ImportProgress progress;
+    private final TerminationFlag terminationFlag;
+    private final HugeIdMap idMap;
+    private final int[] relationId;
+    private final int typeCount;
+    private final int weightId;
+    private final HugeWeightMap[] weights;
+    private final boolean withWeights;
+    private final double defaultWeight;
+    private final RelationshipAggregation aggregation;
+    private final long highestRelationshipId;
+    private final long partitionSize;
+    private final int partitionCount;
+
+    ScanningRelationshipImporter(
+            GraphDatabaseAPI api,
+            ExecutorService threadPool,
+            int concurrency,
+            ImportProgress progress,
+            TerminationFlag terminationFlag,
+            HugeIdMap idMap,
+            int[] relationId,
+            int weightId,
+            HugeWeightMapping[] weights,
+            RelationshipAggregation aggregation,
+            long highestRelationshipId,
+            long relationshipCount) {
+        this.api = api;
+        this.threadPool = threadPool;
+        this.concurrency = Math.max(1, concurrency);
+        this.progress = progress;
+        this.terminationFlag = terminationFlag;
+        this.idMap = idMap;
+        this.relationId = relationId;
+        this.typeCount = relationId == null ? 1 : relationId.length;
+        this.weightId = weightId;
+        this.weights = new HugeWeightMap[typeCount];
+        Arrays.setAll(this.weights, i -> weights[i] instanceof HugeWeightMap ? (HugeWeightMap) weights[i] : null);
+        this.withWeights = this.weights[0] != null;
+        this.defaultWeight = withWeights ? this.weights[0].defaultValue() : 0.0;
+        this.aggregation = aggregation;
+        this.highestRelationshipId = highestRelationshipId;
+        long nodeCount = Math.max(1L, idMap.nodeCount());
+        long partitions = Math.max(
+                (long) this.concurrency * PARTITIONS_PER_THREAD,
+                ParallelUtil.threadSize(MAX_RELATIONSHIPS_PER_PARTITION, relationshipCount << 1));
+        this.partitionSize = ParallelUtil.threadSize(partitions, nodeCount);
+        this.partitionCount = (int) ParallelUtil.threadSize(partitionSize, nodeCount);
+    }
+
+    /**
+     * The memory held by the buffers, which hold every relationship once per direction.
+     */
+    static long bufferMemoryEstimation(long relationshipCount, int directions, boolean withWeights) {
+        int stride = withWeights ? 3 : 2;
+        return relationshipCount * directions * stride * Long.BYTES;
+    }
+
+    /**
+     * @return the number of store scans that are needed to keep the buffers within
+     * a quarter of the {@code availableMemory}. The importer only runs single scans,
+     * loads that need more passes are read node by node.
+     */
+    static long passes(long relationshipCount, int directions, boolean withWeights, long availableMemory) {
+        long budget = Math.max(1L, availableMemory / AVAILABLE_MEMORY_SHARE);
+        return ParallelUtil.threadSize(budget, bufferMemoryEstimation(relationshipCount, directions, withWeights));
+    }
+
+    /**
+     * Loads the outgoing and incoming adjacency, any of which can be {@code null}
+     * if that direction is not loaded.
+     */
+    void importRelationships(
+            LongArray outOffsets,
+            ByteArray outAdjacency,
+            LongArray inOffsets,
+            ByteArray inAdjacency) {
+        importRelationships(
+                outAdjacency == null ? null : new LongArray[]{outOffsets},
+                outAdjacency == null ? null : new ByteArray[]{outAdjacency},
+                inAdjacency == null ? null : new LongArray[]{inOffsets},
+                inAdjacency == null ? null : new ByteArray[]{inAdjacency},
+                false);
+    }
+
+    /**
+     * Loads the outgoing and incoming adjacency of every relationship type, at the same
+     * index as its id. The arrays of a direction are {@code null} if it is not loaded.
+     */
+    void importTypedRelationships(
+            LongArray[] outOffsets,
+            ByteArray[] outAdjacency,
+            LongArray[] inOffsets,
+            ByteArray[] inAdjacency) {
+        importRelationships(outOffsets, outAdjacency, inOffsets, inAdjacency, false);
+    }
+
+    /**
+     * Loads all relationships as undirected into a single adjacency.
+     */
+    void importUndirectedRelationships(LongArray offsets, ByteArray adjacency) {
+        importRelationships(new LongArray[]{offsets}, new ByteArray[]{adjacency}, null, null, true);
+    }
+
+    /**
+     * Loads the relationships of every type as undirected into its own adjacency,
+     * at the same index as its id.
+     */
+    void importUndirectedTypedRelationships(LongArray[] offsets, ByteArray[] adjacency) {
+        importRelationships(offsets, adjacency, null, null, true);
+    }
+
+    private void importRelationships(
+            LongArray[] outOffsets,
+            ByteArray[] outAdjacency,
+            LongArray[] inOffsets,
+            ByteArray[] inAdjacency,
+            boolean undirected) {
+        boolean bufferOutgoing = outAdjacency != null;
+        boolean bufferIncoming = inAdjacency != null || undirected;
+        importPartitions(
+                0,
+                partitionCount,
+                outOffsets,
+                outAdjacency,
+                inOffsets,
+                inAdjacency,
+                undirected,
+                bufferOutgoing,
+                bufferIncoming);
+    }
+
+    /**
+     * Scans all relationships, but only buffers and builds the partitions {@code [first, end)}.
+     */
+    private void importPartitions(
+            int first,
+            int end,
+            LongArray[] outOffsets,
+            ByteArray[] outAdjacency,
+            LongArray[] inOffsets,
+            ByteArray[] inAdjacency,
+            boolean undirected,
+            boolean bufferOutgoing,
+            boolean bufferIncoming) {
+        int stride = withWeights ? 3 : 2;
+        int partitions = end - first;
+        // the buckets of all types, ordered by type and then by partition
+        int buckets = typeCount * partitions;
+
+        AtomicLong relationshipQueue = new AtomicLong();
+        ScanTask[] scanTasks = new ScanTask[concurrency];
+        Arrays.setAll(scanTasks, i -> new ScanTask(
+                i,
+                relationshipQueue,
+                first,
+                end,
+                bufferOutgoing ? newBuckets(buckets, stride) : null,
+                bufferIncoming ? newBuckets(buckets, stride) : null));
+        ParallelUtil.run(Arrays.asList(scanTasks), threadPool, terminationFlag);
+
+        PairBuffer[][] outBuckets = bufferOutgoing ? new PairBuffer[concurrency][] : null;
+        PairBuffer[][] inBuckets = bufferIncoming ? new PairBuffer[concurrency][] : null;
+        for (int i = 0; i < concurrency; i++) {
+            if (outBuckets != null) {
+                outBuckets[i] = scanTasks[i].outBuckets;
+            }
+            if (inBuckets != null) {
+                inBuckets[i] = scanTasks[i].inBuckets;
+            }
+        }
+
+        AtomicLong partitionQueue = new AtomicLong(first);
+        BuildTask[] buildTasks = new BuildTask[concurrency];
+        Arrays.setAll(buildTasks, i -> new BuildTask(
+                partitionQueue,
+                first,
+                end,
+                outBuckets,
+                inBuckets,
+                outOffsets,
+                outAdjacency,
+                inOffsets,
+                inAdjacency,
+                undirected,
+                stride));
+        ParallelUtil.run(Arrays.asList(buildTasks), threadPool, terminationFlag);
+    }
+
+    private static PairBuffer[] newBuckets(int count, int stride) {
+        PairBuffer[] buckets = new PairBuffer[count];
+        Arrays.setAll(buckets, i -> new PairBuffer(stride));
+        return buckets;
+    }
+
+    /**
+     * @return the index of the type among the loaded types or -1 if it is not loaded
+     */
+    private int typeIndex(int typeId) {
+        if (relationId == null) {
+            return 0;
+        }
+        for (int i = 0; i < relationId.length; i++) {
+            if (relationId[i] == typeId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private final class ScanTask extends StatementTask<Void, EntityNotFoundException>
+            implements RelationshipVisitor<EntityNotFoundException> {
+        private final int index;
+        private final AtomicLong queue;
+        private final int first;
+        private final int end;
+        private final int partitions;
+        private final PairBuffer[] outBuckets;
+        private final PairBuffer[] inBuckets;
+        private final boolean readsWeights;
+        private ReadOperations readOp;
+
+        private ScanTask(
+                int index,
+                AtomicLong queue,
+                int first,
+                int end,
+                PairBuffer[] outBuckets,
+                PairBuffer[] inBuckets) {
+            super(api);
+            this.index = index;
+            this.queue = queue;
+            this.first = first;
+            this.end = end;
+            this.partitions = end - first;
+            this.outBuckets = outBuckets;
+            this.inBuckets = inBuckets;
+            this.readsWeights = weightId >= 0 && aggregation != RelationshipAggregation.COUNT;
+        }
+
+        @Override
+        public String threadName() {
+            return "HugeRelationshipScan-" + index;
+        }
+
+        @Override
+        public Void apply(final Statement statement) throws EntityNotFoundException {
+            readOp = statement.readOperations();
+            long start;
+            while (terminationFlag.running()
+                    && (start = queue.getAndAdd(RELATIONSHIP_BATCH_SIZE)) < highestRelationshipId) {
+                long end = Math.min(start + RELATIONSHIP_BATCH_SIZE, highestRelationshipId);
+                for (long relationshipId = start; relationshipId < end; relationshipId++) {
+                    try {
+                        readOp.relationshipVisit(relationshipId, this);
+                    } catch (EntityNotFoundException ignored) {
+                        // unused or deleted id
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void visit(
+                final long relationshipId,
+                final int typeId,
+                final long startNodeId,
+                final long endNodeId) throws EntityNotFoundException {
+            int type = typeIndex(typeId);
+            if (type == -1) {
+                return;
+            }
+            long source = idMap.toHugeMappedNodeId(startNodeId);
+            if (source == -1L) {
+                return;
+            }
+            long target = idMap.toHugeMappedNodeId(endNodeId);
+            if (target == -1L) {
+                return;
+            }
+            int sourcePartition = (int) (source / partitionSize);
+            int targetPartition = (int) (target / partitionSize);
+            boolean bufferSource = outBuckets != null && sourcePartition >= first && sourcePartition < end;
+            boolean bufferTarget = inBuckets != null && targetPartition >= first && targetPartition < end;
+            if (!bufferSource && !bufferTarget) {
+                return;
+            }
+            int typeOffset = type * partitions - first;
+            if (withWeights) {
+                double weightValue = defaultWeight;
+                if (readsWeights) {
+                    Object value = readOp.relationshipGetProperty(relationshipId, weightId);
+                    weightValue = RawValues.extractValue(value, defaultWeight);
+                }
+                long weight = Double.doubleToRawLongBits(weightValue);
+                if (bufferSource) {
+                    outBuckets[typeOffset + sourcePartition].add(source, target, weight);
+                }
+                if (bufferTarget) {
+                    inBuckets[typeOffset + targetPartition].add(source, target, weight);
+                }
+            } else {
+                if (bufferSource) {
+                    outBuckets[typeOffset + sourcePartition].add(source, target);
+                }
+                if (bufferTarget) {
+                    inBuckets[typeOffset + targetPartition].add(source, target);
+                }
+            }
+        }
+    }
+
+    private final class BuildTask implements Runnable {
+        private final AtomicLong queue;
+        private final int first;
+        private final int end;
+        private final int partitions;
+        private final PairBuffer[][] outBuckets;
+        private final PairBuffer[][] inBuckets;
+        private final LongArray[] outOffsets;
+        private final ByteArray[] outAdjacency;
+        private final LongArray[] inOffsets;
+        private final ByteArray[] inAdjacency;
+        private final boolean undirected;
+        private final boolean isBoth;
+        private final int stride;
+
+        private int[] degrees = new int[0];
+        private int[] starts = new int[0];
+        private long[] targets = new long[0];
+
+        private BuildTask(
+                AtomicLong queue,
+                int first,
+                int end,
+                PairBuffer[][] outBuckets,
+                PairBuffer[][] inBuckets,
+                LongArray[] outOffsets,
+                ByteArray[] outAdjacency,
+                LongArray[] inOffsets,
+                ByteArray[] inAdjacency,
+                boolean undirected,
+                int stride) {
+            this.queue = queue;
+            this.first = first;
+            this.end = end;
+            this.partitions = end - first;
+            this.outBuckets = outBuckets;
+            this.inBuckets = inBuckets;
+            this.outOffsets = outOffsets;
+            this.outAdjacency = outAdjacency;
+            this.inOffsets = inOffsets;
+            this.inAdjacency = inAdjacency;
+            this.undirected = undirected;
+            this.isBoth = outAdjacency != null && inAdjacency != null;
+            this.stride = stride;
+        }
+
+        @Override
+        public void run() {
+            ByteArray.LocalAllocator[] outAllocators = newAllocators(outAdjacency);
+            ByteArray.LocalAllocator[] inAllocators = newAllocators(inAdjacency);
+
+            int partition;
+            while (terminationFlag.running() && (partition = (int) queue.getAndIncrement()) < end) {
+                long startNode = partition * partitionSize;
+                int nodeCount = (int) Math.min(partitionSize, idMap.nodeCount() - startNode);
+                for (int type = 0; type < typeCount; type++) {
+                    int bucket = type * partitions + partition - first;
+                    HugeWeightMap weights = ScanningRelationshipImporter.this.weights[type];
+                    if (undirected) {
+                        build(bucket, startNode, nodeCount, outBuckets, inBuckets,
+                                outOffsets[type], outAllocators[type], weights);
+                    } else {
+                        // the weight of the relationship from the smaller to the larger id is written last,
+                        // which is the one that the node importer keeps for reciprocal relationships
+                        if (inAllocators != null) {
+                            build(bucket, startNode, nodeCount, null, inBuckets,
+                                    inOffsets[type], inAllocators[type], weights);
+                        }
+                        if (outAllocators != null) {
+                            build(bucket, startNode, nodeCount, outBuckets, null,
+                                    outOffsets[type], outAllocators[type], weights);
+                        }
+                    }
+                }
+                progress.relProgress(nodeCount);
+            }
+        }
+
+        private ByteArray.LocalAllocator[] newAllocators(ByteArray[] adjacency) {
+            if (adjacency == null) {
+                return null;
+            }
+            ByteArray.LocalAllocator[] allocators = new ByteArray.LocalAllocator[adjacency.length];
+            for (int i = 0; i < adjacency.length; i++) {
+                allocators[i] = adjacency[i].newAllocator();
+                allocators[i].prepare();
+            }
+            return allocators;
+        }
+
+        /**
+         * Builds the adjacency of one partition and type from relationships that start
+         * in this partition ({@code bySource}) and/or end in this partition
+         * ({@code byTarget}), which are buffered at index {@code bucket}.
+         * The buckets are released once they have been read.
+         * <p>
+         * The targets are collected in chunks of consecutive nodes with at most
+         * {@link #MAX_RELATIONSHIPS_PER_CHUNK} relationships, or a single node
+         * if that node alone has more. A partition only needs several chunks,
+         * and reads its buckets once per chunk, if its nodes have much more
+         * relationships than the average.
+         */
+        private void build(
+                int bucket,
+                long startNode,
+                int nodeCount,
+                PairBuffer[][] bySource,
+                PairBuffer[][] byTarget,
+                LongArray offsets,
+                ByteArray.LocalAllocator allocator,
+                HugeWeightMap weights) {
+            if (degrees.length < nodeCount) {
+                degrees = new int[ArrayUtil.oversize(nodeCount, Integer.BYTES)];
+            }
+            int[] degrees = this.degrees;
+            Arrays.fill(degrees, 0, nodeCount, 0);
+
+            // count degrees
+            if (bySource != null) {
+                for (PairBuffer[] buckets : bySource) {
+                    countDegrees(buckets[bucket], 0, startNode, degrees);
+                }
+            }
+            if (byTarget != null) {
+                for (PairBuffer[] buckets : byTarget) {
+                    countDegrees(buckets[bucket], 1, startNode, degrees);
+                }
+            }
+
+            int chunkStart = 0;
+            while (chunkStart < nodeCount) {
+                int chunkEnd = chunkStart;
+                long relationships = degrees[chunkEnd++];
+                while (chunkEnd < nodeCount && relationships + degrees[chunkEnd] <= MAX_RELATIONSHIPS_PER_CHUNK) {
+                    relationships += degrees[chunkEnd++];
+                }
+                buildChunk(
+                        bucket,
+                        startNode,
+                        chunkStart,
+                        chunkEnd,
+                        (int) relationships,
+                        bySource,
+                        byTarget,
+                        offsets,
+                        allocator,
+                        weights);
+                chunkStart = chunkEnd;
+            }
+
+            if (bySource != null) {
+                for (PairBuffer[] buckets : bySource) {
+                    buckets[bucket] = null;
+                }
+            }
+            if (byTarget != null) {
+                for (PairBuffer[] buckets : byTarget) {
+                    buckets[bucket] = null;
+                }
+            }
+        }
+
+        private void countDegrees(PairBuffer bucket, int column, long startNode, int[] degrees) {
+            for (int b = 0; b < bucket.blockCount; b++) {
+                long[] data = bucket.blocks[b];
+                int length = bucket.blockLength(b);
+                for (int i = column; i < length; i += stride) {
+                    ++degrees[(int) (data[i] - startNode)];
+                }
+            }
+        }
+
+        /**
+         * Builds the adjacency of the nodes {@code [startNode + chunkStart, startNode + chunkEnd)}.
+         */
+        private void buildChunk(
+                int bucket,
+                long startNode,
+                int chunkStart,
+                int chunkEnd,
+                int relationships,
+                PairBuffer[][] bySource,
+                PairBuffer[][] byTarget,
+                LongArray offsets,
+                ByteArray.LocalAllocator allocator,
+                HugeWeightMap weights) {
+            int chunkSize = chunkEnd - chunkStart;
+            if (starts.length < chunkSize) {
+                starts = new int[ArrayUtil.oversize(chunkSize, Integer.BYTES)];
+            }
+            int[] starts = this.starts;
+            int start = 0;
+            for (int i = 0; i < chunkSize; i++) {
+                starts[i] = start;
+                start += degrees[chunkStart + i];
+            }
+
+            // fill targets, using the start positions as write cursors
+            if (targets.length < relationships) {
+                targets = new long[ArrayUtil.oversize(relationships, Long.BYTES)];
+            }
+            long[] targets = this.targets;
+            long firstNode = startNode + chunkStart;
+            if (bySource != null) {
+                for (PairBuffer[] buckets : bySource) {
+                    PairBuffer buffer = buckets[bucket];
+                    for (int b = 0; b < buffer.blockCount; b++) {
+                        long[] data = buffer.blocks[b];
+                        int length = buffer.blockLength(b);
+                        for (int i = 0; i < length; i += stride) {
+                            long source = data[i];
+                            long local = source - firstNode;
+                            if (local < 0L || local >= chunkSize) {
+                                continue;
+                            }
+                            long target = data[i + 1];
+                            targets[starts[(int) local]++] = target;
+                            if (stride == 3) {
+                                // with both directions, the weight is stored once under the smaller id
+                                if (!isBoth || source <= target) {
+                                    putWeight(weights, source, target, data[i + 2]);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            if (byTarget != null) {
+                for (PairBuffer[] buckets : byTarget) {
+                    PairBuffer buffer = buckets[bucket];
+                    for (int b = 0; b < buffer.blockCount; b++) {
+                        long[] data = buffer.blocks[b];
+                        int length = buffer.blockLength(b);
+                        for (int i = 0; i < length; i += stride) {
+                            long target = data[i + 1];
+                            long local = target - firstNode;
+                            if (local < 0L || local >= chunkSize) {
+                                continue;
+                            }
+                            long source = data[i];
+                            targets[starts[(int) local]++] = source;
+                            if (stride == 3) {
+                                // undirected self loops have already been seen from their source
+                                if (isBoth ? target < source : !undirected || target != source) {
+                                    putWeight(weights, target, source, data[i + 2]);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            // the cursors now point to the end of each node, which is the start of the next one
+            start = 0;
+            for (int i = 0; i < chunkSize; i++) {
+                int end = starts[i];
+                if (end > start) {
+                    write(firstNode + i, targets, start, end, offsets, allocator);
+                }
+                start = end;
+            }
+        }
+
+        private void putWeight(HugeWeightMap weights, long source, long target, long weightBits) {
+            double weight = Double.longBitsToDouble(weightBits);
+            if (aggregation != RelationshipAggregation.NONE) {
+                weights.aggregate(source, target, weight, aggregation);
+            } else if (weight != defaultWeight) {
+                weights.put(source, target, weight);
+            }
+        }
+    }
+
+    /**
+     * Sorts, deduplicates and delta-encodes the targets in place and writes
+     * them in the same format as {@link HugeGraphFactory} writes them.
+     */
+    static void write(
+            long node,
+            long[] targets,
+            int start,
+            int end,
+            LongArray offsets,
+            ByteArray.LocalAllocator allocator) {
+        Arrays.sort(targets, start, end);
+        long delta = targets[start];
+        int writePos = start + 1;
+        for (int i = start + 1; i < end; ++i) {
+            long nextDelta = targets[i];
+            long value = targets[writePos] = nextDelta - delta;
+            if (value > 0L) {
+                ++writePos;
+                delta = nextDelta;
+            }
+        }
+
+        int degree = writePos - start;
+        // length as full-int
+        long requiredBytes = Integer.BYTES + DeltaEncoding.blockSize(targets, start, writePos);
+        long adjacencyIdx = allocator.allocate(requiredBytes);
+        offsets.set(node, adjacencyIdx);
+
+        ByteArray.BulkAdder bulkAdder = allocator.adder;
+        bulkAdder.addUnsignedInt(degree);
+        bulkAdder.addDeltaBlocks(targets, start, writePos);
+    }
+
+    /**
+     * Growable buffer of (source, target) or (source, target, weight) tuples.
+     * The tuples are stored in blocks of a fixed size, so that a buffer can hold
+     * any number of tuples and is never copied once its first block is full.
+     */
+    private static final class PairBuffer {
+        private static final int BLOCK_TUPLES = 1 << 16;
+
+        private final int stride;
+        private final int blockSize;
+        private long[][] blocks;
+        private int blockCount;
+        // the used length of the last block
+        private int length;
+
+        private PairBuffer(int stride) {
+            this.stride = stride;
+            this.blockSize = BLOCK_TUPLES * stride;
+            this.blocks = new long[0][];
+        }
+
+        private int blockLength(int block) {
+            return block == blockCount - 1 ? length : blockSize;
+        }
+
+        private void add(long source, long target) {
+            long[] data = ensureCapacity();
+            data[length++] = source;
+            data[length++] = target;
+        }
+
+        private void add(long source, long target, long weight) {
+            long[] data = ensureCapacity();
+            data[length++] = source;
+            data[length++] = target;
+            data[length++] = weight;
+        }
+
+        private long[] ensureCapacity() {
+            if (blockCount == 0) {
+                blocks = new long[1][];
+                blocks[0] = new long[0];
+                blockCount = 1;
+            }
+            long[] data = blocks[blockCount - 1];
+            if (length + stride <= data.length) {
+                return data;
+            }
+            if (data.length < blockSize) {
+                // the first block grows up to the block size, as most buckets stay small
+                data = Arrays.copyOf(data, Math.min(blockSize, ArrayUtil.oversize(length + stride, Long.BYTES)));
+                blocks[blockCount - 1] = data;
+                return data;
+            }
+            if (blockCount == blocks.length) {
+                blocks = Arrays.copyOf(blocks, ArrayUtil.oversize(blockCount + 1, Long.BYTES));
+            }
+            data = new long[blockSize];
+            blocks[blockCount++] = data;
+            length = 0;
+            return data;
+        }
+    }
+}
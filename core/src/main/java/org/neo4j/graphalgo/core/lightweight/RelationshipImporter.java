@@ -19,6 +19,7 @@
 package org.neo4j.graphalgo.core.lightweight;
 
 import org.neo4j.graphalgo.api.WeightMapping;
+import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.IdMap;
 import org.neo4j.graphalgo.core.WeightMap;
 import org.neo4j.graphalgo.core.utils.IdCombiner;
@@ -94,9 +95,7 @@ class RelationshipImporter implements RelationshipVisitor<EntityNotFoundExceptio
     throws EntityNotFoundException {
         imported = 0;
         offsets[sourceGraphId] = adjacencyIdx;
-        final int degree = relationId == null
-                ? readOp.nodeGetDegree(sourceNodeId, direction)
-                : readOp.nodeGetDegree(sourceNodeId, direction, relationId[0]);
+        final int degree = GraphDimensions.degree(readOp, sourceNodeId, direction, relationId);
         if (degree > 0) {
             final RelationshipIterator rels = relationId == null
                     ? readOp.nodeGetRelationships(sourceNodeId, direction)
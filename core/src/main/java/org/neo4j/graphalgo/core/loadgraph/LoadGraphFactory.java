@@ -21,7 +21,9 @@ package org.neo4j.graphalgo.core.loadgraph;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.neo4jview.GraphView;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
@@ -37,9 +39,23 @@ public final class LoadGraphFactory extends GraphFactory {
         super(api, setup);
     }
 
+    /**
+     * Returns the loaded graph. If the relationship types of the graph have been loaded separately,
+     * only the relationship types of the setup are returned, or all of them if none are set.
+     */
     @Override
     public Graph build() {
-        return get(setup.name);
+        Graph graph = get(setup.name);
+        if (graph instanceof HugeGraph && !((HugeGraph) graph).relationshipTypes().isEmpty()) {
+            return ((HugeGraph) graph).withRelationshipTypes(setup.relationshipType);
+        }
+        return graph;
+    }
+
+    @Override
+    public MemoryRange memoryEstimation() {
+        // the graph is already loaded
+        return MemoryRange.empty();
     }
 
     public static void set(String name, Graph graph) {
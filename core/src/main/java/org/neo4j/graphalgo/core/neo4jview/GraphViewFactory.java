@@ -21,6 +21,7 @@ package org.neo4j.graphalgo.core.neo4jview;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
@@ -49,4 +50,10 @@ public final class GraphViewFactory extends GraphFactory {
                 setup.relationWeightPropertyName,
                 setup.relationDefaultWeight);
     }
+
+    @Override
+    public MemoryRange memoryEstimation() {
+        // the view reads everything from the kernel and does not load any data
+        return MemoryRange.empty();
+    }
 }
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for algorithms that share the {@link Pools#DEFAULT} pool.
+ * <p>
+ * Every algorithm procedure asks for a {@link Job} before it loads its graph.
+ * The job hands out a concurrency budget: a job gets what it asked for as long
+ * as there are free cores, otherwise it is degraded, down to a concurrency of 1.
+ * A degraded job still submits its tasks to the shared pool, only fewer of them,
+ * so it competes with the running jobs for pool threads instead of adding more
+ * parallel tasks. Jobs are never queued for cores, so a short interactive job
+ * always starts, even if a long running job holds all cores.
+ * <p>
+ * Jobs are queued when their estimated memory, together with the memory of all
+ * running jobs, exceeds the memory limit. The memory of a running job is the
+ * larger of its estimation and what its {@link AllocationTracker} reports.
+ * A queued job may be overtaken by jobs that fit into the remaining memory,
+ * until it has waited for {@link #MAX_OVERTAKE_MILLIS}; from then on, jobs are
+ * admitted strictly in arrival order.
+ */
+public final class AlgoScheduler {
+
+    public static final AlgoScheduler DEFAULT = new AlgoScheduler(
+            Pools.DEFAULT_CONCURRENCY,
+            Runtime.getRuntime().maxMemory());
+
+    static final long MAX_OVERTAKE_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final long CHECK_INTERVAL_MILLIS = 100L;
+
+    private final int maxConcurrency;
+    private final long maxBytes;
+
+    private final Deque<Job> queue = new ArrayDeque<>();
+    private final List<Job> running = new ArrayList<>();
+    private int usedConcurrency;
+    private long admittedJobs;
+    private long degradedJobs;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    public AlgoScheduler(int maxConcurrency, long maxBytes) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Blocks until the job can be admitted.
+     *
+     * @param name           the name of the job, e.g. the procedure
+     * @param concurrency    the requested concurrency
+     * @param estimatedBytes the estimated memory of the job, or 0 if unknown
+     * @param tracker        the tracker that reports the memory the job actually uses
+     * @param terminationFlag checked while waiting, a terminated job gives up its place in the queue
+     * @return the admitted job, which has to be closed once the algorithm is done
+     */
+    public Job admit(
+            String name,
+            int concurrency,
+            long estimatedBytes,
+            AllocationTracker tracker,
+            TerminationFlag terminationFlag) {
+        Job job = new Job(name, Math.max(1, concurrency), Math.max(0L, estimatedBytes), tracker);
+        synchronized (this) {
+            queue.addLast(job);
+            try {
+                while (!fits(job)) {
+                    terminationFlag.assertRunning();
+                    wait(CHECK_INTERVAL_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } finally {
+                queue.remove(job);
+                notifyAll();
+            }
+            start(job);
+        }
+        return job;
+    }
+
+    public synchronized Status status() {
+        long now = System.nanoTime();
+        Status status = new Status();
+        status.runningJobs = running.size();
+        status.queuedJobs = queue.size();
+        status.usedConcurrency = usedConcurrency;
+        status.maxConcurrency = maxConcurrency;
+        status.usedBytes = usedBytes();
+        status.maxBytes = maxBytes;
+        status.admittedJobs = admittedJobs;
+        status.degradedJobs = degradedJobs;
+        status.totalWaitMillis = TimeUnit.NANOSECONDS.toMillis(totalWaitNanos);
+        status.maxWaitMillis = TimeUnit.NANOSECONDS.toMillis(maxWaitNanos);
+        Job oldest = queue.peekFirst();
+        status.oldestQueuedMillis = oldest == null ? 0L : TimeUnit.NANOSECONDS.toMillis(now - oldest.queuedAt);
+        return status;
+    }
+
+    private boolean fits(Job job) {
+        if (running.isEmpty()) {
+            // a job that does not fit on its own is not going to fit later, let it try
+            return true;
+        }
+        if (usedBytes() + job.estimatedBytes > maxBytes) {
+            return false;
+        }
+        Job oldest = queue.peekFirst();
+        return oldest == job || System.nanoTime() - oldest.queuedAt < TimeUnit.MILLISECONDS.toNanos(MAX_OVERTAKE_MILLIS);
+    }
+
+    private long usedBytes() {
+        long bytes = 0L;
+        for (Job job : running) {
+            bytes += Math.max(job.estimatedBytes, job.tracker.tracked());
+        }
+        return bytes;
+    }
+
+    private void start(Job job) {
+        int available = Math.max(1, maxConcurrency - usedConcurrency);
+        job.concurrency = Math.min(job.requestedConcurrency, available);
+        job.waitNanos = System.nanoTime() - job.queuedAt;
+        usedConcurrency += job.concurrency;
+        running.add(job);
+        admittedJobs++;
+        if (job.concurrency < job.requestedConcurrency) {
+            degradedJobs++;
+        }
+        totalWaitNanos += job.waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, job.waitNanos);
+    }
+
+    private synchronized void finish(Job job) {
+        if (running.remove(job)) {
+            usedConcurrency -= job.concurrency;
+            notifyAll();
+        }
+    }
+
+    public final class Job implements AutoCloseable {
+        private final String name;
+        private final int requestedConcurrency;
+        private final long estimatedBytes;
+        private final AllocationTracker tracker;
+        private final long queuedAt;
+        private int concurrency;
+        private long waitNanos;
+
+        private Job(String name, int requestedConcurrency, long estimatedBytes, AllocationTracker tracker) {
+            this.name = name;
+            this.requestedConcurrency = requestedConcurrency;
+            this.estimatedBytes = estimatedBytes;
+            this.tracker = tracker;
+            this.queuedAt = System.nanoTime();
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return the concurrency the job is allowed to use, at most the requested one
+         */
+        public int concurrency() {
+            return concurrency;
+        }
+
+        public long waitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        }
+
+        @Override
+        public void close() {
+            finish(this);
+        }
+    }
+
+    public static final class Status {
+        public long runningJobs;
+        public long queuedJobs;
+        public long usedConcurrency;
+        public long maxConcurrency;
+        public long usedBytes;
+        public long maxBytes;
+        public long admittedJobs;
+        public long degradedJobs;
+        public long totalWaitMillis;
+        public long maxWaitMillis;
+        public long oldestQueuedMillis;
+    }
+}
@@ -0,0 +1,306 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import org.neo4j.graphalgo.api.HugeIdMapping;
+import org.neo4j.graphalgo.api.IdMapping;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * An algorithm that runs in the background, outside of the transaction that submitted it.
+ * <p>
+ * The job is the {@link ProgressLogger} and the {@link TerminationFlag} of the algorithm it runs,
+ * so it can report the progress of the current phase and a cancelled job stops the algorithm.
+ * Once the algorithm is done, its {@link Result} is kept until the job is removed
+ * and the last reader has closed it.
+ */
+public final class BackgroundJob implements ProgressLogger, TerminationFlag {
+
+    public enum State {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    private final long id;
+    private final String algorithm;
+    private final ProgressLogger progressLogger;
+    private final long submittedAt;
+
+    private volatile State state = State.QUEUED;
+    private volatile boolean cancelled;
+    private volatile double progress;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile String error;
+    private volatile Result result;
+
+    BackgroundJob(long id, String algorithm, ProgressLogger progressLogger) {
+        this.id = id;
+        this.algorithm = algorithm;
+        this.progressLogger = progressLogger;
+        this.submittedAt = System.currentTimeMillis();
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * @return the progress of the current phase of the algorithm, between 0 and 1
+     */
+    public double progress() {
+        return progress;
+    }
+
+    public long submittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * @return how long the job has been running, or how long it ran once it is finished
+     */
+    public long runtimeMillis() {
+        long started = startedAt;
+        if (started == 0L) {
+            return 0L;
+        }
+        long finished = finishedAt;
+        return (finished == 0L ? System.currentTimeMillis() : finished) - started;
+    }
+
+    /**
+     * @return when the job finished, or 0 if it is still queued or running
+     */
+    public long finishedAt() {
+        return finishedAt;
+    }
+
+    public boolean finished() {
+        return finishedAt != 0L;
+    }
+
+    public String error() {
+        return error;
+    }
+
+    /**
+     * @return the number of nodes in the result, or 0 if there is no result
+     */
+    public long nodeCount() {
+        Result result = this.result;
+        return result == null ? 0L : result.nodeCount();
+    }
+
+    /**
+     * Opens the result for reading. The result stays valid until it is closed,
+     * even if the job is removed in the meantime.
+     *
+     * @throws IllegalStateException if the job is not {@link State#DONE}
+     */
+    public Result openResult() {
+        Result result = this.result;
+        if (state != State.DONE || result == null || !result.retain()) {
+            throw new IllegalStateException(String.format(
+                    "Background job %d is %s, results are only available once it is %s",
+                    id, state, State.DONE));
+        }
+        return result;
+    }
+
+    /**
+     * Stops the algorithm at its next termination check and frees the result of a finished
+     * job, once all readers that opened it have closed it.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        Result result = this.result;
+        if (result != null) {
+            this.result = null;
+            result.close();
+        }
+        if (state == State.QUEUED || state == State.DONE) {
+            state = State.CANCELLED;
+        }
+    }
+
+    @Override
+    public boolean running() {
+        return !cancelled;
+    }
+
+    @Override
+    public void logProgress(double percentDone, Supplier<String> msg) {
+        progress = percentDone;
+        progressLogger.logProgress(percentDone, msg);
+    }
+
+    @Override
+    public void logDone(Supplier<String> msg) {
+        progress = 1.0;
+        progressLogger.logDone(msg);
+    }
+
+    void run(BackgroundJobs.Task task) {
+        if (cancelled) {
+            return;
+        }
+        startedAt = System.currentTimeMillis();
+        state = State.RUNNING;
+        try {
+            Result result = task.run(this);
+            synchronized (this) {
+                if (cancelled) {
+                    result.close();
+                    state = State.CANCELLED;
+                } else {
+                    this.result = result;
+                    progress = 1.0;
+                    state = State.DONE;
+                }
+            }
+        } catch (Throwable t) {
+            error = String.valueOf(t.getMessage());
+            state = cancelled ? State.CANCELLED : State.FAILED;
+        } finally {
+            finishedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * One double value per node, together with the original node ids, in paged
+     * primitive arrays. The result no longer needs the graph it was computed on.
+     * <p>
+     * The job holds one reference to the result and every reader that opened it
+     * holds another one. The arrays are freed when the last reference is closed.
+     */
+    public static final class Result implements AutoCloseable {
+        private final LongArray nodeIds;
+        private final DoubleArray values;
+        private final long nodeCount;
+        private final AllocationTracker tracker;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        /**
+         * Node ids of a {@link HugeIdMapping} are read as longs, all other mappings must be within the int range.
+         *
+         * @throws ArithmeticException if a node id of an {@link IdMapping} exceeds the int range
+         */
+        public static Result of(IdMapping idMapping, LongToDoubleFunction values, AllocationTracker tracker) {
+            final LongUnaryOperator originalIds = idMapping instanceof HugeIdMapping
+                    ? ((HugeIdMapping) idMapping)::toOriginalNodeId
+                    : node -> idMapping.toOriginalNodeId(Math.toIntExact(node));
+            long nodeCount = idMapping.nodeCount();
+            LongArray nodeIds = LongArray.newArray(nodeCount, tracker);
+            DoubleArray result = DoubleArray.newArray(nodeCount, tracker);
+            for (long i = 0L; i < nodeCount; i++) {
+                nodeIds.set(i, originalIds.applyAsLong(i));
+                result.set(i, values.applyAsDouble(i));
+            }
+            return new Result(nodeIds, result, nodeCount, tracker);
+        }
+
+        private Result(LongArray nodeIds, DoubleArray values, long nodeCount, AllocationTracker tracker) {
+            this.nodeIds = nodeIds;
+            this.values = values;
+            this.nodeCount = nodeCount;
+            this.tracker = tracker;
+        }
+
+        public long nodeCount() {
+            return nodeCount;
+        }
+
+        public long nodeId(long index) {
+            return nodeIds.get(index);
+        }
+
+        public double value(long index) {
+            return values.get(index);
+        }
+
+        public DoubleArray values() {
+            return values;
+        }
+
+        /**
+         * @return a mapping from the index of a value to its original node id, used to write the values back
+         */
+        public HugeIdMapping idMapping() {
+            return new HugeIdMapping() {
+                @Override
+                public long toHugeMappedNodeId(long nodeId) {
+                    throw new UnsupportedOperationException("toHugeMappedNodeId is not supported by job results");
+                }
+
+                @Override
+                public long toOriginalNodeId(long nodeId) {
+                    return nodeIds.get(nodeId);
+                }
+
+                @Override
+                public boolean contains(long nodeId) {
+                    throw new UnsupportedOperationException("contains is not supported by job results");
+                }
+
+                @Override
+                public long nodeCount() {
+                    return nodeCount;
+                }
+            };
+        }
+
+        /**
+         * Releases one reference, the last one frees the arrays.
+         */
+        @Override
+        public void close() {
+            if (references.decrementAndGet() == 0) {
+                tracker.remove(nodeIds.release() + values.release());
+            }
+        }
+
+        /**
+         * @return false if the arrays were already freed
+         */
+        boolean retain() {
+            int current;
+            do {
+                current = references.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!references.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+}
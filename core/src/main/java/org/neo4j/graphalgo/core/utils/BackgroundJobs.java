@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import org.neo4j.helpers.NamedThreadFactory;
+import org.neo4j.logging.Log;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs algorithms as {@link BackgroundJob}s and keeps their results, keyed by job id,
+ * until they are removed. Every job runs in its own thread, the algorithm itself
+ * is expected to go through the {@link AlgoScheduler} to get its concurrency.
+ * <p>
+ * Finished jobs that are not removed are evicted once they are older than the
+ * retention time, or once there are more finished jobs than the limit, oldest first.
+ */
+public final class BackgroundJobs {
+
+    public static final int DEFAULT_MAX_FINISHED_JOBS = 64;
+    public static final long DEFAULT_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(24L);
+
+    public static final BackgroundJobs DEFAULT = new BackgroundJobs(
+            Executors.newCachedThreadPool(NamedThreadFactory.daemon("algo-job")));
+
+    @FunctionalInterface
+    public interface Task {
+        BackgroundJob.Result run(BackgroundJob job) throws Exception;
+    }
+
+    private final ExecutorService executor;
+    private final int maxFinishedJobs;
+    private final long retentionMillis;
+    private final ConcurrentMap<Long, BackgroundJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    public BackgroundJobs(ExecutorService executor) {
+        this(executor, DEFAULT_MAX_FINISHED_JOBS, DEFAULT_RETENTION_MILLIS);
+    }
+
+    public BackgroundJobs(ExecutorService executor, int maxFinishedJobs, long retentionMillis) {
+        this.executor = executor;
+        this.maxFinishedJobs = maxFinishedJobs;
+        this.retentionMillis = retentionMillis;
+    }
+
+    public BackgroundJob submit(String algorithm, Log log, Task task) {
+        evictFinishedJobs();
+        long id = nextId.incrementAndGet();
+        BackgroundJob job = new BackgroundJob(id, algorithm, ProgressLogger.wrap(log, algorithm + " (job " + id + ")"));
+        jobs.put(id, job);
+        executor.execute(() -> {
+            job.run(task);
+            if (job.state() == BackgroundJob.State.FAILED) {
+                log.warn("Background job %d (%s) failed: %s", id, algorithm, job.error());
+            }
+        });
+        return job;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no job with this id
+     */
+    public BackgroundJob get(long id) {
+        evictFinishedJobs();
+        BackgroundJob job = jobs.get(id);
+        if (job == null) {
+            throw new IllegalArgumentException(String.format("No background job with id %d", id));
+        }
+        return job;
+    }
+
+    /**
+     * @return all jobs, in the order they were submitted
+     */
+    public List<BackgroundJob> jobs() {
+        evictFinishedJobs();
+        List<BackgroundJob> list = new ArrayList<>(jobs.values());
+        list.sort(Comparator.comparingLong(BackgroundJob::id));
+        return list;
+    }
+
+    /**
+     * Cancels the job and frees its result once all readers have closed it.
+     *
+     * @throws IllegalArgumentException if there is no job with this id
+     */
+    public BackgroundJob remove(long id) {
+        BackgroundJob job = get(id);
+        jobs.remove(id);
+        job.cancel();
+        return job;
+    }
+
+    private void evictFinishedJobs() {
+        List<BackgroundJob> finished = new ArrayList<>();
+        for (BackgroundJob job : jobs.values()) {
+            if (job.finished()) {
+                finished.add(job);
+            }
+        }
+        finished.sort(Comparator.comparingLong(BackgroundJob::finishedAt).thenComparingLong(BackgroundJob::id));
+        long now = System.currentTimeMillis();
+        int excess = finished.size() - maxFinishedJobs;
+        for (BackgroundJob job : finished) {
+            if ((excess > 0 || now - job.finishedAt() > retentionMillis) && jobs.remove(job.id(), job)) {
+                job.cancel();
+                excess--;
+            }
+        }
+    }
+}
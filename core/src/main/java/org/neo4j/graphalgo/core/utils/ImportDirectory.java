@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Resolves the files that procedures read or write against the import directory
+ * of the database ({@code dbms.directories.import}), the directory that {@code LOAD CSV}
+ * reads from. A file must be given relative to that directory and must stay within it,
+ * also after following symbolic links, so that callers can not access any other file
+ * that the database process can read or write.
+ */
+public final class ImportDirectory {
+
+    private ImportDirectory() {
+        throw new UnsupportedOperationException("No instances");
+    }
+
+    /**
+     * @return the absolute path of {@code file} within the import directory of the database
+     * @throws IllegalArgumentException if no import directory is configured or if the file is not within it
+     */
+    public static Path resolve(GraphDatabaseAPI api, String file) {
+        File root = api.getDependencyResolver()
+                .resolveDependency(Config.class)
+                .get(GraphDatabaseSettings.load_csv_file_url_root);
+        if (root == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Can not access '%s', files can only be accessed within the import directory, " +
+                            "but %s is not configured",
+                    file,
+                    GraphDatabaseSettings.load_csv_file_url_root.name()));
+        }
+        return resolve(root.toPath(), file);
+    }
+
+    static Path resolve(Path root, String file) {
+        Path path = Paths.get(file);
+        if (path.isAbsolute()) {
+            throw new IllegalArgumentException(String.format(
+                    "Can not access '%s', the path must be relative to the import directory",
+                    file));
+        }
+        Path base = root.toAbsolutePath().normalize();
+        Path resolved = base.resolve(path).normalize();
+        if (!resolved.startsWith(base) || !realPath(resolved).startsWith(realPath(base))) {
+            throw new IllegalArgumentException(String.format(
+                    "Can not access '%s', the path is outside of the import directory",
+                    file));
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolves the symbolic links of the longest existing prefix of {@code path},
+     * files that are about to be written do not exist yet.
+     */
+    private static Path realPath(Path path) {
+        Path existing = path;
+        while (existing != null && !Files.exists(existing)) {
+            existing = existing.getParent();
+        }
+        if (existing == null) {
+            return path;
+        }
+        try {
+            return existing.toRealPath().resolve(existing.relativize(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
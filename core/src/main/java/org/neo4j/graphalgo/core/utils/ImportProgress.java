@@ -72,6 +72,21 @@ public final class ImportProgress {
         }
     }
 
+    /**
+     * Reports the relationships of several nodes at once, for importers that
+     * build whole batches of nodes. Logs at most once per batch, whenever the
+     * progress crosses the same boundaries {@link #relProgress()} logs at.
+     */
+    public void relProgress(long nodeCount) {
+        long nodes = nodeProgress.addAndGet(nodeCount);
+        if (((nodes - nodeCount) & ~progressMask) != (nodes & ~progressMask)) {
+            progressLogger.logProgress(
+                    (nodes << relationProgressShift) + this.nodeCount,
+                    approxOperations,
+                    tracker);
+        }
+    }
+
     public void resetForRelationships() {
         nodeProgress.set(0);
     }
@@ -36,24 +36,35 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.IntConsumer;
 import java.util.function.LongConsumer;
+import java.util.function.LongToIntFunction;
 import java.util.function.Supplier;
 
 public final class ParallelUtil {
 
     public static final int DEFAULT_BATCH_SIZE = 10_000;
 
+    // how long to wait for tasks before checking the termination flag again
+    private static final long AWAIT_TERMINATION_CHECK_MILLIS = 100L;
+
     public static int threadSize(int batchSize, int elementCount) {
         if (batchSize <= 0) {
             throw new IllegalArgumentException("Invalid batch size: " + batchSize);
@@ -200,6 +211,84 @@ public final class ParallelUtil {
         }
     }
 
+    /**
+     * Executes read operations in parallel, one task per partition.
+     * The partitions are usually created by {@link #degreePartitions(long, int, LongToIntFunction)}
+     * so that every task has about the same amount of work to do.
+     */
+    public static <T extends Runnable> List<T> readParallel(
+            int concurrency,
+            List<Partition> partitions,
+            ParallelGraphImporter<T> importer,
+            ExecutorService executor) {
+        List<T> tasks = new ArrayList<>(partitions.size());
+        for (Partition partition : partitions) {
+            tasks.add(importer.newImporter(
+                    Math.toIntExact(partition.startNode),
+                    partition.toIntIterable()));
+        }
+        if (!canRunInParallel(executor) || tasks.size() == 1) {
+            tasks.forEach(Runnable::run);
+        } else {
+            runWithConcurrency(concurrency, tasks, executor);
+        }
+        return tasks;
+    }
+
+    /**
+     * Splits the nodes {@code [0, nodeCount)} into at most {@code partitionCount}
+     * consecutive partitions that all have about the same accumulated degree.
+     * <p>
+     * Splitting by node count alone is bound by the slowest batch on graphs
+     * with a skewed degree distribution, where a single batch can contain
+     * most of the relationships. Here, the partition borders are placed on the
+     * prefix sum of the degrees, so that every partition has about
+     * {@code sum(degree + 1) / partitionCount} work to do. The additional
+     * {@code 1} accounts for the per-node overhead and avoids huge partitions
+     * of isolated nodes. A single node with a very high degree ends up in its
+     * own partition.
+     * <p>
+     * Degrees are read in two sequential passes, one for the total work and one
+     * to place the borders, so that no per-node memory has to be allocated.
+     * Algorithms that run more than once on the same graph should keep the
+     * partitions instead of creating them on every run.
+     *
+     * @param nodeCount      the number of nodes to partition
+     * @param partitionCount the maximum number of partitions to create
+     * @param degrees        returns the degree of a node, in the direction the algorithm traverses
+     */
+    public static List<Partition> degreePartitions(
+            long nodeCount,
+            int partitionCount,
+            LongToIntFunction degrees) {
+        if (partitionCount <= 1 || nodeCount <= 1L) {
+            return Collections.singletonList(new Partition(0L, nodeCount));
+        }
+        long totalWork = nodeCount;
+        for (long node = 0L; node < nodeCount; node++) {
+            totalWork += degrees.applyAsInt(node);
+        }
+        long workPerPartition = threadSize(partitionCount, totalWork);
+
+        List<Partition> partitions = new ArrayList<>(partitionCount);
+        long start = 0L;
+        long work = 0L;
+        long border = workPerPartition;
+        for (long node = 0L; node < nodeCount; node++) {
+            work += 1L + degrees.applyAsInt(node);
+            if (work >= border) {
+                partitions.add(new Partition(start, node + 1L - start));
+                start = node + 1L;
+                // skip borders that were covered by a single large node
+                border = (work / workPerPartition + 1L) * workPerPartition;
+            }
+        }
+        if (start < nodeCount) {
+            partitions.add(new Partition(start, nodeCount - start));
+        }
+        return partitions;
+    }
+
     public static Collection<Runnable> tasks(
             final int concurrency,
             final Supplier<? extends Runnable> newTask) {
@@ -220,7 +309,119 @@ public final class ParallelUtil {
     public static void run(
             Collection<? extends Runnable> tasks,
             ExecutorService executor) {
-        run(tasks, executor, null);
+        run(tasks, executor, (Collection<Future<?>>) null);
+    }
+
+    /**
+     * Runs a collection of {@link Runnable}s in parallel for their side-effects.
+     * The level of parallelism is defined by the given executor.
+     * <p>
+     * The provided {@code terminationFlag} is checked while waiting for the
+     * tasks to finish. If it signals termination, tasks that did not start yet
+     * are skipped and running tasks are interrupted. This method always waits
+     * until no task is running anymore, so that the caller can safely release
+     * the data the tasks work on, and then throws from
+     * {@link TerminationFlag#assertRunning()}.
+     * Tasks should still check the flag themselves, as not every task
+     * reacts to being interrupted.
+     */
+    public static void run(
+            Collection<? extends Runnable> tasks,
+            ExecutorService executor,
+            TerminationFlag terminationFlag) {
+        if (tasks.size() == 1 || !canRunInParallel(executor)) {
+            for (Runnable task : tasks) {
+                terminationFlag.assertRunning();
+                task.run();
+            }
+            terminationFlag.assertRunning();
+            return;
+        }
+
+        CountDownLatch finished = new CountDownLatch(tasks.size());
+        List<TerminableTask> submitted = new ArrayList<>(tasks.size());
+        Throwable error = null;
+        for (Runnable task : tasks) {
+            TerminableTask terminableTask = new TerminableTask(task, finished);
+            try {
+                executor.execute(terminableTask);
+                submitted.add(terminableTask);
+            } catch (RejectedExecutionException e) {
+                error = e;
+                break;
+            }
+        }
+        // tasks that were never submitted will not count down
+        for (int i = submitted.size(); i < tasks.size(); i++) {
+            finished.countDown();
+        }
+        if (error != null) {
+            for (TerminableTask task : submitted) {
+                task.cancel(true);
+            }
+        }
+
+        boolean cancelled = error != null;
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (finished.await(AWAIT_TERMINATION_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+                error = Exceptions.chain(error, e);
+            }
+            if (!cancelled && (interrupted || !terminationFlag.running())) {
+                for (TerminableTask task : submitted) {
+                    task.cancel(true);
+                }
+                cancelled = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (TerminableTask task : submitted) {
+            if (task.error != null) {
+                error = Exceptions.chain(error, task.error);
+            }
+        }
+        if (error != null) {
+            throw Exceptions.launderedException(error);
+        }
+        terminationFlag.assertRunning();
+    }
+
+    /**
+     * A task that counts down once it stopped running, or when it is skipped
+     * because it was cancelled before it started. Unlike {@link Future#isDone()},
+     * this does not happen as soon as a running task is cancelled.
+     */
+    private static final class TerminableTask extends FutureTask<Void> {
+        private final CountDownLatch finished;
+        private volatile Throwable error;
+
+        private TerminableTask(Runnable task, CountDownLatch finished) {
+            super(task, null);
+            this.finished = finished;
+        }
+
+        @Override
+        public void run() {
+            try {
+                super.run();
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            error = t;
+            super.setException(t);
+        }
     }
 
     public static void run(
@@ -662,6 +863,11 @@ public final class ParallelUtil {
             return;
         }
 
+        if (executor instanceof ForkJoinPool) {
+            runWithForkJoin(concurrency, tasks, terminationFlag, (ForkJoinPool) executor);
+            return;
+        }
+
         CompletionService completionService =
                 new CompletionService(executor, concurrency);
 
@@ -718,6 +924,73 @@ public final class ParallelUtil {
         }
     }
 
+    /**
+     * Work-stealing variant of {@link #runWithConcurrency(int, Collection, TerminationFlag, ExecutorService)}.
+     * <p>
+     * At most {@code concurrency} workers are forked into the pool, regardless
+     * of its parallelism, and every worker takes the next task as soon as it
+     * finished its previous one. Tasks that finish early do not leave their
+     * thread idle while others are still busy, which makes this mode a good
+     * fit for many, unevenly sized tasks.
+     * <p>
+     * Workers stop taking tasks once the flag signals termination or a task failed,
+     * but this method always waits for the running tasks to finish.
+     */
+    private static void runWithForkJoin(
+            int concurrency,
+            Collection<? extends Runnable> tasks,
+            TerminationFlag terminationFlag,
+            ForkJoinPool pool) {
+        List<? extends Runnable> queue = new ArrayList<>(tasks);
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        int workerCount = Math.min(concurrency, queue.size());
+        List<ForkJoinTask<?>> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(ForkJoinTask.adapt(() -> {
+                int index;
+                while (!failed.get()
+                        && terminationFlag.running()
+                        && (index = next.getAndIncrement()) < queue.size()) {
+                    try {
+                        queue.get(index).run();
+                    } catch (Throwable t) {
+                        errors.add(t);
+                        failed.set(true);
+                    }
+                }
+            }));
+        }
+        ForkJoinTask<?> root = pool.submit(() -> ForkJoinTask.invokeAll(workers));
+
+        Throwable error = null;
+        boolean interrupted = false;
+        while (true) {
+            try {
+                root.get();
+                break;
+            } catch (ExecutionException e) {
+                error = Exceptions.chain(error, e.getCause());
+                break;
+            } catch (InterruptedException e) {
+                // stop handing out tasks, but wait for the running ones
+                interrupted = true;
+                failed.set(true);
+                error = Exceptions.chain(error, e);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        for (Throwable t : errors) {
+            error = Exceptions.chain(error, t);
+        }
+        if (error != null) {
+            throw Exceptions.launderedException(error);
+        }
+    }
+
     private static void finishRunWithConcurrency(
             CompletionService completionService,
             Throwable error) {
@@ -759,6 +1032,43 @@ public final class ParallelUtil {
         }
     }
 
+    /**
+     * Waits for all futures to finish, chaining the errors of all of them,
+     * and throws from {@link TerminationFlag#assertRunning()} afterwards.
+     * The futures are not cancelled, the tasks have to check the flag
+     * themselves to stop early. Use {@link #run(Collection, ExecutorService, TerminationFlag)}
+     * to also skip and interrupt the tasks.
+     */
+    public static void awaitTermination(
+            Collection<Future<?>> futures,
+            TerminationFlag terminationFlag) {
+        Throwable error = null;
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (ExecutionException ee) {
+                    error = Exceptions.chain(error, ee.getCause());
+                    break;
+                } catch (CancellationException ignore) {
+                    break;
+                } catch (InterruptedException e) {
+                    // keep waiting, the caller must not continue while tasks are running
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (error != null) {
+            throw Exceptions.launderedException(error);
+        }
+        terminationFlag.assertRunning();
+    }
+
     public static void awaitTerminations(Queue<Future<?>> futures) {
         boolean done = false;
         Throwable error = null;
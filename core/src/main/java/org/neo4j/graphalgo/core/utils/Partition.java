@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import org.neo4j.collection.primitive.PrimitiveIntIterable;
+import org.neo4j.collection.primitive.PrimitiveIntIterator;
+import org.neo4j.collection.primitive.PrimitiveLongIterable;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+
+/**
+ * A consecutive range of node ids, {@code [startNode, startNode + nodeCount)}.
+ *
+ * @see ParallelUtil#degreePartitions(long, int, java.util.function.LongToIntFunction)
+ */
+public final class Partition implements PrimitiveLongIterable {
+
+    public final long startNode;
+    public final long nodeCount;
+
+    public Partition(long startNode, long nodeCount) {
+        this.startNode = startNode;
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * @return the first node id that is not part of this partition
+     */
+    public long endNode() {
+        return startNode + nodeCount;
+    }
+
+    @Override
+    public PrimitiveLongIterator iterator() {
+        return new PrimitiveLongIterator() {
+            private long current = startNode;
+            private final long limit = endNode();
+
+            @Override
+            public boolean hasNext() {
+                return current < limit;
+            }
+
+            @Override
+            public long next() {
+                return current++;
+            }
+        };
+    }
+
+    /**
+     * View on this partition for algorithms that work on int node ids.
+     */
+    public PrimitiveIntIterable toIntIterable() {
+        final int start = Math.toIntExact(startNode);
+        final int limit = Math.toIntExact(endNode());
+        return () -> new PrimitiveIntIterator() {
+            private int current = start;
+
+            @Override
+            public boolean hasNext() {
+                return current < limit;
+            }
+
+            @Override
+            public int next() {
+                return current++;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "Partition{startNode=" + startNode + ", nodeCount=" + nodeCount + '}';
+    }
+}
@@ -112,4 +112,27 @@ public class RawValues {
 
         return propertyDefaultValue;
     }
+
+    /**
+     * Same as {@link #extractValue(Object, double)}, but integral values
+     * and strings are read without going through a double.
+     * Floating point values are truncated.
+     */
+    public static long extractLongValue(Object value, long propertyDefaultValue) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            String s = (String) value;
+            if (!s.isEmpty()) {
+                return Long.parseLong(s);
+            }
+        }
+        if (value instanceof Boolean) {
+            if ((Boolean) value) {
+                return 1L;
+            }
+        }
+        return propertyDefaultValue;
+    }
 }
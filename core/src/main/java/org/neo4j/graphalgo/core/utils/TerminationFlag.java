@@ -18,7 +18,9 @@
  */
 package org.neo4j.graphalgo.core.utils;
 
+import org.neo4j.graphdb.TransactionTerminatedException;
 import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.api.exceptions.Status;
 
 /**
  * @author mknblch
@@ -27,9 +29,27 @@ public interface TerminationFlag {
 
     TerminationFlag RUNNING_TRUE = () -> true;
 
+    /**
+     * Number of nodes an inner loop may process before it has to check
+     * the flag again. Together with the check interval of the underlying
+     * flag this bounds the time a task keeps running after termination.
+     */
+    int RUN_CHECK_NODE_COUNT = 10_000;
+
     static TerminationFlag wrap(KernelTransaction transaction) {
         return new TerminationFlagImpl(transaction);
     }
 
     boolean running();
+
+    /**
+     * Throws a {@link TransactionTerminatedException} if the flag signals
+     * termination. Use this to abort a computation instead of returning
+     * partial results.
+     */
+    default void assertRunning() {
+        if (!running()) {
+            throw new TransactionTerminatedException(Status.Transaction.TransactionTerminated);
+        }
+    }
 }
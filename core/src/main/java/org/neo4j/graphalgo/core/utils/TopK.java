@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Selects the nodes with the highest scores without materializing a result for every node.
+ * <p>
+ * Every thread scans a range of node ids into its own bounded min-heap of primitive ids and
+ * scores; the heaps are merged once all threads are done. Ties are broken by the lower node id,
+ * so the selection does not depend on the concurrency.
+ */
+public final class TopK {
+
+    private static final long MIN_NODES_PER_THREAD = 100_000L;
+
+    private TopK() {
+        throw new UnsupportedOperationException();
+    }
+
+    @FunctionalInterface
+    public interface ResultFactory<R> {
+        R create(long originalNodeId, double score);
+    }
+
+    /**
+     * Selects the top {@code k} nodes of the graph and creates results only for them.
+     *
+     * @param scores the score of a node, by its mapped node id
+     * @return the results, highest score first
+     */
+    public static <R> Stream<R> stream(
+            Graph graph,
+            int k,
+            LongToDoubleFunction scores,
+            int concurrency,
+            ExecutorService executor,
+            ResultFactory<R> results) {
+        final LongUnaryOperator toOriginalNodeId = graph instanceof HugeGraph
+                ? ((HugeGraph) graph)::toOriginalNodeId
+                : nodeId -> graph.toOriginalNodeId((int) nodeId);
+        final long[] nodeIds = select(graph.nodeCount(), k, scores, concurrency, executor);
+        return Arrays.stream(nodeIds).mapToObj(nodeId -> results.create(
+                toOriginalNodeId.applyAsLong(nodeId),
+                scores.applyAsDouble(nodeId)));
+    }
+
+    /**
+     * @return the ids of at most {@code k} nodes, highest score first
+     */
+    public static long[] select(
+            long nodeCount,
+            int k,
+            LongToDoubleFunction scores,
+            int concurrency,
+            ExecutorService executor) {
+        if (k <= 0 || nodeCount <= 0L) {
+            return new long[0];
+        }
+        final int threads = ParallelUtil.canRunInParallel(executor)
+                ? (int) Math.max(1L, Math.min(concurrency, nodeCount / MIN_NODES_PER_THREAD))
+                : 1;
+        // heaps never hold more nodes than they can see, whatever the limit
+        final Heap result = new Heap(capacity(k, nodeCount));
+        if (threads == 1) {
+            result.scan(0L, nodeCount, scores);
+        } else {
+            final long batchSize = ParallelUtil.threadSize(threads, nodeCount);
+            final List<Scan> tasks = new ArrayList<>(threads);
+            for (long start = 0L; start < nodeCount; start += batchSize) {
+                long end = Math.min(nodeCount, start + batchSize);
+                tasks.add(new Scan(new Heap(capacity(k, end - start)), start, end, scores));
+            }
+            ParallelUtil.run(tasks, executor);
+            for (Scan task : tasks) {
+                result.addAll(task.heap);
+            }
+        }
+        return result.drain();
+    }
+
+    private static int capacity(int k, long nodeCount) {
+        return (int) Math.min(k, nodeCount);
+    }
+
+    private static final class Scan implements Runnable {
+        private final Heap heap;
+        private final long start;
+        private final long end;
+        private final LongToDoubleFunction scores;
+
+        private Scan(Heap heap, long start, long end, LongToDoubleFunction scores) {
+            this.heap = heap;
+            this.start = start;
+            this.end = end;
+            this.scores = scores;
+        }
+
+        @Override
+        public void run() {
+            heap.scan(start, end, scores);
+        }
+    }
+
+    /**
+     * A bounded binary min-heap, the root is the worst of the kept nodes.
+     * Heaps are not thread-safe, every thread has to use its own.
+     */
+    public static final class Heap {
+        private final long[] ids;
+        private final double[] scores;
+        private int size;
+
+        public Heap(int capacity) {
+            ids = new long[capacity];
+            scores = new double[capacity];
+        }
+
+        void scan(long start, long end, LongToDoubleFunction values) {
+            for (long id = start; id < end; id++) {
+                offer(id, values.applyAsDouble(id));
+            }
+        }
+
+        void addAll(Heap other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.ids[i], other.scores[i]);
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void offer(long id, double score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (worse(ids[0], scores[0], id, score)) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * @return the kept ids, best first; the heap is empty afterwards
+         */
+        long[] drain() {
+            final long[] result = new long[size];
+            while (size > 0) {
+                result[size - 1] = ids[0];
+                size--;
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        /**
+         * Moves the kept ids and their scores into the given arrays, best first;
+         * the heap is empty afterwards.
+         *
+         * @return the number of ids that have been moved
+         */
+        public int drainTo(long[] ids, double[] scores) {
+            final int count = size;
+            while (size > 0) {
+                ids[size - 1] = this.ids[0];
+                scores[size - 1] = this.scores[0];
+                size--;
+                this.ids[0] = this.ids[size];
+                this.scores[0] = this.scores[size];
+                siftDown(0);
+            }
+            return count;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(ids[index], scores[index], ids[parent], scores[parent])) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int child = (index << 1) + 1;
+                if (child >= size) {
+                    return;
+                }
+                if (child + 1 < size && worse(ids[child + 1], scores[child + 1], ids[child], scores[child])) {
+                    child++;
+                }
+                if (!worse(ids[child], scores[child], ids[index], scores[index])) {
+                    return;
+                }
+                swap(index, child);
+                index = child;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+            double score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+
+        private static boolean worse(long id, double score, long otherId, double otherScore) {
+            int cmp = Double.compare(score, otherScore);
+            return cmp < 0 || (cmp == 0 && id > otherId);
+        }
+    }
+}
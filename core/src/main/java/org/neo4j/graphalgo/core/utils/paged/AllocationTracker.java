@@ -19,6 +19,7 @@
 package org.neo4j.graphalgo.core.utils.paged;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 public class AllocationTracker implements Supplier<String> {
@@ -50,11 +51,27 @@ public class AllocationTracker implements Supplier<String> {
         public String getUsageString(String label) {
             return "";
         }
+
+        @Override
+        public String getPagePoolUsageString() {
+            return "";
+        }
     };
 
     private static final String[] UNITS = new String[]{" Bytes", " KiB", " MiB", " GiB", " TiB", " PiB", " EiB", " ZiB", " YiB"};
 
     private final AtomicLong count = new AtomicLong();
+    private final PagePool pagePool;
+    private final LongAdder pooledPages = new LongAdder();
+    private final LongAdder allocatedPages = new LongAdder();
+
+    public AllocationTracker() {
+        this(null);
+    }
+
+    private AllocationTracker(PagePool pagePool) {
+        this.pagePool = pagePool;
+    }
 
     public void add(long delta) {
         count.addAndGet(delta);
@@ -81,10 +98,52 @@ public class AllocationTracker implements Supplier<String> {
         return getUsageString("Memory usage: ");
     }
 
+    /**
+     * Return the pool that tracked allocations take their pages from, or {@code null}.
+     */
+    public PagePool pagePool() {
+        return pagePool;
+    }
+
+    void pageFromPool(boolean hit) {
+        if (hit) {
+            pooledPages.increment();
+        } else {
+            allocatedPages.increment();
+        }
+    }
+
+    /**
+     * Return the fraction of pages that could be taken from the page pool, or 0 if no page was requested.
+     */
+    public double pagePoolHitRate() {
+        long hits = pooledPages.sum();
+        long total = hits + allocatedPages.sum();
+        return total == 0L ? 0.0 : (double) hits / total;
+    }
+
+    public String getPagePoolUsageString() {
+        long hits = pooledPages.sum();
+        long total = hits + allocatedPages.sum();
+        return String.format(
+                "%d of %d pages reused (%.0f%%)",
+                hits,
+                total,
+                total == 0L ? 0.0 : 100.0 * hits / total);
+    }
+
     public static AllocationTracker create() {
         return new AllocationTracker();
     }
 
+    /**
+     * Create a tracker whose allocations reuse pages from the given pool
+     * and return their pages to the pool when they are released.
+     */
+    public static AllocationTracker create(PagePool pagePool) {
+        return new AllocationTracker(pagePool);
+    }
+
     public static boolean isTracking(AllocationTracker tracker) {
         return tracker != null && tracker != EMPTY;
     }
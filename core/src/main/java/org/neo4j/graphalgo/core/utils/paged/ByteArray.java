@@ -18,15 +18,22 @@
  */
 package org.neo4j.graphalgo.core.utils.paged;
 
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+import java.nio.ByteOrder;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static org.neo4j.graphalgo.core.utils.paged.DeltaEncoding.BLOCK_SIZE;
 import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfByteArray;
+import static org.neo4j.graphalgo.core.utils.paged.OffHeapPages.BYTE_ARRAY_BASE;
 
 
 public final class ByteArray extends PagedDataStructure<byte[]> {
 
     private final AtomicLong allocIdx = new PaddedAtomicLong();
     private final AllocationTracker tracker;
+    // the native pages, or null if the pages are on the heap
+    private final OffHeapPages offHeap;
 
     private static final PageAllocator.Factory<byte[]> ALLOCATOR_FACTORY =
             PageAllocator.ofArray(byte[].class, 1 << 18);
@@ -37,18 +44,49 @@ public final class ByteArray extends PagedDataStructure<byte[]> {
     }
 
     public static ByteArray newArray(long size, AllocationTracker tracker) {
-        return new ByteArray(size, ALLOCATOR_FACTORY.newAllocator(tracker), tracker);
+        return newArray(size, false, tracker);
+    }
+
+    /**
+     * Creates a new array, whose pages are allocated outside of the Java heap
+     * iff {@code offHeap} is {@code true}. Off-heap pages are neither scanned nor
+     * moved by the garbage collector. Their memory is accounted for in the
+     * {@link AllocationTracker} and must be freed with {@link #release()}.
+     */
+    public static ByteArray newArray(long size, boolean offHeap, AllocationTracker tracker) {
+        PageAllocator<byte[]> allocator = ALLOCATOR_FACTORY.newAllocator(tracker);
+        if (offHeap) {
+            ByteArray array = new ByteArray(
+                    allocator,
+                    new OffHeapPages(allocator.bytesPerPage(), tracker),
+                    tracker);
+            // the pages are only allocated once the off-heap table is set
+            array.grow(size);
+            return array;
+        }
+        return new ByteArray(size, allocator, tracker);
     }
 
     private ByteArray(long size, PageAllocator<byte[]> allocator, AllocationTracker tracker) {
         super(size, allocator);
         this.tracker = tracker;
+        this.offHeap = null;
+    }
+
+    private ByteArray(PageAllocator<byte[]> allocator, OffHeapPages offHeap, AllocationTracker tracker) {
+        super(0L, allocator);
+        this.tracker = tracker;
+        this.offHeap = offHeap;
     }
 
     public int getInt(long index) {
         assert index < capacity();
         final int pageIndex = pageIndex(index);
         final int indexInPage = indexInPage(index);
+        final OffHeapPages offHeap = this.offHeap;
+        if (offHeap != null) {
+            return getInt(null, offHeap.addresses()[pageIndex] + indexInPage);
+        }
         return getInt(pages[pageIndex], indexInPage);
     }
 
@@ -59,62 +97,112 @@ public final class ByteArray extends PagedDataStructure<byte[]> {
                 (page[offset + 3] & 0xFF);
     }
 
+    private static int getInt(Object base, long address) {
+        return ((UnsafeUtil.getByte(base, address) & 0xFF) << 24) |
+                ((UnsafeUtil.getByte(base, address + 1) & 0xFF) << 16) |
+                ((UnsafeUtil.getByte(base, address + 2) & 0xFF) << 8) |
+                (UnsafeUtil.getByte(base, address + 3) & 0xFF);
+    }
+
     public LocalAllocator newAllocator() {
         return new LocalAllocator(this);
     }
 
+    /**
+     * Return true iff the pages of this array live outside of the Java heap.
+     */
+    public boolean isOffHeap() {
+        return offHeap != null;
+    }
+
+    @Override
+    void allocatePages(byte[][] pages, int fromPage, int toPage, int skipPage) {
+        if (offHeap != null) {
+            offHeap.allocatePages(fromPage, toPage, skipPage);
+        } else {
+            super.allocatePages(pages, fromPage, toPage, skipPage);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     BulkAdder newBulkAdder() {
-        return new BulkAdder(pages, pageSize, pageShift, pageMask);
+        return new BulkAdder(pages, addresses(), pageSize, pageShift, pageMask);
     }
 
     /**
      * {@inheritDoc}
      */
     public DeltaCursor newCursor() {
-        return new DeltaCursor(pages, pageShift, pageMask);
+        return new DeltaCursor(pages, addresses(), pageShift, pageMask);
+    }
+
+    private long[] addresses() {
+        final OffHeapPages offHeap = this.offHeap;
+        return offHeap != null ? offHeap.addresses() : null;
     }
 
     private long allocate(int numberOfPages, BulkAdder into) {
         long numberOfElements = capacityFor(numberOfPages);
         long intoIndex = allocIdx.getAndAdd(numberOfElements);
         grow(intoIndex + numberOfElements);
-        into.grow(pages);
+        into.grow(pages, addresses());
         into.init(intoIndex, numberOfPages);
         return intoIndex;
     }
 
-    private long allocate(byte[] page, BulkAdder into) {
+    /**
+     * Allocates a single page of {@code length} bytes, which is larger than the regular page size.
+     */
+    private long allocateLargePage(int length, BulkAdder into) {
         long intoIndex = allocIdx.getAndAdd(pageSize);
-        insertPage(intoIndex, page);
-        tracker.add(sizeOfByteArray(page.length));
-        into.insertPage(page);
+        int pageIndex = pageIndex(intoIndex);
+        grow(intoIndex + pageSize, pageIndex);
+        if (offHeap != null) {
+            into.insertPage(null, offHeap.insertPage(pageIndex, length));
+        } else {
+            byte[] page = new byte[length];
+            pages[pageIndex] = page;
+            tracker.add(sizeOfByteArray(length));
+            into.insertPage(page, BYTE_ARRAY_BASE);
+        }
         return intoIndex;
     }
 
-    private void insertPage(final long atIndex, final byte[] newPage) {
-        int pageIndex = pageIndex(atIndex);
-        grow(atIndex + pageSize, pageIndex);
-        pages[pageIndex] = newPage;
-    }
-
+    /**
+     * Releases all pages and returns the memory of the heap pages, which the caller
+     * removes from the tracker. Off-heap pages are removed from the tracker when they
+     * are freed, so they are not part of the returned memory.
+     */
     public final long release() {
-        return super.release();
+        long freed = super.release();
+        if (offHeap != null) {
+            offHeap.release();
+            return 0L;
+        }
+        return freed;
     }
 
     public DeltaCursor deltaCursor(DeltaCursor reuse, long offset) {
         return reuse.init(offset);
     }
 
+    /**
+     * Writes into the pages of a {@link ByteArray}. Like the {@link DeltaCursor},
+     * it accesses every page through a base object and an address, which is the
+     * page array and its array offset for on-heap pages and {@code null} and the
+     * native address for off-heap pages.
+     */
     public static final class BulkAdder {
 
         private byte[][] pages;
+        private long[] addresses;
         private final int pageShift;
         private final int pageMask;
 
-        public byte[] array;
+        private Object base;
+        private long pageAddress;
         public int offset;
         public final int limit;
 
@@ -124,10 +212,12 @@ public final class ByteArray extends PagedDataStructure<byte[]> {
 
         private BulkAdder(
                 byte[][] pages,
+                long[] addresses,
                 int pageSize,
                 int pageShift,
                 int pageMask) {
             this.pages = pages;
+            this.addresses = addresses;
             this.pageShift = pageShift;
             this.pageMask = pageMask;
             limit = pageSize;
@@ -135,36 +225,46 @@ public final class ByteArray extends PagedDataStructure<byte[]> {
         }
 
         public void addUnsignedInt(int i) {
-            offset = DeltaEncoding.encodeInt(i, array, offset);
+            offset = (int) (DeltaEncoding.encodeInt(i, base, pageAddress + offset) - pageAddress);
         }
 
         public void addVLong(long i) {
-            offset = DeltaEncoding.encodeVLong(i, array, offset);
+            offset = (int) (DeltaEncoding.encodeVLong(i, base, pageAddress + offset) - pageAddress);
+        }
+
+        /**
+         * Add the given deltas in the block encoding that is read by {@link DeltaCursor}.
+         * The space for it must have been allocated with {@link DeltaEncoding#blockSize(long[], int, int)}.
+         */
+        public void addDeltaBlocks(long[] deltas, int from, int to) {
+            offset = (int) (DeltaEncoding.encodeBlocks(deltas, from, to, base, pageAddress + offset) - pageAddress);
         }
 
-        void grow(byte[][] pages) {
+        void grow(byte[][] pages, long[] addresses) {
             this.pages = pages;
+            this.addresses = addresses;
         }
 
         void init(long fromIndex, int numberOfPages) {
             currentPage = PageUtil.pageIndex(fromIndex, pageShift);
             toPage = currentPage + numberOfPages - 1;
-            array = pages[currentPage];
+            setPage(currentPage);
             offset = PageUtil.indexInPage(fromIndex, pageMask);
             assert offset == 0;
         }
 
-        void insertPage(byte[] page) {
+        void insertPage(byte[] page, long address) {
             if (prevOffset == -1) {
                 prevOffset = offset;
             }
-            array = page;
+            base = page;
+            pageAddress = address;
             offset = 0;
         }
 
         boolean reset() {
             if (prevOffset != -1) {
-                array = pages[currentPage];
+                setPage(currentPage);
                 offset = prevOffset;
                 prevOffset = -1;
                 return true;
@@ -174,17 +274,29 @@ public final class ByteArray extends PagedDataStructure<byte[]> {
 
         public boolean next() {
             if (++currentPage <= toPage) {
-                array = pages[currentPage];
+                setPage(currentPage);
                 offset = 0;
                 return true;
             }
-            array = null;
+            base = null;
+            pageAddress = 0L;
             return false;
         }
+
+        private void setPage(int page) {
+            if (addresses == null) {
+                base = pages[page];
+                pageAddress = BYTE_ARRAY_BASE;
+            } else {
+                base = null;
+                pageAddress = addresses[page];
+            }
+        }
     }
 
     public static final class LocalAllocator {
         private static final int PREFETCH_PAGES = 4;
+        private static final int PAGE_PADDING = Long.BYTES - 1;
 
         private final ByteArray array;
 
@@ -210,7 +322,8 @@ public final class ByteArray extends PagedDataStructure<byte[]> {
         }
 
         private long localAllocate(long size, long address) {
-            long maxOffset = array.pageSize - size;
+            // the end of every page is kept free so that the last block on a page can be read with 8 byte reads
+            long maxOffset = array.pageSize - PAGE_PADDING - size;
             if (maxOffset >= adder.offset) {
                 top += size;
                 return address;
@@ -248,32 +361,69 @@ public final class ByteArray extends PagedDataStructure<byte[]> {
          * and keep the offsets as if this page would be of the correct size, we might just get by.
          */
         private long oversizingAllocate(long size) {
-            if (size > Integer.MAX_VALUE) {
+            if (size > Integer.MAX_VALUE - PAGE_PADDING) {
                 throw new IllegalArgumentException("requested page of size " + size + " is too large to be allocated");
             }
-            byte[] largePage = new byte[(int) size];
-            return array.allocate(largePage, adder);
+            return array.allocateLargePage((int) size + PAGE_PADDING, adder);
         }
     }
 
+    /**
+     * Decodes the targets of one adjacency list.
+     * The targets are stored as deltas in the block encoding of {@link DeltaEncoding#encodeBlocks(long[], int, int, byte[], int)}.
+     * Single targets are decoded with one 8 byte read and a mask, using the length
+     * from the header of the current block, without looping over the single bytes.
+     * {@link #nextTargets(long[])} decodes whole blocks at once.
+     * <p>
+     * Pages are read through their base object and address, which is the
+     * page array and its array offset for on-heap pages and {@code null}
+     * and the native address for off-heap pages.
+     * Reads may go up to 7 bytes past the end of a list, which the
+     * {@link LocalAllocator} keeps free at the end of every page.
+     */
     public static final class DeltaCursor {
 
-        private byte[][] pages;
+        private static final boolean FAST_READS =
+                UnsafeUtil.allowUnalignedMemoryAccess && ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+        private static final long[] MASKS = new long[Long.BYTES + 1];
+        private static final int FULL_HEADER_LENGTH = DeltaEncoding.headerLength(BLOCK_SIZE);
+        private static final int HEADER_MASK = (1 << (FULL_HEADER_LENGTH << 3)) - 1;
+        private static final int TARGET_BUFFER_SIZE = 8 * BLOCK_SIZE;
+
+        static {
+            for (int i = 1; i < Long.BYTES; i++) {
+                MASKS[i] = (1L << (i << 3)) - 1L;
+            }
+            MASKS[Long.BYTES] = -1L;
+        }
+
+        private final byte[][] pages;
+        private final long[] addresses;
         private final int pageShift;
         private final int pageMask;
 
-        private byte[] array;
-        private int offset;
+        private Object base;
+        private long address;
+
+        // remaining length codes of the current block
+        private int header;
+        // number of targets left in the current block
+        private int blockRemaining;
 
         private int currentTarget;
         private int maxTargets;
-        private long delta;
+        // the last returned target
+        private long current;
+
+        private long[] targetBuffer;
 
         private DeltaCursor(
                 byte[][] pages,
+                long[] addresses,
                 int pageShift,
                 int pageMask) {
             this.pages = pages;
+            this.addresses = addresses;
             this.pageShift = pageShift;
             this.pageMask = pageMask;
         }
@@ -282,11 +432,13 @@ public final class ByteArray extends PagedDataStructure<byte[]> {
          * Copy iteration state from another cursor without changing {@code other}.
          */
         public void copyFrom(DeltaCursor other) {
-            array = other.array;
-            offset = other.offset;
+            base = other.base;
+            address = other.address;
+            header = other.header;
+            blockRemaining = other.blockRemaining;
             currentTarget = other.currentTarget;
             maxTargets = other.maxTargets;
-            delta = other.delta;
+            current = other.current;
         }
 
         /**
@@ -315,8 +467,60 @@ public final class ByteArray extends PagedDataStructure<byte[]> {
          * It is undefined behavior if this is called after {@link #hasNextVLong()} returns {@code false}.
          */
         public long nextVLong() {
+            if (blockRemaining == 0) {
+                nextHeader();
+            }
+            final int code = header & 7;
+            header >>>= 3;
+            --blockRemaining;
             ++currentTarget;
-            return nextVLong(array, offset);
+            final long delta = readLong(base, address) & (-1L >>> ((7 - code) << 3));
+            address += code + 1;
+            return current += delta;
+        }
+
+        /**
+         * Decode the next targets into {@code buffer}, at most {@code buffer.length} of them,
+         * and return how many targets have been decoded.
+         * Returns 0 iff there are no more targets.
+         * This is faster than calling {@link #nextVLong()} for every target, as full blocks
+         * are decoded in one go; calls can be mixed with the other methods of the cursor.
+         */
+        public int nextTargets(long[] buffer) {
+            final int limit = Math.min(buffer.length, maxTargets - currentTarget);
+            int length = 0;
+            while (length < limit && blockRemaining > 0) {
+                buffer[length++] = nextVLong();
+            }
+            final int blocks = (limit - length) / BLOCK_SIZE;
+            if (blocks > 0) {
+                address = decodeFullBlocks(base, address, current, buffer, length, blocks);
+                length += blocks * BLOCK_SIZE;
+                currentTarget += blocks * BLOCK_SIZE;
+                current = buffer[length - 1];
+            }
+            final int count = limit - length;
+            if (count > 0 && blockRemaining == 0 && count == maxTargets - currentTarget) {
+                address = decodeLastBlock(base, address, current, buffer, length, count);
+                length = limit;
+                currentTarget = maxTargets;
+                current = buffer[length - 1];
+            }
+            while (length < limit) {
+                buffer[length++] = nextVLong();
+            }
+            return length;
+        }
+
+        /**
+         * Return a buffer for {@link #nextTargets(long[])} that is owned by this cursor.
+         * The buffer is allocated on first use and reused for every list that is read with this cursor.
+         */
+        public long[] targetBuffer() {
+            if (targetBuffer == null) {
+                targetBuffer = new long[TARGET_BUFFER_SIZE];
+            }
+            return targetBuffer;
         }
 
         /**
@@ -327,7 +531,11 @@ public final class ByteArray extends PagedDataStructure<byte[]> {
          * will return {@code false}
          */
         public long skipUntil(long target) {
-            return skipUntil(target, array, offset);
+            long value = current;
+            while (value <= target && currentTarget < maxTargets) {
+                value = nextVLong();
+            }
+            return value;
         }
 
         /**
@@ -338,79 +546,106 @@ public final class ByteArray extends PagedDataStructure<byte[]> {
          * will return {@code false}
          */
         public long advance(long target) {
-            return advance(target, array, offset);
+            long value = current;
+            while (value < target && currentTarget < maxTargets) {
+                value = nextVLong();
+            }
+            return value;
         }
 
         DeltaCursor init(long fromIndex) {
             initPage(fromIndex);
 
             currentTarget = 0;
-            delta = 0L;
-            initLength(array, offset);
+            blockRemaining = 0;
+            current = 0L;
+            maxTargets = getInt(base, address);
+            address += Integer.BYTES;
 
             return this;
         }
 
         private void initPage(long fromIndex) {
             final int currentPage = PageUtil.pageIndex(fromIndex, pageShift);
-            array = pages[currentPage];
-            offset = PageUtil.indexInPage(fromIndex, pageMask);
+            final int indexInPage = PageUtil.indexInPage(fromIndex, pageMask);
+            if (addresses == null) {
+                base = pages[currentPage];
+                address = BYTE_ARRAY_BASE + indexInPage;
+            } else {
+                base = null;
+                address = addresses[currentPage] + indexInPage;
+            }
         }
 
-        private void initLength(byte[] array, int offset) {
-            this.maxTargets = ((array[offset++] & 0xFF) << 24) |
-                    ((array[offset++] & 0xFF) << 16) |
-                    ((array[offset++] & 0xFF) << 8) |
-                    (array[offset++] & 0xFF);
-            this.offset = offset;
+        private void nextHeader() {
+            final int count = Math.min(BLOCK_SIZE, maxTargets - currentTarget);
+            header = (int) readLong(base, address) & HEADER_MASK;
+            address += DeltaEncoding.headerLength(count);
+            blockRemaining = count;
         }
 
-        private long nextVLong(byte[] page, int offset) {
-            byte b = page[offset++];
-            long i = (long) ((int) b & 0x7F);
-            for (int shift = 7; ((int) b & 0x80) != 0; shift += 7) {
-                b = page[offset++];
-                i |= ((long) b & 0x7FL) << shift;
-            }
-            this.offset = offset;
-            return delta += i;
-        }
-
-        private long skipUntil(long target, byte[] page, int offset) {
-            long value = delta;
-            int current = currentTarget;
-            int limit = maxTargets;
-            while (value <= target && current++ < limit) {
-                byte b = page[offset++];
-                long i = (long) ((int) b & 0x7F);
-                for (int shift = 7; ((int) b & 0x80) != 0; shift += 7) {
-                    b = page[offset++];
-                    i |= ((long) b & 0x7FL) << shift;
+        /**
+         * Decode {@code blocks} full blocks into {@code into}, starting at {@code offset}.
+         * All state is kept in locals so that it can stay in registers over all blocks.
+         *
+         * @return the address after the last decoded block
+         */
+        private static long decodeFullBlocks(
+                Object base,
+                long address,
+                long value,
+                long[] into,
+                int offset,
+                int blocks) {
+            for (final int end = offset + blocks * BLOCK_SIZE; offset < end; offset += BLOCK_SIZE) {
+                final int header = (int) readLong(base, address) & HEADER_MASK;
+                address += FULL_HEADER_LENGTH;
+                if (header == 0) {
+                    // all deltas take a single byte, which is common for dense neighbourhoods
+                    final long deltas = readLong(base, address);
+                    address += BLOCK_SIZE;
+                    for (int i = 0; i < BLOCK_SIZE; i++) {
+                        value += (deltas >>> (i << 3)) & 0xFFL;
+                        into[offset + i] = value;
+                    }
+                } else {
+                    for (int i = 0; i < BLOCK_SIZE; i++) {
+                        final int length = ((header >>> (i * 3)) & 7) + 1;
+                        value += readLong(base, address) & MASKS[length];
+                        address += length;
+                        into[offset + i] = value;
+                    }
                 }
-                value += i;
             }
-            this.currentTarget = current;
-            this.offset = offset;
-            this.delta = value;
-            return value;
+            return address;
         }
 
-        private long advance(long target, byte[] page, int offset) {
-            long value = delta;
-            int current = currentTarget;
-            int limit = maxTargets;
-            while (value < target && current++ < limit) {
-                byte b = page[offset++];
-                long i = (long) ((int) b & 0x7F);
-                for (int shift = 7; ((int) b & 0x80) != 0; shift += 7) {
-                    b = page[offset++];
-                    i |= ((long) b & 0x7FL) << shift;
-                }
-                value += i;
+        private static long decodeLastBlock(
+                Object base,
+                long address,
+                long value,
+                long[] into,
+                int offset,
+                int count) {
+            final int header = (int) readLong(base, address);
+            address += DeltaEncoding.headerLength(count);
+            for (int i = 0; i < count; i++) {
+                final int length = ((header >>> (i * 3)) & 7) + 1;
+                value += readLong(base, address) & MASKS[length];
+                address += length;
+                into[offset + i] = value;
+            }
+            return address;
+        }
+
+        private static long readLong(Object base, long address) {
+            if (FAST_READS) {
+                return UnsafeUtil.getLong(base, address);
+            }
+            long value = 0L;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value |= (UnsafeUtil.getByte(base, address + i) & 0xFFL) << (i << 3);
             }
-            this.currentTarget = current;
-            this.offset = offset;
-            this.delta = value;
             return value;
         }
     }
@@ -1,5 +1,9 @@
 package org.neo4j.graphalgo.core.utils.paged;
 
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+import static org.neo4j.graphalgo.core.utils.paged.OffHeapPages.BYTE_ARRAY_BASE;
+
 public final class DeltaEncoding {
 
     private static final long[] encodingSizeCache;
@@ -17,6 +21,82 @@ public final class DeltaEncoding {
         return encodingSizeCache[bits];
     }
 
+    /**
+     * Number of values that share one header in the block encoding.
+     */
+    public static final int BLOCK_SIZE = 8;
+
+    private static final int BITS_PER_LENGTH = 3;
+
+    /**
+     * Return how many bytes the block encoding of {@code value} takes, not counting the header.
+     */
+    public static int byteLength(long value) {
+        return Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(value) + 7) >>> 3);
+    }
+
+    /**
+     * Return how many bytes the header of a block with {@code count} values takes.
+     */
+    public static int headerLength(int count) {
+        return (count * BITS_PER_LENGTH + 7) >>> 3;
+    }
+
+    /**
+     * Return how many bytes {@link #encodeBlocks(long[], int, int, byte[], int)} needs to write the given values.
+     */
+    public static long blockSize(long[] values, int from, int to) {
+        int count = to - from;
+        long bytes = (long) (count / BLOCK_SIZE) * headerLength(BLOCK_SIZE) + headerLength(count % BLOCK_SIZE);
+        for (int i = from; i < to; i++) {
+            bytes += byteLength(values[i]);
+        }
+        return bytes;
+    }
+
+    /**
+     * Encode the values in blocks of {@link #BLOCK_SIZE}. Every block starts with a little-endian header
+     * of 3 bits per value, storing the number of bytes of the value minus one,
+     * followed by the values in little-endian byte order, each in as many bytes as they need.
+     * The last block holds the remaining values and has a header that is only as long as needed
+     * for those values.
+     *
+     * @return the offset after the last written byte
+     */
+    public static int encodeBlocks(long[] values, int from, int to, byte[] array, int offset) {
+        assert offset + blockSize(values, from, to) <= array.length;
+        return (int) (encodeBlocks(values, from, to, array, BYTE_ARRAY_BASE + offset) - BYTE_ARRAY_BASE);
+    }
+
+    /**
+     * Encode the values like {@link #encodeBlocks(long[], int, int, byte[], int)}, but write them
+     * through a base object and an address, which is the array and its array offset for heap memory
+     * and {@code null} and the native address for off-heap memory.
+     *
+     * @return the address after the last written byte
+     */
+    static long encodeBlocks(long[] values, int from, int to, Object base, long address) {
+        for (int start = from; start < to; start += BLOCK_SIZE) {
+            int end = Math.min(to, start + BLOCK_SIZE);
+            int header = 0;
+            for (int i = start; i < end; i++) {
+                header |= (byteLength(values[i]) - 1) << ((i - start) * BITS_PER_LENGTH);
+            }
+            for (int i = headerLength(end - start); i > 0; i--) {
+                UnsafeUtil.putByte(base, address++, (byte) header);
+                header >>>= 8;
+            }
+            for (int i = start; i < end; i++) {
+                long value = values[i];
+                for (int j = byteLength(value); j > 0; j--) {
+                    UnsafeUtil.putByte(base, address++, (byte) value);
+                    value >>>= 8;
+                }
+            }
+        }
+        return address;
+    }
+
     public static int encodeInt(int value, byte[] array, int offset) {
         array[offset++] = (byte) (value >>> 24);
         array[offset++] = (byte) (value >>> 16);
@@ -25,6 +105,14 @@ public final class DeltaEncoding {
         return offset;
     }
 
+    static long encodeInt(int value, Object base, long address) {
+        UnsafeUtil.putByte(base, address, (byte) (value >>> 24));
+        UnsafeUtil.putByte(base, address + 1, (byte) (value >>> 16));
+        UnsafeUtil.putByte(base, address + 2, (byte) (value >>> 8));
+        UnsafeUtil.putByte(base, address + 3, (byte) (value));
+        return address + 4;
+    }
+
     public static int encodeVLong(long value, byte[] array, int offset) {
         long i = value;
         while ((i & ~0x7FL) != 0L) {
@@ -34,4 +122,14 @@ public final class DeltaEncoding {
         array[offset++] = (byte) i;
         return offset;
     }
+
+    static long encodeVLong(long value, Object base, long address) {
+        long i = value;
+        while ((i & ~0x7FL) != 0L) {
+            UnsafeUtil.putByte(base, address++, (byte) ((i & 0x7FL) | 0x80L));
+            i >>>= 7L;
+        }
+        UnsafeUtil.putByte(base, address++, (byte) i);
+        return address;
+    }
 }
@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
+
+/**
+ * A read-only array of strictly increasing longs in the Elias-Fano encoding.
+ * <p>
+ * Every value is split into its lower {@code L} bits, which are stored as they are,
+ * and its upper bits, which are stored in unary as the gaps between consecutive values.
+ * With {@code L = floor(log2(universe / size))}, this takes about {@code 2 + L} bits per value
+ * instead of 64, where {@code universe} is one more than the largest value.
+ * <p>
+ * Every {@value #SAMPLE_RATE}th one and zero of the upper bits is sampled, so that
+ * {@link #get(long)} (select) and {@link #indexOf(long)} (rank) only have to scan a
+ * few words from the nearest sample.
+ */
+public final class EliasFanoLongArray {
+
+    public static final long NOT_FOUND = -1L;
+
+    private static final int SAMPLE_SHIFT = 8;
+    private static final int SAMPLE_RATE = 1 << SAMPLE_SHIFT;
+    private static final int SAMPLE_MASK = SAMPLE_RATE - 1;
+
+    private final long size;
+    private final long universe;
+    private final int lowBits;
+    private final long lowMask;
+
+    private LongArray lowerBits;
+    private LongArray upperBits;
+    private LongArray oneSamples;
+    private LongArray zeroSamples;
+
+    // number of sampled zeros that have been written while building
+    private long nextZeroSample;
+
+    /**
+     * Estimates the memory for {@code size} values that are all lower than {@code universe}.
+     */
+    public static long estimateMemoryUsage(long size, long universe) {
+        int lowBits = lowBits(size, universe);
+        long upperLength = size + (universe >>> lowBits) + 1L;
+        return shallowSizeOfInstance(EliasFanoLongArray.class) +
+                LongArray.estimateMemoryUsage(words(size * lowBits) + 1L) +
+                LongArray.estimateMemoryUsage(words(upperLength)) +
+                LongArray.estimateMemoryUsage(samples(size)) +
+                LongArray.estimateMemoryUsage(samples((universe >>> lowBits) + 1L));
+    }
+
+    /**
+     * Encodes the first {@code size} values of {@code values}, which must be strictly increasing and not negative.
+     *
+     * @throws IllegalArgumentException if the values are not strictly increasing
+     */
+    public static EliasFanoLongArray of(LongArray values, long size, AllocationTracker tracker) {
+        long universe = size == 0L ? 0L : values.get(size - 1L) + 1L;
+        EliasFanoLongArray array = new EliasFanoLongArray(size, universe, tracker);
+        long previous = -1L;
+        for (long i = 0L; i < size; i++) {
+            long value = values.get(i);
+            if (value <= previous) {
+                array.release();
+                throw new IllegalArgumentException("Values are not strictly increasing at index " + i);
+            }
+            array.set(i, value);
+            previous = value;
+        }
+        array.finish();
+        return array;
+    }
+
+    private EliasFanoLongArray(long size, long universe, AllocationTracker tracker) {
+        this.size = size;
+        this.universe = universe;
+        this.lowBits = lowBits(size, universe);
+        this.lowMask = (1L << lowBits) - 1L;
+        this.lowerBits = LongArray.newArray(words(size * lowBits) + 1L, tracker);
+        this.upperBits = LongArray.newArray(words(size + (universe >>> lowBits) + 1L), tracker);
+        this.oneSamples = LongArray.newArray(samples(size), tracker);
+        this.zeroSamples = LongArray.newArray(samples((universe >>> lowBits) + 1L), tracker);
+    }
+
+    private void set(long index, long value) {
+        long high = value >>> lowBits;
+        long position = high + index;
+        upperBits.or(position >>> 6, 1L << position);
+        if ((index & SAMPLE_MASK) == 0L) {
+            oneSamples.set(index >>> SAMPLE_SHIFT, position);
+        }
+        // zero number z ends bucket z, all values before this one are in buckets <= z
+        for (long zero; (zero = nextZeroSample << SAMPLE_SHIFT) < high; nextZeroSample++) {
+            zeroSamples.set(nextZeroSample, zero + index);
+        }
+        if (lowBits > 0) {
+            long bit = index * lowBits;
+            long word = bit >>> 6;
+            int shift = (int) (bit & 63L);
+            long low = value & lowMask;
+            lowerBits.or(word, low << shift);
+            if (shift + lowBits > Long.SIZE) {
+                lowerBits.or(word + 1L, low >>> (Long.SIZE - shift));
+            }
+        }
+    }
+
+    private void finish() {
+        long buckets = (universe >>> lowBits) + 1L;
+        for (long zero; (zero = nextZeroSample << SAMPLE_SHIFT) < buckets; nextZeroSample++) {
+            zeroSamples.set(nextZeroSample, zero + size);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Return the value at {@code index}.
+     */
+    public long get(long index) {
+        assert index < size;
+        long position = select(index, oneSamples.get(index >>> SAMPLE_SHIFT), false);
+        return ((position - index) << lowBits) | lower(index);
+    }
+
+    /**
+     * Return the index of {@code value} or {@link #NOT_FOUND} if it is not contained.
+     */
+    public long indexOf(long value) {
+        if (value < 0L || value >= universe) {
+            return NOT_FOUND;
+        }
+        long high = value >>> lowBits;
+        long position = high == 0L ? 0L : select(high - 1L, zeroSamples.get((high - 1L) >>> SAMPLE_SHIFT), true) + 1L;
+        long index = position - high;
+        long low = value & lowMask;
+        while (index < size && (upperBits.get(position >>> 6) & (1L << position)) != 0L) {
+            long lower = lower(index);
+            if (lower == low) {
+                return index;
+            }
+            if (lower > low) {
+                break;
+            }
+            position++;
+            index++;
+        }
+        return NOT_FOUND;
+    }
+
+    public boolean contains(long value) {
+        return indexOf(value) != NOT_FOUND;
+    }
+
+    public long release() {
+        if (upperBits == null) {
+            return 0L;
+        }
+        long freed = lowerBits.release() +
+                upperBits.release() +
+                oneSamples.release() +
+                zeroSamples.release();
+        lowerBits = null;
+        upperBits = null;
+        oneSamples = null;
+        zeroSamples = null;
+        return freed;
+    }
+
+    /**
+     * Return the position of the {@code rank}th one (or zero) in the upper bits,
+     * starting from the sampled position of the {@code rank & ~SAMPLE_MASK}th one (or zero).
+     */
+    private long select(long rank, long sample, boolean zeros) {
+        long remaining = rank & SAMPLE_MASK;
+        long wordIndex = sample >>> 6;
+        long word = upperBits.get(wordIndex);
+        if (zeros) {
+            word = ~word;
+        }
+        word &= -1L << sample;
+        int count;
+        while ((count = Long.bitCount(word)) <= remaining) {
+            remaining -= count;
+            word = upperBits.get(++wordIndex);
+            if (zeros) {
+                word = ~word;
+            }
+        }
+        for (; remaining > 0L; remaining--) {
+            word &= word - 1L;
+        }
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private long lower(long index) {
+        if (lowBits == 0) {
+            return 0L;
+        }
+        long bit = index * lowBits;
+        long word = bit >>> 6;
+        int shift = (int) (bit & 63L);
+        long value = lowerBits.get(word) >>> shift;
+        if (shift + lowBits > Long.SIZE) {
+            value |= lowerBits.get(word + 1L) << (Long.SIZE - shift);
+        }
+        return value & lowMask;
+    }
+
+    private static int lowBits(long size, long universe) {
+        if (size == 0L || universe <= size) {
+            return 0;
+        }
+        return Math.min(62, 63 - Long.numberOfLeadingZeros(universe / size));
+    }
+
+    private static long words(long bits) {
+        return (bits + 63L) >>> 6;
+    }
+
+    private static long samples(long count) {
+        return (count + SAMPLE_MASK) >>> SAMPLE_SHIFT;
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+/**
+ * A paged array of HyperLogLog counters with {@code 2^log2m} byte
+ * registers each. The registers of one counter never span two pages,
+ * so unions and estimations work on a single {@code byte[]} slice.
+ * <p>
+ * The relative standard deviation of an estimation is about
+ * {@code 1.04 / sqrt(2^log2m)}.
+ */
+public final class HyperLogLogCounterArray extends PagedDataStructure<byte[]> {
+
+    public static final int MIN_LOG2M = 4;
+    public static final int MAX_LOG2M = 12;
+
+    private static final PageAllocator.Factory<byte[]> ALLOCATOR_FACTORY =
+            PageAllocator.ofArray(byte[].class);
+
+    private static final double[] INVERSE_POWERS_OF_TWO = new double[Long.SIZE + 2];
+
+    static {
+        for (int i = 0; i < INVERSE_POWERS_OF_TWO.length; i++) {
+            INVERSE_POWERS_OF_TWO[i] = Math.scalb(1.0, -i);
+        }
+    }
+
+    public static long estimateMemoryUsage(long counters, int log2m) {
+        return ALLOCATOR_FACTORY.estimateMemoryUsage(
+                counters << checkLog2m(log2m),
+                HyperLogLogCounterArray.class);
+    }
+
+    public static HyperLogLogCounterArray newArray(long counters, int log2m, AllocationTracker tracker) {
+        return new HyperLogLogCounterArray(
+                counters,
+                checkLog2m(log2m),
+                ALLOCATOR_FACTORY.newAllocator(tracker));
+    }
+
+    private final int log2m;
+    private final int registers;
+    private final double alphaMM;
+
+    private HyperLogLogCounterArray(long counters, int log2m, PageAllocator<byte[]> allocator) {
+        super(counters << log2m, allocator);
+        this.log2m = log2m;
+        this.registers = 1 << log2m;
+        this.alphaMM = alpha(registers) * registers * registers;
+    }
+
+    public int log2m() {
+        return log2m;
+    }
+
+    /**
+     * Adds a value to the counter, values are hashed before they are counted.
+     */
+    public void add(long counter, long value) {
+        final long hash = mix(value);
+        final int register = (int) (hash & (registers - 1));
+        final int rank = Math.min(
+                Long.numberOfTrailingZeros(hash >>> log2m) + 1,
+                Long.SIZE - log2m + 1);
+        final long offset = (counter << log2m) + register;
+        final byte[] page = pages[pageIndex(offset)];
+        final int index = indexInPage(offset);
+        if (page[index] < rank) {
+            page[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Copies the registers of a counter from another array with the same {@code log2m}.
+     */
+    public void copy(long counter, HyperLogLogCounterArray from) {
+        assert from.log2m == log2m;
+        final long offset = counter << log2m;
+        System.arraycopy(
+                from.pages[pageIndex(offset)],
+                indexInPage(offset),
+                pages[pageIndex(offset)],
+                indexInPage(offset),
+                registers);
+    }
+
+    /**
+     * Merges the {@code source} counter of the other array into the {@code target} counter of this array.
+     *
+     * @return {@code true} if any register of the target counter has changed
+     */
+    public boolean union(long target, HyperLogLogCounterArray from, long source) {
+        assert from.log2m == log2m;
+        final long targetOffset = target << log2m;
+        final long sourceOffset = source << log2m;
+        final byte[] targetPage = pages[pageIndex(targetOffset)];
+        final byte[] sourcePage = from.pages[pageIndex(sourceOffset)];
+        final int targetIndex = indexInPage(targetOffset);
+        final int sourceIndex = indexInPage(sourceOffset);
+        boolean changed = false;
+        for (int i = 0; i < registers; i++) {
+            final byte value = sourcePage[sourceIndex + i];
+            if (value > targetPage[targetIndex + i]) {
+                targetPage[targetIndex + i] = value;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return the estimated number of distinct values that have been added to the counter
+     */
+    public double count(long counter) {
+        final long offset = counter << log2m;
+        final byte[] page = pages[pageIndex(offset)];
+        final int index = indexInPage(offset);
+        double sum = 0.0;
+        int zeros = 0;
+        for (int i = 0; i < registers; i++) {
+            final byte value = page[index + i];
+            sum += INVERSE_POWERS_OF_TWO[value];
+            if (value == 0) {
+                zeros++;
+            }
+        }
+        final double estimate = alphaMM / sum;
+        if (zeros > 0 && estimate <= 2.5 * registers) {
+            // linear counting is more precise for small cardinalities
+            return registers * Math.log((double) registers / zeros);
+        }
+        return estimate;
+    }
+
+    private static double alpha(int registers) {
+        switch (registers) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1.0 + 1.079 / registers);
+        }
+    }
+
+    // finalizer of MurmurHash3, offset so that 0 does not hash to 0
+    private static long mix(long value) {
+        value += 0x9E3779B97F4A7C15L;
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static int checkLog2m(int log2m) {
+        if (log2m < MIN_LOG2M || log2m > MAX_LOG2M) {
+            throw new IllegalArgumentException(String.format(
+                    "The precision must be between %d and %d, but was %d",
+                    MIN_LOG2M,
+                    MAX_LOG2M,
+                    log2m));
+        }
+        return log2m;
+    }
+}
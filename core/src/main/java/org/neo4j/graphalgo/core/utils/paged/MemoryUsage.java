@@ -221,6 +221,20 @@ public final class MemoryUsage {
         return alignObjectSize(size);
     }
 
+    /**
+     * Returns the amount of heap, in bytes, that can still be allocated
+     * without growing beyond the maximum heap size.
+     */
+    public static long availableMemory() {
+        Runtime rt = Runtime.getRuntime();
+
+        long max = rt.maxMemory(); // max allocated
+        long total = rt.totalMemory(); // currently allocated
+        long free = rt.freeMemory(); // unused portion of currently allocated
+
+        return max - total + free;
+    }
+
     /**
      * Aligns an object size to be the next multiple of object alignment bytes.
      */
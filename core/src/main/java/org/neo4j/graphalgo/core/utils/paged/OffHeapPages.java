@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+import java.util.Arrays;
+
+/**
+ * A table of pages that live outside of the Java heap.
+ * Off-heap pages are neither scanned nor moved by the garbage collector
+ * which makes them a good fit for the large, long-lived and read-mostly
+ * data of a loaded graph.
+ * <p>
+ * Pages are addressed by their native address and can be read and written
+ * through {@link UnsafeUtil} with a {@code null} base object, so that the same
+ * code can access on-heap pages (base = array, address = array offset)
+ * and off-heap pages (base = null, address = native address).
+ * <p>
+ * Pages are allocated as the owning data structure grows and are zeroed,
+ * like new heap pages. The memory is added to the {@link AllocationTracker} when a page
+ * is allocated and removed when it is freed. It must be freed with {@link #release()},
+ * it is not freed by the garbage collector.
+ */
+final class OffHeapPages {
+
+    static final long BYTE_ARRAY_BASE = UnsafeUtil.arrayBaseOffset(byte[].class);
+
+    private final long pageBytes;
+    private final AllocationTracker tracker;
+    private volatile long[] addresses;
+    // the size of every allocated page, inserted pages can be larger than a regular page
+    private long[] sizes;
+
+    OffHeapPages(long pageBytes, AllocationTracker tracker) {
+        this.pageBytes = pageBytes;
+        this.tracker = tracker;
+        this.addresses = new long[0];
+        this.sizes = new long[0];
+    }
+
+    /**
+     * Return the addresses of all pages, indexed by page. The array may be longer
+     * than the number of pages and is only valid until the next page has been allocated.
+     */
+    long[] addresses() {
+        return addresses;
+    }
+
+    /**
+     * Allocates the pages {@code [fromPage, toPage)}, except for {@code skipPage}.
+     */
+    synchronized void allocatePages(int fromPage, int toPage, int skipPage) {
+        long[] addresses = ensureCapacity(toPage);
+        for (int i = fromPage; i < toPage; i++) {
+            if (i != skipPage && addresses[i] == 0L) {
+                addresses[i] = allocate(pageBytes);
+                sizes[i] = pageBytes;
+            }
+        }
+        this.addresses = addresses;
+    }
+
+    /**
+     * Allocates a page of {@code bytes} at {@code pageIndex}, which may be larger
+     * than a regular page, and returns its address.
+     * A page that has already been allocated at that index is freed.
+     */
+    synchronized long insertPage(int pageIndex, long bytes) {
+        long[] addresses = ensureCapacity(pageIndex + 1);
+        if (addresses[pageIndex] != 0L) {
+            free(addresses[pageIndex], sizes[pageIndex]);
+        }
+        long address = allocate(bytes);
+        addresses[pageIndex] = address;
+        sizes[pageIndex] = bytes;
+        this.addresses = addresses;
+        return address;
+    }
+
+    /**
+     * Frees all pages and removes them from the tracker. Calling this more than once is a no-op.
+     * The pages must not be accessed after they have been released.
+     */
+    synchronized void release() {
+        long[] addresses = this.addresses;
+        long[] sizes = this.sizes;
+        this.addresses = new long[0];
+        this.sizes = new long[0];
+        for (int i = 0; i < addresses.length; i++) {
+            if (addresses[i] != 0L) {
+                free(addresses[i], sizes[i]);
+            }
+        }
+    }
+
+    private long[] ensureCapacity(int pages) {
+        long[] addresses = this.addresses;
+        if (addresses.length < pages) {
+            int length = ArrayUtil.oversize(pages, Long.BYTES);
+            addresses = Arrays.copyOf(addresses, length);
+            sizes = Arrays.copyOf(sizes, length);
+        }
+        return addresses;
+    }
+
+    private long allocate(long bytes) {
+        long address = UnsafeUtil.allocateMemory(Math.max(1L, bytes));
+        UnsafeUtil.setMemory(address, bytes, (byte) 0);
+        tracker.add(bytes);
+        return address;
+    }
+
+    private void free(long address, long bytes) {
+        UnsafeUtil.free(address);
+        tracker.remove(bytes);
+    }
+}
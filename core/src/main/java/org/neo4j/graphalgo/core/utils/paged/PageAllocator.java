@@ -19,6 +19,8 @@
 package org.neo4j.graphalgo.core.utils.paged;
 
 import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
@@ -34,6 +36,13 @@ public abstract class PageAllocator<T> {
 
     public abstract long bytesPerPage();
 
+    /**
+     * Called when a data structure is released with all of its pages.
+     * The pages must no longer be used by the data structure.
+     */
+    public void releasePages(T[] pages) {
+    }
+
     public final long estimateMemoryUsage(long size) {
         long numPages = PageUtil.numPagesFor(size, pageSize());
         return numPages * bytesPerPage();
@@ -44,7 +53,20 @@ public abstract class PageAllocator<T> {
             long bytesPerPage,
             Supplier<T> newPage,
             T[] emptyPages) {
-        return new Factory<>(pageSize, bytesPerPage, pageFactory(newPage, bytesPerPage), emptyPages);
+        return new Factory<>(pageSize, bytesPerPage, pageFactory(newPage, bytesPerPage), null, emptyPages);
+    }
+
+    /**
+     * Create a factory for pages that can be recycled through a {@link PagePool}.
+     * {@code clearPage} must reset a recycled page to the state of a new page.
+     */
+    public static <T> Factory<T> of(
+            int pageSize,
+            long bytesPerPage,
+            Supplier<T> newPage,
+            Consumer<T> clearPage,
+            T[] emptyPages) {
+        return new Factory<>(pageSize, bytesPerPage, pageFactory(newPage, bytesPerPage), clearPage, emptyPages);
     }
 
     public static <T> Factory<T> of(
@@ -52,7 +74,7 @@ public abstract class PageAllocator<T> {
             long bytesPerPage,
             PageFactory<T> newPage,
             T[] emptyPages) {
-        return new Factory<>(pageSize, bytesPerPage, newPage, emptyPages);
+        return new Factory<>(pageSize, bytesPerPage, newPage, null, emptyPages);
     }
 
     @SuppressWarnings("unchecked")
@@ -71,7 +93,7 @@ public abstract class PageAllocator<T> {
             return (T) Array.newInstance(componentType, pageSize);
         };
 
-        return of(pageSize, bytesPerPage, newPage, emptyPages);
+        return new Factory<>(pageSize, bytesPerPage, newPage, arrayClearer(componentType), emptyPages);
     }
 
     @SuppressWarnings("unchecked")
@@ -88,13 +110,31 @@ public abstract class PageAllocator<T> {
             return (T) Array.newInstance(componentType, pageSize);
         };
 
-        return of(pageSize, bytesPerPage, newPage, emptyPages);
+        return new Factory<>(pageSize, bytesPerPage, newPage, arrayClearer(componentType), emptyPages);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Consumer<T> arrayClearer(Class<?> componentType) {
+        if (componentType == long.class) {
+            return page -> Arrays.fill((long[]) page, 0L);
+        }
+        if (componentType == int.class) {
+            return page -> Arrays.fill((int[]) page, 0);
+        }
+        if (componentType == double.class) {
+            return page -> Arrays.fill((double[]) page, 0.0);
+        }
+        if (componentType == byte.class) {
+            return page -> Arrays.fill((byte[]) page, (byte) 0);
+        }
+        return null;
     }
 
     public static final class Factory<T> {
         private final int pageSize;
         private final long bytesPerPage;
         private final PageFactory<T> newPage;
+        private final Consumer<T> clearPage;
 
         private final T[] emptyPages;
 
@@ -102,10 +142,12 @@ public abstract class PageAllocator<T> {
                 int pageSize,
                 long bytesPerPage,
                 PageFactory<T> newPage,
+                Consumer<T> clearPage,
                 T[] emptyPages) {
             this.pageSize = pageSize;
             this.bytesPerPage = bytesPerPage;
             this.newPage = newPage;
+            this.clearPage = clearPage;
             this.emptyPages = emptyPages;
         }
 
@@ -123,6 +165,16 @@ public abstract class PageAllocator<T> {
         }
 
         PageAllocator<T> newAllocator(AllocationTracker tracker) {
+            if (clearPage != null && tracker != null && tracker.pagePool() != null) {
+                return new PoolingAllocator<>(
+                        newPage,
+                        clearPage,
+                        emptyPages,
+                        pageSize,
+                        bytesPerPage,
+                        tracker,
+                        tracker.pagePool());
+            }
             if (AllocationTracker.isTracking(tracker)) {
                 return new TrackingAllocator<>(
                         newPage,
@@ -194,6 +246,79 @@ public abstract class PageAllocator<T> {
         }
     }
 
+    private static final class PoolingAllocator<T> extends PageAllocator<T> {
+
+        private final PageFactory<T> newPage;
+        private final Consumer<T> clearPage;
+        private final T[] emptyPages;
+        private final Class<?> pageType;
+        private final int pageSize;
+        private final long bytesPerPage;
+        private final AllocationTracker tracker;
+        private final PagePool pool;
+
+        private PoolingAllocator(
+                PageFactory<T> newPage,
+                Consumer<T> clearPage,
+                T[] emptyPages,
+                int pageSize,
+                long bytesPerPage,
+                AllocationTracker tracker,
+                PagePool pool) {
+            assert BitUtil.isPowerOfTwo(pageSize);
+            this.newPage = newPage;
+            this.clearPage = clearPage;
+            this.emptyPages = emptyPages;
+            this.pageType = emptyPages.getClass().getComponentType();
+            this.pageSize = pageSize;
+            this.bytesPerPage = bytesPerPage;
+            this.tracker = tracker;
+            this.pool = pool;
+        }
+
+        @Override
+        public T newPage() {
+            T page = pool.poll(pageType, pageSize, bytesPerPage);
+            if (page == null) {
+                tracker.pageFromPool(false);
+                return newPage.newPage(tracker);
+            }
+            tracker.pageFromPool(true);
+            tracker.add(bytesPerPage);
+            clearPage.accept(page);
+            return page;
+        }
+
+        @Override
+        public void releasePages(T[] pages) {
+            for (T page : pages) {
+                // pages of a different size, such as the oversized pages of a ByteArray, are not recycled
+                if (page != null
+                        && page.getClass() == pageType
+                        && (!pageType.isArray() || Array.getLength(page) == pageSize)) {
+                    if (!pool.offer(page, pageSize, bytesPerPage)) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public int pageSize() {
+            return pageSize;
+        }
+
+        @Override
+        public long bytesPerPage() {
+            return bytesPerPage;
+        }
+
+        @Override
+        public T[] emptyPages() {
+            return emptyPages;
+        }
+    }
+
     private static final class DirectAllocator<T> extends PageAllocator<T> {
 
         private final PageFactory<T> newPage;
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of released pages that can be handed out again to new paged data structures.
+ * Pages are grouped by size class, that is the page type and the number of elements per page.
+ * <p>
+ * Pages are returned to the pool on {@link PagedDataStructure#release()} and are zeroed
+ * lazily when they are taken out of the pool again, so that releasing stays cheap and
+ * pages that are never reused are never cleared.
+ * The pool retains at most {@link #maxRetainedBytes()}, further released pages are
+ * left to the garbage collector.
+ * <p>
+ * A pool is used by all allocations that are tracked with an {@link AllocationTracker}
+ * that has been created with {@link AllocationTracker#create(PagePool)}, which also
+ * counts how many pages could be reused.
+ */
+public final class PagePool {
+
+    /**
+     * The size of the {@link #DEFAULT} pool can be set with this system property, in bytes.
+     * The default is a 16th of the maximum heap size.
+     */
+    public static final String MAX_RETAINED_BYTES_PROPERTY = "org.neo4j.graphalgo.pagePool.maxRetainedBytes";
+
+    public static final PagePool DEFAULT = create(Long.getLong(
+            MAX_RETAINED_BYTES_PROPERTY,
+            Runtime.getRuntime().maxMemory() >>> 4));
+
+    private final long maxRetainedBytes;
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final ConcurrentMap<SizeClass, Queue<Object>> pages = new ConcurrentHashMap<>();
+
+    public static PagePool create(long maxRetainedBytes) {
+        if (maxRetainedBytes < 0L) {
+            throw new IllegalArgumentException("Invalid pool size: " + maxRetainedBytes);
+        }
+        return new PagePool(maxRetainedBytes);
+    }
+
+    private PagePool(long maxRetainedBytes) {
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    /**
+     * Return the maximum number of bytes that are kept in this pool.
+     */
+    public long maxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+
+    /**
+     * Return the number of bytes that are currently kept in this pool.
+     */
+    public long retainedBytes() {
+        return retainedBytes.get();
+    }
+
+    /**
+     * Drop all retained pages.
+     */
+    public void clear() {
+        pages.forEach((sizeClass, queue) -> {
+            while (queue.poll() != null) {
+                retainedBytes.addAndGet(-sizeClass.bytesPerPage);
+            }
+        });
+    }
+
+    /**
+     * Take a page of the given size class out of the pool or return {@code null} if there is none.
+     * The page is not cleared.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T poll(Class<?> pageType, int pageSize, long bytesPerPage) {
+        Queue<Object> queue = pages.get(new SizeClass(pageType, pageSize, bytesPerPage));
+        if (queue == null) {
+            return null;
+        }
+        Object page = queue.poll();
+        if (page != null) {
+            retainedBytes.addAndGet(-bytesPerPage);
+        }
+        return (T) page;
+    }
+
+    /**
+     * Put a page into the pool, unless the pool would grow beyond its limit.
+     *
+     * @return true iff the page has been retained
+     */
+    boolean offer(Object page, int pageSize, long bytesPerPage) {
+        long retained;
+        do {
+            retained = retainedBytes.get();
+            if (retained + bytesPerPage > maxRetainedBytes) {
+                return false;
+            }
+        } while (!retainedBytes.compareAndSet(retained, retained + bytesPerPage));
+        pages.computeIfAbsent(
+                new SizeClass(page.getClass(), pageSize, bytesPerPage),
+                key -> new ConcurrentLinkedQueue<>()
+        ).offer(page);
+        return true;
+    }
+
+    private static final class SizeClass {
+        private final Class<?> pageType;
+        private final int pageSize;
+        private final long bytesPerPage;
+
+        private SizeClass(Class<?> pageType, int pageSize, long bytesPerPage) {
+            this.pageType = pageType;
+            this.pageSize = pageSize;
+            this.bytesPerPage = bytesPerPage;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SizeClass sizeClass = (SizeClass) o;
+            return pageSize == sizeClass.pageSize && pageType == sizeClass.pageType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pageType, pageSize);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfLongArray;
+
+/**
+ * A fixed size bit set over {@code long} indices that can be updated
+ * concurrently. The bits are stored in pages of {@link AtomicLongArray}s,
+ * 64 bits per word. Word level access is exposed so that callers can
+ * scan over ranges of set bits without testing every single index.
+ */
+public final class PagedAtomicBitSet extends PagedDataStructure<AtomicLongArray> {
+
+    private static final PageAllocator.Factory<AtomicLongArray> ALLOCATOR_FACTORY;
+
+    static {
+        int pageSize = PageUtil.pageSizeFor(Long.BYTES);
+        long pageUsage = shallowSizeOfInstance(AtomicLongArray.class) + sizeOfLongArray(pageSize);
+
+        ALLOCATOR_FACTORY = PageAllocator.of(
+                pageSize,
+                pageUsage,
+                () -> new AtomicLongArray(pageSize),
+                new AtomicLongArray[0]);
+    }
+
+    public static long estimateMemoryUsage(long bits) {
+        return ALLOCATOR_FACTORY.estimateMemoryUsage(wordsFor(bits), PagedAtomicBitSet.class);
+    }
+
+    public static PagedAtomicBitSet newBitSet(long bits, AllocationTracker tracker) {
+        return new PagedAtomicBitSet(bits, ALLOCATOR_FACTORY.newAllocator(tracker));
+    }
+
+    private final long bits;
+
+    private PagedAtomicBitSet(long bits, PageAllocator<AtomicLongArray> allocator) {
+        super(wordsFor(bits), allocator);
+        this.bits = bits;
+    }
+
+    /**
+     * @return the number of bits this set can hold
+     */
+    public long bits() {
+        return bits;
+    }
+
+    /**
+     * @return the number of 64 bit words backing this set
+     */
+    public long words() {
+        return wordsFor(bits);
+    }
+
+    public boolean get(long index) {
+        assert index < bits;
+        final long word = index >>> 6;
+        final long mask = 1L << index;
+        return (pages[pageIndex(word)].get(indexInPage(word)) & mask) != 0L;
+    }
+
+    public void set(long index) {
+        getAndSet(index);
+    }
+
+    /**
+     * Sets the bit at the given index.
+     *
+     * @return {@code true} if the bit was already set, {@code false} if this call set it
+     */
+    public boolean getAndSet(long index) {
+        assert index < bits;
+        final long word = index >>> 6;
+        final long mask = 1L << index;
+        final AtomicLongArray page = pages[pageIndex(word)];
+        final int indexInPage = indexInPage(word);
+        long current = page.get(indexInPage);
+        while ((current & mask) == 0L) {
+            if (page.compareAndSet(indexInPage, current, current | mask)) {
+                return false;
+            }
+            current = page.get(indexInPage);
+        }
+        return true;
+    }
+
+    /**
+     * @return the word at the given word index, bit {@code i} of the word is index {@code wordIndex * 64 + i}
+     */
+    public long word(long wordIndex) {
+        return pages[pageIndex(wordIndex)].get(indexInPage(wordIndex));
+    }
+
+    /**
+     * Clears all words in the range {@code [fromWord, toWord)}.
+     * Not atomic in regard to concurrent updates within that range.
+     */
+    public void clearWords(long fromWord, long toWord) {
+        for (long word = fromWord; word < toWord; word++) {
+            pages[pageIndex(word)].lazySet(indexInPage(word), 0L);
+        }
+    }
+
+    public void clear() {
+        clearWords(0L, words());
+    }
+
+    /**
+     * @return the number of set bits in the range {@code [fromWord, toWord)} of words
+     */
+    public long cardinality(long fromWord, long toWord) {
+        long count = 0L;
+        for (long word = fromWord; word < toWord; word++) {
+            count += Long.bitCount(word(word));
+        }
+        return count;
+    }
+
+    public long cardinality() {
+        return cardinality(0L, words());
+    }
+
+    private static long wordsFor(long bits) {
+        return (bits + 63L) >>> 6;
+    }
+}
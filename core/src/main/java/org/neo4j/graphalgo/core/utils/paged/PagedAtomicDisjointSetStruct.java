@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import org.neo4j.graphalgo.core.write.PropertyTranslator;
+
+/**
+ * A disjoint set struct that supports concurrent {@link #union(long, long)}
+ * and {@link #find(long)} calls without locking.
+ * <p>
+ * Roots are linked under the root with the smaller id, so concurrent
+ * unions can never form a cycle. {@link #find(long)} shortens the paths
+ * it walks by path halving with CAS, failed updates are simply skipped.
+ * The parent is stored with an offset of one, so that the zeroed
+ * pages represent singleton sets without initialization.
+ */
+public final class PagedAtomicDisjointSetStruct {
+
+    private final PagedAtomicLongArray parent;
+    private final long capacity;
+
+    public static long estimateSize(long capacity) {
+        return PagedAtomicLongArray.estimateMemoryUsage(capacity)
+                + MemoryUsage.shallowSizeOfInstance(PagedAtomicDisjointSetStruct.class);
+    }
+
+    public PagedAtomicDisjointSetStruct(long capacity, AllocationTracker tracker) {
+        this.parent = PagedAtomicLongArray.newArray(capacity, tracker);
+        this.capacity = capacity;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public long find(long p) {
+        long pv;
+        while ((pv = parent.get(p)) != 0L) {
+            final long next = pv - 1L;
+            final long nv = parent.get(next);
+            if (nv == 0L) {
+                return next;
+            }
+            // path halving, skip over the parent
+            parent.cas(p, pv, nv);
+            p = nv - 1L;
+        }
+        return p;
+    }
+
+    /**
+     * Merges the sets of both elements.
+     *
+     * @return {@code true} if this call merged two sets, {@code false} if they were already the same set
+     */
+    public boolean union(long p, long q) {
+        while (true) {
+            long pSet = find(p);
+            long qSet = find(q);
+            if (pSet == qSet) {
+                return false;
+            }
+            if (pSet < qSet) {
+                final long tmp = pSet;
+                pSet = qSet;
+                qSet = tmp;
+            }
+            if (parent.cas(pSet, 0L, qSet + 1L)) {
+                return true;
+            }
+        }
+    }
+
+    public long release() {
+        return parent.release();
+    }
+
+    public static final class Translator implements PropertyTranslator.OfLong<PagedAtomicDisjointSetStruct> {
+
+        public static final PropertyTranslator<PagedAtomicDisjointSetStruct> INSTANCE = new Translator();
+
+        @Override
+        public long toLong(final PagedAtomicDisjointSetStruct data, final long nodeId) {
+            return data.find(nodeId);
+        }
+    }
+}
@@ -38,6 +38,10 @@ public final class PagedAtomicDoubleArray extends PagedDataStructure<AtomicDoubl
                 new AtomicDoubleArray[0]);
     }
 
+    public static long estimateMemoryUsage(long size) {
+        return ALLOCATOR_FACTORY.estimateMemoryUsage(size, PagedAtomicDoubleArray.class);
+    }
+
     public static PagedAtomicDoubleArray newArray(long size, AllocationTracker tracker) {
         return new PagedAtomicDoubleArray(size, ALLOCATOR_FACTORY.newAllocator(tracker));
     }
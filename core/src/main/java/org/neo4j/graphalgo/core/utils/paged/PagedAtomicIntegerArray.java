@@ -37,10 +37,15 @@ public final class PagedAtomicIntegerArray extends PagedDataStructure<AtomicInte
                 pageSize,
                 pageUsage,
                 () -> new AtomicIntegerArray(pageSize),
+                PagedAtomicIntegerArray::clear,
                 new AtomicIntegerArray[0]);
     }
 
 
+    public static long estimateMemoryUsage(long size) {
+        return ALLOCATOR_FACTORY.estimateMemoryUsage(size, PagedAtomicIntegerArray.class);
+    }
+
     public static PagedAtomicIntegerArray newArray(long size, AllocationTracker tracker) {
         return new PagedAtomicIntegerArray(size, ALLOCATOR_FACTORY.newAllocator(tracker));
     }
@@ -79,6 +84,12 @@ public final class PagedAtomicIntegerArray extends PagedDataStructure<AtomicInte
         return pages[pageIndex].compareAndSet(indexInPage, expected, update);
     }
 
+    private static void clear(AtomicIntegerArray page) {
+        for (int i = 0; i < page.length(); i++) {
+            page.lazySet(i, 0);
+        }
+    }
+
     public static class Translator implements PropertyTranslator.OfInt<PagedAtomicIntegerArray> {
 
         public static final PagedAtomicIntegerArray.Translator INSTANCE = new PagedAtomicIntegerArray.Translator();
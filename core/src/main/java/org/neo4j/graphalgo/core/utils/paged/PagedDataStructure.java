@@ -93,7 +93,11 @@ public class PagedDataStructure<T> {
     public long release() {
         size.set(0);
         long freed = allocator.estimateMemoryUsage(capacity.getAndSet(0));
-        pages = null;
+        T[] pages = this.pages;
+        this.pages = null;
+        if (pages != null) {
+            allocator.releasePages(pages);
+        }
         return freed;
     }
 
@@ -161,13 +165,21 @@ public class PagedDataStructure<T> {
 
     private void setPages(int numPages, int currentNumPages, int skipPage) {
         T[] pages = Arrays.copyOf(this.pages, numPages);
-        for (int i = currentNumPages; i < numPages; i++) {
+        allocatePages(pages, currentNumPages, numPages, skipPage);
+        this.pages = pages;
+        this.capacity.set(capacityFor(numPages));
+    }
+
+    /**
+     * Allocates the new pages {@code [fromPage, toPage)} of a grown page table,
+     * except for {@code skipPage}.
+     */
+    void allocatePages(T[] pages, int fromPage, int toPage, int skipPage) {
+        for (int i = fromPage; i < toPage; i++) {
             if (i != skipPage) {
                 pages[i] = allocateNewPage();
             }
         }
-        this.pages = pages;
-        this.capacity.set(capacityFor(numPages));
     }
 
     T allocateNewPage() {
@@ -70,6 +70,13 @@ public final class PagedLongLongDoubleMap extends PagedDataStructure<PagedLongLo
         return pages[pageIndex].get(indexInPage, index2, defaultValue);
     }
 
+    public boolean containsKey(long index1, long index2) {
+        assert index1 < capacity();
+        int pageIndex = pageIndex(index1);
+        int indexInPage = indexInPage(index1);
+        return pages[pageIndex].containsKey(indexInPage, index2);
+    }
+
     public void put(long index1, long index2, double value) {
         assert index1 < capacity();
         int pageIndex = pageIndex(index1);
@@ -91,6 +98,11 @@ public final class PagedLongLongDoubleMap extends PagedDataStructure<PagedLongLo
             return map != null ? map.getOrDefault(index2, defaultValue) : defaultValue;
         }
 
+        boolean containsKey(int indexInPage, long index2) {
+            LongDoubleMap map = page[indexInPage];
+            return map != null && map.containsKey(index2);
+        }
+
         void put(int indexInPage, long index2, double value) {
             mapForIndex(indexInPage).put(index2, value);
         }
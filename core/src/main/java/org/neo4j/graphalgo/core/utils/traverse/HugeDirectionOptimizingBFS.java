@@ -0,0 +1,406 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.traverse;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+import org.neo4j.graphalgo.api.HugeRelationshipIterator;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.IntArray;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphalgo.core.utils.paged.MemoryRange;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicBitSet;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Parallel, direction-optimizing breadth first search on a {@link HugeGraph}.
+ * <p>
+ * Every level is either expanded top-down, where each node of the frontier
+ * claims its unvisited neighbours, or bottom-up, where each unvisited node
+ * looks for any parent in the frontier and stops at the first one found.
+ * Bottom-up steps are cheaper once the frontier covers a large part of the
+ * remaining edges, which is the case for the middle levels of low-diameter
+ * graphs. The heuristic follows Beamer et al.: switch to bottom-up when the
+ * frontier edges exceed {@code unexploredEdges / alpha} and switch back once
+ * the frontier shrinks below {@code nodeCount / beta} nodes.
+ * <p>
+ * The frontier, the next frontier and the visited set are paged bit sets.
+ * The node id space is split into ranges of whole bit set words and every
+ * task owns one range, so a bottom-up step needs no synchronization at all.
+ * <p>
+ * Bottom-up steps traverse the reverse of the given direction,
+ * so the graph must be loaded with both directions for them to be used;
+ * otherwise the search stays top-down.
+ */
+public final class HugeDirectionOptimizingBFS {
+
+    public static final int DEFAULT_ALPHA = 14;
+    public static final int DEFAULT_BETA = 24;
+
+    private static final long MIN_BATCH_SIZE = 4096L;
+
+    private final HugeGraph graph;
+    private final Direction direction;
+    private final Direction reverse;
+    private final boolean bottomUp;
+    private final long nodeCount;
+    private final ExecutorService executor;
+    private final List<Task> tasks;
+
+    private PagedAtomicBitSet visited;
+    private PagedAtomicBitSet frontier;
+    private PagedAtomicBitSet next;
+    private IntArray distances;
+    private LongArray parents;
+
+    private int alpha = DEFAULT_ALPHA;
+    private int beta = DEFAULT_BETA;
+    private TerminationFlag terminationFlag = TerminationFlag.RUNNING_TRUE;
+    private ProgressLogger progressLogger = ProgressLogger.NULL_LOGGER;
+
+    private long visitedNodes;
+    private int levels;
+    private int topDownSteps;
+    private int bottomUpSteps;
+    private long edgeInspections;
+
+    public static MemoryRange memoryEstimation(long nodeCount) {
+        return MemoryRange.of(PagedAtomicBitSet.estimateMemoryUsage(nodeCount))
+                .times(3)
+                .add(IntArray.estimateMemoryUsage(nodeCount))
+                .add(LongArray.estimateMemoryUsage(nodeCount));
+    }
+
+    /**
+     * @param graph the graph to traverse
+     * @param direction the direction in which relationships are followed
+     * @param bottomUp whether the graph has been loaded with the reverse of
+     *                 {@code direction} so that bottom-up steps can be used
+     */
+    public HugeDirectionOptimizingBFS(
+            HugeGraph graph,
+            Direction direction,
+            boolean bottomUp,
+            int concurrency,
+            ExecutorService executor,
+            AllocationTracker tracker) {
+        this.graph = graph;
+        this.direction = direction;
+        this.reverse = direction.reverse();
+        this.bottomUp = bottomUp;
+        this.nodeCount = graph.nodeCount();
+        this.executor = executor;
+        this.visited = PagedAtomicBitSet.newBitSet(nodeCount, tracker);
+        this.frontier = PagedAtomicBitSet.newBitSet(nodeCount, tracker);
+        this.next = PagedAtomicBitSet.newBitSet(nodeCount, tracker);
+        this.distances = IntArray.newArray(nodeCount, tracker);
+        this.parents = LongArray.newArray(nodeCount, tracker);
+
+        long batchSize = ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE);
+        // align ranges to whole bit set words, every task owns its words
+        batchSize = (batchSize + 63L) & ~63L;
+        this.tasks = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += batchSize) {
+            tasks.add(new Task(start, Math.min(nodeCount, start + batchSize)));
+        }
+    }
+
+    public HugeDirectionOptimizingBFS withAlpha(int alpha) {
+        this.alpha = Math.max(1, alpha);
+        return this;
+    }
+
+    public HugeDirectionOptimizingBFS withBeta(int beta) {
+        this.beta = Math.max(1, beta);
+        return this;
+    }
+
+    public HugeDirectionOptimizingBFS withTerminationFlag(TerminationFlag terminationFlag) {
+        this.terminationFlag = terminationFlag;
+        return this;
+    }
+
+    public HugeDirectionOptimizingBFS withProgressLogger(ProgressLogger progressLogger) {
+        this.progressLogger = progressLogger;
+        return this;
+    }
+
+    /**
+     * Runs the search from the given mapped node id. Can be called
+     * repeatedly with different start nodes, every call resets
+     * the previous result.
+     */
+    public HugeDirectionOptimizingBFS compute(long startNode) {
+        if (startNode < 0L || startNode >= nodeCount) {
+            throw new IllegalArgumentException("Start node " + startNode + " is not part of the graph");
+        }
+        long totalEdges = runPhase(Phase.INIT);
+
+        visited.set(startNode);
+        frontier.set(startNode);
+        distances.set(startNode, 0);
+        parents.set(startNode, startNode);
+
+        long startDegree = graph.degree(startNode, direction);
+        long frontierNodes = 1L;
+        long frontierEdges = startDegree;
+        long unexploredEdges = totalEdges - startDegree;
+        boolean topDown = true;
+
+        visitedNodes = 1L;
+        levels = 0;
+        topDownSteps = 0;
+        bottomUpSteps = 0;
+        edgeInspections = 0L;
+
+        while (frontierNodes > 0L) {
+            terminationFlag.assertRunning();
+            if (topDown) {
+                topDown = !bottomUp || frontierEdges <= unexploredEdges / alpha;
+            } else {
+                topDown = frontierNodes < nodeCount / beta;
+            }
+
+            runPhase(Phase.CLEAR);
+            long discovered = runPhase(topDown ? Phase.TOP_DOWN : Phase.BOTTOM_UP);
+            long discoveredEdges = 0L;
+            for (Task task : tasks) {
+                discoveredEdges += task.discoveredEdges;
+                edgeInspections += task.edgeInspections;
+            }
+            if (topDown) {
+                topDownSteps++;
+            } else {
+                bottomUpSteps++;
+            }
+
+            PagedAtomicBitSet tmp = frontier;
+            frontier = next;
+            next = tmp;
+
+            frontierNodes = discovered;
+            frontierEdges = discoveredEdges;
+            unexploredEdges -= discoveredEdges;
+            visitedNodes += discovered;
+            levels++;
+            progressLogger.logProgress(visitedNodes, nodeCount);
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of hops from the start node or {@code -1} if the node has not been reached
+     */
+    public int distance(long nodeId) {
+        return distances.get(nodeId);
+    }
+
+    /**
+     * @return the mapped id of the node that discovered the given node, the
+     * start node is its own parent, or {@code -1} if the node has not been reached
+     */
+    public long parent(long nodeId) {
+        return parents.get(nodeId);
+    }
+
+    public boolean visited(long nodeId) {
+        return visited.get(nodeId);
+    }
+
+    public long visitedNodes() {
+        return visitedNodes;
+    }
+
+    /**
+     * @return the number of expanded levels, including the last empty one
+     */
+    public int levels() {
+        return levels;
+    }
+
+    public int topDownSteps() {
+        return topDownSteps;
+    }
+
+    public int bottomUpSteps() {
+        return bottomUpSteps;
+    }
+
+    /**
+     * @return the number of relationships that have been looked at during the last search
+     */
+    public long edgeInspections() {
+        return edgeInspections;
+    }
+
+    public void release() {
+        visited.release();
+        frontier.release();
+        next.release();
+        distances.release();
+        parents.release();
+        visited = null;
+        frontier = null;
+        next = null;
+        distances = null;
+        parents = null;
+        tasks.clear();
+    }
+
+    private long runPhase(Phase phase) {
+        for (Task task : tasks) {
+            task.phase = phase;
+        }
+        ParallelUtil.run(tasks, executor, terminationFlag);
+        long sum = 0L;
+        for (Task task : tasks) {
+            sum += task.result;
+        }
+        return sum;
+    }
+
+    private enum Phase {
+        INIT, CLEAR, TOP_DOWN, BOTTOM_UP
+    }
+
+    private final class Task implements Runnable {
+
+        private final long startNode;
+        private final long endNode;
+        private final long startWord;
+        private final long endWord;
+        private final HugeRelationshipIterator iterator;
+        private final HugeRelationshipConsumer claim = this::claim;
+        private final HugeRelationshipConsumer findParent = this::findParent;
+
+        private Phase phase;
+        private long result;
+        private long discoveredEdges;
+        private long edgeInspections;
+        private int level;
+        private long foundParent;
+
+        private Task(long startNode, long endNode) {
+            this.startNode = startNode;
+            this.endNode = endNode;
+            this.startWord = startNode >>> 6;
+            this.endWord = (endNode + 63L) >>> 6;
+            this.iterator = graph.concurrentCopy();
+        }
+
+        @Override
+        public void run() {
+            result = 0L;
+            discoveredEdges = 0L;
+            edgeInspections = 0L;
+            level = levels + 1;
+            switch (phase) {
+                case INIT:
+                    init();
+                    break;
+                case CLEAR:
+                    next.clearWords(startWord, endWord);
+                    break;
+                case TOP_DOWN:
+                    topDown();
+                    break;
+                case BOTTOM_UP:
+                    bottomUp();
+                    break;
+                default:
+                    throw new IllegalArgumentException(phase + "");
+            }
+        }
+
+        private void init() {
+            visited.clearWords(startWord, endWord);
+            frontier.clearWords(startWord, endWord);
+            long edges = 0L;
+            for (long node = startNode; node < endNode; node++) {
+                distances.set(node, -1);
+                parents.set(node, -1L);
+                edges += graph.degree(node, direction);
+            }
+            result = edges;
+        }
+
+        private void topDown() {
+            for (long word = startWord; word < endWord; word++) {
+                long bits = frontier.word(word);
+                while (bits != 0L) {
+                    long node = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1L;
+                    iterator.forEachRelationship(node, direction, claim);
+                }
+            }
+        }
+
+        private boolean claim(long source, long target) {
+            edgeInspections++;
+            if (!visited.getAndSet(target)) {
+                parents.set(target, source);
+                distances.set(target, level);
+                next.set(target);
+                result++;
+                discoveredEdges += graph.degree(target, direction);
+            }
+            return true;
+        }
+
+        private void bottomUp() {
+            for (long word = startWord; word < endWord; word++) {
+                long base = word << 6;
+                long bits = ~visited.word(word);
+                if (base + 64L > endNode) {
+                    bits &= (1L << (endNode - base)) - 1L;
+                }
+                while (bits != 0L) {
+                    long node = base + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1L;
+                    foundParent = -1L;
+                    iterator.forEachRelationship(node, reverse, findParent);
+                    if (foundParent != -1L) {
+                        visited.set(node);
+                        next.set(node);
+                        parents.set(node, foundParent);
+                        distances.set(node, level);
+                        result++;
+                        discoveredEdges += graph.degree(node, direction);
+                    }
+                }
+            }
+        }
+
+        private boolean findParent(long node, long candidate) {
+            edgeInspections++;
+            if (frontier.get(candidate)) {
+                foundParent = candidate;
+                return false;
+            }
+            return true;
+        }
+    }
+}
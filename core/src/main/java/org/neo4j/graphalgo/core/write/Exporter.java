@@ -22,6 +22,7 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.api.HugeIdMapping;
 import org.neo4j.graphalgo.api.IdMapping;
+import org.neo4j.graphalgo.core.utils.ImportDirectory;
 import org.neo4j.graphalgo.core.utils.LazyBatchCollection;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.Pools;
@@ -56,6 +57,7 @@ public final class Exporter extends StatementApi {
     private final int concurrency;
     private final long nodeCount;
     private final LongUnaryOperator toOriginalId;
+    private final FileExporter fileExporter;
 
     public static Builder of(GraphDatabaseAPI db, Graph graph) {
         if (graph instanceof HugeGraph) {
@@ -68,6 +70,10 @@ public final class Exporter extends StatementApi {
         return new Builder(db, mapping);
     }
 
+    public static Builder of(HugeIdMapping mapping, GraphDatabaseAPI db) {
+        return new Builder(db, mapping);
+    }
+
     public static final class Builder {
 
         private final GraphDatabaseAPI db;
@@ -77,6 +83,7 @@ public final class Exporter extends StatementApi {
         private ExecutorService executorService;
         private ProgressLoggerAdapter loggerAdapter;
         private int concurrency = Pools.DEFAULT_CONCURRENCY;
+        private String file;
 
         private Builder(GraphDatabaseAPI db, IdMapping idMapping) {
             Objects.requireNonNull(idMapping);
@@ -116,6 +123,17 @@ public final class Exporter extends StatementApi {
             return this;
         }
 
+        /**
+         * Writes node properties into the given file instead of the graph,
+         * see {@link FileExporter} for the formats. A {@code null} file keeps writing to the graph.
+         * The file is resolved against the import directory of the database and must not
+         * leave it, see {@link ImportDirectory}.
+         */
+        public Builder withFile(String file) {
+            this.file = file;
+            return this;
+        }
+
         public Exporter build() {
             ProgressLogger progressLogger = loggerAdapter == null
                     ? ProgressLogger.NULL_LOGGER
@@ -123,7 +141,16 @@ public final class Exporter extends StatementApi {
             TerminationFlag flag = terminationFlag == null
                     ? TerminationFlag.RUNNING_TRUE
                     : terminationFlag;
-            return new Exporter(db, nodeCount, toOriginalId, flag, progressLogger, concurrency, executorService);
+            FileExporter fileExporter = file == null ? null : new FileExporter(
+                    ImportDirectory.resolve(db, file),
+                    nodeCount,
+                    toOriginalId,
+                    flag,
+                    progressLogger,
+                    concurrency,
+                    executorService,
+                    ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE, MAX_BATCH_SIZE));
+            return new Exporter(db, nodeCount, toOriginalId, flag, progressLogger, concurrency, executorService, fileExporter);
         }
     }
 
@@ -131,10 +158,37 @@ public final class Exporter extends StatementApi {
         void accept(DataWriteOperations ops, long value) throws KernelException;
     }
 
+    /**
+     * A node property that is written together with other properties, see {@link #write(Property[])}.
+     */
+    public static final class Property<T> {
+        private final String name;
+        final T data;
+        final PropertyTranslator<T> translator;
+
+        public static <T> Property<T> of(String name, T data, PropertyTranslator<T> translator) {
+            return new Property<>(name, data, translator);
+        }
+
+        private Property(String name, T data, PropertyTranslator<T> translator) {
+            this.name = Objects.requireNonNull(name, "property name");
+            this.data = data;
+            this.translator = translator;
+        }
+
+        public String name() {
+            return name;
+        }
+    }
+
     public interface PropertyWriteConsumer {
         void accept(DataWriteOperations ops, int relationshipId, int propertyId) throws KernelException;
     }
 
+    public interface RelationshipWriteConsumer {
+        void accept(DataWriteOperations ops, long nodeId, int relationshipId, int propertyId) throws KernelException;
+    }
+
     private Exporter(
             GraphDatabaseAPI db,
             long nodeCount,
@@ -142,7 +196,8 @@ public final class Exporter extends StatementApi {
             TerminationFlag terminationFlag,
             ProgressLogger log,
             int concurrency,
-            ExecutorService executorService) {
+            ExecutorService executorService,
+            FileExporter fileExporter) {
         super(db);
         this.nodeCount = nodeCount;
         this.toOriginalId = toOriginalId;
@@ -150,12 +205,17 @@ public final class Exporter extends StatementApi {
         this.progressLogger = log;
         this.concurrency = concurrency;
         this.executorService = executorService;
+        this.fileExporter = fileExporter;
     }
 
     public <T> void write(
             String property,
             T data,
             PropertyTranslator<T> translator) {
+        if (fileExporter != null) {
+            fileExporter.write(Property.of(property, data, translator));
+            return;
+        }
         final int propertyId = getOrCreatePropertyId(property);
         if (propertyId == -1) {
             throw new IllegalStateException("no write property id is set");
@@ -174,6 +234,12 @@ public final class Exporter extends StatementApi {
             String property2,
             U data2,
             PropertyTranslator<U> translator2) {
+        if (fileExporter != null) {
+            fileExporter.write(
+                    Property.of(property1, data1, translator1),
+                    Property.of(property2, data2, translator2));
+            return;
+        }
         final int propertyId1 = getOrCreatePropertyId(property1);
         if (propertyId1 == -1) {
             throw new IllegalStateException("no write property id is set");
@@ -189,7 +255,36 @@ public final class Exporter extends StatementApi {
         }
     }
 
+    /**
+     * Writes all properties in a single pass over the nodes, setting all
+     * properties of a node in the same transaction.
+     */
+    public void write(Property<?>... properties) {
+        if (fileExporter != null) {
+            fileExporter.write(properties);
+            return;
+        }
+        final int[] propertyIds = new int[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            propertyIds[i] = getOrCreatePropertyId(properties[i].name);
+            if (propertyIds[i] == -1) {
+                throw new IllegalStateException("no write property id is set");
+            }
+        }
+        final WriteConsumer writer = (ops, nodeId) -> {
+            for (int i = 0; i < properties.length; i++) {
+                doWrite(propertyIds[i], properties[i], ops, nodeId);
+            }
+        };
+        if (ParallelUtil.canRunInParallel(executorService)) {
+            writeParallel(writer);
+        } else {
+            writeSequential(writer);
+        }
+    }
+
     public void write(String property, IntFunction<WriteConsumer> createWriter) {
+        assertNoFile();
         final int propertyId = getOrCreatePropertyId(property);
         if (propertyId == -1) {
             throw new IllegalStateException("no write property id is set");
@@ -203,6 +298,7 @@ public final class Exporter extends StatementApi {
     }
 
     public void writeRelationships(String relationship, WriteConsumer writer) {
+        assertNoFile();
         final int propertyId = getOrCreateRelationshipId(relationship);
         if (propertyId == -1) {
             throw new IllegalStateException("no write property id is set");
@@ -218,6 +314,7 @@ public final class Exporter extends StatementApi {
     }
 
     public void writeRelationshipAndProperty(String relationship, String property, PropertyWriteConsumer writer) {
+        assertNoFile();
         final int relationshipId = getOrCreateRelationshipId(relationship);
         final int propertyId = getOrCreatePropertyId(property);
         if (relationshipId == -1) {
@@ -233,6 +330,44 @@ public final class Exporter extends StatementApi {
         }
     }
 
+    /**
+     * Writes relationships with one property each, the writer is called once for every node
+     * with the mapped node id. The nodes are written in batches, every batch in its own
+     * transaction, so that a large number of relationships does not have to be kept in the
+     * state of a single transaction. The batches are written one after another, concurrent
+     * transactions would lock the same nodes when creating relationships between them.
+     */
+    public void writeRelationships(String relationship, String property, RelationshipWriteConsumer writer) {
+        assertNoFile();
+        final int relationshipId = getOrCreateRelationshipId(relationship);
+        final int propertyId = getOrCreatePropertyId(property);
+        if (relationshipId == -1 || propertyId == -1) {
+            throw new IllegalStateException("no write property id is set");
+        }
+        for (long start = 0L; start < nodeCount; start += MAX_BATCH_SIZE) {
+            terminationFlag.assertRunning();
+            final long batchStart = start;
+            final long batchEnd = Math.min(nodeCount, start + MAX_BATCH_SIZE);
+            try {
+                acceptInTransaction(stmt -> {
+                    DataWriteOperations ops = stmt.dataWriteOperations();
+                    for (long i = batchStart; i < batchEnd; i++) {
+                        writer.accept(ops, i, relationshipId, propertyId);
+                    }
+                });
+            } catch (KernelException e) {
+                throw Exceptions.launderedException(e);
+            }
+            progressLogger.logProgress(batchEnd, nodeCount);
+        }
+    }
+
+    private void assertNoFile() {
+        if (fileExporter != null) {
+            throw new UnsupportedOperationException("only node properties can be written to a file");
+        }
+    }
+
     private <T> void writeSequential(
             int propertyId,
             T data,
@@ -334,6 +469,14 @@ public final class Exporter extends StatementApi {
         }
     }
 
+    private <T> void doWrite(
+            int propertyId,
+            Property<T> property,
+            DataWriteOperations ops,
+            long nodeId) throws KernelException {
+        doWrite(propertyId, property.data, property.translator, ops, nodeId);
+    }
+
     private <T, U> void doWrite(
             int propertyId1,
             T data1,
@@ -0,0 +1,341 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.write;
+
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.kernel.api.properties.DefinedProperty;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Writes node properties into a file instead of the graph, without any transactions.
+ * Every node is written with its original node id followed by its values.
+ * The format is chosen by the file name, files ending with {@code .csv} are written as CSV
+ * with a header line of {@code nodeId} and the property names. All other files are
+ * written in a binary, columnar format:
+ * <ul>
+ * <li>The header, starting with the {@link #MAGIC magic number}, the number of properties
+ * as an int and the number of nodes as a long. Each property follows with its type,
+ * one of {@link #TYPE_INT}, {@link #TYPE_LONG} or {@link #TYPE_DOUBLE}, as a byte and
+ * its name as a short length and the UTF-8 bytes.</li>
+ * <li>The column of original node ids as longs, followed by one column per property,
+ * each holding the values of all nodes in the order of the id column.</li>
+ * </ul>
+ * All values are big-endian. Values that are skipped by an optional translator are left
+ * empty in CSV files and written as they are into binary files, or as {@code NaN} if
+ * the translator does not return a value.
+ * <p>
+ * The nodes are written in batches, binary batches are written in parallel at their
+ * offset within each column, CSV batches are formatted in parallel and appended in order.
+ */
+public final class FileExporter {
+
+    public static final int MAGIC = 0x4E505250;
+    public static final byte TYPE_INT = 1;
+    public static final byte TYPE_LONG = 2;
+    public static final byte TYPE_DOUBLE = 3;
+
+    private static final String CSV_EXTENSION = ".csv";
+    private static final String ID_COLUMN = "nodeId";
+
+    private final Path file;
+    private final long nodeCount;
+    private final LongUnaryOperator toOriginalId;
+    private final TerminationFlag terminationFlag;
+    private final ProgressLogger progressLogger;
+    private final int concurrency;
+    private final ExecutorService executorService;
+    private final long batchSize;
+
+    FileExporter(
+            Path file,
+            long nodeCount,
+            LongUnaryOperator toOriginalId,
+            TerminationFlag terminationFlag,
+            ProgressLogger progressLogger,
+            int concurrency,
+            ExecutorService executorService,
+            long batchSize) {
+        this.file = file;
+        this.nodeCount = nodeCount;
+        this.toOriginalId = toOriginalId;
+        this.terminationFlag = terminationFlag;
+        this.progressLogger = progressLogger;
+        this.concurrency = Math.max(1, concurrency);
+        this.executorService = executorService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return true if the file is written as CSV, false if it is written in the binary format
+     */
+    public static boolean isCsv(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ENGLISH).endsWith(CSV_EXTENSION);
+    }
+
+    void write(Exporter.Property<?>... properties) {
+        final Column<?>[] columns = new Column<?>[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            columns[i] = Column.of(properties[i]);
+        }
+        try (FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (isCsv(file)) {
+                writeCsv(channel, columns);
+            } else {
+                writeBinary(channel, columns);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeBinary(FileChannel channel, Column<?>[] columns) throws IOException {
+        ByteBuffer header = binaryHeader(columns);
+        final long idColumn = header.remaining();
+        writeFully(channel, header, 0L);
+
+        final long[] columnStarts = new long[columns.length];
+        long offset = idColumn + nodeCount * Long.BYTES;
+        for (int i = 0; i < columns.length; i++) {
+            columnStarts[i] = offset;
+            offset += nodeCount * columns[i].width();
+        }
+
+        forEachWave((start, end) -> {
+            int length = (int) (end - start);
+            ByteBuffer ids = ByteBuffer.allocate(length * Long.BYTES);
+            for (long node = start; node < end; node++) {
+                ids.putLong(toOriginalId.applyAsLong(node));
+            }
+            ids.flip();
+            writeFully(channel, ids, idColumn + start * Long.BYTES);
+            for (int i = 0; i < columns.length; i++) {
+                Column<?> column = columns[i];
+                ByteBuffer values = ByteBuffer.allocate(length * column.width());
+                for (long node = start; node < end; node++) {
+                    column.write(values, node);
+                }
+                values.flip();
+                writeFully(channel, values, columnStarts[i] + start * column.width());
+            }
+            return null;
+        }, null);
+    }
+
+    private ByteBuffer binaryHeader(Column<?>[] columns) {
+        byte[][] names = new byte[columns.length][];
+        int size = 2 * Integer.BYTES + Long.BYTES;
+        for (int i = 0; i < columns.length; i++) {
+            names[i] = columns[i].name.getBytes(StandardCharsets.UTF_8);
+            if (names[i].length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("property name too long: " + columns[i].name);
+            }
+            size += 1 + Short.BYTES + names[i].length;
+        }
+        ByteBuffer header = ByteBuffer.allocate(size)
+                .putInt(MAGIC)
+                .putInt(columns.length)
+                .putLong(nodeCount);
+        for (int i = 0; i < columns.length; i++) {
+            header.put(columns[i].type)
+                    .putShort((short) names[i].length)
+                    .put(names[i]);
+        }
+        header.flip();
+        return header;
+    }
+
+    private void writeCsv(FileChannel channel, Column<?>[] columns) throws IOException {
+        StringBuilder header = new StringBuilder(ID_COLUMN);
+        for (Column<?> column : columns) {
+            header.append(',').append(column.name);
+        }
+        header.append('\n');
+        writeFully(channel, ByteBuffer.wrap(header.toString().getBytes(StandardCharsets.UTF_8)), 0L);
+
+        forEachWave((start, end) -> {
+            StringBuilder lines = new StringBuilder((int) (end - start) * (20 + 20 * columns.length));
+            for (long node = start; node < end; node++) {
+                lines.append(toOriginalId.applyAsLong(node));
+                for (Column<?> column : columns) {
+                    lines.append(',');
+                    column.append(lines, node);
+                }
+                lines.append('\n');
+            }
+            return lines.toString().getBytes(StandardCharsets.US_ASCII);
+        }, bytes -> writeFully(channel, ByteBuffer.wrap(bytes), channel.size()));
+    }
+
+    /**
+     * Runs the batch task for up to {@code concurrency} batches in parallel and hands their
+     * results to the consumer in the order of the batches, before the next batches are started.
+     * This keeps at most one result per thread in memory.
+     */
+    private <R> void forEachWave(BatchTask<R> task, BatchConsumer<R> consumer) throws IOException {
+        final AtomicLong progress = new AtomicLong();
+        final List<Object> results = new ArrayList<>(concurrency);
+        final List<Runnable> tasks = new ArrayList<>(concurrency);
+        for (long waveStart = 0L; waveStart < nodeCount; waveStart += concurrency * batchSize) {
+            terminationFlag.assertRunning();
+            results.clear();
+            tasks.clear();
+            for (int i = 0; i < concurrency; i++) {
+                final long start = waveStart + i * batchSize;
+                if (start >= nodeCount) {
+                    break;
+                }
+                final long end = Math.min(nodeCount, start + batchSize);
+                final int index = i;
+                results.add(null);
+                tasks.add(() -> {
+                    try {
+                        results.set(index, task.run(start, end));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    progressLogger.logProgress(progress.addAndGet(end - start), nodeCount);
+                });
+            }
+            try {
+                ParallelUtil.run(tasks, executorService);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (consumer != null) {
+                for (Object result : results) {
+                    @SuppressWarnings("unchecked") R r = (R) result;
+                    consumer.accept(r);
+                }
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private interface BatchTask<R> {
+        R run(long start, long end) throws IOException;
+    }
+
+    private interface BatchConsumer<R> {
+        void accept(R result) throws IOException;
+    }
+
+    private static final class Column<T> {
+        private final String name;
+        private final T data;
+        private final PropertyTranslator<T> translator;
+        private final byte type;
+
+        static <T> Column<T> of(Exporter.Property<T> property) {
+            return new Column<>(property.name(), property.data, property.translator);
+        }
+
+        private Column(String name, T data, PropertyTranslator<T> translator) {
+            this.name = name;
+            this.data = data;
+            this.translator = translator;
+            if (translator instanceof PropertyTranslator.OfInt || translator instanceof PropertyTranslator.OfOptionalInt) {
+                type = TYPE_INT;
+            } else if (translator instanceof PropertyTranslator.OfLong) {
+                type = TYPE_LONG;
+            } else {
+                type = TYPE_DOUBLE;
+            }
+        }
+
+        int width() {
+            return type == TYPE_INT ? Integer.BYTES : Long.BYTES;
+        }
+
+        void write(ByteBuffer buffer, long nodeId) {
+            switch (type) {
+                case TYPE_INT:
+                    buffer.putInt(intValue(nodeId));
+                    break;
+                case TYPE_LONG:
+                    buffer.putLong(((PropertyTranslator.OfLong<T>) translator).toLong(data, nodeId));
+                    break;
+                default:
+                    buffer.putDouble(doubleValue(nodeId));
+            }
+        }
+
+        void append(StringBuilder line, long nodeId) {
+            switch (type) {
+                case TYPE_INT:
+                    int intValue = intValue(nodeId);
+                    if (intValue >= 0 || !(translator instanceof PropertyTranslator.OfOptionalInt)) {
+                        line.append(intValue);
+                    }
+                    break;
+                case TYPE_LONG:
+                    line.append(((PropertyTranslator.OfLong<T>) translator).toLong(data, nodeId));
+                    break;
+                default:
+                    double doubleValue = doubleValue(nodeId);
+                    if (!Double.isNaN(doubleValue)
+                            && (doubleValue >= 0D || !(translator instanceof PropertyTranslator.OfOptionalDouble))) {
+                        line.append(doubleValue);
+                    }
+            }
+        }
+
+        private int intValue(long nodeId) {
+            if (translator instanceof PropertyTranslator.OfInt) {
+                return ((PropertyTranslator.OfInt<T>) translator).toInt(data, nodeId);
+            }
+            return ((PropertyTranslator.OfOptionalInt<T>) translator).toInt(data, nodeId);
+        }
+
+        private double doubleValue(long nodeId) {
+            if (translator instanceof PropertyTranslator.OfDouble) {
+                return ((PropertyTranslator.OfDouble<T>) translator).toDouble(data, nodeId);
+            }
+            if (translator instanceof PropertyTranslator.OfOptionalDouble) {
+                return ((PropertyTranslator.OfOptionalDouble<T>) translator).toDouble(data, nodeId);
+            }
+            DefinedProperty property = translator.toProperty(0, data, nodeId);
+            Object value = property == null ? null : property.value();
+            return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+        }
+    }
+}
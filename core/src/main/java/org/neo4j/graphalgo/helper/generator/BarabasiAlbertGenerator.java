@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.helper.generator;
+
+import org.neo4j.graphalgo.core.EdgeList;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+
+/**
+ * Generates a scale-free graph with the preferential attachment model of
+ * Barabási and Albert, in which every node connects to {@code edgesPerNode}
+ * earlier nodes, chosen with a probability proportional to their degree.
+ * <p>
+ * This uses the algorithm of Batagelj and Brandes, "Efficient generation of large random networks".
+ * It picks the endpoint of a uniformly chosen earlier edge slot, which is equivalent to choosing
+ * by degree. The choice of every slot does not depend on any other slot, so all slots
+ * are chosen in parallel first and the endpoints are resolved in a second parallel pass.
+ * <p>
+ * Every edge points from the new node to an earlier one or to itself,
+ * as the slots of the new node count towards its own degree. Duplicate edges are possible.
+ */
+public final class BarabasiAlbertGenerator extends EdgeListGenerator<BarabasiAlbertGenerator> {
+
+    private final long nodeCount;
+    private final int edgesPerNode;
+
+    public BarabasiAlbertGenerator(long nodeCount, int edgesPerNode) {
+        if (nodeCount < 0L || edgesPerNode < 1 || nodeCount > (Long.MAX_VALUE >> 2) / edgesPerNode) {
+            throw new IllegalArgumentException(
+                    "Invalid Barabási-Albert graph: " + nodeCount + " nodes, " + edgesPerNode + " edges per node");
+        }
+        this.nodeCount = nodeCount;
+        this.edgesPerNode = edgesPerNode;
+    }
+
+    @Override
+    public long nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public long edgeCount() {
+        return nodeCount * edgesPerNode;
+    }
+
+    @Override
+    protected void generate(EdgeList edges) {
+        // edge i occupies the slots 2i (its source) and 2i+1 (its target)
+        LongArray chosenSlots = LongArray.newArray(edges.size(), tracker);
+        forEachBatch(edges.size(), seed, (start, end, random) -> {
+            for (long i = start; i < end; i++) {
+                chosenSlots.set(i, random.nextLong(2L * i + 1L));
+            }
+        });
+        forEachBatch(edges.size(), seed, (start, end, random) -> {
+            for (long i = start; i < end; i++) {
+                long slot = chosenSlots.get(i);
+                // a target slot copies the slot that its edge has chosen
+                while ((slot & 1L) == 1L) {
+                    slot = chosenSlots.get(slot >>> 1);
+                }
+                edges.set(i, i / edgesPerNode, (slot >>> 1) / edgesPerNode);
+            }
+        });
+        tracker.remove(chosenSlots.release());
+    }
+
+    @Override
+    protected BarabasiAlbertGenerator me() {
+        return this;
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.helper.generator;
+
+import org.neo4j.graphalgo.core.EdgeList;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates random graphs as an {@link EdgeList}, which can be turned into a graph
+ * with an {@link org.neo4j.graphalgo.core.EdgeListGraphBuilder}.
+ * <p>
+ * The edges are generated in parallel, in batches of a fixed size. Every batch
+ * draws from its own random generator that is derived from the seed and the batch index,
+ * so the same seed always yields the same graph, regardless of the concurrency.
+ */
+public abstract class EdgeListGenerator<ME extends EdgeListGenerator<ME>> {
+
+    static final long BATCH_SIZE = 1L << 16;
+
+    protected long seed = 0L;
+    protected boolean withWeights = false;
+    protected int concurrency = Pools.DEFAULT_CONCURRENCY;
+    protected ExecutorService executorService = Pools.DEFAULT;
+    protected AllocationTracker tracker = AllocationTracker.EMPTY;
+
+    public ME withSeed(long seed) {
+        this.seed = seed;
+        return me();
+    }
+
+    /**
+     * Assigns every edge a weight that is uniformly distributed in {@code [0, 1)}.
+     */
+    public ME withRandomWeights(boolean withWeights) {
+        this.withWeights = withWeights;
+        return me();
+    }
+
+    public ME withConcurrency(int newConcurrency) {
+        if (newConcurrency <= 0) {
+            throw new IllegalArgumentException("concurrency: " + newConcurrency);
+        }
+        this.concurrency = newConcurrency;
+        return me();
+    }
+
+    /**
+     * Can be null, in which case everything is run on the calling thread.
+     */
+    public ME withExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+        return me();
+    }
+
+    public ME withAllocationTracker(AllocationTracker tracker) {
+        this.tracker = tracker == null ? AllocationTracker.EMPTY : tracker;
+        return me();
+    }
+
+    /**
+     * @return the number of nodes of the generated graph, all node ids are lower than this
+     */
+    public abstract long nodeCount();
+
+    public abstract long edgeCount();
+
+    public EdgeList generate() {
+        EdgeList edges = EdgeList.newList(edgeCount(), withWeights, tracker);
+        generate(edges);
+        if (withWeights) {
+            // a different seed than the edges, so that weights don't correlate with them
+            forEachBatch(edges.size(), ~seed, (start, end, random) -> {
+                for (long i = start; i < end; i++) {
+                    edges.set(i, edges.source(i), edges.target(i), random.nextDouble());
+                }
+            });
+        }
+        return edges;
+    }
+
+    /**
+     * Fills all edges of the list.
+     */
+    protected abstract void generate(EdgeList edges);
+
+    protected abstract ME me();
+
+    /**
+     * Runs the task for all batches of {@code [0, size)} in parallel,
+     * every batch with a random generator derived from the seed and the batch index.
+     */
+    protected final void forEachBatch(long size, long seed, BatchTask task) {
+        long batches = ParallelUtil.threadSize(BATCH_SIZE, size);
+        AtomicLong queue = new AtomicLong();
+        List<Runnable> tasks = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            tasks.add(() -> {
+                long batch;
+                while ((batch = queue.getAndIncrement()) < batches) {
+                    long start = batch * BATCH_SIZE;
+                    long end = Math.min(size, start + BATCH_SIZE);
+                    SplittableRandom random = new SplittableRandom(seed + batch * 0x9E3779B97F4A7C15L);
+                    task.run(start, end, random);
+                }
+            });
+        }
+        ParallelUtil.run(tasks, executorService);
+    }
+
+    @FunctionalInterface
+    protected interface BatchTask {
+        void run(long start, long end, SplittableRandom random);
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.helper.generator;
+
+import org.neo4j.graphalgo.core.EdgeList;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates a stochastic Kronecker graph, as described by Leskovec et al.
+ * in "Kronecker Graphs: An Approach to Modeling Networks".
+ * <p>
+ * The graph has {@code k^levels} nodes for a {@code k x k} initiator matrix.
+ * Every edge descends the levels of the Kronecker product of the initiator,
+ * choosing a cell on every level with a probability proportional to its value
+ * and appending the row to the source and the column to the target id.
+ * Instead of deciding for every pair of nodes whether there is an edge, the
+ * number of edges is fixed, so the graph is generated in time linear to its edges.
+ * Duplicate edges and self loops are possible.
+ */
+public class KroneckerGenerator extends EdgeListGenerator<KroneckerGenerator> {
+
+    private final int k;
+    private final int levels;
+    private final long nodeCount;
+    private final long edgeCount;
+    private final double[] cumulative;
+
+    public KroneckerGenerator(double[][] initiator, int levels, long edgeCount) {
+        int k = initiator.length;
+        if (k < 2 || levels < 1 || edgeCount < 0L) {
+            throw new IllegalArgumentException("Invalid Kronecker graph: " + k + "x" + k + " initiator, "
+                    + levels + " levels, " + edgeCount + " edges");
+        }
+        double[] cumulative = new double[k * k];
+        double sum = 0.0;
+        for (int i = 0; i < k; i++) {
+            if (initiator[i].length != k) {
+                throw new IllegalArgumentException("The initiator matrix must be square");
+            }
+            for (int j = 0; j < k; j++) {
+                if (!(initiator[i][j] >= 0.0)) {
+                    throw new IllegalArgumentException("Invalid probability: " + initiator[i][j]);
+                }
+                sum += initiator[i][j];
+                cumulative[i * k + j] = sum;
+            }
+        }
+        if (sum <= 0.0) {
+            throw new IllegalArgumentException("The initiator matrix must not be all zeros");
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= sum;
+        }
+        long nodeCount = 1L;
+        for (int level = 0; level < levels; level++) {
+            if (nodeCount > Long.MAX_VALUE / k) {
+                throw new IllegalArgumentException(k + "^" + levels + " nodes do not fit into a long");
+            }
+            nodeCount *= k;
+        }
+        this.k = k;
+        this.levels = levels;
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.cumulative = cumulative;
+    }
+
+    @Override
+    public long nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    protected void generate(EdgeList edges) {
+        forEachBatch(edges.size(), seed, (start, end, random) -> {
+            for (long i = start; i < end; i++) {
+                generateEdge(edges, i, random);
+            }
+        });
+    }
+
+    private void generateEdge(EdgeList edges, long index, SplittableRandom random) {
+        long source = 0L;
+        long target = 0L;
+        for (int level = 0; level < levels; level++) {
+            int cell = cell(random.nextDouble());
+            source = source * k + cell / k;
+            target = target * k + cell % k;
+        }
+        edges.set(index, source, target);
+    }
+
+    private int cell(double p) {
+        double[] cumulative = this.cumulative;
+        int last = cumulative.length - 1;
+        for (int cell = 0; cell < last; cell++) {
+            if (p < cumulative[cell]) {
+                return cell;
+            }
+        }
+        return last;
+    }
+
+    @Override
+    protected KroneckerGenerator me() {
+        return this;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.helper.generator;
+
+/**
+ * Generates a graph with the recursive matrix (R-MAT) model of Chakrabarti et al.,
+ * which is a Kronecker graph with a {@code 2 x 2} initiator.
+ * The graph has {@code 2^scale} nodes and {@code edgeFactor * 2^scale} edges.
+ * <p>
+ * The default probabilities and edge factor are the ones of the Graph500 benchmark.
+ * Unlike the Graph500 generator, the node ids are not permuted, so nodes
+ * with a lower id tend to have a higher degree.
+ */
+public final class RMatGenerator extends KroneckerGenerator {
+
+    public static final double DEFAULT_A = 0.57;
+    public static final double DEFAULT_B = 0.19;
+    public static final double DEFAULT_C = 0.19;
+    public static final int DEFAULT_EDGE_FACTOR = 16;
+
+    public RMatGenerator(int scale) {
+        this(scale, DEFAULT_EDGE_FACTOR);
+    }
+
+    public RMatGenerator(int scale, int edgeFactor) {
+        this(scale, edgeFactor, DEFAULT_A, DEFAULT_B, DEFAULT_C);
+    }
+
+    /**
+     * @param a the probability of an edge to fall into the upper left quadrant,
+     *          the lower right quadrant gets {@code 1 - a - b - c}
+     */
+    public RMatGenerator(int scale, int edgeFactor, double a, double b, double c) {
+        super(
+                new double[][]{{a, b}, {c, Math.max(0.0, 1.0 - a - b - c)}},
+                scale,
+                (long) edgeFactor << checkScale(scale));
+    }
+
+    private static int checkScale(int scale) {
+        if (scale < 1 || scale > 40) {
+            throw new IllegalArgumentException("scale must be in [1, 40], but was " + scale);
+        }
+        return scale;
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.BackgroundJobProc;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphdb.QueryExecutionException;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BackgroundJobProcIntegrationTest {
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() throws KernelException {
+        String createGraph =
+                "CREATE (a:Node {name:'a'})\n" +
+                "CREATE (b:Node {name:'b'})\n" +
+                "CREATE (c:Node {name:'c'})\n" +
+                "CREATE (d:Node {name:'d'})\n" +
+                "CREATE (e:Node {name:'e'})\n" +
+                "CREATE\n" +
+                "  (a)-[:TYPE]->(b),\n" +
+                "  (b)-[:TYPE]->(c),\n" +
+                "  (c)-[:TYPE]->(a),\n" +
+                "  (d)-[:TYPE]->(e)";
+
+        db = TestDatabaseCreator.createTestDatabase();
+
+        try (Transaction tx = db.beginTx()) {
+            db.execute(createGraph).close();
+            tx.success();
+        }
+
+        db.getDependencyResolver()
+                .resolveDependency(Procedures.class)
+                .registerProcedure(BackgroundJobProc.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void shouldStreamTheResultOfAFinishedJob() throws Exception {
+        long jobId = submit("unionFind", "{}");
+        assertEquals("DONE", awaitJob(jobId));
+
+        Map<Long, Long> partitions = new HashMap<>();
+        db.execute("CALL algo.job.stream($jobId) YIELD nodeId, value", singletonMap(jobId))
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    partitions.put(
+                            row.getNumber("nodeId").longValue(),
+                            (long) row.getNumber("value").doubleValue());
+                    return true;
+                });
+        assertEquals(5, partitions.size());
+        assertEquals(2, new HashSet<>(partitions.values()).size());
+    }
+
+    @Test
+    public void shouldWriteTheResultOfAFinishedJob() throws Exception {
+        long jobId = submit("pageRank", "{iterations:10}");
+        assertEquals("DONE", awaitJob(jobId));
+
+        db.execute("CALL algo.job.write($jobId, 'jobRank') YIELD nodes", singletonMap(jobId))
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    assertEquals(5L, row.getNumber("nodes").longValue());
+                    return true;
+                });
+
+        Set<String> written = new HashSet<>();
+        db.execute("MATCH (n:Node) WHERE n.jobRank > 0 RETURN n.name AS name")
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    written.add(row.getString("name"));
+                    return true;
+                });
+        assertEquals(5, written.size());
+    }
+
+    @Test
+    public void shouldNotStreamRemovedJobs() throws Exception {
+        long jobId = submit("betweenness", "{}");
+        awaitJob(jobId);
+        db.execute("CALL algo.job.remove($jobId)", singletonMap(jobId)).close();
+        try {
+            db.execute("CALL algo.job.stream($jobId)", singletonMap(jobId)).close();
+            fail("removed job should not have results");
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("No background job with id " + jobId));
+        }
+    }
+
+    @Test
+    public void shouldRejectUnsupportedAlgorithms() {
+        try {
+            db.execute("CALL algo.job.submit('closeness')").close();
+            fail("closeness can not run as a background job");
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("can not run as a background job"));
+        }
+    }
+
+    private long submit(String algorithm, String config) {
+        return (long) db.execute("CALL algo.job.submit('" + algorithm + "', 'Node', 'TYPE', " + config + ") YIELD jobId")
+                .<Long>columnAs("jobId")
+                .next();
+    }
+
+    private String awaitJob(long jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            String state = (String) db.execute("CALL algo.job.status($jobId) YIELD state", singletonMap(jobId))
+                    .<String>columnAs("state")
+                    .next();
+            if (!"QUEUED".equals(state) && !"RUNNING".equals(state)) {
+                return state;
+            }
+            Thread.sleep(20L);
+        }
+        throw new AssertionError("job " + jobId + " did not finish");
+    }
+
+    private static Map<String, Object> singletonMap(long jobId) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("jobId", jobId);
+        return params;
+    }
+}
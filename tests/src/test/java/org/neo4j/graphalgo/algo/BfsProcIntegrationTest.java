@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.BfsProc;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class BfsProcIntegrationTest {
+
+    private static GraphDatabaseAPI db;
+    private static final Map<String, Long> ids = new HashMap<>();
+
+    @BeforeClass
+    public static void setup() throws KernelException {
+        String createGraph =
+                "CREATE (a:Node {name:'a'})\n" +
+                "CREATE (b:Node {name:'b'})\n" +
+                "CREATE (c:Node {name:'c'})\n" +
+                "CREATE (d:Node {name:'d'})\n" +
+                "CREATE (e:Node {name:'e'})\n" +
+                "CREATE\n" +
+                "  (a)-[:TYPE]->(b),\n" +
+                "  (a)-[:TYPE]->(c),\n" +
+                "  (b)-[:TYPE]->(d),\n" +
+                "  (c)-[:TYPE]->(d),\n" +
+                "  (e)-[:TYPE]->(a)";
+
+        db = TestDatabaseCreator.createTestDatabase();
+
+        try (Transaction tx = db.beginTx()) {
+            db.execute(createGraph).close();
+            db.execute("MATCH (n:Node) RETURN n.name AS name, id(n) AS id")
+                    .accept((Result.ResultVisitor<RuntimeException>) row -> {
+                        ids.put(row.getString("name"), row.getNumber("id").longValue());
+                        return true;
+                    });
+            tx.success();
+        }
+
+        db.getDependencyResolver()
+                .resolveDependency(Procedures.class)
+                .registerProcedure(BfsProc.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void shouldStreamDistancesAndParents() {
+        Map<Long, long[]> result = bfs("{}");
+
+        assertEquals(4, result.size());
+        assertRow(result, "a", 0, "a");
+        assertRow(result, "b", 1, "a");
+        assertRow(result, "c", 1, "a");
+        assertEquals(2L, result.get(ids.get("d"))[0]);
+    }
+
+    @Test
+    public void shouldFollowTheConfiguredDirection() {
+        Map<Long, long[]> result = bfs("{direction:'BOTH'}");
+
+        assertEquals(5, result.size());
+        assertRow(result, "e", 1, "a");
+    }
+
+    private static void assertRow(Map<Long, long[]> result, String node, long distance, String parent) {
+        long[] row = result.get(ids.get(node));
+        assertEquals(distance, row[0]);
+        assertEquals((long) ids.get(parent), row[1]);
+    }
+
+    private static Map<Long, long[]> bfs(String config) {
+        Map<Long, long[]> result = new HashMap<>();
+        db.execute(
+                "CALL algo.bfs.stream('Node', 'TYPE', $start, " + config + ") YIELD nodeId, distance, parentId",
+                Collections.singletonMap("start", ids.get("a")))
+                .accept((Result.ResultVisitor<RuntimeException>) row -> {
+                    result.put(
+                            row.getNumber("nodeId").longValue(),
+                            new long[]{row.getNumber("distance").longValue(), row.getNumber("parentId").longValue()});
+                    return true;
+                });
+        return result;
+    }
+}
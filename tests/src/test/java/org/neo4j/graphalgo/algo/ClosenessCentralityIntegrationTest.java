@@ -141,6 +141,22 @@ public class ClosenessCentralityIntegrationTest {
         verifyMock();
     }
 
+    @Test
+    public void testApproximateClosenessStream() throws Exception {
+
+        db.execute("CALL algo.closeness.stream('Node', 'TYPE', {approximate:true, precision:12}) YIELD nodeId, centrality")
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    consumer.accept(
+                            row.getNumber("nodeId").longValue(),
+                            row.getNumber("centrality").doubleValue());
+                    return true;
+                });
+
+        verify(consumer, times(1)).accept(eq(centerNodeId), AdditionalMatchers.eq(2.0, 0.05));
+        verify(consumer, times(5)).accept(anyLong(), AdditionalMatchers.eq(1.0, 0.05));
+        verify(consumer, times(5)).accept(anyLong(), AdditionalMatchers.eq(0.47, 0.1));
+    }
+
     private void verifyMock() {
         verify(consumer, times(1)).accept(eq(centerNodeId), eq(2.0));
         verify(consumer, times(5)).accept(anyLong(), eq(1.0));
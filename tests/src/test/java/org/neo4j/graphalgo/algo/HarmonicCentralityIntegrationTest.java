@@ -128,6 +128,20 @@ public class HarmonicCentralityIntegrationTest {
         verifyMock();
     }
 
+    @Test
+    public void testApproximateHarmonicStream() throws Exception {
+
+        db.execute("CALL algo.closeness.harmonic.stream('Node', 'TYPE', {approximate:true, precision:12}) YIELD nodeId, centrality")
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    consumer.accept(
+                            row.getNumber("nodeId").longValue(),
+                            row.getNumber("centrality").doubleValue());
+                    return true;
+                });
+
+        verifyMock();
+    }
+
     @Test
     public void testHarmonicWrite() throws Exception {
 
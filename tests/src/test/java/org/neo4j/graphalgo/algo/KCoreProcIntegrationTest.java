@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.KCoreProc;
+import org.neo4j.graphalgo.LoadGraphProc;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.TriangleProc;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A 4-clique (a, b, c, d) with a tail (a - e - f) and an unconnected node g:
+ *
+ * core numbers: a, b, c, d: 3, e, f: 1, g: 0
+ */
+public class KCoreProcIntegrationTest {
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() throws KernelException {
+        String cypher = "CREATE (a:Node {name:'a'}) " +
+                "CREATE (b:Node {name:'b'}) " +
+                "CREATE (c:Node {name:'c'}) " +
+                "CREATE (d:Node {name:'d'}) " +
+                "CREATE (e:Node {name:'e'}) " +
+                "CREATE (f:Node {name:'f'}) " +
+                "CREATE (g:Node {name:'g'}) " +
+                "CREATE (a)-[:TYPE]->(b) " +
+                "CREATE (a)-[:TYPE]->(c) " +
+                "CREATE (a)-[:TYPE]->(d) " +
+                "CREATE (b)-[:TYPE]->(c) " +
+                "CREATE (c)-[:TYPE]->(d) " +
+                "CREATE (d)-[:TYPE]->(b) " +
+                "CREATE (e)-[:TYPE]->(a) " +
+                "CREATE (f)-[:TYPE]->(e)";
+
+        db = TestDatabaseCreator.createTestDatabase();
+
+        try (Transaction tx = db.beginTx()) {
+            db.execute(cypher);
+            tx.success();
+        }
+
+        final Procedures procedures = db.getDependencyResolver().resolveDependency(Procedures.class);
+        procedures.registerProcedure(KCoreProc.class);
+        procedures.registerProcedure(LoadGraphProc.class);
+        procedures.registerProcedure(TriangleProc.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void testWrite() {
+        Map<String, Object> row = db.execute("CALL algo.kCore('Node', 'TYPE') " +
+                "YIELD nodes, degeneracy, levels, coreNodes")
+                .next();
+        assertEquals(7L, row.get("nodes"));
+        assertEquals(3L, row.get("degeneracy"));
+        assertEquals(3L, row.get("levels"));
+        assertEquals(7L, row.get("coreNodes"));
+
+        final Map<String, Object> expected = new HashMap<>();
+        expected.put("a", 3L);
+        expected.put("b", 3L);
+        expected.put("c", 3L);
+        expected.put("d", 3L);
+        expected.put("e", 1L);
+        expected.put("f", 1L);
+        expected.put("g", 0L);
+        final Map<String, Object> actual = new HashMap<>();
+        db.execute("MATCH (n:Node) RETURN n.name AS name, n.coreNumber AS core")
+                .accept(r -> {
+                    actual.put(r.getString("name"), ((Number) r.get("core")).longValue());
+                    return true;
+                });
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testStream() {
+        Map<String, Object> row = db.execute("CALL algo.kCore.stream('Node', 'TYPE', {k:2}) " +
+                "YIELD nodeId, coreNumber " +
+                "RETURN count(*) AS count, min(coreNumber) AS min")
+                .next();
+        assertEquals(4L, row.get("count"));
+        assertEquals(3L, row.get("min"));
+    }
+
+    @Test
+    public void testTriangleCountOnCoreGraph() {
+        Map<String, Object> row = db.execute("CALL algo.kCore('Node', 'TYPE', {k:2, write:false, coreGraph:'core'}) " +
+                "YIELD coreNodes, coreGraph")
+                .next();
+        assertEquals(4L, row.get("coreNodes"));
+        assertEquals("core", row.get("coreGraph"));
+
+        try {
+            row = db.execute("CALL algo.triangleCount.stream('', '', {graph:'core'}) " +
+                    "YIELD nodeId, triangles " +
+                    "RETURN count(*) AS count, sum(triangles) AS triangles")
+                    .next();
+            assertEquals(4L, row.get("count"));
+            assertEquals(12L, row.get("triangles"));
+        } finally {
+            db.execute("CALL algo.graph.remove('core')").close();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.neo4j.graphalgo.MemoryEstimationProc;
+import org.neo4j.graphdb.QueryExecutionException;
+import org.neo4j.graphdb.Result;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class MemoryEstimationProcIntegrationTest {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:A {id: 0}) " +
+            "CREATE (b:A {id: 1}) " +
+            "CREATE (a)-[:X {weight: 1.0}]->(:A {id: 2}) " +
+            "CREATE (a)-[:X {weight: 2.0}]->(:A {id: 3}) " +
+            "CREATE (a)-[:X {weight: 1.0}]->(b) " +
+            "CREATE (b)-[:X {weight: 8.0}]->(:A {id: 4})";
+
+    @Parameterized.Parameters(name = "graph={0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(
+                new Object[]{"heavy"},
+                new Object[]{"huge"}
+        );
+    }
+
+    @Rule
+    public ImpermanentDatabaseRule db = new ImpermanentDatabaseRule();
+
+    @Rule
+    public ExpectedException exceptions = ExpectedException.none();
+
+    private final String graph;
+
+    public MemoryEstimationProcIntegrationTest(String graph) {
+        this.graph = graph;
+    }
+
+    @Before
+    public void setup() throws KernelException {
+        db.resolveDependency(Procedures.class).registerProcedure(MemoryEstimationProc.class);
+        db.execute(DB_CYPHER).close();
+    }
+
+    @Test
+    public void shouldEstimateMemory() {
+        String query = "CALL algo.memory.estimate($algo, 'A', 'X', {graph: $graph, concurrency: 4})";
+        for (String algo : Arrays.asList("pageRank", "unionFind", "louvain", "labelPropagation",
+                "triangleCount", "betweenness", "closeness", "harmonic")) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("algo", algo);
+            params.put("graph", graph);
+            AtomicBoolean called = new AtomicBoolean();
+            runQuery(query, params, row -> {
+                called.set(true);
+                assertEquals(5L, row.getNumber("nodes").longValue());
+                assertEquals(4L, row.getNumber("relationships").longValue());
+                long graphMin = row.getNumber("graphMinBytes").longValue();
+                long min = row.getNumber("minBytes").longValue();
+                long max = row.getNumber("maxBytes").longValue();
+                assertTrue(algo, graphMin > 0);
+                assertTrue(algo, min >= graphMin);
+                assertTrue(algo, min <= max);
+                long recommended = row.getNumber("recommendedConcurrency").longValue();
+                assertTrue(algo, recommended >= 1 && recommended <= 4);
+            });
+            assertTrue(algo, called.get());
+        }
+    }
+
+    @Test
+    public void shouldIncludeRelationshipWeights() {
+        String query = "CALL algo.memory.estimate('pageRank', 'A', 'X', {graph: $graph, weightProperty: $weight}) " +
+                "YIELD graphMaxBytes";
+        Map<String, Object> params = new HashMap<>();
+        params.put("graph", graph);
+        params.put("weight", null);
+        long[] unweighted = new long[1];
+        runQuery(query, params, row -> unweighted[0] = row.getNumber("graphMaxBytes").longValue());
+        params.put("weight", "weight");
+        runQuery(query, params, row -> assertTrue(row.getNumber("graphMaxBytes").longValue() > unweighted[0]));
+    }
+
+    @Test
+    public void shouldFailOnUnknownAlgorithm() {
+        exceptions.expect(QueryExecutionException.class);
+        exceptions.expectMessage(containsString("No memory estimation available for algorithm 'foo'"));
+        runQuery("CALL algo.memory.estimate('foo', 'A', 'X', {graph: $graph})", singletonMap("graph", graph), row -> {});
+    }
+
+    private void runQuery(String query, Map<String, Object> params, Consumer<Result.ResultRow> check) {
+        try (Result result = db.execute(query, params)) {
+            result.accept(row -> {
+                check.accept(row);
+                return true;
+            });
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.NodeSimilarityProc;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * alice likes i1, i2, i3
+ * bob   likes i1, i2
+ * carol likes i3, i4
+ * dave  likes i4
+ */
+public class NodeSimilarityProcIntegrationTest {
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() throws KernelException {
+        String cypher = "CREATE (alice:Person {name:'alice'}) " +
+                "CREATE (bob:Person {name:'bob'}) " +
+                "CREATE (carol:Person {name:'carol'}) " +
+                "CREATE (dave:Person {name:'dave'}) " +
+                "CREATE (i1:Item {name:'i1'}) " +
+                "CREATE (i2:Item {name:'i2'}) " +
+                "CREATE (i3:Item {name:'i3'}) " +
+                "CREATE (i4:Item {name:'i4'}) " +
+                "CREATE (alice)-[:LIKES]->(i1) " +
+                "CREATE (alice)-[:LIKES]->(i2) " +
+                "CREATE (alice)-[:LIKES]->(i3) " +
+                "CREATE (bob)-[:LIKES]->(i1) " +
+                "CREATE (bob)-[:LIKES]->(i2) " +
+                "CREATE (carol)-[:LIKES]->(i3) " +
+                "CREATE (carol)-[:LIKES]->(i4) " +
+                "CREATE (dave)-[:LIKES]->(i4)";
+
+        db = TestDatabaseCreator.createTestDatabase();
+
+        try (Transaction tx = db.beginTx()) {
+            db.execute(cypher);
+            tx.success();
+        }
+
+        db.getDependencyResolver()
+                .resolveDependency(Procedures.class)
+                .registerProcedure(NodeSimilarityProc.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void testStream() {
+        final Map<String, Double> actual = new HashMap<>();
+        db.execute("CALL algo.similarity.nodes.stream('', 'LIKES', {topK:1}) " +
+                "YIELD node1, node2, similarity " +
+                "MATCH (a) WHERE id(a) = node1 " +
+                "MATCH (b) WHERE id(b) = node2 " +
+                "RETURN a.name AS a, b.name AS b, similarity")
+                .accept(row -> {
+                    actual.put(row.getString("a") + "-" + row.getString("b"), row.getNumber("similarity").doubleValue());
+                    return true;
+                });
+
+        final Map<String, Double> expected = new HashMap<>();
+        expected.put("alice-bob", 2.0 / 3.0);
+        expected.put("bob-alice", 2.0 / 3.0);
+        expected.put("carol-dave", 1.0 / 2.0);
+        expected.put("dave-carol", 1.0 / 2.0);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testWrite() {
+        Map<String, Object> row = db.execute("CALL algo.similarity.nodes('', 'LIKES', " +
+                "{metric:'overlap', topK:2, writeRelationshipType:'OVERLAPS'}) " +
+                "YIELD nodes, similarityPairs")
+                .next();
+        assertEquals(8L, row.get("nodes"));
+        // alice: bob 1.0, carol 0.5; bob: alice 1.0; carol: dave 1.0, alice 0.5; dave: carol 1.0
+        assertEquals(6L, row.get("similarityPairs"));
+
+        row = db.execute("MATCH (a)-[r:OVERLAPS]->(b) RETURN count(r) AS count, sum(r.score) AS sum").next();
+        assertEquals(6L, row.get("count"));
+        assertEquals(5.0, ((Number) row.get("sum")).doubleValue(), 1e-9);
+    }
+}
@@ -33,12 +33,16 @@ import org.neo4j.kernel.impl.proc.Procedures;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.graphalgo.TestDatabaseCreator;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -149,6 +153,27 @@ public class PageRankProcIntegrationTest {
         assertMapEquals(expected, actual);
     }
 
+    @Test
+    public void testPageRankStreamWithLimit() throws Exception {
+        final List<Double> scores = new ArrayList<>();
+        runQuery(
+                "CALL algo.pageRank.stream('Label1', 'TYPE1', {limit:3, graph:'"+graphImpl+"'}) YIELD node, score",
+                row -> {
+                    final double score = (Double) row.get("score");
+                    assertEquals(expected.get(row.getNode("node").getId()), score, 0.1);
+                    scores.add(score);
+                });
+
+        final List<Double> top = expected.values().stream()
+                .sorted(Comparator.reverseOrder())
+                .limit(3)
+                .collect(Collectors.toList());
+        assertEquals(top.size(), scores.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(top.get(i), scores.get(i), 0.1);
+        }
+    }
+
     @Test
     public void testPageRankWriteBack() throws Exception {
         runQuery(
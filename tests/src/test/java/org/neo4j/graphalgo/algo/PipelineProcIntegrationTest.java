@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphalgo.PageRankProc;
+import org.neo4j.graphalgo.PipelineProc;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphdb.QueryExecutionException;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PipelineProcIntegrationTest {
+
+    private GraphDatabaseAPI db;
+
+    @Before
+    public void setup() throws KernelException {
+        String createGraph =
+                "CREATE (a:Node {name:'a'})\n" +
+                "CREATE (b:Node {name:'b'})\n" +
+                "CREATE (c:Node {name:'c'})\n" +
+                "CREATE (d:Node {name:'d'})\n" +
+                "CREATE (e:Node {name:'e'})\n" +
+                "CREATE (f:Node {name:'f'})\n" +
+                "CREATE\n" +
+                "  (a)-[:TYPE]->(b),\n" +
+                "  (b)-[:TYPE]->(c),\n" +
+                "  (c)-[:TYPE]->(a),\n" +
+                "  (c)-[:TYPE]->(d),\n" +
+                "  (e)-[:TYPE]->(f)";
+
+        db = TestDatabaseCreator.createTestDatabase();
+
+        try (Transaction tx = db.beginTx()) {
+            db.execute(createGraph).close();
+            tx.success();
+        }
+
+        Procedures procedures = db.getDependencyResolver().resolveDependency(Procedures.class);
+        procedures.registerProcedure(PipelineProc.class);
+        procedures.registerProcedure(PageRankProc.class);
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void shouldWriteAllResultsOfOneLoad() throws Exception {
+        db.execute("CALL algo.pipeline('Node', 'TYPE', {algorithms:['pageRank', 'unionFind', 'labelPropagation', 'triangleCount']}) " +
+                "YIELD nodes, algorithms, graphLoads, writeProperties")
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    assertEquals(6L, row.getNumber("nodes").longValue());
+                    assertEquals(4, ((List<?>) row.get("algorithms")).size());
+                    // triangle count reads both directions of the same heavy graph
+                    assertEquals(1L, row.getNumber("graphLoads").longValue());
+                    assertEquals(4, ((List<?>) row.get("writeProperties")).size());
+                    return true;
+                });
+
+        Map<String, Double> expectedRanks = new HashMap<>();
+        db.execute("CALL algo.pageRank.stream('Node', 'TYPE') YIELD nodeId, score " +
+                "MATCH (n) WHERE id(n) = nodeId RETURN n.name AS name, score")
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    expectedRanks.put(row.getString("name"), row.getNumber("score").doubleValue());
+                    return true;
+                });
+
+        Map<String, Long> triangles = new HashMap<>();
+        Set<Long> partitions = new HashSet<>();
+        db.execute("MATCH (n:Node) RETURN n.name AS name, n.pagerank AS pagerank, n.partition AS partition, " +
+                "n.label AS label, n.triangles AS triangles")
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    String name = row.getString("name");
+                    assertEquals(name, expectedRanks.get(name), row.getNumber("pagerank").doubleValue(), 1e-4);
+                    assertTrue(name, row.get("label") instanceof Long);
+                    partitions.add(row.getNumber("partition").longValue());
+                    triangles.put(name, row.getNumber("triangles").longValue());
+                    return true;
+                });
+        assertEquals(2, partitions.size());
+        assertEquals(1L, (long) triangles.get("a"));
+        assertEquals(1L, (long) triangles.get("c"));
+        assertEquals(0L, (long) triangles.get("d"));
+        assertEquals(0L, (long) triangles.get("f"));
+    }
+
+    @Test
+    public void shouldLoadOnceOnHugeGraphs() throws Exception {
+        db.execute("CALL algo.pipeline('Node', 'TYPE', {algorithms:['pageRank', 'unionFind'], graph:'huge', " +
+                "unionFind:{writeProperty:'component'}}) YIELD graphLoads, writeProperties")
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    assertEquals(1L, row.getNumber("graphLoads").longValue());
+                    assertEquals(2, ((List<?>) row.get("writeProperties")).size());
+                    return true;
+                });
+        long written = (long) db.execute("MATCH (n:Node) WHERE exists(n.component) AND exists(n.pagerank) RETURN count(*) AS c")
+                .<Long>columnAs("c")
+                .next();
+        assertEquals(6L, written);
+    }
+
+    @Test
+    public void shouldShareTheUndirectedLoadOnHugeGraphs() throws Exception {
+        db.execute("CALL algo.pipeline('Node', 'TYPE', {algorithms:['unionFind', 'triangleCount'], graph:'huge'}) " +
+                "YIELD graphLoads")
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    assertEquals(1L, row.getNumber("graphLoads").longValue());
+                    return true;
+                });
+        assertTriangles();
+    }
+
+    @Test
+    public void shouldLoadTheDirectedGraphForPageRankNextToHugeTriangleCount() throws Exception {
+        db.execute("CALL algo.pipeline('Node', 'TYPE', {algorithms:['pageRank', 'triangleCount'], graph:'huge'}) " +
+                "YIELD graphLoads")
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    // the huge graph merges both directions for triangle count, page rank needs them apart
+                    assertEquals(2L, row.getNumber("graphLoads").longValue());
+                    return true;
+                });
+        assertTriangles();
+        long ranked = (long) db.execute("MATCH (n:Node) WHERE n.pagerank > 0 RETURN count(*) AS c")
+                .<Long>columnAs("c")
+                .next();
+        assertEquals(6L, ranked);
+    }
+
+    @Test
+    public void shouldSeedLabelPropagationFromThePartitionProperty() throws Exception {
+        db.execute("MATCH (n:Node) SET n.seed = 42").close();
+        db.execute("CALL algo.pipeline('Node', 'TYPE', {algorithms:['labelPropagation', 'triangleCount'], " +
+                "labelPropagation:{partitionProperty:'seed'}}) YIELD graphLoads")
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    assertEquals(1L, row.getNumber("graphLoads").longValue());
+                    return true;
+                });
+        db.execute("MATCH (n:Node) RETURN n.name AS name, n.label AS label")
+                .accept((Result.ResultVisitor<Exception>) row -> {
+                    assertEquals(row.getString("name"), 42L, row.getNumber("label").longValue());
+                    return true;
+                });
+        assertTriangles();
+    }
+
+    @Test
+    public void shouldRejectUnknownAlgorithms() {
+        try {
+            db.execute("CALL algo.pipeline('Node', 'TYPE', {algorithms:['pageRank', 'closeness']})").close();
+            fail("closeness is not part of the pipeline");
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("can not run in a pipeline"));
+        }
+    }
+
+    private void assertTriangles() {
+        Map<String, Long> triangles = new HashMap<>();
+        db.execute("MATCH (n:Node) RETURN n.name AS name, n.triangles AS triangles")
+                .accept((Result.ResultVisitor<RuntimeException>) row -> {
+                    triangles.put(row.getString("name"), row.getNumber("triangles").longValue());
+                    return true;
+                });
+        assertEquals(1L, (long) triangles.get("a"));
+        assertEquals(1L, (long) triangles.get("b"));
+        assertEquals(1L, (long) triangles.get("c"));
+        assertEquals(0L, (long) triangles.get("d"));
+        assertEquals(0L, (long) triangles.get("f"));
+    }
+}
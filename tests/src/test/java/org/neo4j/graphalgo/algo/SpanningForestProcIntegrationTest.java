@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.SpanningForestProc;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Same graph as {@link PrimProcIntegrationTest} plus an unconnected node z:
+ *
+ *     a                a
+ *  1 /  \ 2          /  \
+ *   /    \          /    \
+ *  b --3-- c       b      c
+ *  |       |   =>  |      |
+ *  4       5       |      |
+ *  |       |       |      |
+ *  d --6-- e       d      e       z
+ */
+public class SpanningForestProcIntegrationTest {
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() throws KernelException {
+        String cypher = "CREATE(a:Node) " +
+                "CREATE(b:Node) " +
+                "CREATE(c:Node) " +
+                "CREATE(d:Node) " +
+                "CREATE(e:Node) " +
+                "CREATE(z:Node) " +
+                "CREATE (a)-[:TYPE {cost:1.0}]->(b) " +
+                "CREATE (a)-[:TYPE {cost:2.0}]->(c) " +
+                "CREATE (b)-[:TYPE {cost:3.0}]->(c) " +
+                "CREATE (b)-[:TYPE {cost:4.0}]->(d) " +
+                "CREATE (c)-[:TYPE {cost:5.0}]->(e) " +
+                "CREATE (d)-[:TYPE {cost:6.0}]->(e)";
+
+        db = TestDatabaseCreator.createTestDatabase();
+
+        try (Transaction tx = db.beginTx()) {
+            db.execute(cypher);
+            tx.success();
+        }
+
+        db.getDependencyResolver()
+                .resolveDependency(Procedures.class)
+                .registerProcedure(SpanningForestProc.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void testMinimum() {
+        Map<String, Object> row = db.execute(
+                "CALL algo.spanningForest.minimum('Node', 'TYPE', 'cost') " +
+                        "YIELD relationships, trees, totalWeight, writeMillis")
+                .next();
+        assertEquals(4L, row.get("relationships"));
+        assertEquals(2L, row.get("trees"));
+        assertEquals(12.0, (double) row.get("totalWeight"), 1e-9);
+
+        assertEquals(12.0, (double) db.execute("MATCH ()-[r:MSF]->() RETURN sum(r.cost) AS sum")
+                .next()
+                .get("sum"), 1e-9);
+    }
+
+    @Test
+    public void testMaximum() {
+        Map<String, Object> row = db.execute(
+                "CALL algo.spanningForest.maximum('Node', 'TYPE', 'cost', {writeProperty:'MAXF'}) " +
+                        "YIELD relationships, trees, totalWeight")
+                .next();
+        assertEquals(4L, row.get("relationships"));
+        assertEquals(17.0, (double) row.get("totalWeight"), 1e-9);
+        assertEquals(4L, db.execute("MATCH ()-[r:MAXF]->() RETURN count(r) AS count")
+                .next()
+                .get("count"));
+    }
+
+    @Test
+    public void testStreamWithCutOff() {
+        Map<String, Object> row = db.execute(
+                "CALL algo.spanningForest.stream('Node', 'TYPE', 'cost', {k:2}) " +
+                        "YIELD sourceNodeId, targetNodeId, weight " +
+                        "RETURN count(*) AS count, sum(weight) AS sum, max(weight) AS max")
+                .next();
+        assertEquals(3L, row.get("count"));
+        assertEquals(7.0, (double) row.get("sum"), 1e-9);
+        assertEquals(4.0, (double) row.get("max"), 1e-9);
+    }
+}
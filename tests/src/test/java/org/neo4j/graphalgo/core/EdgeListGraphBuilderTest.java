@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphBuilder;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.huge.HugeGraphBuilder;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.helper.generator.KroneckerGenerator;
+import org.neo4j.graphalgo.helper.generator.RMatGenerator;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Builds graphs from an edge list and compares them to
+ * the graphs that are loaded from the same edges in the database.
+ */
+@RunWith(Parameterized.class)
+public final class EdgeListGraphBuilderTest {
+
+    @Parameterized.Parameters(name = "{1}")
+    public static Collection<Object[]> data() {
+        return Arrays.<Object[]>asList(
+                new Object[]{HeavyGraphFactory.class, "heavy"},
+                new Object[]{HugeGraphFactory.class, "huge"}
+        );
+    }
+
+    @ClassRule
+    public static ImpermanentDatabaseRule db = new ImpermanentDatabaseRule();
+
+    private static EdgeList edges;
+    private static long nodeCount;
+
+    @BeforeClass
+    public static void setupGraph() {
+        KroneckerGenerator generator = new RMatGenerator(6, 4).withSeed(42L);
+        nodeCount = generator.nodeCount();
+        EdgeList generated = generator.generate();
+        long[] sources = new long[(int) generated.size()];
+        long[] targets = new long[sources.length];
+        double[] weights = new double[sources.length];
+        List<Map<String, Object>> rels = new ArrayList<>();
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = generated.source(i);
+            targets[i] = generated.target(i);
+            // duplicates and reciprocal relationships need the same weight,
+            // otherwise it depends on the load order which one is kept
+            weights[i] = (sources[i] + 1) * (targets[i] + 1);
+            Map<String, Object> rel = new HashMap<>();
+            rel.put("source", sources[i]);
+            rel.put("target", targets[i]);
+            rel.put("weight", weights[i]);
+            rels.add(rel);
+        }
+        edges = EdgeList.of(sources, targets, weights);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("count", nodeCount);
+        params.put("rels", rels);
+        db.execute("UNWIND range(0, $count - 1) AS id CREATE (:Node {id: id})", params).close();
+        db.execute("UNWIND $rels AS rel " +
+                "MATCH (a:Node {id: rel.source}), (b:Node {id: rel.target}) " +
+                "CREATE (a)-[:TYPE {weight: rel.weight}]->(b)", params).close();
+    }
+
+    private final Class<? extends GraphFactory> graphImpl;
+
+    public EdgeListGraphBuilderTest(Class<? extends GraphFactory> graphImpl, String name) {
+        this.graphImpl = graphImpl;
+    }
+
+    @Test
+    public void shouldBuildSameGraphAsLoader() {
+        for (Direction direction : Direction.values()) {
+            Graph expected = new GraphLoader(db)
+                    .withRelationshipWeightsFromProperty("weight", 0.0)
+                    .withDirection(direction)
+                    .load(graphImpl);
+            Graph actual = builder()
+                    .withDirection(direction)
+                    .withConcurrency(4)
+                    .build();
+            assertSameGraph(expected, actual, direction);
+        }
+    }
+
+    @Test
+    public void shouldBuildUndirectedGraph() {
+        if (graphImpl != HugeGraphFactory.class) {
+            return;
+        }
+        Graph expected = new GraphLoader(db)
+                .withRelationshipWeightsFromProperty("weight", 0.0)
+                .asUndirected(true)
+                .load(graphImpl);
+        Graph actual = builder().asUndirected(true).build();
+        assertSameGraph(expected, actual, Direction.OUTGOING);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnNodeIdsOutOfRange() {
+        EdgeList edges = EdgeList.of(new long[]{0, 1}, new long[]{1, 2});
+        if (graphImpl == HugeGraphFactory.class) {
+            new HugeGraphBuilder(2, edges).build();
+        } else {
+            new HeavyGraphBuilder(2, edges).build();
+        }
+    }
+
+    private EdgeListGraphBuilder<?, ?> builder() {
+        if (graphImpl == HugeGraphFactory.class) {
+            return new HugeGraphBuilder(nodeCount, edges);
+        }
+        return new HeavyGraphBuilder(nodeCount, edges);
+    }
+
+    private static void assertSameGraph(Graph expected, Graph actual, Direction direction) {
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        for (int node = 0; node < nodeCount; node++) {
+            assertEquals(
+                    direction + " relationships of node " + node,
+                    relationships(expected, node, direction),
+                    relationships(actual, node, direction));
+        }
+    }
+
+    private static List<String> relationships(Graph graph, long originalId, Direction direction) {
+        List<String> relationships = new ArrayList<>();
+        graph.forEachRelationship(graph.toMappedNodeId(originalId), direction, (s, t, r, w) -> {
+            relationships.add(graph.toOriginalNodeId(t) + ":" + w);
+            return true;
+        });
+        relationships.sort(null);
+        return relationships;
+    }
+}
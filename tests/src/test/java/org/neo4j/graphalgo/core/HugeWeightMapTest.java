@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import static org.junit.Assert.assertEquals;
+
+public final class HugeWeightMapTest {
+
+    @Test
+    public void shouldAggregateParallelRelationships() {
+        HugeWeightMap weights = new HugeWeightMap(2L, 0.0, AllocationTracker.EMPTY);
+        weights.aggregate(0L, 1L, 2.0, RelationshipAggregation.SUM);
+        weights.aggregate(0L, 1L, 3.0, RelationshipAggregation.SUM);
+        weights.aggregate(1L, 0L, 4.0, RelationshipAggregation.SUM);
+
+        assertEquals(5.0, weights.weight(0L, 1L), 0.0);
+        assertEquals(4.0, weights.weight(1L, 0L), 0.0);
+        assertEquals(0.0, weights.weight(1L, 1L), 0.0);
+    }
+
+    @Test
+    public void shouldMergeIntoStoredNaN() {
+        HugeWeightMap weights = new HugeWeightMap(1L, Double.NaN, AllocationTracker.EMPTY);
+        weights.aggregate(0L, 0L, Double.NaN, RelationshipAggregation.SUM);
+        weights.aggregate(0L, 0L, 3.0, RelationshipAggregation.SUM);
+        // a stored NaN is a value, so the sum stays NaN instead of starting over with 3.0
+        assertEquals(Double.NaN, weights.weight(0L, 0L), 0.0);
+
+        weights.aggregate(0L, 1L, Double.NaN, RelationshipAggregation.COUNT);
+        weights.aggregate(0L, 1L, Double.NaN, RelationshipAggregation.COUNT);
+        assertEquals(2.0, weights.weight(0L, 1L), 0.0);
+    }
+}
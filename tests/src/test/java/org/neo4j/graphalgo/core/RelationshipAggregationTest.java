@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Loading huge graphs with parallel relationships, node by node (with a label)
+ * and by scanning the relationships (without a label, for both directions and undirected).
+ */
+@RunWith(Parameterized.class)
+public class RelationshipAggregationTest {
+
+    @Parameterized.Parameters(name = "{0}, label={1}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(
+                new Object[]{RelationshipAggregation.SUM, true, 6.0, 10.0},
+                new Object[]{RelationshipAggregation.SUM, false, 6.0, 10.0},
+                new Object[]{RelationshipAggregation.MIN, true, 0.0, 5.0},
+                new Object[]{RelationshipAggregation.MIN, false, 0.0, 5.0},
+                new Object[]{RelationshipAggregation.MAX, true, 3.0, 5.0},
+                new Object[]{RelationshipAggregation.MAX, false, 3.0, 5.0},
+                new Object[]{RelationshipAggregation.COUNT, true, 4.0, 2.0},
+                new Object[]{RelationshipAggregation.COUNT, false, 4.0, 2.0}
+        );
+    }
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        db.execute("CREATE (a:N),(b:N),(c:N) " +
+                "CREATE (a)-[:R{w:1}]->(b),(a)-[:R{w:3}]->(b),(a)-[:R]->(b),(a)-[:R{w:2}]->(b)" +
+                ",(b)-[:R{w:7}]->(c),(c)-[:R{w:5}]->(c),(c)-[:R{w:5}]->(c)").close();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    private final RelationshipAggregation aggregation;
+    private final boolean withLabel;
+    private final double expectedParallel;
+    private final double expectedLoop;
+
+    public RelationshipAggregationTest(
+            RelationshipAggregation aggregation,
+            boolean withLabel,
+            double expectedParallel,
+            double expectedLoop) {
+        this.aggregation = aggregation;
+        this.withLabel = withLabel;
+        this.expectedParallel = expectedParallel;
+        this.expectedLoop = expectedLoop;
+    }
+
+    @Test
+    public void testOutgoing() {
+        Graph graph = load(Direction.OUTGOING, false);
+        checkDegrees(graph, Direction.OUTGOING, 1, 1);
+        checkWeights(graph, 0, 1);
+        assertEquals(expectedSingle(), graph.weightOf(1, 2), 1e-4);
+    }
+
+    @Test
+    public void testIncoming() {
+        Graph graph = load(Direction.INCOMING, false);
+        checkDegrees(graph, Direction.INCOMING, 0, 1);
+        checkWeights(graph, 1, 0);
+        assertEquals(expectedSingle(), graph.weightOf(2, 1), 1e-4);
+    }
+
+    @Test
+    public void testBoth() {
+        Graph graph = load(Direction.BOTH, false);
+        checkDegrees(graph, Direction.OUTGOING, 1, 1);
+        checkDegrees(graph, Direction.INCOMING, 0, 1);
+        checkWeights(graph, 0, 1);
+        checkWeights(graph, 1, 0);
+        assertEquals(expectedSingle(), graph.weightOf(1, 2), 1e-4);
+    }
+
+    @Test
+    public void testUndirected() {
+        Graph graph = load(Direction.OUTGOING, true);
+        checkDegrees(graph, Direction.OUTGOING, 1, 2);
+        checkWeights(graph, 0, 1);
+        checkWeights(graph, 1, 0);
+        assertEquals(expectedSingle(), graph.weightOf(1, 2), 1e-4);
+        assertEquals(expectedSingle(), graph.weightOf(2, 1), 1e-4);
+    }
+
+    private static void checkDegrees(Graph graph, Direction direction, int degreeOfA, int degreeOfB) {
+        assertEquals(degreeOfA, graph.degree(0, direction));
+        assertEquals(degreeOfB, graph.degree(1, direction));
+    }
+
+    private void checkWeights(Graph graph, int source, int target) {
+        assertEquals(expectedParallel, graph.weightOf(source, target), 1e-4);
+        assertEquals(expectedLoop, graph.weightOf(2, 2), 1e-4);
+    }
+
+    private double expectedSingle() {
+        return aggregation == RelationshipAggregation.COUNT ? 1.0 : 7.0;
+    }
+
+    private Graph load(Direction direction, boolean undirected) {
+        GraphLoader loader = new GraphLoader(db)
+                .withDirection(direction)
+                .asUndirected(undirected)
+                .withRelationshipWeightsFromProperty("w", 0.0)
+                .withRelationshipAggregation(aggregation);
+        if (withLabel) {
+            loader.withLabel("N");
+        } else {
+            loader.withAnyLabel();
+        }
+        return loader.load(HugeGraphFactory.class);
+    }
+}
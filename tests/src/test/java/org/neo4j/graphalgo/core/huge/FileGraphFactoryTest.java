@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.graphalgo.PageRankProc;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.EdgeList;
+import org.neo4j.graphalgo.core.EdgeListFile;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.QueryExecutionException;
+import org.neo4j.graphdb.factory.GraphDatabaseBuilder;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.Exceptions;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public final class FileGraphFactoryTest {
+
+    private static TemporaryFolder folder = new TemporaryFolder();
+
+    private static ImpermanentDatabaseRule db = new ImpermanentDatabaseRule() {
+        @Override
+        protected void configure(GraphDatabaseBuilder builder) {
+            builder.setConfig(GraphDatabaseSettings.load_csv_file_url_root, folder.getRoot().getAbsolutePath());
+        }
+    };
+
+    @ClassRule
+    public static RuleChain rules = RuleChain.outerRule(folder).around(db);
+
+    @Rule
+    public ExpectedException exceptions = ExpectedException.none();
+
+    @BeforeClass
+    public static void setupProcedures() throws Exception {
+        db.getDependencyResolver()
+                .resolveDependency(Procedures.class)
+                .registerProcedure(PageRankProc.class);
+    }
+
+    @Test
+    public void shouldLoadTextFile() throws IOException {
+        File file = folder.newFile("edges.csv");
+        Files.write(file.toPath(), Arrays.asList(
+                "source,target,weight",
+                "# a comment",
+                "1000000,5,2.5\r",
+                "5,42",
+                "",
+                "  42\t1000000\t-1.0",
+                "42;5;1e3"), StandardCharsets.US_ASCII);
+
+        HugeGraph graph = load(file, Direction.OUTGOING);
+
+        assertEquals(3L, graph.nodeCount());
+        assertEquals(5L, graph.toOriginalNodeId(0L));
+        assertEquals(42L, graph.toOriginalNodeId(1L));
+        assertEquals(1000000L, graph.toOriginalNodeId(2L));
+        assertArrayEquals(new String[]{"5:2.5"}, relationships(graph, 1000000L));
+        assertArrayEquals(new String[]{"42:1.0"}, relationships(graph, 5L));
+        assertArrayEquals(new String[]{"1000000:-1.0", "5:1000.0"}, relationships(graph, 42L));
+    }
+
+    @Test
+    public void shouldLoadBinaryFile() throws IOException {
+        File file = folder.newFile("edges.bin");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(EdgeListFile.MAGIC);
+            out.writeInt(EdgeListFile.WITH_WEIGHTS);
+            out.writeLong(2L);
+            out.writeLong(7L);
+            out.writeLong(3L);
+            out.writeDouble(0.5);
+            out.writeLong(3L);
+            out.writeLong(7L);
+            out.writeDouble(4.0);
+        }
+
+        HugeGraph graph = load(file, Direction.OUTGOING);
+
+        assertEquals(2L, graph.nodeCount());
+        assertArrayEquals(new String[]{"3:0.5"}, relationships(graph, 7L));
+        assertArrayEquals(new String[]{"7:4.0"}, relationships(graph, 3L));
+    }
+
+    @Test
+    public void shouldReadChunksInParallel() throws IOException {
+        Random random = new Random(42L);
+        long[] sources = new long[10_000];
+        long[] targets = new long[sources.length];
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = random.nextInt(1000);
+            targets[i] = random.nextInt(1000);
+            lines.add(sources[i] + " " + targets[i]);
+        }
+        File file = folder.newFile("edges.txt");
+        Files.write(file.toPath(), lines, StandardCharsets.US_ASCII);
+
+        EdgeList edges = EdgeListFile.read(file.toPath(), false, 0.0, 8, Pools.DEFAULT, AllocationTracker.EMPTY);
+
+        assertEquals(sources.length, edges.size());
+        for (int i = 0; i < sources.length; i++) {
+            assertEquals(sources[i], edges.source(i));
+            assertEquals(targets[i], edges.target(i));
+        }
+    }
+
+    @Test
+    public void shouldRunAlgorithmsOnFile() throws IOException {
+        File file = folder.newFile("ring.csv");
+        Files.write(file.toPath(), Arrays.asList("10,20", "20,30", "30,10"), StandardCharsets.US_ASCII);
+
+        List<Long> nodeIds = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        db.execute("CALL algo.pageRank.stream(null, $path, {graph: 'file'}) YIELD nodeId, score",
+                singletonMap("path", file.getName()))
+                .forEachRemaining(row -> {
+                    nodeIds.add((Long) row.get("nodeId"));
+                    scores.add((Double) row.get("score"));
+                });
+        assertEquals(Arrays.asList(10L, 20L, 30L), nodeIds);
+        // all nodes of a ring have the same rank
+        assertEquals(scores.get(0), scores.get(1), 1e-9);
+        assertEquals(scores.get(0), scores.get(2), 1e-9);
+    }
+
+    @Test
+    public void shouldRejectAbsolutePaths() throws IOException {
+        File file = folder.newFile("absolute.csv");
+
+        exceptions.expect(IllegalArgumentException.class);
+        exceptions.expectMessage("the path must be relative to the import directory");
+
+        load(file.getAbsolutePath(), Direction.OUTGOING);
+    }
+
+    @Test
+    public void shouldRejectPathsOutsideOfTheImportDirectory() throws IOException {
+        exceptions.expect(IllegalArgumentException.class);
+        exceptions.expectMessage("the path is outside of the import directory");
+
+        load("../" + folder.getRoot().getName() + "-outside.csv", Direction.OUTGOING);
+    }
+
+    @Test
+    public void shouldRejectWritesIntoTheDatabase() throws Throwable {
+        File file = folder.newFile("write.csv");
+        Files.write(file.toPath(), Arrays.asList("10,20", "20,10"), StandardCharsets.US_ASCII);
+
+        exceptions.expect(IllegalArgumentException.class);
+        exceptions.expectMessage("set writeFile to write them into a file or write:false to stream them");
+
+        try {
+            db.execute("CALL algo.pageRank(null, $path, {graph: 'file'})", singletonMap("path", file.getName())).close();
+        } catch (QueryExecutionException qee) {
+            throw Exceptions.rootCause(qee);
+        }
+    }
+
+    private static HugeGraph load(File file, Direction direction) {
+        return load(file.getName(), direction);
+    }
+
+    private static HugeGraph load(String path, Direction direction) {
+        return (HugeGraph) new GraphLoader(db)
+                .withRelationshipType(path)
+                .withRelationshipWeightsFromProperty("weight", 1.0)
+                .withDirection(direction)
+                .load(FileGraphFactory.class);
+    }
+
+    private static String[] relationships(HugeGraph graph, long originalId) {
+        List<String> relationships = new ArrayList<>();
+        graph.forEachRelationship(graph.toHugeMappedNodeId(originalId), Direction.OUTGOING, (s, t) -> {
+            relationships.add(graph.toOriginalNodeId(t) + ":" + graph.weightOf(s, t));
+            return true;
+        });
+        relationships.sort(null);
+        return relationships.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import com.carrotsearch.hppc.DoubleArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.HugeAdjacencyCursor;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipIterator;
+import org.neo4j.graphalgo.api.HugeRelationshipWeights;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public final class HugeAdjacencyCursorTest {
+
+    private static final int NODE_COUNT = 300;
+
+    @ClassRule
+    public static ImpermanentDatabaseRule db = new ImpermanentDatabaseRule();
+
+    private static HugeGraph graph;
+
+    @BeforeClass
+    public static void setupGraph() {
+        // node 0 has a high degree so that its adjacency is returned in multiple blocks
+        db.execute("UNWIND range(0, $count - 1) AS id CREATE (:Node {id: id})", singletonMap("count", NODE_COUNT)).close();
+        db.execute("MATCH (a:Node {id: 0}), (b:Node) WHERE b.id > 0 " +
+                "CREATE (a)-[:TYPE {weight: b.id}]->(b)").close();
+        db.execute("MATCH (a:Node), (b:Node) WHERE a.id > 0 AND b.id = (a.id * 7 + 3) % $count " +
+                        "CREATE (a)-[:TYPE {weight: a.id + b.id}]->(b)",
+                singletonMap("count", NODE_COUNT)).close();
+        graph = (HugeGraph) new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withRelationshipWeightsFromProperty("weight", 0.0)
+                .withDirection(Direction.BOTH)
+                .load(HugeGraphFactory.class);
+    }
+
+    @Test
+    public void shouldReturnSameTargetsAsForEachRelationship() {
+        for (Direction direction : Direction.values()) {
+            assertSameAdjacency(graph, graph.adjacencyCursor(direction), direction, graph, 64);
+            assertSameAdjacency(graph, graph.adjacencyCursor(direction), direction, graph, 11);
+        }
+    }
+
+    @Test
+    public void shouldBufferRelationshipsOfOtherIterators() {
+        HugeRelationshipIterator iterator = graph::forEachRelationship;
+        for (Direction direction : Direction.values()) {
+            HugeAdjacencyCursor cursor = iterator.adjacencyCursor(direction);
+            assertSameAdjacency(graph, cursor, direction, null, 11);
+        }
+    }
+
+    @Test
+    public void shouldSkipFilteredTargets() {
+        HugeNodeFilteredGraph filtered = HugeNodeFilteredGraph.of(
+                graph,
+                node -> node % 3 != 1,
+                Direction.BOTH,
+                AllocationTracker.EMPTY);
+        filtered.canRelease(false);
+        for (Direction direction : Direction.values()) {
+            HugeAdjacencyCursor cursor = filtered.adjacencyCursor(direction);
+            assertSameAdjacency(filtered, cursor, direction, filtered, 8);
+        }
+    }
+
+    private static void assertSameAdjacency(
+            HugeGraph graph,
+            HugeAdjacencyCursor cursor,
+            Direction direction,
+            HugeRelationshipWeights weights,
+            int bufferSize) {
+        long[] targets = new long[bufferSize];
+        double[] buffer = new double[bufferSize];
+        for (long node = 0L; node < graph.nodeCount(); node++) {
+            LongArrayList expected = new LongArrayList();
+            graph.forEachRelationship(node, direction, (s, t) -> {
+                expected.add(t);
+                return true;
+            });
+
+            LongArrayList actual = new LongArrayList();
+            assertEquals(expected.size(), cursor.init(node));
+            int length;
+            while ((length = cursor.nextTargets(targets)) > 0) {
+                actual.add(targets, 0, length);
+            }
+            assertArrayEquals("targets of " + node, expected.toArray(), actual.toArray());
+
+            if (weights != null) {
+                DoubleArrayList expectedWeights = new DoubleArrayList();
+                for (int i = 0; i < expected.size(); i++) {
+                    expectedWeights.add(weights.weightOf(node, expected.get(i)));
+                }
+                DoubleArrayList actualWeights = new DoubleArrayList();
+                cursor.init(node);
+                while ((length = cursor.nextTargets(targets, buffer)) > 0) {
+                    actualWeights.add(buffer, 0, length);
+                }
+                assertArrayEquals("weights of " + node, expectedWeights.toArray(), actualWeights.toArray(), 1e-9);
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.neo4j.graphalgo.core.huge;
 
+import com.carrotsearch.hppc.LongHashSet;
 import org.junit.Rule;
 import org.junit.Test;
 import org.neo4j.graphalgo.api.HugeGraph;
@@ -64,6 +65,56 @@ public final class HugeGraphWeightTest {
         });
     }
 
+    @Test
+    public void shouldLoadCorrectWeightsWhenScanningBothDirections() throws Exception {
+        mkDb(WEIGHT_BATCH_SIZE << 1, 2);
+        HugeGraph outgoing = loadGraph(db);
+        HugeGraph graph = loadGraph(db, Direction.BOTH, false);
+
+        graph.forEachNode((long node) -> {
+            graph.forEachOutgoing(node, (src, tgt) -> {
+                // both directions share one weight, skip pairs that are connected both ways
+                if (!targets(outgoing, tgt, Direction.OUTGOING).contains(src)) {
+                    long weight = (long) graph.weightOf(src, tgt);
+                    int fakeId = ((int) src << 16) | (int) tgt & 0xFFFF;
+                    assertEquals(
+                            "Wrong weight for (" + src + ")->(" + tgt + ")",
+                            fakeId, weight);
+                }
+                return true;
+            });
+            return true;
+        });
+    }
+
+    @Test
+    public void shouldLoadSameRelationshipsWhenScanningBothDirections() throws Exception {
+        mkDb(WEIGHT_BATCH_SIZE << 1, 3);
+        HugeGraph outgoing = loadGraph(db, Direction.OUTGOING, false);
+        HugeGraph incoming = loadGraph(db, Direction.INCOMING, false);
+        HugeGraph both = loadGraph(db, Direction.BOTH, false);
+        HugeGraph undirected = loadGraph(db, Direction.BOTH, true);
+
+        both.forEachNode((long node) -> {
+            LongHashSet out = targets(outgoing, node, Direction.OUTGOING);
+            LongHashSet in = targets(incoming, node, Direction.INCOMING);
+            assertEquals(out, targets(both, node, Direction.OUTGOING));
+            assertEquals(in, targets(both, node, Direction.INCOMING));
+            out.addAll(in);
+            assertEquals(out, targets(undirected, node, Direction.OUTGOING));
+            return true;
+        });
+    }
+
+    private static LongHashSet targets(HugeGraph graph, long node, Direction direction) {
+        LongHashSet targets = new LongHashSet();
+        graph.forEachRelationship(node, direction, (src, tgt) -> {
+            targets.add(tgt);
+            return true;
+        });
+        return targets;
+    }
+
     @Test(timeout = 10000)
     public void shouldLoadMoreWeights() throws Exception {
         mkDb(WEIGHT_BATCH_SIZE, 4);
@@ -106,9 +157,14 @@ public final class HugeGraphWeightTest {
     }
 
     private HugeGraph loadGraph(final GraphDatabaseAPI db) {
+        return loadGraph(db, Direction.OUTGOING, false);
+    }
+
+    private HugeGraph loadGraph(final GraphDatabaseAPI db, Direction direction, boolean undirected) {
         return (HugeGraph) new GraphLoader(db)
                 .withRelationshipWeightsFromProperty("weight", 0)
-                .withDirection(Direction.OUTGOING)
+                .withDirection(direction)
+                .asUndirected(undirected)
                 .withExecutorService(Pools.DEFAULT)
                 .withBatchSize(BATCH_SIZE)
                 .load(HugeGraphFactory.class);
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class HugeIdMapTest {
+
+    @ClassRule
+    public static final ImpermanentDatabaseRule DB = new ImpermanentDatabaseRule();
+
+    @Test
+    public void shouldCompressIncreasingIds() {
+        AllocationTracker tracker = AllocationTracker.create();
+        HugeIdMap idMap = new HugeIdMap(1000L, 100_000L, tracker);
+        for (long id = 3L; id < 100_000L; id += 100L) {
+            idMap.add(id);
+        }
+        long uncompressed = tracker.tracked();
+
+        assertTrue(idMap.compress(tracker));
+        assertTrue(idMap.isCompressed());
+        assertTrue(tracker.tracked() < uncompressed / 4L);
+        assertEquals(1000L, idMap.nodeCount());
+        for (long nodeId = 0L; nodeId < 1000L; nodeId++) {
+            long id = 3L + nodeId * 100L;
+            assertEquals(id, idMap.toOriginalNodeId(nodeId));
+            assertEquals(nodeId, idMap.toHugeMappedNodeId(id));
+            assertTrue(idMap.contains(id));
+            assertFalse(idMap.contains(id + 1L));
+            assertEquals(HugeIdMap.NOT_FOUND, idMap.toHugeMappedNodeId(id - 1L));
+        }
+    }
+
+    @Test
+    public void shouldKeepIdsThatAreNotIncreasing() {
+        HugeIdMap idMap = new HugeIdMap(3L, 100L, AllocationTracker.EMPTY);
+        idMap.add(42L);
+        idMap.add(7L);
+        idMap.add(99L);
+
+        assertFalse(idMap.compress(AllocationTracker.EMPTY));
+        assertFalse(idMap.isCompressed());
+        assertEquals(7L, idMap.toOriginalNodeId(1L));
+        assertEquals(2L, idMap.toHugeMappedNodeId(99L));
+    }
+
+    @Test
+    public void shouldLoadGraphWithCompressedIdMap() {
+        DB.execute("UNWIND range(1, 300) AS i CREATE (:Node {id: i}), (:Other)").close();
+        DB.execute("MATCH (a:Node), (b:Node) WHERE (a.id * 3 + b.id) % 17 = 0 CREATE (a)-[:TYPE]->(b)").close();
+
+        HugeGraph expected = load(false);
+        HugeGraph actual = load(true);
+
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        for (long nodeId = 0L; nodeId < expected.nodeCount(); nodeId++) {
+            long neoId = expected.toOriginalNodeId(nodeId);
+            assertEquals(neoId, actual.toOriginalNodeId(nodeId));
+            assertEquals(nodeId, actual.toHugeMappedNodeId(neoId));
+            assertEquals(targets(expected, nodeId), targets(actual, nodeId));
+        }
+    }
+
+    private static HugeGraph load(boolean compressed) {
+        return (HugeGraph) new GraphLoader(DB)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withDirection(Direction.OUTGOING)
+                .withCompressedIdMap(compressed)
+                .load(HugeGraphFactory.class);
+    }
+
+    private static List<Long> targets(HugeGraph graph, long node) {
+        List<Long> targets = new ArrayList<>();
+        graph.forEachRelationship(node, Direction.OUTGOING, (s, t) -> targets.add(graph.toOriginalNodeId(t)));
+        return targets;
+    }
+}
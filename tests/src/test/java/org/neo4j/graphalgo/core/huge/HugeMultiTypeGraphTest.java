@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.graphalgo.LoadGraphProc;
+import org.neo4j.graphalgo.UnionFindProc;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.loadgraph.LoadGraphFactory;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public final class HugeMultiTypeGraphTest {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:Node {name: 'a'}) " +
+            "CREATE (b:Node {name: 'b'}) " +
+            "CREATE (c:Node {name: 'c'}) " +
+            "CREATE (d:Node {name: 'd'}) " +
+            "CREATE (a)-[:KNOWS {w: 1.0}]->(b) " +
+            "CREATE (c)-[:KNOWS {w: 2.0}]->(d) " +
+            "CREATE (b)-[:FOLLOWS {w: 3.0}]->(c) " +
+            "CREATE (a)-[:FOLLOWS {w: 4.0}]->(b) " +
+            "CREATE (d)-[:LIKES]->(a)";
+
+    @ClassRule
+    public static ImpermanentDatabaseRule db = new ImpermanentDatabaseRule();
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        Procedures procedures = db.resolveDependency(Procedures.class);
+        procedures.registerProcedure(LoadGraphProc.class);
+        procedures.registerProcedure(UnionFindProc.class);
+        db.execute(DB_CYPHER).close();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        LoadGraphFactory.remove("typed");
+    }
+
+    @Test
+    public void shouldLoadTypesSeparately() {
+        HugeGraph graph = (HugeGraph) load("KNOWS|FOLLOWS", HugeGraphFactory.class);
+
+        assertEquals(new HashSet<>(Arrays.asList("KNOWS", "FOLLOWS")), graph.relationshipTypes());
+        assertEquals(4L, graph.nodeCount());
+        // a-[:KNOWS]->b and a-[:FOLLOWS]->b are both kept, with the weight of the first type
+        assertArrayEquals(new String[]{"a->b:1.0", "a->b:1.0", "b->c:3.0", "c->d:2.0"}, relationships(graph));
+        assertEquals(2, graph.degree(graph.toHugeMappedNodeId(0L), Direction.OUTGOING));
+
+        HugeGraph knows = graph.withRelationshipTypes("KNOWS");
+        assertArrayEquals(new String[]{"a->b:1.0", "c->d:2.0"}, relationships(knows));
+        assertArrayEquals(relationships((HugeGraph) load("KNOWS", HugeGraphFactory.class)), relationships(knows));
+        assertArrayEquals(new String[]{"a->b:4.0", "b->c:3.0"}, relationships(graph.withRelationshipTypes("FOLLOWS")));
+        assertSame(graph, graph.withRelationshipTypes(null));
+
+        // releasing a view does not release the graph
+        knows.release();
+        assertEquals(2, graph.withRelationshipTypes("KNOWS").degree(0L, Direction.OUTGOING)
+                + graph.withRelationshipTypes("KNOWS").degree(2L, Direction.OUTGOING));
+        graph.release();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailForTypesThatWereNotLoaded() {
+        ((HugeGraph) load("KNOWS|FOLLOWS", HugeGraphFactory.class)).withRelationshipTypes("LIKES");
+    }
+
+    @Test
+    public void shouldScanAllTypesAtOnce() {
+        // without a label, all types are loaded with a single scan of the relationship store
+        for (boolean undirected : new boolean[]{false, true}) {
+            HugeGraph scanned = (HugeGraph) new GraphLoader(db)
+                    .withAnyLabel()
+                    .withRelationshipType("KNOWS|FOLLOWS")
+                    .withRelationshipWeightsFromProperty("w", 0.0)
+                    .withDirection(Direction.BOTH)
+                    .asUndirected(undirected)
+                    .load(HugeGraphFactory.class);
+            HugeGraph perNode = (HugeGraph) new GraphLoader(db)
+                    .withLabel("Node")
+                    .withRelationshipType("KNOWS|FOLLOWS")
+                    .withRelationshipWeightsFromProperty("w", 0.0)
+                    .withDirection(Direction.BOTH)
+                    .asUndirected(undirected)
+                    .load(HugeGraphFactory.class);
+
+            for (String type : Arrays.asList("KNOWS", "FOLLOWS")) {
+                HugeGraph expected = perNode.withRelationshipTypes(type);
+                HugeGraph actual = scanned.withRelationshipTypes(type);
+                assertArrayEquals(relationships(expected), relationships(actual));
+                if (!undirected) {
+                    assertArrayEquals(
+                            relationships(expected, Direction.INCOMING),
+                            relationships(actual, Direction.INCOMING));
+                }
+            }
+            scanned.release();
+            perNode.release();
+        }
+    }
+
+    @Test
+    public void shouldLoadSeveralTypesIntoHeavyGraph() {
+        Graph graph = load("KNOWS|FOLLOWS", HeavyGraphFactory.class);
+
+        assertEquals(1, graph.degree(graph.toMappedNodeId(1L), Direction.OUTGOING));
+        assertEquals(1, graph.degree(graph.toMappedNodeId(2L), Direction.OUTGOING));
+        assertEquals(0, graph.degree(graph.toMappedNodeId(3L), Direction.OUTGOING));
+    }
+
+    @Test
+    public void shouldRunAlgorithmsOnTypesOfLoadedGraph() {
+        db.execute("CALL algo.graph.load('typed', 'Node', 'KNOWS|FOLLOWS', {graph: 'huge', relationshipWeight: 'w'})").close();
+
+        assertEquals(Arrays.asList(2, 2), setSizes("KNOWS"));
+        assertEquals(Arrays.asList(1, 3), setSizes("FOLLOWS"));
+        assertEquals(Arrays.asList(4), setSizes(null));
+    }
+
+    private static List<Integer> setSizes(String type) {
+        Map<Long, Integer> sets = new HashMap<>();
+        db.execute("CALL algo.unionFind.stream('Node', $type, {graph: 'typed'}) YIELD setId", singletonMap("type", type))
+                .forEachRemaining(row -> sets.merge((Long) row.get("setId"), 1, Integer::sum));
+        List<Integer> sizes = new ArrayList<>(sets.values());
+        sizes.sort(null);
+        return sizes;
+    }
+
+    private static Graph load(String types, Class<? extends GraphFactory> factory) {
+        return new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType(types)
+                .withRelationshipWeightsFromProperty("w", 0.0)
+                .withDirection(Direction.OUTGOING)
+                .load(factory);
+    }
+
+    private static String[] relationships(HugeGraph graph) {
+        return relationships(graph, Direction.OUTGOING);
+    }
+
+    private static String[] relationships(HugeGraph graph, Direction direction) {
+        List<String> relationships = new ArrayList<>();
+        for (long node = 0L; node < graph.nodeCount(); node++) {
+            graph.forEachRelationship(node, direction, (s, t) -> {
+                relationships.add(name(s) + "->" + name(t) + ":" + graph.weightOf(s, t));
+                return true;
+            });
+        }
+        relationships.sort(null);
+        return relationships.toArray(new String[0]);
+    }
+
+    private static String name(long node) {
+        return String.valueOf((char) ('a' + node));
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeNodeProperties;
+import org.neo4j.graphalgo.api.PropertyMapping;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.utils.ImportProgress;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.logging.NullLog;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import static org.junit.Assert.assertEquals;
+
+public final class HugeNodeImporterTest {
+
+    // more than a few ranges of the parallel scan
+    private static final int NODE_COUNT = 100_000;
+
+    @Rule
+    public ImpermanentDatabaseRule db = new ImpermanentDatabaseRule();
+
+    @Test
+    public void shouldAssignTheSameIdsInParallel() {
+        mkDb();
+        HugeGraph expected = loadGraph(null, 1);
+        HugeGraph actual = loadGraph(null, 8);
+        assertSameNodes(expected, actual);
+    }
+
+    @Test
+    public void shouldAssignTheSameIdsForLabelInParallel() {
+        mkDb();
+        HugeGraph expected = loadGraph("Even", 1);
+        HugeGraph actual = loadGraph("Even", 8);
+        assertSameNodes(expected, actual);
+    }
+
+    @Test
+    public void shouldSkipNodesThatExceedTheCountInParallel() throws Exception {
+        mkDb();
+        // pretend that half of the nodes have been created after counting
+        long nodeCount = NODE_COUNT / 4;
+        HugeNodeImporter importer = new HugeNodeImporter(
+                db,
+                NullLog.getInstance(),
+                Pools.DEFAULT,
+                8,
+                AllocationTracker.EMPTY,
+                new ImportProgress(ProgressLogger.NULL_LOGGER, AllocationTracker.EMPTY, nodeCount, 0L, false, false),
+                nodeCount,
+                NODE_COUNT,
+                ReadOperations.ANY_LABEL,
+                HugeNodePropertyMap.EMPTY);
+        HugeIdMap idMap = importer.call();
+
+        assertEquals(nodeCount, idMap.nodeCount());
+        HugeGraph expected = loadGraph(null, 1);
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            assertEquals(expected.toOriginalNodeId(nodeId), idMap.toOriginalNodeId(nodeId));
+        }
+    }
+
+    private void assertSameNodes(HugeGraph expected, HugeGraph actual) {
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        HugeNodeProperties.OfLong expectedValues = expected.longNodeProperty("value");
+        HugeNodeProperties.OfLong actualValues = actual.longNodeProperty("value");
+        for (long nodeId = 0L; nodeId < expected.nodeCount(); nodeId++) {
+            long neoId = expected.toOriginalNodeId(nodeId);
+            assertEquals(neoId, actual.toOriginalNodeId(nodeId));
+            assertEquals(nodeId, actual.toHugeMappedNodeId(neoId));
+            assertEquals(neoId, actualValues.get(nodeId));
+            assertEquals(expectedValues.get(nodeId), actualValues.get(nodeId));
+        }
+    }
+
+    private void mkDb() {
+        Label even = Label.label("Even");
+        try (Transaction tx = db.beginTx()) {
+            for (int i = 0; i < NODE_COUNT; i++) {
+                Node node = i % 2 == 0 ? db.createNode(even) : db.createNode();
+                node.setProperty("value", node.getId());
+            }
+            tx.success();
+        }
+        // leave holes in the id space, including whole ranges
+        try (Transaction tx = db.beginTx()) {
+            for (int i = 0; i < NODE_COUNT; i++) {
+                if (i % 7 == 0 || (i >= 40_000 && i < 60_000)) {
+                    db.getNodeById(i).delete();
+                }
+            }
+            tx.success();
+        }
+    }
+
+    private HugeGraph loadGraph(String label, int concurrency) {
+        return (HugeGraph) new GraphLoader(db, Pools.DEFAULT)
+                .withOptionalLabel(label)
+                .withConcurrency(concurrency)
+                .withNodeProperties(PropertyMapping.ofLong("value", "value", -1L))
+                .load(HugeGraphFactory.class);
+    }
+}
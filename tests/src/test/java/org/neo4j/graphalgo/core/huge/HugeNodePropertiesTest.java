@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeNodeProperties;
+import org.neo4j.graphalgo.api.PropertyMapping;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.logging.NullLog;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public final class HugeNodePropertiesTest {
+
+    private static final int NODE_COUNT = 10_000;
+
+    @Rule
+    public ImpermanentDatabaseRule db = new ImpermanentDatabaseRule();
+
+    @Test
+    public void shouldLoadNodePropertiesIntoColumns() {
+        long[] neoIds = mkDb();
+        HugeGraph graph = loadGraph(null);
+
+        assertEquals(
+                new HashSet<>(Arrays.asList("score", "seed", "missing")),
+                graph.nodePropertyKeys());
+
+        HugeNodeProperties.OfDouble score = graph.doubleNodeProperty("score");
+        HugeNodeProperties.OfLong seed = graph.longNodeProperty("seed");
+        HugeNodeProperties.OfDouble missing = graph.doubleNodeProperty("missing");
+        for (int i = 0; i < NODE_COUNT; i++) {
+            long nodeId = graph.toHugeMappedNodeId(neoIds[i]);
+            assertEquals(i % 3 == 0 ? 42.0 : i / 2.0, score.get(nodeId), 1e-9);
+            assertEquals(i % 5 == 0 ? -1L : (long) i << 33, seed.get(nodeId));
+            assertEquals(1337.0, missing.get(nodeId), 1e-9);
+        }
+    }
+
+    @Test
+    public void shouldOnlyLoadPropertiesOfLabeledNodes() {
+        long[] neoIds = mkDb();
+        HugeGraph graph = loadGraph("Even");
+
+        assertEquals(NODE_COUNT / 2, graph.nodeCount());
+        HugeNodeProperties.OfDouble score = graph.doubleNodeProperty("score");
+        for (int i = 0; i < NODE_COUNT; i += 2) {
+            long nodeId = graph.toHugeMappedNodeId(neoIds[i]);
+            assertEquals(i % 3 == 0 ? 42.0 : i / 2.0, score.get(nodeId), 1e-9);
+        }
+    }
+
+    @Test
+    public void shouldLoadNodePropertiesFromConfiguration() {
+        long[] neoIds = mkDb();
+        long largeDefault = (1L << 53) + 1L;
+        Map<String, Object> seedConfig = new HashMap<>();
+        seedConfig.put("property", "partition");
+        seedConfig.put("type", "long");
+        seedConfig.put("defaultValue", largeDefault);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("score", "weight");
+        properties.put("seed", seedConfig);
+        ProcedureConfiguration configuration = ProcedureConfiguration.create(
+                Collections.singletonMap("nodeProperties", properties));
+
+        HugeGraph graph = (HugeGraph) new GraphLoader(db, Pools.DEFAULT)
+                .init(NullLog.getInstance(), null, null, configuration)
+                .load(HugeGraphFactory.class);
+
+        HugeNodeProperties.OfDouble score = graph.doubleNodeProperty("score");
+        HugeNodeProperties.OfLong seed = graph.longNodeProperty("seed");
+        for (int i = 0; i < NODE_COUNT; i++) {
+            long nodeId = graph.toHugeMappedNodeId(neoIds[i]);
+            assertEquals(i % 3 == 0 ? 0.0 : i / 2.0, score.get(nodeId), 1e-9);
+            assertEquals(i % 5 == 0 ? largeDefault : (long) i << 33, seed.get(nodeId));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailForUnknownProperty() {
+        mkDb();
+        loadGraph(null).doubleNodeProperty("unknown");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailForWrongPropertyType() {
+        mkDb();
+        loadGraph(null).doubleNodeProperty("seed");
+    }
+
+    private long[] mkDb() {
+        long[] neoIds = new long[NODE_COUNT];
+        Label even = Label.label("Even");
+        try (Transaction tx = db.beginTx()) {
+            for (int i = 0; i < NODE_COUNT; i++) {
+                Node node = i % 2 == 0 ? db.createNode(even) : db.createNode();
+                if (i % 3 != 0) {
+                    node.setProperty("weight", i / 2.0);
+                }
+                if (i % 5 != 0) {
+                    node.setProperty("partition", (long) i << 33);
+                }
+                neoIds[i] = node.getId();
+            }
+            tx.success();
+        }
+        return neoIds;
+    }
+
+    private HugeGraph loadGraph(String label) {
+        return (HugeGraph) new GraphLoader(db, Pools.DEFAULT)
+                .withOptionalLabel(label)
+                .withNodeProperties(
+                        PropertyMapping.of("score", "weight", 42.0),
+                        PropertyMapping.ofLong("seed", "partition", -1L),
+                        PropertyMapping.of("missing", "doesNotExist", 1337.0))
+                .load(HugeGraphFactory.class);
+    }
+}
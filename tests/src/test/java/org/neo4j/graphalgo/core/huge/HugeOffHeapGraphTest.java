@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipIntersect;
+import org.neo4j.graphalgo.api.HugeRelationshipIterator;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class HugeOffHeapGraphTest {
+
+    @ClassRule
+    public static final ImpermanentDatabaseRule DB = new ImpermanentDatabaseRule();
+
+    @BeforeClass
+    public static void setup() {
+        DB.execute("UNWIND range(1, 500) AS i CREATE (:Node {id: i})").close();
+        DB.execute("MATCH (a:Node), (b:Node) " +
+                "WHERE a.id <> b.id AND (a.id * 7 + b.id * 13) % 31 = 0 " +
+                "CREATE (a)-[:TYPE]->(b)").close();
+        // one node with a large adjacency list
+        DB.execute("MATCH (a:Node {id: 1}), (b:Node) WHERE b.id > 1 CREATE (a)-[:TYPE]->(b)").close();
+    }
+
+    @Test
+    public void shouldLoadTheSameDirectedGraph() {
+        HugeGraph onHeap = load(false, false, AllocationTracker.EMPTY);
+        HugeGraph offHeap = load(true, false, AllocationTracker.EMPTY);
+
+        assertEquals(onHeap.nodeCount(), offHeap.nodeCount());
+        assertSameRelationships(onHeap, offHeap, Direction.OUTGOING);
+        assertSameRelationships(onHeap, offHeap, Direction.INCOMING);
+        assertSameRelationships(onHeap.concurrentCopy(), offHeap.concurrentCopy(), onHeap, Direction.OUTGOING);
+
+        onHeap.release();
+        offHeap.release();
+    }
+
+    @Test
+    public void shouldIntersectTheSameUndirectedGraph() {
+        HugeGraph onHeap = load(false, true, AllocationTracker.EMPTY);
+        HugeGraph offHeap = load(true, true, AllocationTracker.EMPTY);
+
+        assertSameRelationships(onHeap, offHeap, Direction.OUTGOING);
+        long triangles = triangles(onHeap);
+        assertTrue(triangles > 0L);
+        assertEquals(triangles, triangles(offHeap));
+
+        onHeap.release();
+        offHeap.release();
+    }
+
+    @Test
+    public void shouldTrackAndReleaseOffHeapMemory() {
+        AllocationTracker onHeapTracker = AllocationTracker.create();
+        AllocationTracker offHeapTracker = AllocationTracker.create();
+        HugeGraph onHeap = load(false, false, onHeapTracker);
+        HugeGraph offHeap = load(true, false, offHeapTracker);
+
+        assertEquals(onHeapTracker.tracked(), offHeapTracker.tracked());
+
+        onHeap.release();
+        offHeap.release();
+        assertEquals(onHeapTracker.tracked(), offHeapTracker.tracked());
+    }
+
+    private static HugeGraph load(boolean offHeap, boolean undirected, AllocationTracker tracker) {
+        return (HugeGraph) new GraphLoader(DB)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withDirection(undirected ? Direction.OUTGOING : Direction.BOTH)
+                .asUndirected(undirected)
+                .withOffHeap(offHeap)
+                .withAllocationTracker(tracker)
+                .load(HugeGraphFactory.class);
+    }
+
+    private static void assertSameRelationships(HugeGraph expected, HugeGraph actual, Direction direction) {
+        assertSameRelationships(expected, actual, expected, direction);
+    }
+
+    private static void assertSameRelationships(
+            HugeRelationshipIterator expected,
+            HugeRelationshipIterator actual,
+            HugeGraph graph,
+            Direction direction) {
+        for (long node = 0L; node < graph.nodeCount(); node++) {
+            assertEquals(targets(expected, node, direction), targets(actual, node, direction));
+        }
+    }
+
+    private static List<Long> targets(
+            HugeRelationshipIterator graph,
+            long node,
+            Direction direction) {
+        List<Long> targets = new ArrayList<>();
+        graph.forEachRelationship(node, direction, (s, t) -> targets.add(t));
+        return targets;
+    }
+
+    private static long triangles(HugeGraph graph) {
+        HugeRelationshipIntersect intersect = graph.intersectionCopy();
+        LongAdder triangles = new LongAdder();
+        for (long node = 0L; node < graph.nodeCount(); node++) {
+            intersect.intersectAll(node, (a, b, c) -> triangles.increment());
+        }
+        return triangles.sum();
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public final class ScanningRelationshipImporterTest {
+
+    private static final long BILLION = 1_000_000_000L;
+    private static final long GIGABYTE = 1L << 30;
+
+    @Test
+    public void shouldScanALargeBothLoadOnceIfTheBuffersFit() {
+        // 2 directions of 2 longs per relationship take 32 GB of buffers
+        assertEquals(1L, ScanningRelationshipImporter.passes(BILLION, 2, false, 128L * GIGABYTE));
+    }
+
+    @Test
+    public void shouldNeedSeveralPassesIfTheBuffersDoNotFit() {
+        // a quarter of 16 GB is available for 32 GB of buffers, these loads are read node by node
+        assertEquals(8L, ScanningRelationshipImporter.passes(BILLION, 2, false, 16L * GIGABYTE));
+        assertEquals(2L, ScanningRelationshipImporter.passes(BILLION, 2, true, 128L * GIGABYTE));
+    }
+
+    @Test
+    public void shouldScanEmptyGraphsOnce() {
+        assertEquals(1L, ScanningRelationshipImporter.passes(0L, 2, false, 0L));
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class AlgoSchedulerTest {
+
+    @Test
+    public void shouldDegradeConcurrencyWhenCoresAreTaken() {
+        AlgoScheduler scheduler = new AlgoScheduler(4, 1000L);
+        try (AlgoScheduler.Job first = admit(scheduler, "first", 3, 0L);
+             AlgoScheduler.Job second = admit(scheduler, "second", 3, 0L);
+             AlgoScheduler.Job third = admit(scheduler, "third", 3, 0L)) {
+            assertEquals(3, first.concurrency());
+            assertEquals(1, second.concurrency());
+            assertEquals(1, third.concurrency());
+
+            AlgoScheduler.Status status = scheduler.status();
+            assertEquals(3, status.runningJobs);
+            assertEquals(5, status.usedConcurrency);
+            assertEquals(3, status.admittedJobs);
+            assertEquals(2, status.degradedJobs);
+        }
+        AlgoScheduler.Status status = scheduler.status();
+        assertEquals(0, status.runningJobs);
+        assertEquals(0, status.usedConcurrency);
+    }
+
+    @Test
+    public void shouldQueueJobsThatExceedTheMemoryBudget() throws Exception {
+        AlgoScheduler scheduler = new AlgoScheduler(4, 1000L);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AlgoScheduler.Job big = admit(scheduler, "big", 2, 800L);
+            CountDownLatch submitted = new CountDownLatch(1);
+            Future<AlgoScheduler.Job> queued = executor.submit(() -> {
+                submitted.countDown();
+                return admit(scheduler, "queued", 2, 500L);
+            });
+            submitted.await();
+            while (scheduler.status().queuedJobs == 0) {
+                Thread.sleep(10L);
+            }
+            assertFalse(queued.isDone());
+            assertEquals(800L, scheduler.status().usedBytes);
+
+            big.close();
+            try (AlgoScheduler.Job job = queued.get(10L, TimeUnit.SECONDS)) {
+                assertEquals(2, job.concurrency());
+                assertTrue(job.waitMillis() >= 0L);
+            }
+            assertEquals(0, scheduler.status().queuedJobs);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldAdmitOversizedJobsWhenIdle() {
+        AlgoScheduler scheduler = new AlgoScheduler(4, 1000L);
+        try (AlgoScheduler.Job job = admit(scheduler, "huge", 8, 5000L)) {
+            assertEquals(4, job.concurrency());
+            assertEquals(5000L, scheduler.status().usedBytes);
+        }
+    }
+
+    private static AlgoScheduler.Job admit(AlgoScheduler scheduler, String name, int concurrency, long bytes) {
+        return scheduler.admit(name, concurrency, bytes, AllocationTracker.EMPTY, TerminationFlag.RUNNING_TRUE);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import org.junit.After;
+import org.junit.Test;
+import org.neo4j.graphalgo.core.neo4jview.DirectIdMapping;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.logging.NullLog;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class BackgroundJobsTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldKeepTheResultUntilTheLastReaderClosesIt() throws Exception {
+        BackgroundJobs jobs = new BackgroundJobs(executor);
+        AllocationTracker tracker = AllocationTracker.create();
+        BackgroundJob job = awaitJob(jobs.submit("test", NullLog.getInstance(), j -> result(3L, tracker)));
+
+        try (BackgroundJob.Result result = job.openResult()) {
+            jobs.remove(job.id());
+            assertEquals(2.0, result.value(2L), 0.0);
+            assertEquals(2L, result.nodeId(2L));
+            assertTrue(tracker.tracked() > 0L);
+        }
+        assertEquals(0L, tracker.tracked());
+        try {
+            job.openResult();
+            fail("removed job should not have results");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().contains("CANCELLED"));
+        }
+    }
+
+    @Test
+    public void shouldEvictTheOldestFinishedJobs() throws Exception {
+        BackgroundJobs jobs = new BackgroundJobs(executor, 2, TimeUnit.DAYS.toMillis(1L));
+        AllocationTracker tracker = AllocationTracker.create();
+        long first = awaitJob(jobs.submit("test", NullLog.getInstance(), j -> result(10L, tracker))).id();
+        awaitJob(jobs.submit("test", NullLog.getInstance(), j -> result(10L, tracker)));
+        awaitJob(jobs.submit("test", NullLog.getInstance(), j -> result(10L, tracker)));
+
+        List<BackgroundJob> remaining = jobs.jobs();
+        assertEquals(2, remaining.size());
+        assertEquals(first + 1L, remaining.get(0).id());
+        assertEquals(first + 2L, remaining.get(1).id());
+    }
+
+    @Test
+    public void shouldEvictFinishedJobsAfterTheRetentionTime() throws Exception {
+        BackgroundJobs jobs = new BackgroundJobs(executor, 10, 1L);
+        AllocationTracker tracker = AllocationTracker.create();
+        BackgroundJob job = awaitJob(jobs.submit("test", NullLog.getInstance(), j -> result(10L, tracker)));
+        Thread.sleep(10L);
+
+        assertTrue(jobs.jobs().isEmpty());
+        assertEquals(0L, tracker.tracked());
+        try {
+            jobs.get(job.id());
+            fail("evicted job should be gone");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("No background job with id " + job.id()));
+        }
+    }
+
+    private static BackgroundJob.Result result(long nodeCount, AllocationTracker tracker) {
+        return BackgroundJob.Result.of(new DirectIdMapping(nodeCount), i -> (double) i, tracker);
+    }
+
+    private static BackgroundJob awaitJob(BackgroundJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000L;
+        while (!job.finished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5L);
+        }
+        assertEquals(BackgroundJob.State.DONE, job.state());
+        return job;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public final class ImportDirectoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldResolveFilesWithinTheImportDirectory() throws IOException {
+        Path root = folder.newFolder("import").toPath();
+
+        assertEquals(root.resolve("edges.csv"), ImportDirectory.resolve(root, "edges.csv"));
+        assertEquals(root.resolve("out/ranks.csv"), ImportDirectory.resolve(root, "out/../out/./ranks.csv"));
+    }
+
+    @Test
+    public void shouldRejectFilesOutsideOfTheImportDirectory() throws IOException {
+        File root = folder.newFolder("import");
+        File outside = folder.newFile("secret.csv");
+
+        assertRejected(root.toPath(), outside.getAbsolutePath());
+        assertRejected(root.toPath(), "../secret.csv");
+        assertRejected(root.toPath(), "out/../../secret.csv");
+        assertRejected(root.toPath(), "..");
+    }
+
+    @Test
+    public void shouldRejectSymbolicLinksOutOfTheImportDirectory() throws IOException {
+        Path root = folder.newFolder("import").toPath();
+        Path outside = folder.newFolder("outside").toPath();
+        Files.createSymbolicLink(root.resolve("link"), outside);
+
+        assertRejected(root, "link/secret.csv");
+    }
+
+    private static void assertRejected(Path root, String file) {
+        try {
+            ImportDirectory.resolve(root, file);
+            fail("Expected " + file + " to be rejected");
+        } catch (IllegalArgumentException expected) {
+            // the file is not within the import directory
+        }
+    }
+}
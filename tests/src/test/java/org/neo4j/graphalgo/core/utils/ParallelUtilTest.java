@@ -19,24 +19,31 @@
 package org.neo4j.graphalgo.core.utils;
 
 import com.carrotsearch.randomizedtesting.RandomizedTest;
+import com.carrotsearch.randomizedtesting.annotations.ThreadLeakLingering;
 import org.junit.Test;
 import org.neo4j.collection.primitive.PrimitiveIntIterable;
 import org.neo4j.collection.primitive.PrimitiveIntStack;
 import org.neo4j.function.ThrowingConsumer;
 import org.neo4j.graphalgo.api.BatchNodeIterable;
+import org.neo4j.graphdb.TransactionTerminatedException;
 import org.neo4j.helpers.Exceptions;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -47,6 +54,8 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+// ForkJoin workers deregister asynchronously after the pool has terminated
+@ThreadLeakLingering(linger = 1000)
 public final class ParallelUtilTest extends RandomizedTest {
 
     @Test
@@ -260,6 +269,52 @@ public final class ParallelUtilTest extends RandomizedTest {
         });
     }
 
+    @Test
+    public void shouldCancelRunningTasksOnTermination() throws Exception {
+        withPool(4, pool -> {
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicInteger interrupted = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(2);
+            List<Runnable> tasks = Arrays.asList(
+                    sleepUntilInterrupted(started, interrupted),
+                    sleepUntilInterrupted(started, interrupted));
+            TerminationFlag isRunning = () -> {
+                if (started.getCount() == 0) {
+                    running.set(false);
+                }
+                return running.get();
+            };
+
+            try {
+                ParallelUtil.run(tasks, pool, isRunning);
+                fail("should have thrown on termination");
+            } catch (TransactionTerminatedException expected) {
+            }
+
+            assertFalse(running.get());
+            // the tasks have stopped before run returned
+            assertEquals(2, interrupted.get());
+        });
+    }
+
+    @Test
+    public void shouldChainTheErrorsOfAllTasks() throws Exception {
+        withPool(4, pool -> {
+            CountDownLatch started = new CountDownLatch(2);
+            List<Runnable> tasks = Arrays.asList(
+                    failAfterStart(started, "first"),
+                    failAfterStart(started, "second"));
+            try {
+                ParallelUtil.awaitTermination(
+                        Arrays.asList(pool.submit(tasks.get(0)), pool.submit(tasks.get(1))),
+                        TerminationFlag.RUNNING_TRUE);
+                fail("should have thrown");
+            } catch (RuntimeException e) {
+                assertEquals(1, e.getSuppressed().length);
+            }
+        });
+    }
+
     @Test
     public void shouldWaitOnFullThreadpool() throws Exception {
         ThreadPoolExecutor pool = mock(ThreadPoolExecutor.class);
@@ -278,6 +333,87 @@ public final class ParallelUtilTest extends RandomizedTest {
         verify(pool, times(11)).getActiveCount();
     }
 
+    @Test
+    public void shouldPartitionByDegree() throws Exception {
+        // a star around node 10 and a chain over all other nodes
+        long nodeCount = 100L;
+        List<Partition> partitions = ParallelUtil.degreePartitions(
+                nodeCount,
+                4,
+                node -> node == 10L ? 300 : 1);
+
+        assertTrue(partitions.size() <= 4);
+        long expectedStart = 0L;
+        for (Partition partition : partitions) {
+            assertEquals(expectedStart, partition.startNode);
+            assertTrue(partition.nodeCount > 0L);
+            expectedStart = partition.endNode();
+        }
+        assertEquals(nodeCount, expectedStart);
+        // the hub dominates the first partition that contains it
+        Partition first = partitions.get(0);
+        assertEquals(11L, first.nodeCount);
+    }
+
+    @Test
+    public void shouldPartitionIntoSingleBatch() throws Exception {
+        List<Partition> partitions = ParallelUtil.degreePartitions(42L, 1, node -> 1);
+        assertEquals(1, partitions.size());
+        assertEquals(0L, partitions.get(0).startNode);
+        assertEquals(42L, partitions.get(0).nodeCount);
+    }
+
+    @Test
+    public void shouldRunAllTasksOnForkJoinPool() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int taskCount = between(10, 100);
+            AtomicInteger ran = new AtomicInteger();
+            List<Runnable> tasks = new ArrayList<>();
+            for (int i = 0; i < taskCount; i++) {
+                tasks.add(ran::incrementAndGet);
+            }
+            ParallelUtil.runWithConcurrency(4, tasks, pool);
+            assertEquals(taskCount, ran.get());
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    @Test
+    public void shouldRunAtMostConcurrencyTasksOnForkJoinPool() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final Tasks ts = new Tasks(6, 10);
+            ParallelUtil.runWithConcurrency(2, ts, pool);
+            assertTrue(ts.maxRunning() <= 2);
+            assertEquals(6, ts.started());
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    @Test
+    public void shouldPropagateErrorsFromForkJoinPool() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            List<Runnable> tasks = Arrays.asList(
+                    () -> {},
+                    () -> {
+                        throw new IllegalStateException("boom");
+                    });
+            ParallelUtil.runWithConcurrency(2, tasks, pool);
+            fail("should have thrown");
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
     private static void withPool(
             int nThreads,
             ThrowingConsumer<ExecutorService, ? extends Throwable> block) {
@@ -299,6 +435,31 @@ public final class ParallelUtilTest extends RandomizedTest {
         }
     }
 
+    private static Runnable sleepUntilInterrupted(
+            CountDownLatch started,
+            AtomicInteger interrupted) {
+        return () -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+            }
+        };
+    }
+
+    private static Runnable failAfterStart(CountDownLatch started, String message) {
+        return () -> {
+            started.countDown();
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RuntimeException(message);
+        };
+    }
+
     private PrimitiveIntIterable ints(int from, int size) {
         final PrimitiveIntStack stack = new PrimitiveIntStack(size);
         for (int i = 0; i < size; i++) {
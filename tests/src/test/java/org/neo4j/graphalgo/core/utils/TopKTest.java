@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import com.carrotsearch.randomizedtesting.annotations.ThreadLeakLingering;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public final class TopKTest {
+
+    @Test
+    public void shouldSelectTheHighestScoresFirst() {
+        double[] scores = {0.5, 3.0, 1.0, 3.0, 2.0, 0.1};
+        long[] top = TopK.select(scores.length, 4, i -> scores[(int) i], 1, null);
+        // ties are broken by the lower node id
+        assertArrayEquals(new long[]{1L, 3L, 4L, 2L}, top);
+    }
+
+    @Test
+    public void shouldReturnAllNodesIfKIsLarger() {
+        double[] scores = {0.5, 3.0, 1.0};
+        assertArrayEquals(new long[]{1L, 2L, 0L}, TopK.select(scores.length, 10, i -> scores[(int) i], 1, null));
+        assertEquals(0, TopK.select(scores.length, 0, i -> scores[(int) i], 1, null).length);
+    }
+
+    @Test
+    @ThreadLeakLingering(linger = 1000)
+    public void shouldOnlyAllocateHeapsForTheScannedNodes() {
+        int nodeCount = 400_000;
+        // heaps of the full limit would take 48 GiB
+        long[] top = TopK.select(nodeCount, Integer.MAX_VALUE, i -> -i, 4, Pools.DEFAULT);
+        assertEquals(nodeCount, top.length);
+        assertArrayEquals(LongStream.range(0, nodeCount).toArray(), top);
+        assertEquals(2, TopK.select(2L, Integer.MAX_VALUE, i -> i, 1, null).length);
+    }
+
+    @Test
+    @ThreadLeakLingering(linger = 1000)
+    public void shouldSelectTheSameNodesInParallel() {
+        Random random = new Random(42L);
+        int nodeCount = 1_000_000;
+        double[] scores = new double[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            // few distinct values, so that there are many ties
+            scores[i] = random.nextInt(10_000);
+        }
+
+        long[] expected = LongStream.range(0, nodeCount)
+                .boxed()
+                .sorted(Comparator.<Long>comparingDouble(i -> -scores[(int) (long) i]).thenComparingLong(i -> i))
+                .limit(100)
+                .mapToLong(Long::longValue)
+                .toArray();
+
+        assertArrayEquals(expected, TopK.select(nodeCount, 100, i -> scores[(int) i], 1, Pools.DEFAULT));
+        assertArrayEquals(expected, TopK.select(nodeCount, 100, i -> scores[(int) i], 8, Pools.DEFAULT));
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeltaCursorTest {
+
+    private static final int[] DEGREES = {0, 1, 2, 7, 8, 9, 15, 16, 17, 20, 100, 1000};
+
+    private long[] offsets;
+
+    @Test
+    public void shouldDecodeTargetsOneByOne() {
+        long[][] lists = randomLists(42L);
+        for (boolean offHeap : new boolean[]{false, true}) {
+            ByteArray array = encode(lists, offHeap);
+            assertDecodesOneByOne(array, lists);
+            array.release();
+        }
+    }
+
+    @Test
+    public void shouldDecodeTargetsInBulk() {
+        long[][] lists = randomLists(1337L);
+        for (boolean offHeap : new boolean[]{false, true}) {
+            ByteArray array = encode(lists, offHeap);
+            assertDecodesInBulk(array, lists);
+            array.release();
+        }
+    }
+
+    @Test
+    public void shouldDecodeListsLargerThanAPage() {
+        Random random = new Random(99L);
+        long[][] lists = {
+                sortedTargets(random, 10, 1000L),
+                // takes more than a page of 256 KiB
+                sortedTargets(random, 40_000, Long.MAX_VALUE),
+                sortedTargets(random, 10, 1000L)
+        };
+        for (boolean offHeap : new boolean[]{false, true}) {
+            ByteArray array = encode(lists, offHeap);
+            assertDecodesOneByOne(array, lists);
+            assertDecodesInBulk(array, lists);
+            array.release();
+        }
+    }
+
+    @Test
+    public void shouldRemoveOffHeapPagesFromTheTracker() {
+        Random random = new Random(23L);
+        long[][] lists = {sortedTargets(random, 10, 1000L), sortedTargets(random, 40_000, Long.MAX_VALUE)};
+        AllocationTracker tracker = new AllocationTracker();
+        ByteArray array = encode(lists, true, tracker);
+        assertTrue(tracker.tracked() > 0L);
+        tracker.remove(array.release());
+        assertEquals(0L, tracker.tracked());
+    }
+
+    @Test
+    public void shouldSkipAndAdvance() {
+        long[][] lists = randomLists(7L);
+        ByteArray array = encode(lists, false);
+        ByteArray.DeltaCursor cursor = array.newCursor();
+        ByteArray.DeltaCursor copy = array.newCursor();
+        for (int i = 0; i < lists.length; i++) {
+            long[] targets = lists[i];
+            if (targets.length < 3) {
+                continue;
+            }
+            int mid = targets.length / 2;
+            array.deltaCursor(cursor, offsets[i]);
+            assertEquals(targets[mid], cursor.advance(targets[mid]));
+            copy.copyFrom(cursor);
+            assertEquals(targets.length - mid - 1, copy.remaining());
+            assertEquals(targets[mid + 1], copy.skipUntil(targets[mid]));
+            assertEquals(targets[mid + 1], cursor.nextVLong());
+
+            long last = targets[targets.length - 1];
+            assertEquals(last, cursor.skipUntil(last + 1));
+            assertFalse(cursor.hasNextVLong());
+        }
+    }
+
+    private ByteArray encode(long[][] lists, boolean offHeap) {
+        return encode(lists, offHeap, AllocationTracker.EMPTY);
+    }
+
+    private ByteArray encode(long[][] lists, boolean offHeap, AllocationTracker tracker) {
+        ByteArray array = ByteArray.newArray(0L, offHeap, tracker);
+        ByteArray.LocalAllocator allocator = array.newAllocator();
+        allocator.prepare();
+        offsets = new long[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            long[] deltas = lists[i].clone();
+            for (int j = deltas.length - 1; j > 0; j--) {
+                deltas[j] -= deltas[j - 1];
+            }
+            offsets[i] = allocator.allocate(Integer.BYTES + DeltaEncoding.blockSize(deltas, 0, deltas.length));
+            allocator.adder.addUnsignedInt(deltas.length);
+            allocator.adder.addDeltaBlocks(deltas, 0, deltas.length);
+        }
+        return array;
+    }
+
+    private void assertDecodesOneByOne(ByteArray array, long[][] lists) {
+        ByteArray.DeltaCursor cursor = array.newCursor();
+        for (int i = 0; i < lists.length; i++) {
+            array.deltaCursor(cursor, offsets[i]);
+            assertEquals(lists[i].length, cursor.cost());
+            long[] actual = new long[lists[i].length];
+            int length = 0;
+            while (cursor.hasNextVLong()) {
+                actual[length++] = cursor.nextVLong();
+            }
+            assertArrayEquals(lists[i], actual);
+        }
+    }
+
+    private void assertDecodesInBulk(ByteArray array, long[][] lists) {
+        ByteArray.DeltaCursor cursor = array.newCursor();
+        for (int bufferSize : new int[]{1, 5, 8, 64}) {
+            long[] buffer = new long[bufferSize];
+            for (int i = 0; i < lists.length; i++) {
+                array.deltaCursor(cursor, offsets[i]);
+                long[] actual = new long[lists[i].length];
+                int length = 0;
+                if (lists[i].length > 0) {
+                    // mix single decodes with bulk decodes
+                    actual[length++] = cursor.nextVLong();
+                }
+                int decoded;
+                while ((decoded = cursor.nextTargets(buffer)) > 0) {
+                    System.arraycopy(buffer, 0, actual, length, decoded);
+                    length += decoded;
+                }
+                assertEquals(lists[i].length, length);
+                assertArrayEquals(lists[i], actual);
+            }
+        }
+    }
+
+    private static long[][] randomLists(long seed) {
+        Random random = new Random(seed);
+        long[][] lists = new long[DEGREES.length * 2][];
+        for (int i = 0; i < DEGREES.length; i++) {
+            lists[i] = sortedTargets(random, DEGREES[i], 1000L);
+            // deltas that need all 8 bytes
+            lists[DEGREES.length + i] = sortedTargets(random, DEGREES[i], Long.MAX_VALUE);
+        }
+        return lists;
+    }
+
+    private static long[] sortedTargets(Random random, int degree, long bound) {
+        long[] targets = random.longs(degree * 2L, 1L, bound).distinct().limit(degree).toArray();
+        if (targets.length < degree) {
+            targets = random.longs(degree, 1L, Long.MAX_VALUE).distinct().toArray();
+        }
+        Arrays.sort(targets);
+        return targets;
+    }
+}
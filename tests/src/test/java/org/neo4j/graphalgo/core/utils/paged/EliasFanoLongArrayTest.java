@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EliasFanoLongArrayTest {
+
+    @Test
+    public void shouldEncodeDenseValues() {
+        assertEncodes(increasing(10_000, 2, 42L));
+    }
+
+    @Test
+    public void shouldEncodeSparseValues() {
+        assertEncodes(increasing(10_000, 1 << 20, 1337L));
+    }
+
+    @Test
+    public void shouldEncodeLargeValues() {
+        long[] values = increasing(1_000, 1 << 10, 7L);
+        for (int i = 0; i < values.length; i++) {
+            values[i] += 1L << 40;
+        }
+        assertEncodes(values);
+    }
+
+    @Test
+    public void shouldEncodeConsecutiveValues() {
+        long[] values = new long[1_000];
+        Arrays.setAll(values, i -> i);
+        assertEncodes(values);
+    }
+
+    @Test
+    public void shouldEncodeEmptyAndSingleValues() {
+        assertEncodes(new long[0]);
+        assertEncodes(new long[]{0L});
+        assertEncodes(new long[]{1L << 35});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnValuesThatAreNotIncreasing() {
+        EliasFanoLongArray.of(toLongArray(new long[]{1L, 5L, 5L, 7L}), 4L, AllocationTracker.EMPTY);
+    }
+
+    @Test
+    public void shouldTrackMemory() {
+        AllocationTracker tracker = AllocationTracker.create();
+        long[] values = increasing(1_000_000, 1 << 10, 1L);
+        LongArray array = toLongArray(values);
+        long before = tracker.tracked();
+        EliasFanoLongArray encoded = EliasFanoLongArray.of(array, values.length, tracker);
+        long tracked = tracker.tracked() - before;
+        long universe = values[values.length - 1] + 1L;
+        assertTrue(tracked > 0L);
+        assertTrue(tracked <= EliasFanoLongArray.estimateMemoryUsage(values.length, universe));
+        assertTrue(tracked < LongArray.estimateMemoryUsage(values.length) / 4L);
+        tracker.remove(encoded.release());
+        assertEquals(before, tracker.tracked());
+    }
+
+    private static void assertEncodes(long[] values) {
+        EliasFanoLongArray encoded = EliasFanoLongArray.of(toLongArray(values), values.length, AllocationTracker.EMPTY);
+        assertEquals(values.length, encoded.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], encoded.get(i));
+            assertEquals(i, encoded.indexOf(values[i]));
+            assertTrue(encoded.contains(values[i]));
+        }
+        long previous = -1L;
+        for (long value : values) {
+            for (long missing = previous + 1L; missing < value && missing < previous + 5L; missing++) {
+                assertEquals(EliasFanoLongArray.NOT_FOUND, encoded.indexOf(missing));
+            }
+            previous = value;
+        }
+        assertFalse(encoded.contains(previous + 1L));
+        assertFalse(encoded.contains(-1L));
+        encoded.release();
+    }
+
+    private static long[] increasing(int size, int maxGap, long seed) {
+        Random random = new Random(seed);
+        long[] values = new long[size];
+        long value = -1L;
+        for (int i = 0; i < size; i++) {
+            value += 1 + random.nextInt(maxGap);
+            values[i] = value;
+        }
+        return values;
+    }
+
+    private static LongArray toLongArray(long[] values) {
+        LongArray array = LongArray.newArray(values.length, AllocationTracker.EMPTY);
+        for (int i = 0; i < values.length; i++) {
+            array.set(i, values[i]);
+        }
+        return array;
+    }
+}
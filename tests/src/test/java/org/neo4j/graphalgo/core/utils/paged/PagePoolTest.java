@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PagePoolTest {
+
+    private static final long SIZE = 100_000L;
+
+    @Test
+    public void shouldReuseReleasedPages() {
+        PagePool pool = PagePool.create(Long.MAX_VALUE);
+        AllocationTracker tracker = AllocationTracker.create(pool);
+
+        LongArray first = LongArray.newArray(SIZE, tracker);
+        first.setAll(i -> i + 1L);
+        long tracked = tracker.tracked();
+        tracker.remove(first.release());
+        assertEquals(0L, tracker.tracked());
+        assertTrue(pool.retainedBytes() > 0L);
+        assertEquals(0.0, tracker.pagePoolHitRate(), 0.0);
+
+        LongArray second = LongArray.newArray(SIZE, tracker);
+        assertEquals(tracked, tracker.tracked());
+        assertEquals(0.5, tracker.pagePoolHitRate(), 0.0);
+        assertEquals(0L, pool.retainedBytes());
+        for (long i = 0L; i < SIZE; i++) {
+            assertEquals(0L, second.get(i));
+        }
+    }
+
+    @Test
+    public void shouldRespectTheRetentionCap() {
+        long bytesPerPage = LongArray.estimateMemoryUsage(1L) - MemoryUsage.shallowSizeOfInstance(LongArray.class);
+        PagePool pool = PagePool.create(bytesPerPage * 2);
+        AllocationTracker tracker = AllocationTracker.create(pool);
+
+        LongArray array = LongArray.newArray(SIZE, tracker);
+        array.release();
+        assertEquals(bytesPerPage * 2, pool.retainedBytes());
+
+        pool.clear();
+        assertEquals(0L, pool.retainedBytes());
+    }
+
+    @Test
+    public void shouldKeepSizeClassesApart() {
+        PagePool pool = PagePool.create(Long.MAX_VALUE);
+        AllocationTracker tracker = AllocationTracker.create(pool);
+
+        IntArray.newArray(SIZE, tracker).release();
+        DoubleArray doubles = DoubleArray.newArray(SIZE, tracker);
+        assertEquals(0.0, tracker.pagePoolHitRate(), 0.0);
+        doubles.release();
+
+        DoubleArray.newArray(SIZE, tracker);
+        assertTrue(tracker.pagePoolHitRate() > 0.0);
+    }
+}
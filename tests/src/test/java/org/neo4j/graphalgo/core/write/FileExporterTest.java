@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.write;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.graphalgo.PageRankProc;
+import org.neo4j.graphalgo.core.neo4jview.DirectIdMapping;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.LongArray;
+import org.neo4j.graphdb.factory.GraphDatabaseBuilder;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public final class FileExporterTest {
+
+    private static TemporaryFolder folder = new TemporaryFolder();
+
+    private static ImpermanentDatabaseRule db = new ImpermanentDatabaseRule() {
+        @Override
+        protected void configure(GraphDatabaseBuilder builder) {
+            builder.setConfig(GraphDatabaseSettings.load_csv_file_url_root, folder.getRoot().getAbsolutePath());
+        }
+    };
+
+    @ClassRule
+    public static RuleChain rules = RuleChain.outerRule(folder).around(db);
+
+    @Rule
+    public ExpectedException exceptions = ExpectedException.none();
+
+    @BeforeClass
+    public static void setupProcedures() throws Exception {
+        db.getDependencyResolver()
+                .resolveDependency(Procedures.class)
+                .registerProcedure(PageRankProc.class);
+    }
+
+    @Test
+    public void shouldWriteCsv() throws IOException {
+        File file = folder.newFile("result.csv");
+
+        Exporter.of(new DirectIdMapping(3L), db)
+                .withFile(file.getName())
+                .build()
+                .write(
+                        "score", new double[]{0.5, 1.0, 0.25}, Translators.DOUBLE_ARRAY_TRANSLATOR,
+                        "partition", new int[]{2, -1, 0}, Translators.OPTIONAL_INT_ARRAY_TRANSLATOR);
+
+        assertEquals(
+                Arrays.asList("nodeId,score,partition", "0,0.5,2", "1,1.0,", "2,0.25,0"),
+                Files.readAllLines(file.toPath(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void shouldWriteBinaryColumnsInParallel() throws IOException {
+        File file = folder.newFile("result.bin");
+        int nodeCount = 123_456;
+        LongArray communities = LongArray.newArray(nodeCount, AllocationTracker.EMPTY);
+        double[] scores = new double[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            communities.set(i, i / 10);
+            scores[i] = i * 0.5;
+        }
+
+        Exporter.of(new DirectIdMapping(nodeCount), db)
+                .parallel(Pools.DEFAULT, 4, TerminationFlag.RUNNING_TRUE)
+                .withFile(file.getName())
+                .build()
+                .write(
+                        Exporter.Property.of("community", communities, LongArray.Translator.INSTANCE),
+                        Exporter.Property.of("score", scores, Translators.DOUBLE_ARRAY_TRANSLATOR));
+
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            assertEquals(FileExporter.MAGIC, in.readInt());
+            assertEquals(2, in.readInt());
+            assertEquals(nodeCount, in.readLong());
+            assertEquals(FileExporter.TYPE_LONG, in.readByte());
+            assertEquals("community", in.readUTF());
+            assertEquals(FileExporter.TYPE_DOUBLE, in.readByte());
+            assertEquals("score", in.readUTF());
+            for (int i = 0; i < nodeCount; i++) {
+                assertEquals(i, in.readLong());
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                assertEquals(i / 10, in.readLong());
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                assertEquals(i * 0.5, in.readDouble(), 0.0);
+            }
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void shouldWriteProcedureResultsIntoFile() throws IOException {
+        File edges = folder.newFile("ring.csv");
+        Files.write(edges.toPath(), Arrays.asList("10,20", "20,30", "30,10"), StandardCharsets.US_ASCII);
+        File result = new File(folder.getRoot(), "ranks.csv");
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("edges", edges.getName());
+        params.put("result", result.getName());
+        db.execute("CALL algo.pageRank(null, $edges, {graph: 'file', writeFile: $result, writeProperty: 'rank'}) " +
+                "YIELD nodes", params).close();
+
+        List<String> lines = Files.readAllLines(result.toPath(), StandardCharsets.US_ASCII);
+        assertEquals(4, lines.size());
+        assertEquals("nodeId,rank", lines.get(0));
+        String rank = lines.get(1).substring(lines.get(1).indexOf(','));
+        assertEquals("10" + rank, lines.get(1));
+        assertEquals("20" + rank, lines.get(2));
+        assertEquals("30" + rank, lines.get(3));
+    }
+
+    @Test
+    public void shouldRejectAbsolutePaths() {
+        File file = new File(folder.getRoot(), "absolute.csv");
+
+        exceptions.expect(IllegalArgumentException.class);
+        exceptions.expectMessage("the path must be relative to the import directory");
+
+        Exporter.of(new DirectIdMapping(1L), db)
+                .withFile(file.getAbsolutePath())
+                .build();
+    }
+
+    @Test
+    public void shouldRejectPathsOutsideOfTheImportDirectory() {
+        exceptions.expect(IllegalArgumentException.class);
+        exceptions.expectMessage("the path is outside of the import directory");
+
+        Exporter.of(new DirectIdMapping(1L), db)
+                .withFile("results/../../" + folder.getRoot().getName() + "-outside.csv")
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.helper.generator;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.core.EdgeList;
+import org.neo4j.graphalgo.core.utils.Pools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class EdgeListGeneratorTest {
+
+    @Test
+    public void shouldGenerateSameGraphForSameSeed() {
+        EdgeList expected = new RMatGenerator(10).withSeed(42L).withRandomWeights(true)
+                .withExecutorService(null)
+                .generate();
+        EdgeList actual = new RMatGenerator(10).withSeed(42L).withRandomWeights(true)
+                .withExecutorService(Pools.DEFAULT)
+                .withConcurrency(4)
+                .generate();
+        assertEquals(1L << 14, actual.size());
+        for (long i = 0L; i < expected.size(); i++) {
+            assertEquals(expected.source(i), actual.source(i));
+            assertEquals(expected.target(i), actual.target(i));
+            assertEquals(expected.weight(i), actual.weight(i), 0.0);
+        }
+    }
+
+    @Test
+    public void shouldGenerateKroneckerGraph() {
+        double[][] initiator = {{0.9, 0.5, 0.1}, {0.5, 0.3, 0.1}, {0.1, 0.1, 0.8}};
+        KroneckerGenerator generator = new KroneckerGenerator(initiator, 5, 10_000L).withSeed(1L);
+        EdgeList edges = generator.generate();
+        assertEquals(243L, generator.nodeCount());
+        assertEquals(10_000L, edges.size());
+        long[] outDegrees = new long[243];
+        for (long i = 0L; i < edges.size(); i++) {
+            assertTrue(edges.target(i) < 243L);
+            outDegrees[(int) edges.source(i)]++;
+        }
+        // node 0 is in the densest cell on every level, node 121 never is
+        assertTrue(outDegrees[0] > outDegrees[121]);
+    }
+
+    @Test
+    public void shouldGenerateBarabasiAlbertGraph() {
+        int edgesPerNode = 3;
+        EdgeList edges = new BarabasiAlbertGenerator(10_000L, edgesPerNode).withSeed(7L).generate();
+        assertEquals(30_000L, edges.size());
+        long[] inDegrees = new long[10_000];
+        for (long i = 0L; i < edges.size(); i++) {
+            long source = edges.source(i);
+            long target = edges.target(i);
+            assertEquals(i / edgesPerNode, source);
+            assertTrue(target <= source);
+            inDegrees[(int) target]++;
+        }
+        // preferential attachment makes early nodes hubs
+        long earlyDegrees = 0L;
+        long lateDegrees = 0L;
+        for (int i = 0; i < 100; i++) {
+            earlyDegrees += inDegrees[i];
+            lateDegrees += inDegrees[9_900 + i];
+        }
+        assertTrue(earlyDegrees > 10 * lateDegrees);
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import com.carrotsearch.randomizedtesting.annotations.ThreadLeakLingering;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.traverse.HugeDirectionOptimizingBFS;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@ThreadLeakLingering(linger = 1000)
+public class HugeDirectionOptimizingBFSTest {
+
+    private static final int NODES = 10_000;
+    private static final int RELATIONSHIPS = 40_000;
+
+    private static GraphDatabaseAPI db;
+    private static HugeGraph graph;
+
+    @BeforeClass
+    public static void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        final Random random = new Random(42L);
+        final RelationshipType type = RelationshipType.withName("REL");
+        try (Transaction tx = db.beginTx()) {
+            final Node[] nodes = new Node[NODES];
+            for (int i = 0; i < NODES; i++) {
+                nodes[i] = db.createNode();
+            }
+            for (int i = 0; i < RELATIONSHIPS; i++) {
+                nodes[random.nextInt(NODES)].createRelationshipTo(nodes[random.nextInt(NODES)], type);
+            }
+            tx.success();
+        }
+        graph = (HugeGraph) new GraphLoader(db)
+                .withAnyLabel()
+                .withAnyRelationshipType()
+                .withDirection(Direction.BOTH)
+                .load(HugeGraphFactory.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void testTopDownOnly() {
+        final HugeDirectionOptimizingBFS bfs = bfs(Direction.OUTGOING, false);
+        bfs.compute(0L);
+        assertEquals(0, bfs.bottomUpSteps());
+        assertMatchesSequentialBfs(bfs, 0L, Direction.OUTGOING);
+    }
+
+    @Test
+    public void testSwitchesToBottomUp() {
+        final HugeDirectionOptimizingBFS bfs = bfs(Direction.OUTGOING, true);
+        bfs.compute(0L);
+        assertTrue(bfs.bottomUpSteps() > 0);
+        assertTrue(bfs.topDownSteps() > 0);
+        assertMatchesSequentialBfs(bfs, 0L, Direction.OUTGOING);
+    }
+
+    @Test
+    public void testBottomUpInspectsFewerEdges() {
+        final HugeDirectionOptimizingBFS topDown = bfs(Direction.BOTH, false).compute(1L);
+        final HugeDirectionOptimizingBFS optimized = bfs(Direction.BOTH, true).compute(1L);
+        assertMatchesSequentialBfs(optimized, 1L, Direction.BOTH);
+        assertEquals(topDown.visitedNodes(), optimized.visitedNodes());
+        assertTrue(optimized.edgeInspections() < topDown.edgeInspections());
+    }
+
+    @Test
+    public void testRepeatedComputeResets() {
+        final HugeDirectionOptimizingBFS bfs = bfs(Direction.INCOMING, true);
+        bfs.compute(0L);
+        bfs.compute(42L);
+        assertMatchesSequentialBfs(bfs, 42L, Direction.INCOMING);
+    }
+
+    private static HugeDirectionOptimizingBFS bfs(Direction direction, boolean bottomUp) {
+        return new HugeDirectionOptimizingBFS(
+                graph,
+                direction,
+                bottomUp,
+                4,
+                Pools.DEFAULT,
+                AllocationTracker.EMPTY);
+    }
+
+    private static void assertMatchesSequentialBfs(
+            HugeDirectionOptimizingBFS bfs,
+            long startNode,
+            Direction direction) {
+        final int[] expected = new int[NODES];
+        Arrays.fill(expected, -1);
+        expected[(int) startNode] = 0;
+        final ArrayDeque<Long> queue = new ArrayDeque<>();
+        queue.add(startNode);
+        long visited = 0L;
+        while (!queue.isEmpty()) {
+            final long node = queue.poll();
+            visited++;
+            graph.forEachRelationship(node, direction, (s, t) -> {
+                if (expected[(int) t] == -1) {
+                    expected[(int) t] = expected[(int) s] + 1;
+                    queue.add(t);
+                }
+                return true;
+            });
+        }
+
+        assertEquals(visited, bfs.visitedNodes());
+        for (long node = 0L; node < NODES; node++) {
+            assertEquals("distance of " + node, expected[(int) node], bfs.distance(node));
+            if (node == startNode) {
+                assertEquals(startNode, bfs.parent(node));
+            } else if (expected[(int) node] > 0) {
+                final long parent = bfs.parent(node);
+                assertEquals(expected[(int) node] - 1, bfs.distance(parent));
+                assertTrue(graph.exists(parent, node, direction));
+            } else {
+                assertEquals(-1L, bfs.parent(node));
+            }
+        }
+    }
+}
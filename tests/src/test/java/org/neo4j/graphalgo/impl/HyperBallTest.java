@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import com.carrotsearch.randomizedtesting.annotations.ThreadLeakLingering;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.HyperBallProc;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HyperLogLogCounterArray;
+import org.neo4j.graphalgo.impl.hyperball.HyperBall;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@ThreadLeakLingering(linger = 1000)
+public class HyperBallTest {
+
+    private static final int NODES = 1_000;
+    private static final int RELATIONSHIPS = 3_000;
+
+    private static GraphDatabaseAPI db;
+    private static HugeGraph graph;
+
+    @BeforeClass
+    public static void setup() throws KernelException {
+        db = TestDatabaseCreator.createTestDatabase();
+        final Random random = new Random(42L);
+        final RelationshipType type = RelationshipType.withName("REL");
+        try (Transaction tx = db.beginTx()) {
+            final Node[] nodes = new Node[NODES];
+            for (int i = 0; i < NODES; i++) {
+                nodes[i] = db.createNode();
+            }
+            for (int i = 0; i < RELATIONSHIPS; i++) {
+                nodes[random.nextInt(NODES)].createRelationshipTo(nodes[random.nextInt(NODES)], type);
+            }
+            tx.success();
+        }
+        graph = (HugeGraph) new GraphLoader(db)
+                .withAnyLabel()
+                .withAnyRelationshipType()
+                .withDirection(Direction.BOTH)
+                .load(HugeGraphFactory.class);
+
+        db.getDependencyResolver()
+                .resolveDependency(Procedures.class)
+                .registerProcedure(HyperBallProc.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void testCounterPrecision() {
+        final HyperLogLogCounterArray counters = HyperLogLogCounterArray.newArray(2, 10, AllocationTracker.EMPTY);
+        for (long value = 0L; value < 50_000L; value++) {
+            counters.add(value < 25_000L ? 0L : 1L, value);
+        }
+        assertEquals(25_000.0, counters.count(0L), 25_000.0 * 0.1);
+        assertTrue(counters.union(0L, counters, 1L));
+        assertEquals(50_000.0, counters.count(0L), 50_000.0 * 0.1);
+        assertEquals(false, counters.union(0L, counters, 1L));
+    }
+
+    @Test
+    public void testApproximatesExactDistances() {
+        final HyperBall hyperBall = new HyperBall(
+                graph,
+                Direction.OUTGOING,
+                12,
+                Integer.MAX_VALUE,
+                4,
+                Pools.DEFAULT,
+                AllocationTracker.EMPTY)
+                .compute();
+
+        long[] pairsWithin = new long[NODES];
+        int diameter = 0;
+        for (long node = 0L; node < NODES; node++) {
+            final int[] distances = distancesFrom(node);
+            long farness = 0L;
+            double harmonic = 0.0;
+            long reachable = 0L;
+            for (int distance : distances) {
+                if (distance >= 0) {
+                    farness += distance;
+                    harmonic += distance > 0 ? 1.0 / distance : 0.0;
+                    reachable++;
+                    pairsWithin[distance]++;
+                    diameter = Math.max(diameter, distance);
+                }
+            }
+            assertEquals(reachable, hyperBall.reachable().applyAsDouble(node), reachable * 0.05 + 1.0);
+            assertEquals(farness, hyperBall.farness().applyAsDouble(node), farness * 0.1 + 1.0);
+            assertEquals(harmonic / (NODES - 1), hyperBall.harmonic().applyAsDouble(node), 0.01);
+        }
+
+        assertTrue(hyperBall.iterations() <= diameter);
+        assertTrue(hyperBall.iterations() >= diameter - 2);
+
+        final double[] function = hyperBall.neighbourhoodFunction();
+        long exact = 0L;
+        for (int t = 0; t < function.length; t++) {
+            exact += pairsWithin[t];
+            assertEquals(exact, function[t], exact * 0.05);
+        }
+        assertTrue(hyperBall.effectiveDiameter(0.9) > 0.0);
+        assertTrue(hyperBall.effectiveDiameter(0.9) <= hyperBall.iterations());
+    }
+
+    @Test
+    public void testStatsProcedure() {
+        final Map<String, Object> row = db.execute(
+                "CALL algo.hyperBall.stats(null, null, {direction:'OUTGOING', precision:8}) " +
+                        "YIELD nodes, iterations, effectiveDiameter, neighbourhoodFunction")
+                .next();
+        assertEquals((long) NODES, row.get("nodes"));
+        assertTrue(((Number) row.get("iterations")).longValue() > 0L);
+        assertTrue(((Number) row.get("effectiveDiameter")).doubleValue() > 0.0);
+        assertEquals(((Number) row.get("iterations")).intValue() + 1, ((List<?>) row.get("neighbourhoodFunction")).size());
+    }
+
+    private static int[] distancesFrom(long startNode) {
+        final int[] distances = new int[NODES];
+        Arrays.fill(distances, -1);
+        distances[(int) startNode] = 0;
+        final ArrayDeque<Long> queue = new ArrayDeque<>();
+        queue.add(startNode);
+        while (!queue.isEmpty()) {
+            final long node = queue.poll();
+            graph.forEachRelationship(node, Direction.OUTGOING, (s, t) -> {
+                if (distances[(int) t] == -1) {
+                    distances[(int) t] = distances[(int) s] + 1;
+                    queue.add(t);
+                }
+                return true;
+            });
+        }
+        return distances;
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import com.carrotsearch.randomizedtesting.annotations.ThreadLeakLingering;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.impl.similarity.NodeSimilarity;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@ThreadLeakLingering(linger = 1000)
+public class NodeSimilarityTest {
+
+    private static final int PERSONS = 400;
+    private static final int ITEMS = 100;
+    private static final int TOP_K = 3;
+
+    private static GraphDatabaseAPI db;
+    private static HugeGraph graph;
+
+    @BeforeClass
+    public static void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        final Random random = new Random(42L);
+        final RelationshipType type = RelationshipType.withName("LIKES");
+        try (Transaction tx = db.beginTx()) {
+            final Node[] items = new Node[ITEMS];
+            for (int i = 0; i < ITEMS; i++) {
+                items[i] = db.createNode();
+            }
+            for (int i = 0; i < PERSONS; i++) {
+                final Node person = db.createNode();
+                final Set<Integer> likes = new HashSet<>();
+                for (int j = 0, count = random.nextInt(8); j < count; j++) {
+                    likes.add(random.nextInt(ITEMS));
+                }
+                for (int item : likes) {
+                    person.createRelationshipTo(items[item], type);
+                }
+            }
+            tx.success();
+        }
+        graph = (HugeGraph) new GraphLoader(db)
+                .withAnyLabel()
+                .withAnyRelationshipType()
+                .withDirection(Direction.BOTH)
+                .load(HugeGraphFactory.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void testJaccard() {
+        assertTopK(NodeSimilarity.Metric.JACCARD, 0.0);
+    }
+
+    @Test
+    public void testOverlapWithSimilarityCutoff() {
+        assertTopK(NodeSimilarity.Metric.OVERLAP, 0.5);
+    }
+
+    @Test
+    public void testHubDegreeCutoff() {
+        final NodeSimilarity similarity = similarity(NodeSimilarity.Metric.JACCARD, 0.0, 0);
+        assertEquals(0L, similarity.similarityPairs());
+    }
+
+    private void assertTopK(NodeSimilarity.Metric metric, double cutoff) {
+        final NodeSimilarity similarity = similarity(metric, cutoff, Integer.MAX_VALUE);
+        long pairs = 0L;
+        for (long node = 0L; node < graph.nodeCount(); node++) {
+            final List<double[]> expected = bruteForce(node, metric, cutoff);
+            final List<double[]> actual = new ArrayList<>();
+            similarity.forEachSimilar(node, (s, t, score) -> actual.add(new double[]{t, score}));
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i)[0], actual.get(i)[0], 0.0);
+                assertEquals(expected.get(i)[1], actual.get(i)[1], 1e-9);
+            }
+            pairs += actual.size();
+        }
+        assertEquals(pairs, similarity.similarityPairs());
+        assertTrue(pairs > 0L);
+    }
+
+    private static NodeSimilarity similarity(NodeSimilarity.Metric metric, double cutoff, int hubDegreeCutoff) {
+        return new NodeSimilarity(
+                graph,
+                Direction.OUTGOING,
+                metric,
+                TOP_K,
+                cutoff,
+                1,
+                hubDegreeCutoff,
+                4,
+                Pools.DEFAULT,
+                AllocationTracker.EMPTY).compute();
+    }
+
+    /**
+     * Compares the node to every other node, best first and by id for equal similarities.
+     */
+    private static List<double[]> bruteForce(long node, NodeSimilarity.Metric metric, double cutoff) {
+        final Set<Long> neighbours = neighbours(node);
+        final List<double[]> result = new ArrayList<>();
+        if (neighbours.isEmpty()) {
+            return result;
+        }
+        for (long other = 0L; other < graph.nodeCount(); other++) {
+            final Set<Long> otherNeighbours = neighbours(other);
+            if (other == node || otherNeighbours.isEmpty()) {
+                continue;
+            }
+            final Set<Long> intersection = new HashSet<>(neighbours);
+            intersection.retainAll(otherNeighbours);
+            if (intersection.isEmpty()) {
+                continue;
+            }
+            final double score = metric.similarity(intersection.size(), neighbours.size(), otherNeighbours.size());
+            if (score >= cutoff) {
+                result.add(new double[]{other, score});
+            }
+        }
+        result.sort((a, b) -> a[1] != b[1] ? Double.compare(b[1], a[1]) : Double.compare(a[0], b[0]));
+        return result.subList(0, Math.min(TOP_K, result.size()));
+    }
+
+    private static Set<Long> neighbours(long node) {
+        final Set<Long> neighbours = new HashSet<>();
+        graph.forEachRelationship(node, Direction.OUTGOING, (s, t) -> neighbours.add(t));
+        return neighbours;
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import com.carrotsearch.randomizedtesting.annotations.ThreadLeakLingering;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicDisjointSetStruct;
+import org.neo4j.graphalgo.impl.spanningTrees.ParallelBoruvka;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@ThreadLeakLingering(linger = 1000)
+public class ParallelBoruvkaTest {
+
+    private static final int NODES = 5_000;
+    private static final int RELATIONSHIPS = 12_000;
+
+    private static GraphDatabaseAPI db;
+    private static HugeGraph graph;
+
+    @BeforeClass
+    public static void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        final Random random = new Random(42L);
+        final RelationshipType type = RelationshipType.withName("REL");
+        try (Transaction tx = db.beginTx()) {
+            final Node[] nodes = new Node[NODES];
+            for (int i = 0; i < NODES; i++) {
+                nodes[i] = db.createNode();
+            }
+            for (int i = 0; i < RELATIONSHIPS; i++) {
+                // few distinct weights, so that ties have to be broken consistently
+                nodes[random.nextInt(NODES)]
+                        .createRelationshipTo(nodes[random.nextInt(NODES)], type)
+                        .setProperty("w", (double) random.nextInt(10));
+            }
+            tx.success();
+        }
+        graph = (HugeGraph) new GraphLoader(db)
+                .withAnyLabel()
+                .withAnyRelationshipType()
+                .withRelationshipWeightsFromProperty("w", 1.0)
+                .asUndirected(true)
+                .load(HugeGraphFactory.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void testDisjointSetStruct() {
+        final PagedAtomicDisjointSetStruct dss = new PagedAtomicDisjointSetStruct(10, AllocationTracker.EMPTY);
+        assertTrue(dss.union(3, 7));
+        assertTrue(dss.union(7, 9));
+        assertEquals(false, dss.union(9, 3));
+        assertEquals(3, dss.find(9));
+        assertEquals(5, dss.find(5));
+    }
+
+    @Test
+    public void testMinimumForestMatchesKruskal() {
+        final ParallelBoruvka boruvka = boruvka(false).compute();
+        final double[] kruskal = kruskal(false);
+        assertEquals(kruskal.length, boruvka.relationshipCount());
+        assertEquals(sum(kruskal, kruskal.length), boruvka.totalWeight(), 1e-6);
+        assertEquals(NODES - kruskal.length, boruvka.treeCount());
+        assertTrue(boruvka.rounds() > 1);
+    }
+
+    @Test
+    public void testMaximumForestMatchesKruskal() {
+        final ParallelBoruvka boruvka = boruvka(true).compute();
+        final double[] kruskal = kruskal(true);
+        assertEquals(kruskal.length, boruvka.relationshipCount());
+        assertEquals(sum(kruskal, kruskal.length), boruvka.totalWeight(), 1e-6);
+    }
+
+    @Test
+    public void testCutOffRemovesMostExpensiveRelationships() {
+        final ParallelBoruvka boruvka = boruvka(false).compute(5);
+        final double[] kruskal = kruskal(false);
+        // kruskal adds relationships by ascending weight, the last four are the most expensive
+        assertEquals(kruskal.length - 4, boruvka.relationshipCount());
+        assertEquals(sum(kruskal, kruskal.length - 4), boruvka.totalWeight(), 1e-6);
+        final long[] count = {0L};
+        boruvka.forEach((s, t, w) -> {
+            assertEquals(graph.weightOf(s, t), w, 0.0);
+            count[0]++;
+            return true;
+        });
+        assertEquals(boruvka.relationshipCount(), count[0]);
+    }
+
+    private static ParallelBoruvka boruvka(boolean maximum) {
+        return new ParallelBoruvka(graph, maximum, 4, Pools.DEFAULT, AllocationTracker.EMPTY);
+    }
+
+    private static double sum(double[] weights, int length) {
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            sum += weights[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return the weights of the forest relationships in the order kruskal added them
+     */
+    private static double[] kruskal(boolean maximum) {
+        final List<double[]> relationships = new ArrayList<>();
+        for (long node = 0L; node < NODES; node++) {
+            graph.forEachRelationship(node, Direction.OUTGOING, (s, t) -> {
+                if (s < t) {
+                    relationships.add(new double[]{graph.weightOf(s, t), s, t});
+                }
+                return true;
+            });
+        }
+        Comparator<double[]> byWeight = Comparator.comparingDouble(r -> r[0]);
+        relationships.sort(maximum ? byWeight.reversed() : byWeight);
+        final PagedAtomicDisjointSetStruct dss = new PagedAtomicDisjointSetStruct(NODES, AllocationTracker.EMPTY);
+        final double[] weights = new double[NODES];
+        int count = 0;
+        for (double[] r : relationships) {
+            if (dss.union((long) r[1], (long) r[2])) {
+                weights[count++] = r[0];
+            }
+        }
+        final double[] result = new double[count];
+        System.arraycopy(weights, 0, result, 0, count);
+        return result;
+    }
+}
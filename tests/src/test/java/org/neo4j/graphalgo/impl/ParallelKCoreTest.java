@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import com.carrotsearch.randomizedtesting.annotations.ThreadLeakLingering;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.huge.HugeNodeFilteredGraph;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.impl.kcore.ParallelKCore;
+import org.neo4j.graphalgo.impl.triangle.HugeTriangleCount;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@ThreadLeakLingering(linger = 1000)
+public class ParallelKCoreTest {
+
+    private static final int NODES = 3_000;
+    private static final int RELATIONSHIPS = 15_000;
+
+    private static GraphDatabaseAPI db;
+    private static HugeGraph graph;
+
+    @BeforeClass
+    public static void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        final Random random = new Random(42L);
+        final RelationshipType type = RelationshipType.withName("REL");
+        try (Transaction tx = db.beginTx()) {
+            final Node[] nodes = new Node[NODES];
+            for (int i = 0; i < NODES; i++) {
+                nodes[i] = db.createNode();
+            }
+            for (int i = 0; i < RELATIONSHIPS; i++) {
+                // skewed towards small ids to get a wide range of core numbers
+                final int source = (int) (NODES * Math.pow(random.nextDouble(), 2));
+                final int target = random.nextInt(NODES);
+                if (source != target) {
+                    nodes[source].createRelationshipTo(nodes[target], type);
+                }
+            }
+            tx.success();
+        }
+        graph = (HugeGraph) new GraphLoader(db)
+                .withAnyLabel()
+                .withAnyRelationshipType()
+                .asUndirected(true)
+                .load(HugeGraphFactory.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void testCoreNumbersMatchSequentialPeeling() {
+        final ParallelKCore kCore = kCore();
+        final int[] expected = sequentialCoreNumbers();
+        final int[] actual = new int[NODES];
+        for (int node = 0; node < NODES; node++) {
+            actual[node] = kCore.coreNumber(node);
+        }
+        assertArrayEquals(expected, actual);
+
+        int degeneracy = 0;
+        for (int core : expected) {
+            degeneracy = Math.max(degeneracy, core);
+        }
+        assertEquals(degeneracy, kCore.degeneracy());
+        assertTrue(kCore.degeneracy() > 2);
+    }
+
+    @Test
+    public void testCoreGraphContainsOnlyTheCore() {
+        final ParallelKCore kCore = kCore();
+        final int k = kCore.degeneracy() - 1;
+        final HugeNodeFilteredGraph core = kCore.coreGraph(k);
+        assertEquals(kCore.coreSize(k), core.nodeCount());
+
+        for (long node = 0L; node < core.nodeCount(); node++) {
+            final long graphNode = core.toGraphNodeId(node);
+            assertEquals(node, core.fromGraphNodeId(graphNode));
+            assertEquals(graph.toOriginalNodeId(graphNode), core.toOriginalNodeId(node));
+            // every node of the k-core has at least k neighbours in the k-core
+            assertTrue(core.degree(node, Direction.OUTGOING) >= k);
+            final long[] count = {0L};
+            core.forEachRelationship(node, Direction.OUTGOING, (s, t) -> {
+                assertTrue(kCore.coreNumber(core.toGraphNodeId(t)) >= k);
+                count[0]++;
+                return true;
+            });
+            assertEquals(core.degree(node, Direction.OUTGOING), count[0]);
+        }
+    }
+
+    @Test
+    public void testTriangleCountOnCoreGraph() {
+        final ParallelKCore kCore = kCore();
+        final int k = 2;
+        final HugeNodeFilteredGraph core = kCore.coreGraph(k);
+
+        final HugeTriangleCount onGraph = new HugeTriangleCount(graph, Pools.DEFAULT, 4, AllocationTracker.EMPTY)
+                .compute();
+        final HugeTriangleCount onCore = new HugeTriangleCount(core, Pools.DEFAULT, 4, AllocationTracker.EMPTY)
+                .compute();
+
+        // every triangle is part of the 2-core
+        assertEquals(onGraph.getTriangleCount(), onCore.getTriangleCount());
+        for (long node = 0L; node < core.nodeCount(); node++) {
+            assertEquals(
+                    onGraph.getTriangles().get(core.toGraphNodeId(node)),
+                    onCore.getTriangles().get(node));
+        }
+    }
+
+    private static ParallelKCore kCore() {
+        return new ParallelKCore(graph, Direction.OUTGOING, 4, Pools.DEFAULT, AllocationTracker.EMPTY).compute();
+    }
+
+    /**
+     * Repeatedly removes the node with the smallest degree.
+     */
+    private static int[] sequentialCoreNumbers() {
+        final int[] degrees = new int[NODES];
+        final boolean[] removed = new boolean[NODES];
+        final int[] cores = new int[NODES];
+        for (int node = 0; node < NODES; node++) {
+            degrees[node] = graph.degree(node, Direction.OUTGOING);
+        }
+        int k = 0;
+        for (int i = 0; i < NODES; i++) {
+            int min = -1;
+            for (int node = 0; node < NODES; node++) {
+                if (!removed[node] && (min == -1 || degrees[node] < degrees[min])) {
+                    min = node;
+                }
+            }
+            k = Math.max(k, degrees[min]);
+            cores[min] = k;
+            removed[min] = true;
+            graph.forEachRelationship(min, Direction.OUTGOING, (s, t) -> {
+                degrees[(int) t]--;
+                return true;
+            });
+        }
+        return cores;
+    }
+}